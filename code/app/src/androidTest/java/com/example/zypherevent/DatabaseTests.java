@@ -4,9 +4,13 @@ import com.example.zypherevent.userTypes.Administrator;
 import com.example.zypherevent.userTypes.Entrant;
 import com.example.zypherevent.userTypes.Organizer;
 import com.example.zypherevent.userTypes.User;
+import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
 
 import org.junit.*;
 import org.junit.runner.RunWith;
@@ -19,8 +23,12 @@ import androidx.test.ext.junit.runners.AndroidJUnit4;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
@@ -184,6 +192,26 @@ public class DatabaseTests {
         assertEquals("Fetched user should be identical to the original", testAdmin, fetchedUser);
     }
 
+    /**
+     * Tests that the event ID lists of entrants and organizers survive a round
+     * trip through the user decoder.
+     */
+    @Test
+    public void testUserEventListsDecoded() throws ExecutionException, InterruptedException {
+        testEntrant.addEventToRegisteredEventHistory(11L);
+        testEntrant.addEventToRegisteredEventHistory(12L);
+        testOrganizer.addCreatedEvent(21L);
+        Tasks.await(testDatabase.setUserData(testEntrant.getHardwareID(), testEntrant));
+        Tasks.await(testDatabase.setUserData(testOrganizer.getHardwareID(), testOrganizer));
+
+        Entrant fetchedEntrant = (Entrant) Tasks.await(testDatabase.getUser(testEntrant.getHardwareID()));
+        Organizer fetchedOrganizer = (Organizer) Tasks.await(testDatabase.getUser(testOrganizer.getHardwareID()));
+
+        assertEquals("Registered history should be decoded", Arrays.asList(11L, 12L),
+                fetchedEntrant.getRegisteredEventHistory());
+        assertEquals("Created events should be decoded", Arrays.asList(21L), fetchedOrganizer.getCreatedEvents());
+    }
+
     /**
      * Tests updating a user and using setUserData..
      * Verifies that changes to a user object are persisted.
@@ -218,6 +246,51 @@ public class DatabaseTests {
         assertNull("User should be null after being removed", fetchedUser);
     }
 
+    /**
+     * Tests getUsersByIds with duplicate and missing IDs. Users are returned by
+     * hardware ID with their correct subtype, and missing users are left out.
+     */
+    @Test
+    public void testGetUsersByIds() throws ExecutionException, InterruptedException {
+        Tasks.await(testDatabase.setUserData(testEntrant.getHardwareID(), testEntrant));
+        Tasks.await(testDatabase.setUserData(testOrganizer.getHardwareID(), testOrganizer));
+
+        Map<String, User> usersById = Tasks.await(testDatabase.getUsersByIds(Arrays.asList(
+                testEntrant.getHardwareID(),
+                testOrganizer.getHardwareID(),
+                testEntrant.getHardwareID(),
+                "id-that-does-not-exist")));
+
+        assertEquals("Only existing users should be returned", 2, usersById.size());
+        assertEquals("Entrant should match", testEntrant, usersById.get(testEntrant.getHardwareID()));
+        assertEquals("Organizer should match", testOrganizer, usersById.get(testOrganizer.getHardwareID()));
+        assertTrue("Entrant should keep its subtype", usersById.get(testEntrant.getHardwareID()) instanceof Entrant);
+    }
+
+    /**
+     * Tests that the user cache serves repeated reads, remembers missing users,
+     * and is invalidated when a user is written.
+     */
+    @Test
+    public void testUserCacheServesRepeatedReads() throws ExecutionException, InterruptedException {
+        UserCache cache = UserCache.getInstance();
+
+        // A missing user is cached as missing until it is written
+        assertNull("User should not exist yet", Tasks.await(testDatabase.getUser(testEntrant.getHardwareID())));
+        long hitsBefore = cache.getHitCount();
+        assertNull("Missing user should stay missing", Tasks.await(testDatabase.getUser(testEntrant.getHardwareID())));
+        assertEquals("Missing user should be served from the cache", hitsBefore + 1, cache.getHitCount());
+
+        Tasks.await(testDatabase.setUserData(testEntrant.getHardwareID(), testEntrant));
+        User fetchedUser = Tasks.await(testDatabase.getUser(testEntrant.getHardwareID()));
+        assertEquals("Read after a write should see the new user", testEntrant, fetchedUser);
+
+        // Each read returns its own object
+        fetchedUser.setFirstName("Changed Locally");
+        assertEquals("Cache should not be changed by callers", "Test",
+                Tasks.await(testDatabase.getUser(testEntrant.getHardwareID())).getFirstName());
+    }
+
     // EVENT TESTS
 
     /**
@@ -321,6 +394,66 @@ public class DatabaseTests {
 
     // NOTIFICATION TESTS
 
+    /**
+     * Tests that the category chosen by the sender is stored and read back, and
+     * that notifications created without one get a category from their text.
+     */
+    @Test
+    public void testNotificationCategoryStored() throws ExecutionException, InterruptedException {
+        Long newNotifID = Tasks.await(testDatabase.getUniqueNotificationID());
+        testNotification = new Notification(
+                newNotifID,
+                testOrganizer.getHardwareID(),
+                testEntrant.getHardwareID(),
+                "Invitation Update",
+                "Your invitation has been withdrawn.",
+                null,
+                false,
+                Notification.Category.CANCELLATION);
+        Tasks.await(testDatabase.setNotificationData(newNotifID, testNotification));
+
+        Notification fetched = Tasks.await(testDatabase.getNotification(newNotifID));
+        assertEquals("Category should be stored", Notification.Category.CANCELLATION, fetched.getCategory());
+
+        Notification guessed = new Notification(1L, "sender", "receiver", "You've Been Selected!",
+                "Congratulations!");
+        assertEquals("Category should be guessed from the title", Notification.Category.INVITATION,
+                guessed.getCategory());
+    }
+
+    /**
+     * Tests that, under the CACHE_FIRST read policy, a document written on this
+     * device is read back from the local cache and SERVER_ONLY skips the cache.
+     */
+    @Test
+    public void testCacheFirstReadPolicy() throws ExecutionException, InterruptedException {
+        Long newNotifID = Tasks.await(testDatabase.getUniqueNotificationID());
+        testNotification = new Notification(
+                newNotifID,
+                testOrganizer.getHardwareID(),
+                testEntrant.getHardwareID(),
+                "Cached Notification",
+                "Notification for testing the read policy");
+        Tasks.await(testDatabase.setNotificationData(newNotifID, testNotification));
+
+        try {
+            testDatabase.setReadPolicy(Database.ReadPolicy.CACHE_FIRST);
+            long cacheReadsBefore = testDatabase.getCacheReadCount();
+            Notification cached = Tasks.await(testDatabase.getNotification(newNotifID));
+            assertEquals("Cached notification should match", testNotification, cached);
+            assertEquals("The read should be served from the cache", cacheReadsBefore + 1,
+                    testDatabase.getCacheReadCount());
+
+            testDatabase.setReadPolicy(Database.ReadPolicy.SERVER_ONLY);
+            Notification fromServer = Tasks.await(testDatabase.getNotification(newNotifID));
+            assertEquals("Server notification should match", testNotification, fromServer);
+            assertEquals("The server read should not use the cache", cacheReadsBefore + 1,
+                    testDatabase.getCacheReadCount());
+        } finally {
+            testDatabase.setReadPolicy(Database.ReadPolicy.STALE_WHILE_REVALIDATE);
+        }
+    }
+
     /**
      * Tests setNotificationData and getNotification. Also verifies that the
      * implementation
@@ -453,6 +586,94 @@ public class DatabaseTests {
         testNotification = null; // set to null so @After doesn't try to delete it again
     }
 
+    /**
+     * Tests that a user's inbox lists notifications newest sent first, followed
+     * by notifications written before send times were stored.
+     */
+    @Test
+    public void testInboxIncludesNotificationsWithoutSendTime() throws ExecutionException, InterruptedException {
+        String inboxUser = "test-inbox-user";
+        List<Long> ids = Tasks.await(testDatabase.getUniqueNotificationIDs(3));
+        try {
+            for (int i = 0; i < 2; i++) {
+                Notification notification = new Notification(ids.get(i), testOrganizer.getHardwareID(), inboxUser,
+                        "Timed Notification " + i, "Notification with a send time");
+                Tasks.await(testDatabase.setNotificationData(ids.get(i), notification));
+            }
+
+            // Written the way notifications were before send times were stored
+            Map<String, Object> legacy = new HashMap<>();
+            legacy.put("notificationID", ids.get(2));
+            legacy.put("sendingUserHardwareID", testOrganizer.getHardwareID());
+            legacy.put("receivingUserHardwareID", inboxUser);
+            legacy.put("notificationHeader", "Legacy Notification");
+            legacy.put("notificationBody", "Notification without a send time");
+            Tasks.await(FirebaseFirestore.getInstance().collection(TEST_NOTIFICATIONS_COLLECTION)
+                    .document(String.valueOf(ids.get(2))).set(legacy));
+
+            Page<Notification> first = Tasks.await(testDatabase.getNotificationsForUser(inboxUser, 2, null));
+            assertEquals("First page should hold the timed notifications", Arrays.asList(ids.get(1), ids.get(0)),
+                    notificationIds(first));
+            assertTrue("A full page may have more after it", first.hasMore());
+
+            Page<Notification> second = Tasks.await(
+                    testDatabase.getNotificationsForUser(inboxUser, 2, first.getCursor()));
+            assertEquals("The legacy notification should come last", Arrays.asList(ids.get(2)),
+                    notificationIds(second));
+            assertFalse("A short page should be the last", second.hasMore());
+        } finally {
+            for (Long id : ids) {
+                Tasks.await(testDatabase.removeNotificationData(id));
+            }
+        }
+    }
+
+    /**
+     * Tests that the query for notifications after a given one only returns
+     * the user's later notifications, oldest first.
+     */
+    @Test
+    public void testNotificationsAfterQuery() throws ExecutionException, InterruptedException {
+        String inboxUser = "test-catch-up-user";
+        List<Long> ids = Tasks.await(testDatabase.getUniqueNotificationIDs(3));
+        try {
+            for (Long id : ids) {
+                Notification notification = new Notification(id, testOrganizer.getHardwareID(), inboxUser,
+                        "Catch-up Notification " + id, "Notification sent while catching up");
+                Tasks.await(testDatabase.setNotificationData(id, notification));
+            }
+
+            Timestamp firstSentTime = Tasks.await(FirebaseFirestore.getInstance()
+                    .collection(TEST_NOTIFICATIONS_COLLECTION)
+                    .document(String.valueOf(ids.get(0))).get()).getTimestamp("sentTime");
+            assertNotNull("Notifications should be stored with a send time", firstSentTime);
+
+            QuerySnapshot after = Tasks.await(testDatabase
+                    .getNotificationsAfterQuery(inboxUser, firstSentTime, ids.get(0)).get());
+            List<Long> afterIds = new ArrayList<>();
+            for (DocumentSnapshot doc : after.getDocuments()) {
+                afterIds.add(doc.getLong("notificationID"));
+            }
+            assertEquals("Only the later notifications should follow, oldest first",
+                    Arrays.asList(ids.get(1), ids.get(2)), afterIds);
+        } finally {
+            for (Long id : ids) {
+                Tasks.await(testDatabase.removeNotificationData(id));
+            }
+        }
+    }
+
+    /**
+     * Returns the IDs of the notifications on a page, in page order.
+     */
+    private static List<Long> notificationIds(Page<Notification> page) {
+        List<Long> ids = new ArrayList<>();
+        for (Notification notification : page.getItems()) {
+            ids.add(notification.getUniqueNotificationID());
+        }
+        return ids;
+    }
+
     // EXTRA DATABASE TESTS
 
     /**
@@ -481,6 +702,31 @@ public class DatabaseTests {
         assertEquals("Notif IDs should be sequential", id1 + 1, (long) id2);
     }
 
+    /**
+     * Tests that notification IDs reserved in bulk are unique and that IDs
+     * within a reserved block are handed out without fetching another block.
+     */
+    @Test
+    public void testUniqueIdBlockAllocation() throws ExecutionException, InterruptedException {
+        UniqueIdAllocator allocator = testDatabase.getNotificationIdAllocator();
+        int originalBlockSize = allocator.getBlockSize();
+        allocator.setBlockSize(50);
+
+        try {
+            List<Long> ids = Tasks.await(testDatabase.getUniqueNotificationIDs(45));
+            assertEquals("Should reserve the requested number of IDs", 45, ids.size());
+            assertEquals("Reserved IDs should be unique", 45, new HashSet<>(ids).size());
+
+            // The rest of the last block is held locally
+            long blocksBefore = allocator.getBlocksFetched();
+            Long next = Tasks.await(testDatabase.getUniqueNotificationID());
+            assertEquals("Next ID should follow the reserved IDs", ids.get(ids.size() - 1) + 1, (long) next);
+            assertEquals("No new block should be fetched", blocksBefore, allocator.getBlocksFetched());
+        } finally {
+            allocator.setBlockSize(originalBlockSize);
+        }
+    }
+
     /**
      * Tests that fetching non-existent documents reliably returns null.
      */
@@ -557,6 +803,421 @@ public class DatabaseTests {
         assertEquals("Should have 2 entrants", 2, fetchedEvent.getWaitListEntrants().size());
     }
 
+    /**
+     * Tests that the waitlist and invited counters follow joins, leaves and moves.
+     */
+    @Test
+    public void testEntrantCountersMaintained() throws ExecutionException, InterruptedException, ParseException {
+        Long newEventID = Tasks.await(testDatabase.getUniqueEventID());
+        testEvent = new Event(
+                newEventID,
+                "Counted Event",
+                "Test event for entrant counters",
+                Utils.createWholeDayDate("2099-12-01"),
+                "Test Location",
+                Utils.createWholeDayDate("2025-01-01"),
+                Utils.createWholeDayDate("2099-11-30"),
+                testOrganizer.getHardwareID(),
+                false);
+        Tasks.await(testDatabase.setEventData(newEventID, testEvent));
+
+        Entrant secondEntrant = new Entrant("test-entrant-2", "Jane", "Doe", "jane@test.com", "555-0002", false);
+        Tasks.await(testDatabase.addEntrantToWaitlist(String.valueOf(newEventID), testEntrant));
+        Tasks.await(testDatabase.addEntrantToWaitlist(String.valueOf(newEventID), secondEntrant));
+        Tasks.await(testDatabase.moveEntrantToInvited(String.valueOf(newEventID), testEntrant));
+
+        Event fetchedEvent = Tasks.await(testDatabase.getEvent(newEventID));
+        assertEquals("Waitlist count should be 1", 1, fetchedEvent.getWaitlistCount());
+        assertEquals("Invited count should be 1", 1, fetchedEvent.getInvitedCount());
+
+        Tasks.await(testDatabase.removeEntrantFromWaitlist(String.valueOf(newEventID), secondEntrant));
+        Tasks.await(testDatabase.removeEntrantFromInvited(String.valueOf(newEventID), testEntrant));
+
+        fetchedEvent = Tasks.await(testDatabase.getEvent(newEventID));
+        assertEquals("Waitlist count should be 0", 0, fetchedEvent.getWaitlistCount());
+        assertEquals("Invited count should be 0", 0, fetchedEvent.getInvitedCount());
+    }
+
+    /**
+     * Tests that repeated reads of an event are served from the event cache, and
+     * that a write drops the cached copy so the next read sees the change.
+     */
+    @Test
+    public void testEventCacheServesRepeatedReads() throws ExecutionException, InterruptedException, ParseException {
+        Long newEventID = Tasks.await(testDatabase.getUniqueEventID());
+        testEvent = new Event(
+                newEventID,
+                "Cached Event",
+                "Test event for the event cache",
+                Utils.createWholeDayDate("2099-12-01"),
+                "Test Location",
+                Utils.createWholeDayDate("2025-01-01"),
+                Utils.createWholeDayDate("2099-11-30"),
+                testOrganizer.getHardwareID(),
+                false);
+        Tasks.await(testDatabase.setEventData(newEventID, testEvent));
+
+        EventCache cache = EventCache.getInstance();
+        Tasks.await(testDatabase.getEvent(newEventID));
+        long hitsBefore = cache.getHitCount();
+
+        Event cached = Tasks.await(testDatabase.getEvent(newEventID));
+        assertEquals("Second read should be a cache hit", hitsBefore + 1, cache.getHitCount());
+        assertEquals("Cached event should match", "Cached Event", cached.getEventName());
+
+        // Changing the returned copy must not change the cache
+        cached.setEventName("Changed Locally");
+        assertEquals("Cache should hand out copies", "Cached Event",
+                Tasks.await(testDatabase.getEvent(newEventID)).getEventName());
+
+        Tasks.await(testDatabase.addEntrantToWaitlist(String.valueOf(newEventID), testEntrant));
+        Event updated = Tasks.await(testDatabase.getEvent(newEventID));
+        assertEquals("Read after a write should see the change", 1, updated.getWaitlistCount());
+    }
+
+    /**
+     * Tests that an event loaded before its document was invalidated is not
+     * cached, while one loaded afterwards is.
+     */
+    @Test
+    public void testEventCacheRefusesLoadOlderThanInvalidation() {
+        EventCache cache = new EventCache(4, EventCache.DEFAULT_MAX_AGE_MILLIS);
+        DocumentReference eventRef = FirebaseFirestore.getInstance()
+                .collection(TEST_EVENTS_COLLECTION)
+                .document("cache-generation");
+        Event event = new Event(1L, "Generation Event", null, null, null, null, null, testOrganizer.getHardwareID(), false);
+
+        long staleGeneration = cache.getGeneration();
+        cache.invalidate(eventRef);
+        assertFalse("A load older than the invalidation should not be cached",
+                cache.put(eventRef, event, staleGeneration));
+        assertNull(cache.get(eventRef));
+
+        assertTrue("A load started after the invalidation should be cached",
+                cache.put(eventRef, event, cache.getGeneration()));
+        assertNotNull(cache.get(eventRef));
+        cache.clear();
+    }
+
+    /**
+     * Tests that identical reads started at the same time share one Firestore
+     * read, and that each caller still gets its own event.
+     */
+    @Test
+    public void testConcurrentReadsAreCoalesced() throws ExecutionException, InterruptedException, ParseException {
+        Long newEventID = Tasks.await(testDatabase.getUniqueEventID());
+        testEvent = new Event(
+                newEventID,
+                "Coalesced Event",
+                "Test event for coalesced reads",
+                Utils.createWholeDayDate("2099-12-01"),
+                "Test Location",
+                Utils.createWholeDayDate("2025-01-01"),
+                Utils.createWholeDayDate("2099-11-30"),
+                testOrganizer.getHardwareID(),
+                false);
+        Tasks.await(testDatabase.setEventData(newEventID, testEvent));
+
+        long joinedBefore = testDatabase.getCoalescedReadCount();
+        Task<Event> first = testDatabase.getEvent(newEventID);
+        Task<Event> second = testDatabase.getEvent(newEventID);
+        Event firstEvent = Tasks.await(first);
+        Event secondEvent = Tasks.await(second);
+
+        assertEquals("Second read should join the first", joinedBefore + 1, testDatabase.getCoalescedReadCount());
+        assertEquals("Both callers should see the event", "Coalesced Event", secondEvent.getEventName());
+        assertNotSame("Each caller should get its own copy", firstEvent, secondEvent);
+    }
+
+    /**
+     * Tests that paging through every event summary visits each event once, in
+     * start time order, and that the last page says there is nothing after it.
+     */
+    @Test
+    public void testEventSummariesCursorPaging() throws ExecutionException, InterruptedException, ParseException {
+        List<Event> events = new ArrayList<>();
+        String[] startDates = { "2091-03-03", "2091-03-01", "2091-03-02" };
+        try {
+            for (String startDate : startDates) {
+                Long newEventID = Tasks.await(testDatabase.getUniqueEventID());
+                Event event = new Event(
+                        newEventID,
+                        "Paged Event " + startDate,
+                        "Test event for paging summaries",
+                        Utils.createWholeDayDate(startDate),
+                        "Test Location",
+                        Utils.createWholeDayDate("2025-01-01"),
+                        Utils.createWholeDayDate("2091-02-28"),
+                        testOrganizer.getHardwareID(),
+                        false);
+                Tasks.await(testDatabase.setEventData(newEventID, event));
+                events.add(event);
+            }
+
+            List<Long> seen = new ArrayList<>();
+            Date lastStart = null;
+            Page<EventSummary> page = null;
+            do {
+                page = Tasks.await(testDatabase.getEventSummariesPage(2, page != null ? page.getCursor() : null));
+                assertTrue("A page should hold at most the page size", page.getItems().size() <= 2);
+                for (EventSummary summary : page.getItems()) {
+                    if (lastStart != null && summary.getStartTime() != null) {
+                        assertFalse("Pages should be in start time order", summary.getStartTime().before(lastStart));
+                    }
+                    lastStart = summary.getStartTime();
+                }
+                seen.addAll(summaryIds(page));
+            } while (page.hasMore());
+
+            assertEquals("Pages should not repeat an event", new HashSet<>(seen).size(), seen.size());
+            int first = seen.indexOf(events.get(1).getUniqueEventID());
+            int second = seen.indexOf(events.get(2).getUniqueEventID());
+            int third = seen.indexOf(events.get(0).getUniqueEventID());
+            assertTrue("Every event should be paged in", first >= 0 && second >= 0 && third >= 0);
+            assertTrue("Events should follow their start times", first < second && second < third);
+        } finally {
+            for (Event event : events) {
+                Tasks.await(testDatabase.removeEventData(event.getUniqueEventID()));
+            }
+        }
+    }
+
+    /**
+     * Tests that a date range is applied by the summary query, including when
+     * paging through the range with a cursor.
+     */
+    @Test
+    public void testEventSummariesDateRange() throws ExecutionException, InterruptedException, ParseException {
+        // Start far in the future so no other test event falls in the ranges
+        List<Event> events = new ArrayList<>();
+        String[] startDates = { "2092-03-03", "2092-03-01", "2092-03-02", "2092-06-01" };
+        try {
+            for (String startDate : startDates) {
+                Long newEventID = Tasks.await(testDatabase.getUniqueEventID());
+                Event event = new Event(
+                        newEventID,
+                        "Ranged Event " + startDate,
+                        "Test event for date range filters",
+                        Utils.createWholeDayDate(startDate),
+                        "Test Location",
+                        Utils.createWholeDayDate("2025-01-01"),
+                        Utils.createWholeDayDate("2092-02-28"),
+                        testOrganizer.getHardwareID(),
+                        false);
+                Tasks.await(testDatabase.setEventData(newEventID, event));
+                events.add(event);
+            }
+
+            Date march1 = Utils.createWholeDayDate("2092-03-01");
+            Date march31 = Utils.createWholeDayDate("2092-03-31");
+
+            Page<EventSummary> first = Tasks.await(testDatabase.getEventSummariesPage(march1, march31, 2, null));
+            assertEquals("First page should be full", Arrays.asList(events.get(1).getUniqueEventID(),
+                    events.get(2).getUniqueEventID()), summaryIds(first));
+            assertTrue("A full page may have more after it", first.hasMore());
+
+            Page<EventSummary> second = Tasks.await(
+                    testDatabase.getEventSummariesPage(march1, march31, 2, first.getCursor()));
+            assertEquals("Second page should continue after the first",
+                    Arrays.asList(events.get(0).getUniqueEventID()), summaryIds(second));
+            assertFalse("A short page should be the last", second.hasMore());
+
+            Page<EventSummary> later = Tasks.await(testDatabase.getEventSummariesPage(
+                    Utils.createWholeDayDate("2092-04-01"), null, 10, null));
+            assertTrue("An open-ended range should include later events",
+                    summaryIds(later).contains(events.get(3).getUniqueEventID()));
+            assertFalse("An open-ended range should exclude earlier events",
+                    summaryIds(later).contains(events.get(0).getUniqueEventID()));
+        } finally {
+            for (Event event : events) {
+                Tasks.await(testDatabase.removeEventData(event.getUniqueEventID()));
+            }
+        }
+    }
+
+    /**
+     * Returns the IDs of the summaries on a page, in page order.
+     */
+    private static List<Long> summaryIds(Page<EventSummary> page) {
+        List<Long> ids = new ArrayList<>();
+        for (EventSummary summary : page.getItems()) {
+            ids.add(summary.getUniqueEventID());
+        }
+        return ids;
+    }
+
+    /**
+     * Tests that, under the CACHE_FIRST read policy, a lookup by ID is only
+     * answered from the local cache when every requested event is cached, and
+     * that collection queries always go to the server.
+     */
+    @Test
+    public void testCacheFirstPartialLookup() throws ExecutionException, InterruptedException, ParseException {
+        Long newEventID = Tasks.await(testDatabase.getUniqueEventID());
+        testEvent = new Event(
+                newEventID,
+                "Partially Cached Event",
+                "Test event for partial cache lookups",
+                Utils.createWholeDayDate("2099-12-01"),
+                "Test Location",
+                Utils.createWholeDayDate("2025-01-01"),
+                Utils.createWholeDayDate("2099-11-30"),
+                testOrganizer.getHardwareID(),
+                false);
+        Tasks.await(testDatabase.setEventData(newEventID, testEvent));
+
+        try {
+            testDatabase.setReadPolicy(Database.ReadPolicy.CACHE_FIRST);
+            long cacheReadsBefore = testDatabase.getCacheReadCount();
+            List<Event> cached = Tasks.await(testDatabase.getEventsByIds(Arrays.asList(newEventID)));
+            assertEquals("Cached event should be found", 1, cached.size());
+            assertEquals("A fully cached lookup should be served from the cache", cacheReadsBefore + 1,
+                    testDatabase.getCacheReadCount());
+
+            // The second ID does not exist, so the cache can't prove the answer complete
+            List<Event> partial = Tasks.await(testDatabase.getEventsByIds(Arrays.asList(newEventID, -99L)));
+            assertEquals("Only the existing event should be found", 1, partial.size());
+            assertEquals("A partly cached lookup should go to the server", cacheReadsBefore + 1,
+                    testDatabase.getCacheReadCount());
+
+            Tasks.await(testDatabase.getEventSummariesPage(10, null));
+            assertEquals("A collection query should go to the server", cacheReadsBefore + 1,
+                    testDatabase.getCacheReadCount());
+        } finally {
+            testDatabase.setReadPolicy(Database.ReadPolicy.STALE_WHILE_REVALIDATE);
+        }
+    }
+
+    /**
+     * Tests that migrating a waitlist to the subcollection keeps its entrants, and
+     * that joining, leaving and inviting keep working after the migration.
+     */
+    @Test
+    public void testWaitlistSubcollectionMigration() throws ExecutionException, InterruptedException, ParseException {
+        Long newEventID = Tasks.await(testDatabase.getUniqueEventID());
+        testEvent = new Event(
+                newEventID,
+                "Migrated Event",
+                "Test event with a subcollection waitlist",
+                Utils.createWholeDayDate("2099-12-01"),
+                "Test Location",
+                Utils.createWholeDayDate("2025-01-01"),
+                Utils.createWholeDayDate("2099-11-30"),
+                testOrganizer.getHardwareID(),
+                false);
+        Tasks.await(testDatabase.setEventData(newEventID, testEvent));
+        Tasks.await(testDatabase.addEntrantToWaitlist(String.valueOf(newEventID), testEntrant));
+
+        Tasks.await(testDatabase.migrateWaitlistToSubcollection(newEventID));
+
+        Event migrated = Tasks.await(testDatabase.getEvent(newEventID));
+        assertEquals("Event should be in subcollection mode", Event.WaitlistStorageMode.SUBCOLLECTION,
+                migrated.getWaitlistStorageMode());
+        assertTrue("Waitlist entries should not be loaded with the event", migrated.getWaitListEntrants().isEmpty());
+        assertEquals("Migrated waitlist should keep its count", 1, migrated.getWaitlistCount());
+        assertEquals("Migrated waitlist should keep its entrant", 1,
+                Tasks.await(testDatabase.getWaitlistEntries(migrated)).size());
+
+        Entrant secondEntrant = new Entrant("test-entrant-2", "Jane", "Doe", "jane@test.com", "555-0002", false);
+        Tasks.await(testDatabase.addEntrantToWaitlist(String.valueOf(newEventID), secondEntrant));
+        Tasks.await(testDatabase.moveEntrantToInvited(String.valueOf(newEventID), testEntrant));
+
+        Event fetchedEvent = Tasks.await(testDatabase.getEvent(newEventID));
+        Page<WaitlistEntry> waitlistPage = Tasks.await(testDatabase.getWaitlist(newEventID, 10, null));
+        assertEquals("Only the second entrant should be waitlisted", 1, waitlistPage.getItems().size());
+        assertEquals("Second entrant should be on the waitlist", secondEntrant.getHardwareID(),
+                waitlistPage.getItems().get(0).getEntrantHardwareID());
+        assertFalse("A short page should be the last", waitlistPage.hasMore());
+        assertTrue("First entrant should be invited",
+                fetchedEvent.getInvitedEntrants().contains(testEntrant.getHardwareID()));
+
+        // Saving a stale copy of the event must not rewrite the waitlist
+        migrated.setEventName("Renamed Event");
+        Tasks.await(testDatabase.setEventData(newEventID, migrated));
+        Event renamed = Tasks.await(testDatabase.getEvent(newEventID));
+        assertEquals("Event fields should be saved", "Renamed Event", renamed.getEventName());
+        assertEquals("Waitlist should be untouched", 1, Tasks.await(testDatabase.getWaitlistEntries(renamed)).size());
+        assertEquals("Waitlist count should be untouched", 1, renamed.getWaitlistCount());
+
+        Tasks.await(testDatabase.removeEntrantsFromWaitlist(newEventID,
+                Arrays.asList(secondEntrant.getHardwareID(), "not-on-waitlist")));
+        Event emptied = Tasks.await(testDatabase.getEvent(newEventID));
+        assertTrue("Waitlist should be empty", Tasks.await(testDatabase.getWaitlistEntries(emptied)).isEmpty());
+        assertEquals("Only existing entries should be counted", 0, emptied.getWaitlistCount());
+    }
+
+    /**
+     * Tests that a subcollection waitlist is paged in the order entrants joined.
+     */
+    @Test
+    public void testWaitlistPaging() throws ExecutionException, InterruptedException, ParseException {
+        Long newEventID = Tasks.await(testDatabase.getUniqueEventID());
+        testEvent = new Event(
+                newEventID,
+                "Paged Waitlist Event",
+                "Test event with a paged waitlist",
+                Utils.createWholeDayDate("2099-12-01"),
+                "Test Location",
+                Utils.createWholeDayDate("2025-01-01"),
+                Utils.createWholeDayDate("2099-11-30"),
+                testOrganizer.getHardwareID(),
+                false);
+        Tasks.await(testDatabase.setEventData(newEventID, testEvent));
+        Tasks.await(testDatabase.migrateWaitlistToSubcollection(newEventID));
+
+        Entrant secondEntrant = new Entrant("test-entrant-2", "Jane", "Doe", "jane@test.com", "555-0002", false);
+        Entrant thirdEntrant = new Entrant("test-entrant-3", "John", "Doe", "john@test.com", "555-0003", false);
+        Tasks.await(testDatabase.addEntrantToWaitlist(String.valueOf(newEventID), testEntrant));
+        Tasks.await(testDatabase.addEntrantToWaitlist(String.valueOf(newEventID), secondEntrant));
+        Tasks.await(testDatabase.addEntrantToWaitlist(String.valueOf(newEventID), thirdEntrant));
+
+        Page<WaitlistEntry> first = Tasks.await(testDatabase.getWaitlist(newEventID, 2, null));
+        assertEquals("First page should be full", 2, first.getItems().size());
+        assertEquals("Earliest entrant should come first", testEntrant.getHardwareID(),
+                first.getItems().get(0).getEntrantHardwareID());
+        assertTrue("A full page may have more after it", first.hasMore());
+
+        Page<WaitlistEntry> second = Tasks.await(testDatabase.getWaitlist(newEventID, 2, first.getCursor()));
+        assertEquals("Second page should hold the rest", 1, second.getItems().size());
+        assertEquals("Latest entrant should come last", thirdEntrant.getHardwareID(),
+                second.getItems().get(0).getEntrantHardwareID());
+        assertFalse("A short page should be the last", second.hasMore());
+
+        Event fetched = Tasks.await(testDatabase.getEvent(newEventID));
+        assertEquals("The count should cover every entrant", 3, fetched.getWaitlistCount());
+    }
+
+    /**
+     * Tests that the same entrant joining a subcollection waitlist twice at once
+     * is only counted once.
+     */
+    @Test
+    public void testConcurrentSubcollectionJoinsCountedOnce()
+            throws ExecutionException, InterruptedException, ParseException {
+        Long newEventID = Tasks.await(testDatabase.getUniqueEventID());
+        testEvent = new Event(
+                newEventID,
+                "Double Join Event",
+                "Test event for concurrent joins",
+                Utils.createWholeDayDate("2099-12-01"),
+                "Test Location",
+                Utils.createWholeDayDate("2025-01-01"),
+                Utils.createWholeDayDate("2099-11-30"),
+                testOrganizer.getHardwareID(),
+                false);
+        Tasks.await(testDatabase.setEventData(newEventID, testEvent));
+        Tasks.await(testDatabase.migrateWaitlistToSubcollection(newEventID));
+
+        Task<Void> first = testDatabase.addEntrantToWaitlist(String.valueOf(newEventID), testEntrant);
+        Task<Void> second = testDatabase.addEntrantToWaitlist(String.valueOf(newEventID), testEntrant);
+        Tasks.await(Tasks.whenAll(first, second));
+
+        Event fetched = Tasks.await(testDatabase.getEvent(newEventID));
+        assertEquals("The entrant should be counted once", 1, fetched.getWaitlistCount());
+        assertEquals("The entrant should have one entry", 1,
+                Tasks.await(testDatabase.getWaitlistEntries(fetched)).size());
+    }
+
     // REGISTRATION PERIOD TESTS
 
     /**
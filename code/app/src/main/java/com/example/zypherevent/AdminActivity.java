@@ -36,7 +36,7 @@ public class AdminActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
 
         // create new instance of database
-        db = new Database();
+        db = Database.getInstance();
 
         // Get the Admin user object that was passed along from MainActivity
         adminUser = (Administrator) getIntent().getSerializableExtra("adminUser");
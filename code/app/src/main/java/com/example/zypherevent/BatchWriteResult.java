@@ -0,0 +1,119 @@
+package com.example.zypherevent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @version 1.0
+ * @see Database#setNotificationDataBatch(List)
+ *
+ *      Represents the outcome of a write that was split into several Firestore
+ *      {@code WriteBatch} commits. Each chunk commits atomically on its own, so
+ *      a bulk write can partially succeed. This class records how many chunks
+ *      and documents were written and which document IDs failed.
+ */
+public class BatchWriteResult {
+
+    /** Number of chunks that committed successfully. */
+    private int succeededChunks;
+
+    /** Number of chunks whose commit failed. */
+    private int failedChunks;
+
+    /** Number of documents written by successful chunks. */
+    private int succeededWrites;
+
+    /** IDs of the documents in chunks whose commit failed. */
+    private final List<String> failedDocumentIds = new ArrayList<>();
+
+    /** The first exception raised by a failed chunk, or null if none failed. */
+    private Exception firstError;
+
+    /**
+     * Records a chunk that committed successfully.
+     *
+     * @param writeCount the number of documents written by the chunk
+     */
+    public void recordSuccess(int writeCount) {
+        succeededChunks++;
+        succeededWrites += writeCount;
+    }
+
+    /**
+     * Records a chunk whose commit failed.
+     *
+     * @param documentIds the IDs of the documents in the failed chunk
+     * @param error       the exception raised by the commit
+     */
+    public void recordFailure(List<String> documentIds, Exception error) {
+        failedChunks++;
+        failedDocumentIds.addAll(documentIds);
+        if (firstError == null) {
+            firstError = error;
+        }
+    }
+
+    /**
+     * Returns the number of chunks that committed successfully.
+     *
+     * @return the succeeded chunk count
+     */
+    public int getSucceededChunks() {
+        return succeededChunks;
+    }
+
+    /**
+     * Returns the number of chunks whose commit failed.
+     *
+     * @return the failed chunk count
+     */
+    public int getFailedChunks() {
+        return failedChunks;
+    }
+
+    /**
+     * Returns the number of documents written by successful chunks.
+     *
+     * @return the succeeded write count
+     */
+    public int getSucceededWrites() {
+        return succeededWrites;
+    }
+
+    /**
+     * Returns the number of documents that were not written.
+     *
+     * @return the failed write count
+     */
+    public int getFailedWrites() {
+        return failedDocumentIds.size();
+    }
+
+    /**
+     * Returns the IDs of the documents in chunks whose commit failed.
+     *
+     * @return an unmodifiable list of failed document IDs
+     */
+    public List<String> getFailedDocumentIds() {
+        return Collections.unmodifiableList(failedDocumentIds);
+    }
+
+    /**
+     * Returns the first exception raised by a failed chunk.
+     *
+     * @return the first error, or null if every chunk succeeded
+     */
+    public Exception getFirstError() {
+        return firstError;
+    }
+
+    /**
+     * Returns whether every chunk committed successfully.
+     *
+     * @return true if no chunk failed
+     */
+    public boolean isFullySuccessful() {
+        return failedChunks == 0;
+    }
+}
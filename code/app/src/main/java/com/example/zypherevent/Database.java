@@ -2,24 +2,48 @@ package com.example.zypherevent;
 
 import android.util.Log;
 
+import androidx.lifecycle.LifecycleOwner;
+
 import com.example.zypherevent.userTypes.Administrator;
 import com.example.zypherevent.userTypes.Entrant;
 import com.example.zypherevent.userTypes.Organizer;
 import com.example.zypherevent.userTypes.User;
-import com.example.zypherevent.userTypes.UserType;
+import com.google.android.gms.tasks.CancellationToken;
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskExecutors;
 import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.PersistentCacheSettings;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.WriteBatch;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Elliot Chrystal
@@ -37,12 +61,98 @@ import java.util.Map;
  *      collections,
  *      ensuring consistent handling of data throughout the system.
  *
- *      Database implements serializable so that it can be passed between
- *      activities with intent.
+ *      The app uses one shared instance, returned by {@link #getInstance()},
+ *      so that collection references, ID allocators, caches and open
+ *      listeners are created once per process rather than once per screen.
+ *
+ *      Reads follow a {@link ReadPolicy}. By default single documents, and
+ *      lookups by ID whose whole result is cached, are answered from
+ *      Firestore's persistent local cache, and the server is read in the
+ *      background to catch up with any change. Other queries cannot tell a
+ *      partial cached result from a complete one, so they go to the server.
  *
  */
 public class Database {
 
+    /** The maximum number of values Firestore allows in a single whereIn query. */
+    public static final int WHERE_IN_CHUNK_SIZE = 30;
+
+    /** The maximum number of chunked queries a multi-get keeps in flight at once. */
+    public static final int MAX_CONCURRENT_QUERIES = 4;
+
+    /** The number of waitlist entries read per page of a waitlist subcollection. */
+    public static final int WAITLIST_PAGE_SIZE = 200;
+
+    /** The maximum number of writes Firestore allows in a single WriteBatch. */
+    public static final int MAX_BATCH_WRITES = 500;
+
+    /** Name of the per-event subcollection holding waitlist entries in SUBCOLLECTION mode. */
+    public static final String WAITLIST_SUBCOLLECTION = "waitlist";
+
+    /**
+     * The event fields written by {@link #setEventData} for events in
+     * SUBCOLLECTION mode. The waitlist and {@code waitlistCount} are missing on
+     * purpose; they are only changed by the waitlist operations.
+     */
+    private static final List<String> SUBCOLLECTION_EVENT_FIELDS = Collections.unmodifiableList(Arrays.asList(
+            "uniqueEventID", "eventName", "eventDescription", "lotteryCriteria", "startTime", "location",
+            "registrationStartTime", "registrationEndTime", "posterURL", "eventOrganizerHardwareID",
+            "requiresGeolocation", "waitlistLimit", "waitlistStorageMode",
+            "invitedEntrants", "acceptedEntrants", "declinedEntrants", "cancelledEntrants",
+            "invitedCount", "acceptedCount", "declinedCount", "cancelledCount"));
+
+    /** Name of the collection holding the list-row projection of each event. */
+    public static final String EVENT_SUMMARIES_COLLECTION = "event_summaries";
+
+    /** The send time given to notifications written before send times were stored. */
+    public static final Timestamp LEGACY_NOTIFICATION_SENT_TIME = new Timestamp(0, 0);
+
+    /** Size of Firestore's persistent local cache, in bytes. */
+    public static final long PERSISTENT_CACHE_SIZE_BYTES = 100L * 1024 * 1024;
+
+    /**
+     * Where reads are answered from.
+     */
+    public enum ReadPolicy {
+        /**
+         * Always ask the server. The local cache is only used when the device
+         * is offline.
+         */
+        SERVER_ONLY,
+
+        /**
+         * Answer single documents, and lookups by ID whose every document is
+         * cached, from the local cache, and ask the server otherwise. Other
+         * queries always ask the server.
+         */
+        CACHE_FIRST,
+
+        /**
+         * Like {@link #CACHE_FIRST}, but also read the server in the
+         * background. That refreshes the local cache, drops changed
+         * documents from the {@link EventCache} and {@link UserCache}, and
+         * passes changed events to the {@link OnEventRefreshListener}s.
+         */
+        STALE_WHILE_REVALIDATE
+    }
+
+    /**
+     * Receives events that were answered from the local cache and have since
+     * been found to be out of date.
+     */
+    public interface OnEventRefreshListener {
+        /**
+         * Called on the main thread with the server's version of an event.
+         *
+         * @param eventID the unique identifier of the event
+         * @param event   the up-to-date event, or null if it has been deleted
+         */
+        void onEventRefreshed(Long eventID, Event event);
+    }
+
+    /** Whether the Firestore settings have been applied in this process. */
+    private static boolean firestoreConfigured = false;
+
     /** Reference to the Firebase Firestore instance. */
     private FirebaseFirestore db;
 
@@ -52,22 +162,91 @@ public class Database {
     /** Reference to the Firestore collection containing event data. */
     private CollectionReference eventsCollection;
 
+    /** Reference to the Firestore collection containing event summaries. */
+    private CollectionReference eventSummariesCollection;
+
     /** Reference to the Firestore collection containing notification data. */
     private CollectionReference notificationCollection;
 
     /** Reference to the Firestore collection containing extra data. */
     private CollectionReference extrasCollection;
 
+    /** Whether the event summaries are known to have been built for every event. */
+    private volatile boolean eventSummariesBuilt = false;
+
+    /** Whether every notification is known to have a {@code sentTime}. */
+    private volatile boolean notificationSentTimesBackfilled = false;
+
+    /** Hands out event IDs from blocks reserved on the unique ID counter. */
+    private UniqueIdAllocator eventIdAllocator;
+
+    /** Hands out notification IDs from blocks reserved on the unique ID counter. */
+    private UniqueIdAllocator notificationIdAllocator;
+
+    /** Process-wide cache of events loaded by {@link #getEvent(Long)}. */
+    private final EventCache eventCache = EventCache.getInstance();
+
+    /** Process-wide cache of user documents loaded by {@link #getUser(String)}. */
+    private final UserCache userCache = UserCache.getInstance();
+
+    /** Joins concurrent identical reads onto one in-flight Task. */
+    private final SingleFlight singleFlight = SingleFlight.getInstance();
+
+    /** Runs Task continuations, and the parsing in them, off the main thread. */
+    private final MappingExecutor mappingExecutor = MappingExecutor.getInstance();
+
+    /** Snapshot listeners opened by the app, removed with their screens. */
+    private final ListenerRegistry listenerRegistry = new ListenerRegistry();
+
+    /** Where reads are answered from. */
+    private volatile ReadPolicy readPolicy = ReadPolicy.STALE_WHILE_REVALIDATE;
+
+    /** Listeners told about events that were stale in the local cache. */
+    private final Set<OnEventRefreshListener> eventRefreshListeners = new CopyOnWriteArraySet<>();
+
+    /**
+     * Paths of documents written in a transaction. Transactions do not update
+     * the local cache, so the next read of these goes to the server.
+     */
+    private final Set<String> serverReadRequired = ConcurrentHashMap.newKeySet();
+
+    /** Number of reads answered from the local cache. */
+    private final AtomicLong cacheReads = new AtomicLong();
+
+    /** Number of background server reads that found the cached copy out of date. */
+    private final AtomicLong staleCacheReads = new AtomicLong();
+
+    /** The shared instance using the production collections. */
+    private static Database instance;
+
+    /**
+     * Returns the shared Database instance using the production collections.
+     * Activities, fragments, adapters and services should use this instead of
+     * creating their own, so they share its caches, ID allocators and
+     * listeners.
+     *
+     * @return the shared Database instance
+     */
+    public static synchronized Database getInstance() {
+        if (instance == null) {
+            instance = new Database();
+        }
+        return instance;
+    }
+
     /**
      * Constructs a new Database instance and initializes references
-     * to the Firestore database and its key collections.
+     * to the Firestore database and its key collections. Use
+     * {@link #getInstance()} to get the shared instance.
      */
-    public Database() {
-        this.db = FirebaseFirestore.getInstance();
+    private Database() {
+        this.db = configuredFirestore();
         usersCollection = db.collection("users");
         eventsCollection = db.collection("events");
+        eventSummariesCollection = db.collection(EVENT_SUMMARIES_COLLECTION);
         notificationCollection = db.collection("notifications");
         extrasCollection = db.collection("extras");
+        initIdAllocators();
     }
 
     /**
@@ -79,11 +258,50 @@ public class Database {
      */
     public Database(String usersCollectionName, String eventsCollectionName, String notificationCollectionName,
             String extrasCollectionName) {
-        this.db = FirebaseFirestore.getInstance();
+        this.db = configuredFirestore();
         usersCollection = db.collection(usersCollectionName);
         eventsCollection = db.collection(eventsCollectionName);
+        eventSummariesCollection = db.collection(eventsCollectionName + "_summaries");
         notificationCollection = db.collection(notificationCollectionName);
         extrasCollection = db.collection(extrasCollectionName);
+        initIdAllocators();
+    }
+
+    /**
+     * Returns the Firestore instance, applying the persistent cache settings
+     * the first time it is called. Settings can only be applied before the
+     * instance is first used, so this must run before any other Firestore
+     * call.
+     *
+     * @return the configured Firestore instance
+     */
+    private static synchronized FirebaseFirestore configuredFirestore() {
+        FirebaseFirestore firestore = FirebaseFirestore.getInstance();
+        if (!firestoreConfigured) {
+            firestoreConfigured = true;
+            try {
+                firestore.setFirestoreSettings(new FirebaseFirestoreSettings.Builder()
+                        .setLocalCacheSettings(PersistentCacheSettings.newBuilder()
+                                .setSizeBytes(PERSISTENT_CACHE_SIZE_BYTES)
+                                .build())
+                        .build());
+            } catch (IllegalStateException e) {
+                Log.e("Database", "Firestore was used before its cache settings could be applied", e);
+            }
+        }
+        return firestore;
+    }
+
+    /**
+     * Creates the event and notification ID allocators on the
+     * "uniqueIdentifierData" counter document.
+     */
+    private void initIdAllocators() {
+        DocumentReference uniqueRef = extrasCollection.document("uniqueIdentifierData");
+        eventIdAllocator = new UniqueIdAllocator(db, uniqueRef, "curEvent",
+                UniqueIdAllocator.DEFAULT_BLOCK_SIZE);
+        notificationIdAllocator = new UniqueIdAllocator(db, uniqueRef, "curNotification",
+                UniqueIdAllocator.DEFAULT_BLOCK_SIZE);
     }
 
     /**
@@ -94,9 +312,16 @@ public class Database {
      * @return a Task representing the asynchronous database operation
      */
     public Task<Void> setUserData(String hardwareID, User user) {
-        return usersCollection
-                .document(hardwareID)
-                .set(user);
+        DocumentReference userRef = usersCollection.document(hardwareID);
+        userCache.invalidate(userRef);
+        return userRef
+                .set(user)
+                .continueWithTask(mappingExecutor, task -> {
+                    // Drop anything cached or read while the write was in flight
+                    singleFlight.forget(userRef);
+                    userCache.invalidate(userRef);
+                    return task;
+                });
     }
 
     /**
@@ -106,9 +331,16 @@ public class Database {
      * @return a Task representing the asynchronous database operation
      */
     public Task<Void> removeUserData(String hardwareID) {
-        return usersCollection
-                .document(hardwareID)
-                .delete();
+        DocumentReference userRef = usersCollection.document(hardwareID);
+        userCache.invalidate(userRef);
+        return userRef
+                .delete()
+                .continueWithTask(mappingExecutor, task -> {
+                    // Drop anything cached or read while the write was in flight
+                    singleFlight.forget(userRef);
+                    userCache.invalidate(userRef);
+                    return task;
+                });
     }
 
     /**
@@ -119,20 +351,29 @@ public class Database {
      * Administrator) based on its UserType.
      * If the document does not exist or cannot be parsed, the result will be
      * {@code null}.
+     * <p>
+     * Users, and users that do not exist, are served from the process-wide
+     * {@link UserCache} until their entry expires or is written locally.
      *
      * @param hardwareID the unique hardware identifier of the user
      * @return a Task that resolves to the retrieved User object, or null if not
      *         found
      */
     public Task<User> getUser(String hardwareID) {
-        return usersCollection
-                .document(hardwareID)
-                .get()
-                .continueWith(task -> {
+        DocumentReference userRef = usersCollection.document(hardwareID);
+
+        UserCache.Entry cached = userCache.get(userRef);
+        if (cached != null) {
+            return Tasks.forResult(cached.exists() ? UserMapper.fromSnapshot(cached.getSnapshot()) : null);
+        }
+
+        return coalesced(userRef)
+                .continueWith(mappingExecutor, task -> {
                     if (!task.isSuccessful())
                         throw task.getException();
 
                     DocumentSnapshot doc = task.getResult();
+                    userCache.put(userRef, doc);
 
                     // If the user document doesn't exist, return null
                     if (doc == null || !doc.exists()) {
@@ -140,31 +381,153 @@ public class Database {
                         return null;
                     }
 
-                    User userObject = doc.toObject(User.class);
+                    return UserMapper.fromSnapshot(doc);
+                });
+    }
 
-                    if (userObject == null) {
-                        Log.e("Database", "User object retrieved, but null?");
-                        return null;
+    /**
+     * Retrieves many users from the Firestore "users" collection in a few
+     * queries instead of one read per user.
+     * <p>
+     * The hardware IDs are de-duplicated and split into chunks of
+     * {@link #WHERE_IN_CHUNK_SIZE}, and each chunk is fetched with a
+     * {@code whereIn} query on the document ID. At most
+     * {@link #MAX_CONCURRENT_QUERIES} chunk queries are in flight at once.
+     * Users found in the {@link UserCache} are not queried again.
+     *
+     * @param hardwareIDs the hardware IDs of the users to look up
+     * @return a Task that resolves to a map from hardware ID to User. Users that
+     *         do not exist or cannot be parsed are absent from the map. The task
+     *         fails if any chunk query fails.
+     */
+    public Task<Map<String, User>> getUsersByIds(Collection<String> hardwareIDs) {
+        return getUsersByIds(hardwareIDs, null, null);
+    }
+
+    /**
+     * Retrieves many users like {@link #getUsersByIds(Collection)}, reporting
+     * each chunk of users as soon as its query finishes and stopping early if
+     * cancelled. Users served from the {@link UserCache} are only part of the
+     * final result.
+     *
+     * @param hardwareIDs       the hardware IDs of the users to look up
+     * @param cancellationToken stops starting chunk queries when cancellation is
+     *                          requested, or null
+     * @param onChunkLoaded     receives the IDs of each queried chunk and the
+     *                          users found for it, on the main thread, or null
+     * @return a Task that resolves to a map from hardware ID to User, or fails
+     *         if any chunk query fails or the load is cancelled
+     */
+    public Task<Map<String, User>> getUsersByIds(Collection<String> hardwareIDs,
+            CancellationToken cancellationToken,
+            TaskFanOut.OnResultListener<List<String>, Map<String, User>> onChunkLoaded) {
+        Map<String, User> usersById = new HashMap<>();
+        List<String> uncachedIds = new ArrayList<>();
+
+        Set<String> uniqueIds = new LinkedHashSet<>();
+        if (hardwareIDs != null) {
+            for (String hardwareID : hardwareIDs) {
+                if (hardwareID != null && !hardwareID.isEmpty()) {
+                    uniqueIds.add(hardwareID);
+                }
+            }
+        }
+
+        for (String hardwareID : uniqueIds) {
+            UserCache.Entry cached = userCache.get(usersCollection.document(hardwareID));
+            if (cached == null) {
+                uncachedIds.add(hardwareID);
+            } else if (cached.exists()) {
+                User user = UserMapper.fromSnapshot(cached.getSnapshot());
+                if (user != null) {
+                    usersById.put(hardwareID, user);
+                }
+            }
+        }
+
+        List<List<String>> chunks = chunkIds(uncachedIds);
+        if (chunks.isEmpty()) {
+            return Tasks.forResult(usersById);
+        }
+
+        // Chunks finish on the mapping executor; only the listener is posted to the main thread
+        TaskFanOut.OnResultListener<List<String>, Map<String, User>> listener = onChunkLoaded == null ? null
+                : (chunk, chunkUsers) -> TaskExecutors.MAIN_THREAD.execute(() -> onChunkLoaded.onResult(chunk, chunkUsers));
+        return TaskFanOut.start(chunks, MAX_CONCURRENT_QUERIES, this::loadUserChunk, listener,
+                cancellationToken, mappingExecutor)
+                .getTask()
+                .continueWith(mappingExecutor, task -> {
+                    if (!task.isSuccessful()) {
+                        Log.e("Database", "Error getting users by IDs", task.getException());
+                        throw task.getException();
+                    }
+
+                    for (Map<String, User> chunkUsers : task.getResult()) {
+                        usersById.putAll(chunkUsers);
                     }
+                    return usersById;
+                });
+    }
 
-                    // Return correct type of object based on user type
-                    if (userObject.getUserType() == UserType.ENTRANT) {
-                        return doc.toObject(Entrant.class);
+    /**
+     * Queries one chunk of users for {@link #getUsersByIds(Collection)} and
+     * caches what it finds, including the IDs that do not exist.
+     *
+     * @param chunk at most {@link #WHERE_IN_CHUNK_SIZE} hardware IDs
+     * @return a Task that resolves to the users found, by hardware ID
+     */
+    private Task<Map<String, User>> loadUserChunk(List<String> chunk) {
+        // The cached result is only used if it has every user; a missing one
+        // would otherwise be cached as not existing
+        return coalesced(usersCollection.whereIn(FieldPath.documentId(), chunk), chunk.size())
+                .continueWith(mappingExecutor, task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
 
-                    } else if (userObject.getUserType() == UserType.ORGANIZER) {
-                        return doc.toObject(Organizer.class);
+                    Map<String, User> chunkUsers = new HashMap<>();
+                    Set<String> missingIds = new HashSet<>(chunk);
+                    for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                        userCache.put(doc.getReference(), doc);
+                        missingIds.remove(doc.getId());
 
-                    } else if (userObject.getUserType() == UserType.ADMINISTRATOR) {
-                        return doc.toObject(Administrator.class);
+                        User user = UserMapper.fromSnapshot(doc);
+                        if (user != null) {
+                            chunkUsers.put(doc.getId(), user);
+                        }
+                    }
 
-                    } else {
-                        // If all fails, unknown type
-                        Log.e("Database", "Unknown user type. Not one of Entrant, Organizer, or Administrator");
-                        return userObject;
+                    // Remember users that do not exist so they are not queried again
+                    for (String missingId : missingIds) {
+                        userCache.put(usersCollection.document(missingId), null);
                     }
+                    return chunkUsers;
                 });
     }
 
+    /**
+     * Splits a collection of IDs into de-duplicated chunks small enough for a
+     * Firestore {@code whereIn} query. Null and empty IDs are skipped, and the
+     * first-seen order is kept.
+     *
+     * @param ids the IDs to split
+     * @return a list of chunks of at most {@link #WHERE_IN_CHUNK_SIZE} IDs
+     */
+    private static <T> List<List<T>> chunkIds(Collection<T> ids) {
+        List<List<T>> chunks = new ArrayList<>();
+        if (ids == null) {
+            return chunks;
+        }
+
+        List<T> unique = new ArrayList<>(new LinkedHashSet<>(ids));
+        unique.removeIf(id -> id == null || "".equals(id));
+
+        for (int start = 0; start < unique.size(); start += WHERE_IN_CHUNK_SIZE) {
+            chunks.add(new ArrayList<>(unique.subList(start, Math.min(start + WHERE_IN_CHUNK_SIZE, unique.size()))));
+        }
+        return chunks;
+    }
+
     /**
      * Stores or updates an event document in the Firestore "events" collection.
      *
@@ -173,37 +536,129 @@ public class Database {
      * @return a Task representing the asynchronous database operation
      */
     public Task<Void> setEventData(Long eventID, Event event) {
-        return eventsCollection
-                .document(String.valueOf(eventID))
-                .set(event);
+        DocumentReference eventRef = eventsCollection.document(String.valueOf(eventID));
+
+        if (event.getWaitlistStorageMode() == Event.WaitlistStorageMode.SUBCOLLECTION) {
+            return invalidateWhenDone(eventRef, setSubcollectionEventData(eventID, event));
+        }
+
+        // Write the event and its list-row summary together
+        WriteBatch batch = db.batch();
+        batch.set(eventRef, event);
+        batch.set(eventSummariesCollection.document(String.valueOf(eventID)), toEventSummaryData(event));
+        return invalidateWhenDone(eventRef, batch.commit());
+    }
+
+    /**
+     * Stores an event whose waitlist lives in the waitlist subcollection. Only
+     * the event's own fields are merged into the event document and its summary;
+     * the waitlist subcollection and {@code waitlistCount} are left to
+     * {@link #addEntrantToWaitlist}, {@link #removeEntrantFromWaitlist} and
+     * {@link #removeEntrantsFromWaitlist}, so a stale copy of the event cannot
+     * undo entrants joining or leaving in the meantime.
+     *
+     * @param eventID the unique identifier of the event
+     * @param event   the event to store
+     * @return a Task that completes when the batch has been committed
+     */
+    private Task<Void> setSubcollectionEventData(Long eventID, Event event) {
+        DocumentReference eventRef = eventsCollection.document(String.valueOf(eventID));
+
+        Map<String, Object> summary = toEventSummaryData(event);
+        summary.remove("waitlistCount");
+
+        WriteBatch batch = db.batch();
+        batch.set(eventRef, event, SetOptions.mergeFields(SUBCOLLECTION_EVENT_FIELDS));
+        batch.set(eventSummariesCollection.document(String.valueOf(eventID)), summary, SetOptions.merge());
+        return batch.commit();
     }
 
     /**
-     * Removes an event document from the Firestore "events" collection.
+     * Removes an event document from the Firestore "events" collection, along
+     * with its summary and any entries in its waitlist subcollection.
      *
      * @param eventID the unique identifier of the event
      * @return a Task representing the asynchronous database operation
      */
     public Task<Void> removeEventData(Long eventID) {
-        return eventsCollection
-                .document(String.valueOf(eventID))
-                .delete();
+        DocumentReference eventRef = eventsCollection.document(String.valueOf(eventID));
+
+        return invalidateWhenDone(eventRef, eventRef.collection(WAITLIST_SUBCOLLECTION).get().continueWithTask(mappingExecutor, task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            List<DocumentSnapshot> entries = task.getResult().getDocuments();
+            List<Task<Void>> commits = new ArrayList<>();
+            for (int start = 0; start < entries.size(); start += MAX_BATCH_WRITES) {
+                WriteBatch batch = db.batch();
+                for (DocumentSnapshot entry : entries.subList(start,
+                        Math.min(start + MAX_BATCH_WRITES, entries.size()))) {
+                    batch.delete(entry.getReference());
+                }
+                commits.add(batch.commit());
+            }
+
+            return Tasks.whenAll(commits).continueWithTask(mappingExecutor, deleted -> {
+                if (!deleted.isSuccessful()) {
+                    throw deleted.getException();
+                }
+
+                WriteBatch batch = db.batch();
+                batch.delete(eventRef);
+                batch.delete(eventSummariesCollection.document(eventRef.getId()));
+                return batch.commit();
+            });
+        }));
     }
 
     /**
      * Retrieves an event from the Firestore "events" collection based on its event
      * ID.
      * If the document does not exist or cannot be parsed, the result will be null.
+     * <p>
+     * Events are served from the process-wide {@link EventCache} when possible.
+     * Writes made through this class drop the cached copy, and changes made
+     * elsewhere are picked up by the cache's snapshot listener.
+     * <p>
+     * The waitlist of an event in SUBCOLLECTION mode is not loaded with it; use
+     * {@link Event#getWaitlistCount()}, or {@link #getWaitlist(Long, int, DocumentSnapshot)}
+     * where the entries are needed.
      *
      * @param eventID the unique identifier of the event
      * @return a Task that resolves to the retrieved Event object, or null if not
      *         found
      */
     public Task<Event> getEvent(Long eventID) {
-        return eventsCollection
-                .document(String.valueOf(eventID))
-                .get()
-                .continueWith(task -> {
+        DocumentReference eventRef = eventsCollection.document(String.valueOf(eventID));
+
+        Event cached = eventCache.get(eventRef);
+        if (cached != null) {
+            return Tasks.forResult(cached);
+        }
+
+        // Concurrent callers share one load, and each gets its own copy of the result
+        return singleFlight.run(eventRef, () -> loadEvent(eventID, eventRef))
+                .continueWith(mappingExecutor, task -> {
+                    if (!task.isSuccessful())
+                        throw task.getException();
+                    return task.getResult() != null ? new Event(task.getResult()) : null;
+                });
+    }
+
+    /**
+     * Downloads and parses an event, and stores it in the
+     * {@link EventCache}.
+     *
+     * @param eventID  the unique identifier of the event
+     * @param eventRef the event document
+     * @return a Task that resolves to the loaded Event, or null if not found
+     */
+    private Task<Event> loadEvent(Long eventID, DocumentReference eventRef) {
+        // A write that finishes while this load is in flight keeps its result out of the cache
+        long generation = eventCache.getGeneration();
+        return read(eventRef)
+                .continueWith(mappingExecutor, task -> {
                     if (!task.isSuccessful())
                         throw task.getException();
 
@@ -215,130 +670,100 @@ public class Database {
                         return null;
                     }
 
-                    // Manual parsing to handle WaitlistEntry objects correctly
-                    try {
-                        Long uniqueEventID = doc.getLong("uniqueEventID");
-                        String eventName = doc.getString("eventName");
-                        String eventDescription = doc.getString("eventDescription");
-                        String location = doc.getString("location");
-                        String eventOrganizerHardwareID = doc.getString("eventOrganizerHardwareID");
-                        String posterURL = doc.getString("posterURL");
-
-                        Date startTime = doc.getDate("startTime");
-                        Date registrationStartTime = doc.getDate("registrationStartTime");
-                        Date registrationEndTime = doc.getDate("registrationEndTime");
-
-                        boolean requiresGeolocation = Boolean.TRUE.equals(doc.getBoolean("requiresGeolocation"));
-
-                        Event event = new Event(
-                                uniqueEventID,
-                                eventName,
-                                eventDescription,
-                                startTime,
-                                location,
-                                registrationStartTime,
-                                registrationEndTime,
-                                eventOrganizerHardwareID,
-                                posterURL,
-                                requiresGeolocation);
-
-                        // add lottery criteria...
-                        event.setLotteryCriteria(doc.getString("lotteryCriteria"));
-
-                        // Parse optional fields
-                        if (doc.contains("waitlistLimit")) {
-                            Long limitLong = doc.getLong("waitlistLimit");
-                            if (limitLong != null) {
-                                event.setWaitlistLimit(limitLong.intValue());
-                            }
-                        }
-
-                        // Parse entrant lists
-                        ArrayList<WaitlistEntry> waitList = parseWaitlistEntryList(doc.get("waitListEntrants"));
-
-                        ArrayList<String> invitedList = parseHardwareIdList(doc.get("invitedEntrants"));
-
-                        ArrayList<String> acceptedList = parseHardwareIdList(doc.get("acceptedEntrants"));
-
-                        ArrayList<String> declinedList = parseHardwareIdList(doc.get("declinedEntrants"));
-                        ArrayList<String> cancelledList = parseHardwareIdList(doc.get("cancelledEntrants"));
-
-                        event.setWaitListEntrants(waitList);
-                        event.setInvitedEntrants(invitedList);
-                        event.setAcceptedEntrants(acceptedList);
-                        event.setDeclinedEntrants(declinedList);
-                        event.setCancelledEntrants(cancelledList);
-
-                        return event;
-                    } catch (Exception e) {
-                        Log.e("Database", "Failed to parse event for eventID: " + eventID, e);
-                        return null;
+                    Event event = EventMapper.fromSnapshot(doc);
+                    if (event != null) {
+                        eventCache.put(eventRef, event, generation);
                     }
+                    return event;
                 });
     }
 
-    /**
-     * Helper to parse a Firestore field into a list of hardware ID strings.
-     *
-     * @param raw the raw value from DocumentSnapshot.get(...)
-     * @return a non-null ArrayList of hardware ID strings
-     */
-    @SuppressWarnings("unchecked")
-    private ArrayList<String> parseHardwareIdList(Object raw) {
-        ArrayList<String> result = new ArrayList<>();
-        if (raw instanceof List<?>) {
-            for (Object o : (List<?>) raw) {
-                if (o instanceof String) {
-                    result.add((String) o);
-                } else if (o != null) {
-                    // Fallback: store string representation if something weird is stored
-                    result.add(o.toString());
-                }
-            }
-        }
-        return result;
-    }
-
     /**
      * Retrieves an unused event number from firebase. Its just an off platform
      * number incrementer
      * so that we can avoid collisions in the event IDs.
+     * <p>
+     * IDs are handed out from a block reserved by {@link #getEventIdAllocator()},
+     * so most calls complete without a round trip to Firestore.
      *
      * @return a Task that resolves to the next unused event number
      */
     public Task<Long> getUniqueEventID() {
+        return eventIdAllocator.nextId();
+    }
 
-        DocumentReference uniqueRef = extrasCollection.document("uniqueIdentifierData");
+    /**
+     * Stores or updates a notification in the Firestore "notifications" collection.
+     *
+     * @param notificationID the unique identifier of the notification
+     * @param notification   the notification object to be stored
+     * @return a Task representing the asynchronous database operation
+     */
+    public Task<Void> setNotificationData(Long notificationID, Notification notification) {
+        return notificationCollection.document(String.valueOf(notificationID))
+                .set(toNotificationData(notificationID, notification));
+    }
 
-        return db.runTransaction(transaction -> {
-            // Read the current document snapshot
-            DocumentSnapshot snapshot = transaction.get(uniqueRef);
+    /**
+     * Stores many notifications in the Firestore "notifications" collection using
+     * chunked {@link WriteBatch} commits of up to {@link #MAX_BATCH_WRITES}
+     * writes each, instead of one round trip per notification.
+     * <p>
+     * Each chunk commits atomically, but chunks are independent: the returned
+     * Task always succeeds once every chunk has finished and reports which
+     * chunks failed in the {@link BatchWriteResult}.
+     *
+     * @param notifications the notifications to store; each must already have
+     *                      its unique notification ID set
+     * @return a Task that resolves to the per-chunk outcome of the writes
+     */
+    public Task<BatchWriteResult> setNotificationDataBatch(List<Notification> notifications) {
+        BatchWriteResult result = new BatchWriteResult();
+        if (notifications == null || notifications.isEmpty()) {
+            return Tasks.forResult(result);
+        }
 
-            // Get the current event ID, or start at 0 if not present
-            Long currentEventID = snapshot.getLong("curEvent");
-            if (currentEventID == null) {
-                throw new RuntimeException("Error calling getUniqueEventID: Current event ID is null");
-            }
+        List<Task<Void>> commits = new ArrayList<>();
+        List<List<String>> chunkIds = new ArrayList<>();
 
-            // Increment by 1
-            Long newEventID = currentEventID + 1;
+        for (int start = 0; start < notifications.size(); start += MAX_BATCH_WRITES) {
+            int end = Math.min(start + MAX_BATCH_WRITES, notifications.size());
+            WriteBatch batch = db.batch();
+            List<String> ids = new ArrayList<>();
 
-            // Update Firestore with the new value
-            transaction.update(uniqueRef, "curEvent", newEventID);
+            for (Notification notification : notifications.subList(start, end)) {
+                Long notificationID = notification.getUniqueNotificationID();
+                String docId = String.valueOf(notificationID);
+                batch.set(notificationCollection.document(docId), toNotificationData(notificationID, notification));
+                ids.add(docId);
+            }
+
+            commits.add(batch.commit());
+            chunkIds.add(ids);
+        }
 
-            // Return the new event ID
-            return newEventID;
+        return Tasks.whenAllComplete(commits).continueWith(mappingExecutor, task -> {
+            for (int i = 0; i < commits.size(); i++) {
+                Task<Void> commit = commits.get(i);
+                if (commit.isSuccessful()) {
+                    result.recordSuccess(chunkIds.get(i).size());
+                } else {
+                    Log.e("Database", "Failed to commit notification batch " + i, commit.getException());
+                    result.recordFailure(chunkIds.get(i), commit.getException());
+                }
+            }
+            return result;
         });
     }
 
     /**
-     * Stores or updates a notification in the Firestore "notifications" collection.
+     * Builds the Firestore field map stored for a notification.
      *
      * @param notificationID the unique identifier of the notification
-     * @param notification   the notification object to be stored
-     * @return a Task representing the asynchronous database operation
+     * @param notification   the notification to convert
+     * @return a map of Firestore field names to values
      */
-    public Task<Void> setNotificationData(Long notificationID, Notification notification) {
+    private Map<String, Object> toNotificationData(Long notificationID, Notification notification) {
         Map<String, Object> data = new HashMap<>();
         data.put("notificationID", notificationID);
         data.put("sendingUserHardwareID", notification.getSendingUserHardwareID());
@@ -348,7 +773,15 @@ public class Database {
         data.put("dismissed", notification.isDismissed());
         data.put("eventID", notification.getEventID());
         data.put("isInvitation", notification.getIsInvitation());
-        return notificationCollection.document(String.valueOf(notificationID)).set(data);
+        Notification.Category category = notification.getCategory();
+        if (category == null) {
+            category = Notification.Category.fromContent(notification.getIsInvitation(),
+                    notification.getNotificationHeader(), notification.getNotificationBody());
+        }
+        data.put("category", category.name());
+        // Set by the server, so receivers can listen from a point in time
+        data.put("sentTime", FieldValue.serverTimestamp());
+        return data;
     }
 
     /**
@@ -373,10 +806,9 @@ public class Database {
      *         not found
      */
     public Task<Notification> getNotification(Long notificationID) {
-        return notificationCollection
-                .document(String.valueOf(notificationID))
-                .get()
-                .continueWith(task -> {
+        return coalesced(notificationCollection
+                .document(String.valueOf(notificationID)))
+                .continueWith(mappingExecutor, task -> {
                     if (!task.isSuccessful())
                         throw task.getException();
 
@@ -396,32 +828,47 @@ public class Database {
      * Retrieves an unused notification number from firebase. Its just an off
      * platform number incrementer
      * so that we can avoid collisions in the notification IDs.
+     * <p>
+     * IDs are handed out from a block reserved by
+     * {@link #getNotificationIdAllocator()}, so most calls complete without a
+     * round trip to Firestore.
      *
      * @return a Task that resolves to the next unused notification number
      */
     public Task<Long> getUniqueNotificationID() {
+        return notificationIdAllocator.nextId();
+    }
 
-        DocumentReference uniqueRef = extrasCollection.document("uniqueIdentifierData");
-
-        return db.runTransaction(transaction -> {
-            // Read the current document snapshot
-            DocumentSnapshot snapshot = transaction.get(uniqueRef);
-
-            // Get the current notification ID, or start at 0 if not present
-            Long currentEventID = snapshot.getLong("curNotification");
-            if (currentEventID == null) {
-                throw new RuntimeException("Error calling getUniqueNotificationID: Current notification ID is null");
-            }
-
-            // Increment by 1
-            Long newNotifID = currentEventID + 1;
+    /**
+     * Retrieves {@code count} unused notification numbers, reserving any that
+     * are not already held locally in a single transaction.
+     *
+     * @param count the number of notification IDs needed
+     * @return a Task that resolves to a list of {@code count} unused notification
+     *         numbers
+     */
+    public Task<List<Long>> getUniqueNotificationIDs(int count) {
+        return notificationIdAllocator.nextIds(count);
+    }
 
-            // Update Firestore with the new value
-            transaction.update(uniqueRef, "curNotification", newNotifID);
+    /**
+     * Returns the allocator that hands out event IDs. Can be used to configure
+     * its block size or read its counters.
+     *
+     * @return the event ID allocator
+     */
+    public UniqueIdAllocator getEventIdAllocator() {
+        return eventIdAllocator;
+    }
 
-            // Return the new event ID
-            return newNotifID;
-        });
+    /**
+     * Returns the allocator that hands out notification IDs. Can be used to
+     * configure its block size or read its counters.
+     *
+     * @return the notification ID allocator
+     */
+    public UniqueIdAllocator getNotificationIdAllocator() {
+        return notificationIdAllocator;
     }
 
     /**
@@ -456,9 +903,8 @@ public class Database {
      * @author Arunavo Dutta
      */
     public Task<List<Notification>> getAllNotifications() {
-        return notificationCollection
-                .get()
-                .continueWith(task -> {
+        return coalesced(notificationCollection)
+                .continueWith(mappingExecutor, task -> {
                     if (!task.isSuccessful()) {
                         Log.e("Database", "Error getting notifications", task.getException());
                         throw task.getException();
@@ -467,36 +913,9 @@ public class Database {
                     ArrayList<Notification> notificationList = new ArrayList<>();
 
                     for (DocumentSnapshot doc : task.getResult().getDocuments()) {
-                        try {
-                            // Get all fields from Firebase.
-                            Long id = doc.getLong("notificationID");
-                            if (id == null) {
-                                // A notification without an ID is invalid, skip it.
-                                Log.e("Database", "Skipping notification with null ID: " + doc.getId());
-                                continue;
-                            }
-                            String sender = doc.getString("sendingUserHardwareID");
-                            String receiver = doc.getString("receivingUserHardwareID");
-                            String header = doc.getString("notificationHeader");
-                            String body = doc.getString("notificationBody");
-                            Long eventID = doc.getLong("eventID");
-                            boolean isInvitation = doc.contains("isInvitation") ? doc.getBoolean("isInvitation")
-                                    : false;
-
-                            // Use the main constructor to build the object
-                            Notification notification = new Notification(id, sender, receiver, header, body, eventID,
-                                    isInvitation);
-
-                            // This prevents a crash if the field is missing or null.
-                            boolean dismissed = doc.contains("dismissed") ? doc.getBoolean("dismissed") : false;
-                            notification.setDismissed(dismissed);
-
-                            // Add the successfully parsed notification to the list
+                        Notification notification = parseNotification(doc);
+                        if (notification != null) {
                             notificationList.add(notification);
-
-                        } catch (Exception e) {
-                            // If one document is malformed, log it and continue.
-                            Log.e("Database", "Failed to parse notification: " + doc.getId(), e);
                         }
                     }
 
@@ -505,45 +924,400 @@ public class Database {
     }
 
     /**
-     * Added by Arunavo Dutta
-     * Retrieves all event documents from the Firestore "events" collection.
+     * Retrieves the time the newest notification addressed to a user was sent.
+     * Always read from the server, so that a stale cache does not make older
+     * notifications look new.
      * <p>
-     * This method asynchronously fetches all documents from the "events"
-     * collection.
-     * The result is a {@code Task} that, upon completion, provides a
-     * {@link com.google.firebase.firestore.QuerySnapshot}.
-     * The snapshot contains all event documents, which can then be iterated over
-     * and
-     * converted into {@link Event} objects. This approach is safer for handling
-     * potential
-     * data inconsistencies, as it allows for manual parsing of each document.
+     * This query requires the composite index on
+     * ({@code receivingUserHardwareID} ASC, {@code sentTime} DESC) declared in
+     * {@code firestore.indexes.json}.
      *
-     * @return A {@code Task<QuerySnapshot>} that resolves with the query result.
-     *         The task
-     *         will fail with an exception if the data cannot be fetched.
-     * @see #getAllEventsList() for a simpler but less safe alternative.
+     * @param hardwareId the hardware ID of the receiving user
+     * @return a Task that resolves to the send time of the user's newest
+     *         notification, or null if they have none
      */
-    public Task<com.google.firebase.firestore.QuerySnapshot> getAllEvents() {
-        return eventsCollection.get();
+    public Task<Timestamp> getLatestNotificationSentTime(String hardwareId) {
+        return coalesced(notificationCollection
+                .whereEqualTo("receivingUserHardwareID", hardwareId)
+                .orderBy("sentTime", Query.Direction.DESCENDING)
+                .limit(1))
+                .continueWith(mappingExecutor, task -> {
+                    if (!task.isSuccessful()) {
+                        Log.e("Database", "Error getting latest notification for user " + hardwareId,
+                                task.getException());
+                        throw task.getException();
+                    }
+
+                    List<DocumentSnapshot> docs = task.getResult().getDocuments();
+                    return docs.isEmpty() ? null : docs.get(0).getTimestamp("sentTime");
+                });
     }
 
     /**
-     * Added by Arunavo Dutta
-     * Manually parses a list of HashMaps from Firestore into a proper ArrayList of
-     * Entrants.
+     * Builds the query for the notifications sent to a user after a given one,
+     * oldest first. Used to catch up on, and listen for, notifications that
+     * arrive while the app is running.
      * <p>
-     * This helper method is crucial for safely handling lists of complex objects
-     * retrieved from
-     * Firestore. When Firestore returns an array of objects (like the
-     * `waitListEntrants` in an
-     * event), it deserializes it into a {@code List<HashMap<String, Object>>}
-     * rather than the
-     * desired {@code ArrayList<Entrant>}. Attempting to cast this directly will
-     * result in a
-     * {@code ClassCastException}.
+     * This query requires the composite index on
+     * ({@code receivingUserHardwareID} ASC, {@code sentTime} ASC,
+     * {@code notificationID} ASC) declared in {@code firestore.indexes.json}.
+     *
+     * @param hardwareId     the hardware ID of the receiving user
+     * @param sentTime       the send time of the notification to start after
+     * @param notificationID the ID of the notification to start after
+     * @return the query, for the caller to limit, read or listen to
+     */
+    public Query getNotificationsAfterQuery(String hardwareId, Timestamp sentTime, long notificationID) {
+        return notificationCollection
+                .whereEqualTo("receivingUserHardwareID", hardwareId)
+                .orderBy("sentTime", Query.Direction.ASCENDING)
+                .orderBy("notificationID", Query.Direction.ASCENDING)
+                .startAfter(sentTime, notificationID);
+    }
+
+    /**
+     * Retrieves one page of notifications addressed to a single user, newest
+     * first.
      * <p>
-     * This method iterates through the raw list, treating each item as a HashMap.
-     * It then
+     * Unlike {@link #getAllNotifications()}, this queries the "notifications"
+     * collection by {@code receivingUserHardwareID} so that only the user's own
+     * inbox is read. Results are ordered by {@code sentTime} descending, with
+     * {@code notificationID} descending breaking ties, and paged with
+     * {@code startAfter}. Notification IDs are handed out in blocks per device,
+     * so they do not say which notification is newer. Pass the cursor of the
+     * previous {@link Page} to continue, or null to start from the newest
+     * notification.
+     * <p>
+     * Notifications written before {@code sentTime} existed are left out of a
+     * query ordered on it, so once the timed notifications run out they follow
+     * in {@code notificationID} order, until
+     * {@link #backfillNotificationSentTimes()} has given them a send time.
+     * <p>
+     * These queries require the composite indexes on
+     * ({@code receivingUserHardwareID} ASC, {@code sentTime} DESC,
+     * {@code notificationID} DESC) and ({@code receivingUserHardwareID} ASC,
+     * {@code notificationID} DESC) declared in {@code firestore.indexes.json}.
+     *
+     * @param hardwareId the hardware ID of the receiving user
+     * @param pageSize   the maximum number of notifications to return
+     * @param cursor     the cursor from the previous page, or null for the first
+     *                   page
+     * @return a Task that resolves to a {@link Page} of notifications. Malformed
+     *         documents are logged and skipped.
+     */
+    public Task<Page<Notification>> getNotificationsForUser(String hardwareId, int pageSize,
+            DocumentSnapshot cursor) {
+        Query inbox = notificationCollection.whereEqualTo("receivingUserHardwareID", hardwareId);
+
+        // A cursor without a send time means the timed notifications are done
+        if (cursor != null && !cursor.contains("sentTime")) {
+            return getLegacyNotifications(inbox, pageSize, cursor, new ArrayList<>());
+        }
+
+        Query query = inbox
+                .orderBy("sentTime", Query.Direction.DESCENDING)
+                .orderBy("notificationID", Query.Direction.DESCENDING)
+                .limit(pageSize);
+
+        if (cursor != null) {
+            query = query.startAfter(cursor);
+        }
+
+        return coalesced(query)
+                .continueWithTask(mappingExecutor, task -> {
+                    if (!task.isSuccessful()) {
+                        Log.e("Database", "Error getting notifications for user " + hardwareId, task.getException());
+                        throw task.getException();
+                    }
+
+                    List<DocumentSnapshot> docs = new ArrayList<>(task.getResult().getDocuments());
+                    if (docs.size() >= pageSize) {
+                        return Tasks.forResult(toNotificationPage(docs, true));
+                    }
+                    // The rest of the page comes from notifications without a send time
+                    return getLegacyNotifications(inbox, pageSize, null, docs);
+                });
+    }
+
+    /**
+     * Fills a page of a user's inbox with notifications that have no
+     * {@code sentTime}, in {@code notificationID} descending order. Firestore
+     * cannot query for a missing field, so the inbox is read in ID order and
+     * notifications with a send time, which were already returned, are skipped.
+     * Nothing is read once {@link #backfillNotificationSentTimes()} has run.
+     *
+     * @param inbox      the query for the user's notifications
+     * @param pageSize   the size of the page to fill
+     * @param scanCursor the last notification read in ID order, or null to start
+     *                   from the highest ID
+     * @param docs       the documents already on the page, added to in place
+     * @return a Task that resolves to the filled page
+     */
+    private Task<Page<Notification>> getLegacyNotifications(Query inbox, int pageSize,
+            DocumentSnapshot scanCursor, List<DocumentSnapshot> docs) {
+        return isNotificationSentTimeBackfilled().continueWithTask(mappingExecutor, backfilled -> {
+            if (backfilled.getResult()) {
+                return Tasks.forResult(toNotificationPage(docs, false));
+            }
+            return scanLegacyNotifications(inbox, pageSize, scanCursor, docs);
+        });
+    }
+
+    /**
+     * Reads a user's inbox in {@code notificationID} descending order from a
+     * cursor, adding the notifications without a {@code sentTime} to the page
+     * until it is full or the inbox runs out.
+     *
+     * @param inbox      the query for the user's notifications
+     * @param pageSize   the size of the page to fill
+     * @param scanCursor the last notification read in ID order, or null to start
+     *                   from the highest ID
+     * @param docs       the documents already on the page, added to in place
+     * @return a Task that resolves to the filled page
+     */
+    private Task<Page<Notification>> scanLegacyNotifications(Query inbox, int pageSize,
+            DocumentSnapshot scanCursor, List<DocumentSnapshot> docs) {
+        Query query = inbox
+                .orderBy("notificationID", Query.Direction.DESCENDING)
+                .limit(pageSize);
+
+        if (scanCursor != null) {
+            query = query.startAfter(scanCursor);
+        }
+
+        return coalesced(query).continueWithTask(mappingExecutor, task -> {
+            if (!task.isSuccessful()) {
+                Log.e("Database", "Error getting legacy notifications", task.getException());
+                throw task.getException();
+            }
+
+            List<DocumentSnapshot> scanned = task.getResult().getDocuments();
+            for (DocumentSnapshot doc : scanned) {
+                if (doc.contains("sentTime")) {
+                    continue;
+                }
+                docs.add(doc);
+                if (docs.size() >= pageSize) {
+                    return Tasks.forResult(toNotificationPage(docs, true));
+                }
+            }
+
+            if (scanned.size() < pageSize) {
+                return Tasks.forResult(toNotificationPage(docs, false));
+            }
+            return scanLegacyNotifications(inbox, pageSize, scanned.get(scanned.size() - 1), docs);
+        });
+    }
+
+    /**
+     * Parses the documents of one inbox page.
+     *
+     * @param docs    the page's documents, in order
+     * @param hasMore whether another page may follow
+     * @return the page, with its last document as the cursor
+     */
+    private Page<Notification> toNotificationPage(List<DocumentSnapshot> docs, boolean hasMore) {
+        ArrayList<Notification> notificationList = new ArrayList<>();
+
+        for (DocumentSnapshot doc : docs) {
+            Notification notification = parseNotification(doc);
+            if (notification != null) {
+                notificationList.add(notification);
+            }
+        }
+
+        DocumentSnapshot lastDoc = docs.isEmpty() ? null : docs.get(docs.size() - 1);
+        return new Page<>(notificationList, lastDoc, hasMore);
+    }
+
+    /**
+     * Checks whether {@link #backfillNotificationSentTimes()} has finished, as
+     * recorded on the "notificationSentTimeData" document in the extras
+     * collection. A failed read counts as not finished.
+     *
+     * @return a Task that resolves to true once every notification has a send
+     *         time
+     */
+    private Task<Boolean> isNotificationSentTimeBackfilled() {
+        if (notificationSentTimesBackfilled) {
+            return Tasks.forResult(true);
+        }
+
+        return extrasCollection.document("notificationSentTimeData").get()
+                .continueWith(mappingExecutor, task -> {
+                    boolean done = task.isSuccessful()
+                            && Boolean.TRUE.equals(task.getResult().getBoolean("backfilled"));
+                    if (done) {
+                        notificationSentTimesBackfilled = true;
+                    }
+                    return done;
+                });
+    }
+
+    /**
+     * One-off migration that gives notifications written before {@code sentTime}
+     * existed a send time, so that the inbox no longer has to read them in ID
+     * order. Their real send time is unknown, so they get
+     * {@link #LEGACY_NOTIFICATION_SENT_TIME} and sort as older than any other
+     * notification.
+     * <p>
+     * This writes other users' notifications, so it is only run from the
+     * administrator's notification log. The collection is read
+     * {@link #MAX_BATCH_WRITES} documents at a time and each page is written in
+     * one batch. Completion is recorded on the "notificationSentTimeData"
+     * document only after the last page, so a failed run can simply be started
+     * again, and a finished one returns without reading anything else.
+     *
+     * @return a Task that resolves to the number of notifications given a send
+     *         time
+     */
+    public Task<Integer> backfillNotificationSentTimes() {
+        return isNotificationSentTimeBackfilled().continueWithTask(mappingExecutor, backfilled -> {
+            if (backfilled.getResult()) {
+                return Tasks.forResult(0);
+            }
+            return backfillNotificationSentTimes(null, 0);
+        });
+    }
+
+    /**
+     * Backfills the send times of one page of notifications after a cursor, then
+     * continues with the next page.
+     *
+     * @param cursor  the last notification of the previous page, or null to start
+     * @param updated the number of notifications updated so far
+     * @return a Task that resolves to the total number of notifications updated
+     */
+    private Task<Integer> backfillNotificationSentTimes(DocumentSnapshot cursor, int updated) {
+        Query query = notificationCollection.orderBy(FieldPath.documentId()).limit(MAX_BATCH_WRITES);
+        if (cursor != null) {
+            query = query.startAfter(cursor);
+        }
+
+        return query.get().continueWithTask(mappingExecutor, task -> {
+            if (!task.isSuccessful()) {
+                Log.e("Database", "Error reading notifications to backfill", task.getException());
+                throw task.getException();
+            }
+
+            List<DocumentSnapshot> docs = task.getResult().getDocuments();
+            WriteBatch batch = db.batch();
+            int missing = 0;
+            for (DocumentSnapshot doc : docs) {
+                if (!doc.contains("sentTime")) {
+                    batch.update(doc.getReference(), "sentTime", LEGACY_NOTIFICATION_SENT_TIME);
+                    missing++;
+                }
+            }
+            int total = updated + missing;
+
+            return batch.commit().continueWithTask(mappingExecutor, committed -> {
+                if (!committed.isSuccessful()) {
+                    Log.e("Database", "Error backfilling notification send times", committed.getException());
+                    throw committed.getException();
+                }
+                if (docs.size() >= MAX_BATCH_WRITES) {
+                    return backfillNotificationSentTimes(docs.get(docs.size() - 1), total);
+                }
+
+                notificationSentTimesBackfilled = true;
+                return extrasCollection.document("notificationSentTimeData")
+                        .set(Collections.singletonMap("backfilled", true))
+                        .continueWith(mappingExecutor, flagged -> {
+                            if (!flagged.isSuccessful())
+                                throw flagged.getException();
+                            return total;
+                        });
+            });
+        });
+    }
+
+    /**
+     * Manually parses a notification document into a {@link Notification}.
+     * Missing booleans default to false. A document without a
+     * {@code notificationID} is considered invalid.
+     *
+     * @param doc the notification document snapshot
+     * @return the parsed Notification, or null if the document is malformed
+     */
+    private Notification parseNotification(DocumentSnapshot doc) {
+        try {
+            // Get all fields from Firebase.
+            Long id = doc.getLong("notificationID");
+            if (id == null) {
+                // A notification without an ID is invalid, skip it.
+                Log.e("Database", "Skipping notification with null ID: " + doc.getId());
+                return null;
+            }
+            String sender = doc.getString("sendingUserHardwareID");
+            String receiver = doc.getString("receivingUserHardwareID");
+            String header = doc.getString("notificationHeader");
+            String body = doc.getString("notificationBody");
+            Long eventID = doc.getLong("eventID");
+            boolean isInvitation = Boolean.TRUE.equals(doc.getBoolean("isInvitation"));
+
+            // Use the main constructor to build the object
+            Notification notification = new Notification(id, sender, receiver, header, body, eventID,
+                    isInvitation);
+
+            // This prevents a crash if the field is missing or null.
+            notification.setDismissed(Boolean.TRUE.equals(doc.getBoolean("dismissed")));
+
+            // Legacy documents have no category and keep the one guessed from their text
+            Notification.Category category = Notification.Category.fromName(doc.getString("category"));
+            if (category != null) {
+                notification.setCategory(category);
+            }
+
+            return notification;
+
+        } catch (Exception e) {
+            // If one document is malformed, log it and continue.
+            Log.e("Database", "Failed to parse notification: " + doc.getId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Added by Arunavo Dutta
+     * Retrieves all event documents from the Firestore "events" collection.
+     * <p>
+     * This method asynchronously fetches all documents from the "events"
+     * collection.
+     * The result is a {@code Task} that, upon completion, provides a
+     * {@link com.google.firebase.firestore.QuerySnapshot}.
+     * The snapshot contains all event documents, which can then be iterated over
+     * and
+     * converted into {@link Event} objects. This approach is safer for handling
+     * potential
+     * data inconsistencies, as it allows for manual parsing of each document.
+     *
+     * @return A {@code Task<QuerySnapshot>} that resolves with the query result.
+     *         The task
+     *         will fail with an exception if the data cannot be fetched.
+     * @see #getAllEventsList() for a simpler but less safe alternative.
+     */
+    public Task<com.google.firebase.firestore.QuerySnapshot> getAllEvents() {
+        return coalesced(eventsCollection);
+    }
+
+    /**
+     * Added by Arunavo Dutta
+     * Manually parses a list of HashMaps from Firestore into a proper ArrayList of
+     * Entrants.
+     * <p>
+     * This helper method is crucial for safely handling lists of complex objects
+     * retrieved from
+     * Firestore. When Firestore returns an array of objects (like the
+     * `waitListEntrants` in an
+     * event), it deserializes it into a {@code List<HashMap<String, Object>>}
+     * rather than the
+     * desired {@code ArrayList<Entrant>}. Attempting to cast this directly will
+     * result in a
+     * {@code ClassCastException}.
+     * <p>
+     * This method iterates through the raw list, treating each item as a HashMap.
+     * It then
      * extracts the values for each field, constructs a new {@link Entrant} object,
      * and adds it
      * to a new, properly typed list. It includes robust checks to handle missing or
@@ -624,8 +1398,8 @@ public class Database {
      * {@link Event} model.</li>
      * <li><b>Casting Safety:</b> It safely parses waitlist entries and entrant
      * hardware ID lists using
-     * helper methods like {@link #parseWaitlistEntryList(Object)} and
-     * {@link #parseHardwareIdList(Object)}.</li>
+     * helper methods like {@link EventMapper#parseWaitlistEntryList(Object)} and
+     * {@link EventMapper#parseHardwareIdList(Object)}.</li>
      * <li><b>Error Isolation:</b> If a single event document is malformed or
      * missing a field, this
      * method will log the error and skip that document, allowing the rest of the
@@ -642,73 +1416,19 @@ public class Database {
      * @author Arunavo Dutta
      */
     public Task<List<Event>> getAllEventsList() {
-        return eventsCollection.get()
-                .continueWith(task -> {
+        return coalesced(eventsCollection)
+                .continueWith(mappingExecutor, task -> {
                     if (!task.isSuccessful()) {
                         Log.e("Database", "Error getting events list", task.getException());
                         throw task.getException();
                     }
 
-                    ArrayList<Event> eventList = new ArrayList<>();
+                    List<Event> eventList = new ArrayList<>();
 
                     for (DocumentSnapshot doc : task.getResult().getDocuments()) {
-                        try {
-                            Long uniqueEventID = doc.getLong("uniqueEventID");
-                            String eventName = doc.getString("eventName");
-                            String eventDescription = doc.getString("eventDescription");
-                            String location = doc.getString("location");
-                            String eventOrganizerHardwareID = doc.getString("eventOrganizerHardwareID");
-                            String posterURL = doc.getString("posterURL");
-
-                            Date startTime = doc.getDate("startTime");
-                            Date registrationStartTime = doc.getDate("registrationStartTime");
-                            Date registrationEndTime = doc.getDate("registrationEndTime");
-
-                            boolean requiresGeolocation = Boolean.TRUE.equals(doc.getBoolean("requiresGeolocation"));
-
-                            Event event = new Event(
-                                    uniqueEventID,
-                                    eventName,
-                                    eventDescription,
-                                    startTime,
-                                    location,
-                                    registrationStartTime,
-                                    registrationEndTime,
-                                    eventOrganizerHardwareID,
-                                    posterURL,
-                                    requiresGeolocation);
-
-                            // Add lottery criteria
-                            event.setLotteryCriteria(doc.getString("lotteryCriteria"));
-
-                            // optional waitlist limit
-                            if (doc.contains("waitlistLimit")) {
-                                Long limitLong = doc.getLong("waitlistLimit");
-                                if (limitLong != null) {
-                                    event.setWaitlistLimit(limitLong.intValue());
-                                }
-                            }
-
-                            // parse lists
-                            ArrayList<WaitlistEntry> waitList = parseWaitlistEntryList(doc.get("waitListEntrants"));
-
-                            ArrayList<String> invitedList = parseHardwareIdList(doc.get("invitedEntrants"));
-
-                            ArrayList<String> acceptedList = parseHardwareIdList(doc.get("acceptedEntrants"));
-
-                            ArrayList<String> declinedList = parseHardwareIdList(doc.get("declinedEntrants"));
-                            ArrayList<String> cancelledList = parseHardwareIdList(doc.get("cancelledEntrants"));
-
-                            event.setWaitListEntrants(waitList);
-                            event.setInvitedEntrants(invitedList);
-                            event.setAcceptedEntrants(acceptedList);
-                            event.setDeclinedEntrants(declinedList);
-                            event.setCancelledEntrants(cancelledList);
-
+                        Event event = EventMapper.fromSnapshot(doc);
+                        if (event != null) {
                             eventList.add(event);
-
-                        } catch (Exception e) {
-                            Log.e("Database", "Failed to parse event: " + doc.getId(), e);
                         }
                     }
                     return eventList;
@@ -745,79 +1465,263 @@ public class Database {
      *         The task will fail if the initial query fails.
      */
     public Task<List<Event>> getEventsByOrganizer(String organizerHardwareID) {
-        return eventsCollection
-                .whereEqualTo("eventOrganizerHardwareID", organizerHardwareID)
-                .get()
-                .continueWith(task -> {
+        return coalesced(eventsCollection
+                .whereEqualTo("eventOrganizerHardwareID", organizerHardwareID))
+                .continueWith(mappingExecutor, task -> {
                     if (!task.isSuccessful()) {
                         Log.e("Database", "Error getting organizer events", task.getException());
                         throw task.getException();
                     }
 
-                    ArrayList<Event> eventList = new ArrayList<>();
+                    List<Event> eventList = new ArrayList<>();
 
                     for (DocumentSnapshot doc : task.getResult().getDocuments()) {
-                        try {
-                            Long uniqueEventID = doc.getLong("uniqueEventID");
-                            String eventName = doc.getString("eventName");
-                            String eventDescription = doc.getString("eventDescription");
-                            String location = doc.getString("location");
-                            String eventOrganizerHardwareID = doc.getString("eventOrganizerHardwareID");
-                            String posterURL = doc.getString("posterURL");
-
-                            Date startTime = doc.getDate("startTime");
-                            Date registrationStartTime = doc.getDate("registrationStartTime");
-                            Date registrationEndTime = doc.getDate("registrationEndTime");
-
-                            boolean requiresGeolocation = Boolean.TRUE.equals(doc.getBoolean("requiresGeolocation"));
-
-                            Event event = new Event(
-                                    uniqueEventID,
-                                    eventName,
-                                    eventDescription,
-                                    startTime,
-                                    location,
-                                    registrationStartTime,
-                                    registrationEndTime,
-                                    eventOrganizerHardwareID,
-                                    posterURL,
-                                    requiresGeolocation);
-
-                            // add lottery criteria
-                            event.setLotteryCriteria(doc.getString("lotteryCriteria"));
-
-                            // optional waitlist limit
-                            if (doc.contains("waitlistLimit")) {
-                                Long limitLong = doc.getLong("waitlistLimit");
-                                if (limitLong != null) {
-                                    event.setWaitlistLimit(limitLong.intValue());
-                                }
-                            }
+                        Event event = EventMapper.fromSnapshot(doc);
+                        if (event != null) {
+                            eventList.add(event);
+                        }
+                    }
+                    return eventList;
+                });
+    }
+
+    /**
+     * Retrieves the summaries of all events, for list screens that only show
+     * each event's name, dates, location, poster and counters.
+     * <p>
+     * Summaries are read from the "event_summaries" collection, which holds
+     * none of the entrant lists, so this stays small for events with large
+     * waitlists. If the summaries have never been built for this database they
+     * are built from the full events first.
+     *
+     * @return a Task that resolves to a list of all valid event summaries
+     */
+    public Task<List<EventSummary>> getEventSummaries() {
+        return ensureEventSummaries().continueWithTask(mappingExecutor, built -> {
+            if (!built.isSuccessful()) {
+                throw built.getException();
+            }
+            return coalesced(eventSummariesCollection).continueWith(mappingExecutor, this::parseEventSummaries);
+        });
+    }
+
+    /**
+     * Retrieves the summaries of all events created by a specific organizer.
+     *
+     * @param organizerHardwareID the hardware ID of the organizer
+     * @return a Task that resolves to a list of the organizer's event summaries
+     * @see #getEventSummaries()
+     */
+    public Task<List<EventSummary>> getEventSummariesByOrganizer(String organizerHardwareID) {
+        return ensureEventSummaries().continueWithTask(mappingExecutor, built -> {
+            if (!built.isSuccessful()) {
+                throw built.getException();
+            }
+            return coalesced(eventSummariesCollection
+                    .whereEqualTo("eventOrganizerHardwareID", organizerHardwareID))
+                    .continueWith(mappingExecutor, this::parseEventSummaries);
+        });
+    }
 
-                            // parse lists
-                            ArrayList<WaitlistEntry> waitList = parseWaitlistEntryList(doc.get("waitListEntrants"));
+    /**
+     * Retrieves one page of event summaries, ordered by start time.
+     * <p>
+     * Results are ordered by {@code startTime} ascending and paged with
+     * {@code startAfter}. Firestore breaks ties by document ID, so events with
+     * the same start time still page consistently. Pass the cursor of the previous {@link Page} to
+     * continue, or null to start from the first event.
+     *
+     * @param pageSize the maximum number of summaries to return
+     * @param cursor   the cursor from the previous page, or null for the first
+     *                 page
+     * @return a Task that resolves to a {@link Page} of event summaries.
+     *         Malformed documents are skipped.
+     */
+    public Task<Page<EventSummary>> getEventSummariesPage(int pageSize, DocumentSnapshot cursor) {
+        return getEventSummariesPage(null, null, pageSize, cursor);
+    }
 
-                            ArrayList<String> invitedList = parseHardwareIdList(doc.get("invitedEntrants"));
+    /**
+     * Retrieves one page of the summaries of events starting within a date
+     * range, ordered by start time.
+     * <p>
+     * The range is applied by Firestore, so only matching events are read.
+     * Events without a start time never match a bounded range.
+     *
+     * @param startFrom the earliest start time to include, or null if unbounded
+     * @param startTo   the latest start time to include, or null if unbounded
+     * @param pageSize  the maximum number of summaries to return
+     * @param cursor    the cursor from the previous page of the same range, or
+     *                  null for the first page
+     * @return a Task that resolves to a {@link Page} of event summaries.
+     *         Malformed documents are skipped.
+     * @see #getEventSummariesPage(int, DocumentSnapshot)
+     */
+    public Task<Page<EventSummary>> getEventSummariesPage(Date startFrom, Date startTo, int pageSize,
+            DocumentSnapshot cursor) {
+        return ensureEventSummaries().continueWithTask(mappingExecutor, built -> {
+            if (!built.isSuccessful()) {
+                throw built.getException();
+            }
 
-                            ArrayList<String> acceptedList = parseHardwareIdList(doc.get("acceptedEntrants"));
+            Query query = eventSummariesCollection;
+            if (startFrom != null) {
+                query = query.whereGreaterThanOrEqualTo("startTime", startFrom);
+            }
+            if (startTo != null) {
+                query = query.whereLessThanOrEqualTo("startTime", startTo);
+            }
+            query = query.orderBy("startTime").limit(pageSize);
 
-                            ArrayList<String> declinedList = parseHardwareIdList(doc.get("declinedEntrants"));
-                            ArrayList<String> cancelledList = parseHardwareIdList(doc.get("cancelledEntrants"));
+            if (cursor != null) {
+                query = query.startAfter(cursor);
+            }
 
-                            event.setWaitListEntrants(waitList);
-                            event.setInvitedEntrants(invitedList);
-                            event.setAcceptedEntrants(acceptedList);
-                            event.setDeclinedEntrants(declinedList);
-                            event.setCancelledEntrants(cancelledList);
+            return coalesced(query).continueWith(mappingExecutor, task -> {
+                List<EventSummary> summaries = parseEventSummaries(task);
 
-                            eventList.add(event);
+                List<DocumentSnapshot> docs = task.getResult().getDocuments();
+                DocumentSnapshot lastDoc = docs.isEmpty() ? null : docs.get(docs.size() - 1);
+                return new Page<>(summaries, lastDoc, docs.size() >= pageSize);
+            });
+        });
+    }
 
-                        } catch (Exception e) {
-                            Log.e("Database", "Failed to parse event: " + doc.getId(), e);
-                        }
-                    }
-                    return eventList;
-                });
+    /**
+     * Parses the result of an event summary query, skipping malformed documents.
+     *
+     * @param task the completed query task
+     * @return the parsed event summaries
+     * @throws Exception if the query failed
+     */
+    private List<EventSummary> parseEventSummaries(Task<QuerySnapshot> task) throws Exception {
+        if (!task.isSuccessful()) {
+            Log.e("Database", "Error getting event summaries", task.getException());
+            throw task.getException();
+        }
+
+        List<EventSummary> summaries = new ArrayList<>();
+        for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+            // A summary document holds the same fields as an event minus its lists
+            Event event = EventMapper.fromSnapshot(doc);
+            if (event != null && event.getEventName() != null) {
+                summaries.add(new EventSummary(event));
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Builds the Firestore field map stored as an event's summary.
+     *
+     * @param event the event to summarize
+     * @return a map of Firestore field names to values
+     */
+    private Map<String, Object> toEventSummaryData(Event event) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("uniqueEventID", event.getUniqueEventID());
+        data.put("eventName", event.getEventName());
+        data.put("eventDescription", event.getEventDescription());
+        data.put("lotteryCriteria", event.getLotteryCriteria());
+        data.put("startTime", event.getStartTime());
+        data.put("location", event.getLocation());
+        data.put("registrationStartTime", event.getRegistrationStartTime());
+        data.put("registrationEndTime", event.getRegistrationEndTime());
+        data.put("eventOrganizerHardwareID", event.getEventOrganizerHardwareID());
+        data.put("posterURL", event.getPosterURL());
+        data.put("requiresGeolocation", event.getRequiresGeolocation());
+        data.put("waitlistLimit", event.getWaitlistLimit());
+        data.put("waitlistStorageMode", event.getWaitlistStorageMode() == null
+                ? Event.WaitlistStorageMode.EMBEDDED.name() : event.getWaitlistStorageMode().name());
+        data.put("waitlistCount", event.getWaitlistCount());
+        data.put("invitedCount", event.getInvitedCount());
+        data.put("acceptedCount", event.getAcceptedCount());
+        data.put("declinedCount", event.getDeclinedCount());
+        data.put("cancelledCount", event.getCancelledCount());
+        return data;
+    }
+
+    /**
+     * Builds the event summaries once per database, for events that were
+     * created before summaries existed. Whether they have been built is recorded
+     * on the "eventSummaryData" document in the extras collection.
+     *
+     * @return a Task that completes when the summaries are known to exist
+     */
+    private Task<Void> ensureEventSummaries() {
+        if (eventSummariesBuilt) {
+            return Tasks.forResult(null);
+        }
+
+        DocumentReference flagRef = extrasCollection.document("eventSummaryData");
+        return flagRef.get().continueWithTask(mappingExecutor, task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            if (Boolean.TRUE.equals(task.getResult().getBoolean("built"))) {
+                eventSummariesBuilt = true;
+                return Tasks.<Void>forResult(null);
+            }
+
+            return rebuildEventSummaries().continueWithTask(mappingExecutor, rebuilt -> {
+                if (!rebuilt.isSuccessful()) {
+                    throw rebuilt.getException();
+                }
+                eventSummariesBuilt = true;
+                return flagRef.set(Collections.singletonMap("built", true));
+            });
+        });
+    }
+
+    /**
+     * Rewrites the summary of every event from the full event documents, in
+     * chunked batches. Used to build the summaries for existing events and to
+     * repair them if they ever drift.
+     *
+     * @return a Task that completes when every summary has been written
+     */
+    public Task<Void> rebuildEventSummaries() {
+        return eventsCollection.get().continueWithTask(mappingExecutor, task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            List<Event> events = new ArrayList<>();
+            for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                Event event = EventMapper.fromSnapshot(doc);
+                if (event != null && event.getUniqueEventID() != null) {
+                    events.add(event);
+                }
+            }
+
+            List<Task<Void>> commits = new ArrayList<>();
+            for (int start = 0; start < events.size(); start += MAX_BATCH_WRITES) {
+                WriteBatch batch = db.batch();
+                for (Event event : events.subList(start, Math.min(start + MAX_BATCH_WRITES, events.size()))) {
+                    batch.set(eventSummariesCollection.document(String.valueOf(event.getUniqueEventID())),
+                            toEventSummaryData(event));
+                }
+                commits.add(batch.commit());
+            }
+            return Tasks.whenAll(commits);
+        });
+    }
+
+    /**
+     * Removes the poster from an event and its summary without rewriting the
+     * rest of the event.
+     *
+     * @param eventID the unique identifier of the event
+     * @return a Task that completes when the poster URL has been cleared
+     */
+    public Task<Void> removeEventPoster(Long eventID) {
+        DocumentReference eventRef = eventsCollection.document(String.valueOf(eventID));
+
+        WriteBatch batch = db.batch();
+        batch.update(eventRef, "posterURL", null);
+        batch.set(eventSummariesCollection.document(String.valueOf(eventID)),
+                Collections.singletonMap("posterURL", null), SetOptions.merge());
+        return invalidateWhenDone(eventRef, batch.commit());
     }
 
     /**
@@ -836,8 +1740,8 @@ public class Database {
      * returned list
      * contains fully-typed user objects.
      * <p>
-     * This method manually parses each user to prevent the app from crashing if a
-     * single user document
+     * Each user is decoded by hand with {@link UserMapper} to prevent the app from
+     * crashing if a single user document
      * in Firebase is malformed, has null fields, or is missing a field that the
      * automatic
      * {@code .toObject()} converter would expect. This robust approach ensures that
@@ -854,9 +1758,8 @@ public class Database {
      * @author Arunavo Dutta
      */
     public Task<List<User>> getAllUsers() {
-        return usersCollection
-                .get()
-                .continueWith(task -> {
+        return coalesced(usersCollection)
+                .continueWith(mappingExecutor, task -> {
                     if (!task.isSuccessful()) {
                         Log.e("Database", "Error getting users list", task.getException());
                         throw task.getException();
@@ -865,62 +1768,13 @@ public class Database {
                     ArrayList<User> userList = new ArrayList<>();
 
                     for (DocumentSnapshot doc : task.getResult().getDocuments()) {
-                        try {
-                            // Get the type string from Firebase.
-                            String userTypeStr = doc.getString("userType");
-                            if (userTypeStr == null) {
-                                Log.e("Database", "Skipping user with null userType: " + doc.getId());
-                                continue;
-                            }
-
-                            // Convert string to Enum
-                            UserType type = UserType.valueOf(userTypeStr);
-
-                            // Get base fields common to all users
-                            String hardwareID = doc.getString("hardwareID");
-                            String firstName = doc.getString("firstName");
-                            String lastName = doc.getString("lastName");
-
-                            // Build the correct object based on its type
-                            switch (type) {
-                                case ENTRANT:
-                                    // Get all Entrant-specific fields
-                                    String email = doc.getString("email");
-                                    String phone = doc.getString("phoneNumber");
-
-                                    // Default useGeolocation to false if missing
-                                    boolean useGeo = doc.contains("useGeolocation") ? doc.getBoolean("useGeolocation")
-                                            : false;
-                                    boolean wantsNotifs = doc.contains("wantsNotifications")
-                                            ? doc.getBoolean("wantsNotifications")
-                                            : true;
-
-                                    // Create the object using its constructor
-                                    Entrant entrant = new Entrant(hardwareID, firstName, lastName, email, phone,
-                                            useGeo);
-                                    entrant.setWantsNotifications(wantsNotifs);
-
-                                    userList.add(entrant);
-                                    break;
-
-                                case ORGANIZER:
-                                    // Create the object
-                                    Organizer organizer = new Organizer(hardwareID, firstName, lastName);
-
-                                    userList.add(organizer);
-                                    break;
-
-                                case ADMINISTRATOR:
-                                    // Create the object
-                                    Administrator admin = new Administrator(hardwareID, firstName, lastName);
-                                    userList.add(admin);
-                                    break;
-                            }
-
-                        } catch (Exception e) {
-                            // If one document is malformed, log it and continue.
-                            Log.e("Database", "Failed to parse user: " + doc.getId(), e);
+                        // If one document is malformed, log it and continue.
+                        User user = UserMapper.fromSnapshot(doc);
+                        if (user == null || user.getUserType() == null) {
+                            Log.e("Database", "Skipping user without a known userType: " + doc.getId());
+                            continue;
                         }
+                        userList.add(user);
                     }
                     return userList;
                 });
@@ -960,6 +1814,14 @@ public class Database {
      * converting the
      * waitlist from a list of HashMaps into a list of {@code WaitlistEntry}
      * objects.
+     * <p>
+     * For events in {@link Event.WaitlistStorageMode#SUBCOLLECTION} mode the entry
+     * is written as its own document in the event's waitlist subcollection and
+     * {@code waitlistCount} is incremented. The registration window and limit
+     * are read from the event's summary instead of the event document. Without a
+     * limit a transaction reads only the entrant's own entry, so different
+     * entrants joining at the same time don't contend; with a limit it reads the
+     * summary and the entry.
      *
      * @param eventId The unique ID of the event to which the entrant will be added.
      * @param entrant The {@link Entrant} object to add to the waitlist.
@@ -974,8 +1836,41 @@ public class Database {
     public Task<Void> addEntrantToWaitlist(String eventId, Entrant entrant) {
         // Get reference to the event document
         DocumentReference eventRef = eventsCollection.document(String.valueOf(eventId));
+        DocumentReference summaryRef = eventSummariesCollection.document(eventRef.getId());
+        String entrantHardwareID = entrant.getHardwareID();
+
+        // The summary says where the waitlist is stored, so joining a
+        // subcollection waitlist never reads the event document
+        return invalidateWhenDone(eventRef, summaryRef.get().continueWithTask(mappingExecutor, task -> {
+            DocumentSnapshot summary = task.isSuccessful() ? task.getResult() : null;
+            // Summaries written before the storage mode was added also fall back
+            if (summary == null || !EventMapper.isWaitlistInSubcollection(summary)) {
+                return addEntrantViaEventDocument(eventRef, entrantHardwareID);
+            }
 
-        // Run a transaction to perform server-side checks and add the entrant
+            checkRegistrationWindow(summary);
+            if (summary.getLong("waitlistLimit") == null) {
+                return addWaitlistEntryDocument(eventRef, entrantHardwareID);
+            }
+            return addWaitlistEntryDocumentWithLimit(eventRef, entrantHardwareID);
+        }));
+    }
+
+    /**
+     * Adds an entrant to a waitlist by reading the event document in a
+     * transaction. Used for EMBEDDED waitlists, and for events whose summary
+     * does not record the storage mode yet.
+     *
+     * @param eventRef          the event document
+     * @param entrantHardwareID the hardware ID of the entrant to add
+     * @return a Task that completes when the entrant has been added
+     */
+    private Task<Void> addEntrantViaEventDocument(DocumentReference eventRef, String entrantHardwareID) {
+        DocumentReference entryRef = eventRef.collection(WAITLIST_SUBCOLLECTION).document(entrantHardwareID);
+
+        // Run a transaction to perform server-side checks and add the entrant.
+        // Returns false if the entrant still has to be added to the waitlist
+        // subcollection outside this transaction.
         return db.runTransaction(transaction -> {
             // Read the event document within the transaction
             DocumentSnapshot snapshot = transaction.get(eventRef);
@@ -984,10 +1879,6 @@ public class Database {
                 throw new RuntimeException("Event not found");
             }
 
-            // Get the date strings
-            Date registrationStartTime = snapshot.getDate("registrationStartTime");
-            Date registrationEndTime = snapshot.getDate("registrationEndTime");
-
             // Get waitlist limit
             Integer limit = null;
             if (snapshot.contains("waitlistLimit")) {
@@ -997,32 +1888,37 @@ public class Database {
                 }
             }
 
-            // Get current waitlist size
-            int waitlistSize = 0;
-            if (snapshot.contains("waitListEntrants")) {
-                List<?> rawList = (List<?>) snapshot.get("waitListEntrants");
-                if (rawList != null) {
-                    waitlistSize = rawList.size();
-                }
-            }
+            boolean inSubcollection = EventMapper.isWaitlistInSubcollection(snapshot);
+
+            // Get current waitlist size from the maintained counter
+            int waitlistSize = EventMapper.readCount(snapshot, "waitlistCount", "waitListEntrants");
 
             // Perform server-side checks
             if (limit != null && waitlistSize >= limit) {
                 throw new RuntimeException("Waitlist is full");
             }
+            checkRegistrationWindow(snapshot);
 
-            Date now = new Date(); // Server's current time
-            if (registrationEndTime != null && now.after(registrationEndTime)) {
-                throw new RuntimeException("Registration window has ended");
-            }
-            if (registrationStartTime != null && now.before(registrationStartTime)) {
-                throw new RuntimeException("Registration window has not yet started");
+            if (inSubcollection) {
+                // Without a limit the join does not need to hold the event document
+                if (limit == null) {
+                    return false;
+                }
+
+                // With a limit the count has to be checked and updated atomically
+                DocumentSnapshot entrySnapshot = transaction.get(entryRef);
+                if (!entrySnapshot.exists()) {
+                    transaction.set(entryRef, new WaitlistEntry(entrantHardwareID));
+                    transaction.update(eventRef, "waitlistCount", FieldValue.increment(1));
+                    updateSummaryCount(transaction, eventRef, "waitlistCount", 1);
+                }
+                return true;
             }
+
             // Check if entrant already exists on waitlist (arrayUnion won't work correctly
             // with null timestamp)
-            ArrayList<WaitlistEntry> currentWaitlist = parseWaitlistEntryList(snapshot.get("waitListEntrants"));
+            ArrayList<WaitlistEntry> currentWaitlist = EventMapper.parseWaitlistEntryList(snapshot.get("waitListEntrants"));
 
-            String entrantHardwareID = entrant.getHardwareID();
             boolean alreadyExists = false;
 
             for (WaitlistEntry existingEntry : currentWaitlist) {
@@ -1038,12 +1934,103 @@ public class Database {
                 WaitlistEntry entry = new WaitlistEntry(entrantHardwareID);
                 currentWaitlist.add(entry);
                 // Write the whole list back
-                transaction.update(eventRef, "waitListEntrants", currentWaitlist);
+                transaction.update(eventRef, "waitListEntrants", currentWaitlist,
+                        "waitlistCount", countUpdate(snapshot, "waitlistCount", currentWaitlist.size(), 1));
+                updateSummaryCount(transaction, eventRef, "waitlistCount", 1);
+            }
+            return true;
+        }).continueWithTask(mappingExecutor, task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            if (task.getResult()) {
+                return Tasks.<Void>forResult(null);
             }
-            return null; // Return null on success
+            return addWaitlistEntryDocument(eventRef, entrantHardwareID);
         });
     }
 
+    /**
+     * Adds an entrant's document to a subcollection waitlist without a limit.
+     * The transaction reads only the entrant's own entry, so that two joins by
+     * the same entrant cannot both count themselves, and bumps
+     * {@code waitlistCount} on the event and its summary with
+     * {@link FieldValue#increment(long)}. Joins by different entrants never
+     * contend, because neither the event nor the summary is read.
+     *
+     * @param eventRef          the event document
+     * @param entrantHardwareID the hardware ID of the entrant to add
+     * @return a Task that completes when the entrant has been added
+     */
+    private Task<Void> addWaitlistEntryDocument(DocumentReference eventRef, String entrantHardwareID) {
+        DocumentReference entryRef = eventRef.collection(WAITLIST_SUBCOLLECTION).document(entrantHardwareID);
+
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot entrySnapshot = transaction.get(entryRef);
+            if (entrySnapshot.exists()) {
+                return null;
+            }
+
+            transaction.set(entryRef, new WaitlistEntry(entrantHardwareID));
+            transaction.update(eventRef, "waitlistCount", FieldValue.increment(1));
+            updateSummaryCount(transaction, eventRef, "waitlistCount", 1);
+            return null;
+        });
+    }
+
+    /**
+     * Adds an entrant's document to a subcollection waitlist that has a limit.
+     * The transaction reads the capacity and count from the event's summary and
+     * the entrant's own entry, but not the event document.
+     *
+     * @param eventRef          the event document
+     * @param entrantHardwareID the hardware ID of the entrant to add
+     * @return a Task that completes when the entrant has been added
+     */
+    private Task<Void> addWaitlistEntryDocumentWithLimit(DocumentReference eventRef, String entrantHardwareID) {
+        DocumentReference entryRef = eventRef.collection(WAITLIST_SUBCOLLECTION).document(entrantHardwareID);
+        DocumentReference summaryRef = eventSummariesCollection.document(eventRef.getId());
+
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot summary = transaction.get(summaryRef);
+            DocumentSnapshot entrySnapshot = transaction.get(entryRef);
+            if (entrySnapshot.exists()) {
+                return null;
+            }
+
+            Long limit = summary.getLong("waitlistLimit");
+            int waitlistSize = EventMapper.readCount(summary, "waitlistCount", "waitListEntrants");
+            if (limit != null && waitlistSize >= limit) {
+                throw new RuntimeException("Waitlist is full");
+            }
+
+            transaction.set(entryRef, new WaitlistEntry(entrantHardwareID));
+            transaction.update(eventRef, "waitlistCount", FieldValue.increment(1));
+            updateSummaryCount(transaction, eventRef, "waitlistCount", 1);
+            return null;
+        });
+    }
+
+    /**
+     * Checks that an event's registration window is open, using the device's
+     * current time.
+     *
+     * @param snapshot the event or event summary document
+     * @throws RuntimeException if the window has not started or has ended
+     */
+    private static void checkRegistrationWindow(DocumentSnapshot snapshot) {
+        Date registrationStartTime = snapshot.getDate("registrationStartTime");
+        Date registrationEndTime = snapshot.getDate("registrationEndTime");
+
+        Date now = new Date();
+        if (registrationEndTime != null && now.after(registrationEndTime)) {
+            throw new RuntimeException("Registration window has ended");
+        }
+        if (registrationStartTime != null && now.before(registrationStartTime)) {
+            throw new RuntimeException("Registration window has not yet started");
+        }
+    }
+
     /**
      * Added by Arunavo Dutta
      * Removes an entrant from the waitlist of a specific event using a secure
@@ -1073,7 +2060,7 @@ public class Database {
      * preventing users from leaving the waitlist after the registration period has
      * closed.</li>
      * <li>It manually parses the {@link WaitlistEntry} list using
-     * {@link #parseWaitlistEntryList(Object)}.</li>
+     * {@link EventMapper#parseWaitlistEntryList(Object)}.</li>
      * <li>It finds the entry by comparing the nested {@link Entrant} objects (not
      * the WaitlistEntry itself).</li>
      * </ul>
@@ -1081,6 +2068,11 @@ public class Database {
      * fail with an exception,
      * ensuring the database remains in a consistent state.
      * </p>
+     * <p>
+     * For events in {@link Event.WaitlistStorageMode#SUBCOLLECTION} mode the
+     * entrant's document is deleted from the waitlist subcollection and
+     * {@code waitlistCount} is decremented.
+     * </p>
      *
      * @param eventId The unique identifier of the event from which the entrant will
      *                be removed.
@@ -1092,7 +2084,7 @@ public class Database {
      *         registration
      *         window is closed, or any other database error occurs.
      * @see WaitlistEntry
-     * @see #parseWaitlistEntryList(Object)
+     * @see EventMapper#parseWaitlistEntryList(Object)
      * @author Arunavo Dutta
      */ // Used by "Leave" button
     public Task<Void> removeEntrantFromWaitlist(String eventId, Entrant entrant) {
@@ -1100,8 +2092,10 @@ public class Database {
         DocumentReference eventRef = eventsCollection.document(String.valueOf(eventId));
         String targetHardwareID = entrant.getHardwareID();
 
-        // Run a transaction to perform server-side checks and remove the entrant
-        return db.runTransaction(transaction -> {
+        // Run a transaction to perform server-side checks and remove the entrant.
+        // Returns false if the entrant still has to be removed from the waitlist
+        // subcollection.
+        return invalidateWhenDone(eventRef, db.runTransaction(transaction -> {
             // Read the current state of the event
             DocumentSnapshot snapshot = transaction.get(eventRef);
 
@@ -1122,8 +2116,12 @@ public class Database {
                 throw new RuntimeException("Registration window has not yet started");
             }
 
+            if (EventMapper.isWaitlistInSubcollection(snapshot)) {
+                return false;
+            }
+
             // All checks passed, remove matching WaitlistEntry by hardware ID
-            ArrayList<WaitlistEntry> currentWaitlist = parseWaitlistEntryList(snapshot.get("waitListEntrants"));
+            ArrayList<WaitlistEntry> currentWaitlist = EventMapper.parseWaitlistEntryList(snapshot.get("waitListEntrants"));
 
             int indexToRemove = -1;
             for (int i = 0; i < currentWaitlist.size(); i++) {
@@ -1136,66 +2134,192 @@ public class Database {
 
             if (indexToRemove != -1) {
                 currentWaitlist.remove(indexToRemove);
-                transaction.update(eventRef, "waitListEntrants", currentWaitlist);
+                transaction.update(eventRef, "waitListEntrants", currentWaitlist,
+                        "waitlistCount", countUpdate(snapshot, "waitlistCount", currentWaitlist.size(), -1));
+                updateSummaryCount(transaction, eventRef, "waitlistCount", -1);
             }
 
-            return null;
-        });
+            return true;
+        }).continueWithTask(mappingExecutor, task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            if (task.getResult()) {
+                return Tasks.<Void>forResult(null);
+            }
+            return removeWaitlistEntryDocument(eventRef, targetHardwareID, null, null);
+        }));
     }
 
+    /**
+     * Moves an entrant from an event's waitlist to its accepted list.
+     * If the entrant is not on the waitlist, nothing is changed.
+     *
+     * @param eventId the unique identifier of the event
+     * @param entrant the entrant to move
+     * @return a Task that completes when the move has been committed
+     */
     public Task<Void> moveEntrantToAccepted(String eventId, Entrant entrant) {
-        DocumentReference eventRef = eventsCollection.document(String.valueOf(eventId));
-        String targetHardwareID = entrant.getHardwareID();
+        return moveEntrantFromWaitlist(eventId, entrant, "acceptedEntrants", "acceptedCount");
+    }
 
-        return db.runTransaction(transaction -> {
-            DocumentSnapshot snapshot = transaction.get(eventRef);
-            if (snapshot == null || !snapshot.exists()) {
-                throw new RuntimeException("Event not found!");
-            }
+    /**
+     * Moves an entrant from an event's waitlist to its invited list.
+     * If the entrant is not on the waitlist, nothing is changed.
+     *
+     * @param eventId the unique identifier of the event
+     * @param entrant the entrant to move
+     * @return a Task that completes when the move has been committed
+     */
+    public Task<Void> moveEntrantToInvited(String eventId, Entrant entrant) {
+        return moveEntrantFromWaitlist(eventId, entrant, "invitedEntrants", "invitedCount");
+    }
 
-            // Get the current waitlist
-            ArrayList<WaitlistEntry> currentWaitlist = parseWaitlistEntryList(snapshot.get("waitListEntrants"));
+    /**
+     * Retrieves one page of an event's waitlist subcollection, ordered by the
+     * time each entrant joined. Events in EMBEDDED mode keep their waitlist in
+     * {@link Event#getWaitListEntrants()} instead, so this returns an empty page
+     * for them.
+     *
+     * @param eventID  the unique identifier of the event
+     * @param pageSize the maximum number of entries to return
+     * @param cursor   the cursor from the previous page, or null for the first
+     *                 page
+     * @return a Task that resolves to a {@link Page} of waitlist entries.
+     *         Malformed entries are skipped.
+     */
+    public Task<Page<WaitlistEntry>> getWaitlist(Long eventID, int pageSize, DocumentSnapshot cursor) {
+        Query query = eventsCollection.document(String.valueOf(eventID))
+                .collection(WAITLIST_SUBCOLLECTION)
+                .orderBy("timeJoined")
+                .limit(pageSize);
+        if (cursor != null) {
+            query = query.startAfter(cursor);
+        }
 
-            // Find and remove the entrant from waitlist
-            String entrantHardwareToMove = null;
-            for (int i = 0; i < currentWaitlist.size(); i++) {
-                WaitlistEntry wlEntry = currentWaitlist.get(i);
-                if (wlEntry != null && targetHardwareID.equals(wlEntry.getEntrantHardwareID())) {
-                    entrantHardwareToMove = wlEntry.getEntrantHardwareID();
-                    currentWaitlist.remove(i);
-                    break;
-                }
+        // Entries are written in transactions, which do not update the local
+        // cache, so the page is always read from the server
+        return coalesced(query).continueWith(mappingExecutor, task -> {
+            if (!task.isSuccessful()) {
+                Log.e("Database", "Error getting waitlist page", task.getException());
+                throw task.getException();
             }
 
-            if (entrantHardwareToMove != null) {
-                // Update waitlist in DB
-                transaction.update(eventRef, "waitListEntrants", currentWaitlist);
-                // Add hardware ID to acceptedEntrants array (list of Strings)
-                transaction.update(eventRef, "acceptedEntrants",
-                        FieldValue.arrayUnion(entrantHardwareToMove));
-            } else {
-                // Entrant wasn't on the waitlist, maybe already moved
-                Log.w("Database", "Entrant not found on waitlist, could not move.");
+            List<WaitlistEntry> entries = new ArrayList<>();
+            List<DocumentSnapshot> docs = task.getResult().getDocuments();
+            for (DocumentSnapshot doc : docs) {
+                String hardwareID = doc.getString("entrantHardwareID");
+                if (hardwareID == null || hardwareID.isEmpty()) {
+                    continue; // skip malformed entry
+                }
+                entries.add(new WaitlistEntry(hardwareID, doc.getDate("timeJoined")));
             }
+            DocumentSnapshot lastDoc = docs.isEmpty() ? null : docs.get(docs.size() - 1);
+            return new Page<>(entries, lastDoc, docs.size() >= pageSize);
+        });
+    }
 
-            return null;
+    /**
+     * Retrieves an event's whole waitlist, for the few screens that work on every
+     * entrant at once, such as running a lottery. Events in EMBEDDED mode return
+     * the waitlist they already carry; events in SUBCOLLECTION mode are read
+     * with {@link #getWaitlist(Long, int, DocumentSnapshot)}, one page at a
+     * time, so this costs a read per entrant and should not be called for lists
+     * of events.
+     *
+     * @param event the event whose waitlist to load
+     * @return a Task that resolves to the waitlist entries in the order they
+     *         joined
+     */
+    public Task<List<WaitlistEntry>> getWaitlistEntries(Event event) {
+        if (event.getWaitlistStorageMode() != Event.WaitlistStorageMode.SUBCOLLECTION) {
+            ArrayList<WaitlistEntry> entries = event.getWaitListEntrants();
+            return Tasks.forResult(entries != null ? new ArrayList<>(entries) : new ArrayList<>());
+        }
+        return loadWaitlistPages(event.getUniqueEventID(), null, new ArrayList<>());
+    }
+
+    /**
+     * Reads the pages of a waitlist subcollection from a cursor until none are
+     * left.
+     *
+     * @param eventID the unique identifier of the event
+     * @param cursor  the cursor of the last page read, or null to start
+     * @param entries the entries read so far, added to in place
+     * @return a Task that resolves to every entry once the last page is read
+     */
+    private Task<List<WaitlistEntry>> loadWaitlistPages(Long eventID, DocumentSnapshot cursor,
+            List<WaitlistEntry> entries) {
+        return getWaitlist(eventID, WAITLIST_PAGE_SIZE, cursor).continueWithTask(mappingExecutor, task -> {
+            if (!task.isSuccessful())
+                throw task.getException();
+
+            Page<WaitlistEntry> page = task.getResult();
+            entries.addAll(page.getItems());
+            if (!page.hasMore()) {
+                return Tasks.forResult(entries);
+            }
+            return loadWaitlistPages(eventID, page.getCursor(), entries);
         });
     }
 
-    public Task<Void> moveEntrantToInvited(String eventId, Entrant entrant) {
+    /**
+     * Deletes several entrants' documents from an event's waitlist subcollection,
+     * e.g. after a lottery or when an account is deleted. {@code waitlistCount}
+     * is decremented once for each document that existed. Entrants without a
+     * document are skipped, so this does nothing for events in EMBEDDED mode,
+     * whose waitlist is stored by {@link #setEventData}.
+     *
+     * @param eventID     the unique identifier of the event
+     * @param hardwareIDs the hardware IDs of the entrants to remove
+     * @return a Task that completes when every entrant has been removed
+     */
+    public Task<Void> removeEntrantsFromWaitlist(Long eventID, Collection<String> hardwareIDs) {
+        DocumentReference eventRef = eventsCollection.document(String.valueOf(eventID));
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(hardwareIDs));
+        ids.removeIf(id -> id == null || "".equals(id));
+
+        return invalidateWhenDone(eventRef, TaskFanOut.start(ids, MAX_CONCURRENT_QUERIES,
+                id -> removeWaitlistEntryDocument(eventRef, id, null, null), null, null, mappingExecutor)
+                .getTask()
+                .continueWith(mappingExecutor, task -> {
+                    if (!task.isSuccessful()) {
+                        Log.e("Database", "Error removing entrants from waitlist", task.getException());
+                        throw task.getException();
+                    }
+                    return null;
+                }));
+    }
 
+    /**
+     * Removes an entrant from an event's waitlist and adds their hardware ID to
+     * another entrant list of the event, in either waitlist storage mode.
+     *
+     * @param eventId         the unique identifier of the event
+     * @param entrant         the entrant to move
+     * @param targetListField  the event field of the list to add the entrant to
+     * @param targetCountField the event field counting the entries of that list
+     * @return a Task that completes when the move has been committed
+     */
+    private Task<Void> moveEntrantFromWaitlist(String eventId, Entrant entrant, String targetListField,
+            String targetCountField) {
         DocumentReference eventRef = eventsCollection.document(String.valueOf(eventId));
         String targetHardwareID = entrant.getHardwareID();
 
-        return db.runTransaction(transaction -> {
-
+        // Returns false if the entrant still has to be moved out of the waitlist
+        // subcollection
+        return invalidateWhenDone(eventRef, db.runTransaction(transaction -> {
             DocumentSnapshot snapshot = transaction.get(eventRef);
             if (snapshot == null || !snapshot.exists()) {
                 throw new RuntimeException("Event not found!");
             }
 
+            if (EventMapper.isWaitlistInSubcollection(snapshot)) {
+                return false;
+            }
+
             // Get the current waitlist
-            ArrayList<WaitlistEntry> currentWaitlist = parseWaitlistEntryList(snapshot.get("waitListEntrants"));
+            ArrayList<WaitlistEntry> currentWaitlist = EventMapper.parseWaitlistEntryList(snapshot.get("waitListEntrants"));
 
             // Find and remove the entrant from waitlist
             String entrantHardwareToMove = null;
@@ -1210,125 +2334,535 @@ public class Database {
 
             if (entrantHardwareToMove != null) {
                 // Update waitlist in DB
-                transaction.update(eventRef, "waitListEntrants", currentWaitlist);
-                // Add hardware ID to invitedEntrants array (list of Strings)
-                transaction.update(eventRef, "invitedEntrants",
-                        FieldValue.arrayUnion(entrantHardwareToMove));
+                transaction.update(eventRef, "waitListEntrants", currentWaitlist,
+                        "waitlistCount", countUpdate(snapshot, "waitlistCount", currentWaitlist.size(), -1));
+                updateSummaryCount(transaction, eventRef, "waitlistCount", -1);
+
+                // Add hardware ID to the target array (list of Strings)
+                ArrayList<String> targetList = EventMapper.parseHardwareIdList(snapshot.get(targetListField));
+                if (!targetList.contains(entrantHardwareToMove)) {
+                    transaction.update(eventRef, targetListField, FieldValue.arrayUnion(entrantHardwareToMove),
+                            targetCountField, countUpdate(snapshot, targetCountField, targetList.size() + 1, 1));
+                    updateSummaryCount(transaction, eventRef, targetCountField, 1);
+                }
             } else {
                 // Entrant wasn't on the waitlist, maybe already moved
                 Log.w("Database", "Entrant not found on waitlist, could not move.");
             }
 
+            return true;
+        }).continueWithTask(mappingExecutor, task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            if (task.getResult()) {
+                return Tasks.<Void>forResult(null);
+            }
+            return removeWaitlistEntryDocument(eventRef, targetHardwareID, targetListField, targetCountField);
+        }));
+    }
+
+    /**
+     * Deletes an entrant's document from an event's waitlist subcollection and
+     * decrements the event's {@code waitlistCount}. If a target list is given,
+     * the entrant's hardware ID is also added to that list on the event and its
+     * count is incremented.
+     * <p>
+     * The transaction only reads the entry document, so it does not contend with
+     * other entrants joining or leaving the same event.
+     *
+     * @param eventRef        the event document
+     * @param hardwareID      the hardware ID of the entrant to remove
+     * @param targetListField  the event field to add the entrant to, or null
+     * @param targetCountField the event field counting that list, or null
+     * @return a Task that completes when the transaction is committed
+     */
+    private Task<Void> removeWaitlistEntryDocument(DocumentReference eventRef, String hardwareID,
+            String targetListField, String targetCountField) {
+        DocumentReference entryRef = eventRef.collection(WAITLIST_SUBCOLLECTION).document(hardwareID);
+
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot entrySnapshot = transaction.get(entryRef);
+            if (!entrySnapshot.exists()) {
+                // Entrant wasn't on the waitlist, maybe already moved
+                Log.w("Database", "Entrant not found on waitlist, could not remove.");
+                return null;
+            }
+
+            transaction.delete(entryRef);
+            transaction.update(eventRef, "waitlistCount", FieldValue.increment(-1));
+            updateSummaryCount(transaction, eventRef, "waitlistCount", -1);
+            if (targetListField != null) {
+                // An entrant on the waitlist is never also on another list, so the
+                // target count can be incremented without reading the event
+                transaction.update(eventRef, targetListField, FieldValue.arrayUnion(hardwareID),
+                        targetCountField, FieldValue.increment(1));
+                updateSummaryCount(transaction, eventRef, targetCountField, 1);
+            }
             return null;
         });
     }
 
-    public Task<Void> removeEntrantFromInvited(String eventId, Entrant entrant) {
-        if (eventId == null || entrant == null || entrant.getHardwareID() == null) {
-            return Tasks.forException(new IllegalArgumentException("Event ID and Entrant cannot be null"));
-        }
+    /**
+     * Moves an event's waitlist from the {@code waitListEntrants} array in the
+     * event document into one document per entrant under
+     * {@code events/{id}/waitlist/{hardwareId}}.
+     * <p>
+     * The existing entries are first copied in chunked batches while the event
+     * stays in EMBEDDED mode. A final transaction then copies any entrants that
+     * joined in the meantime, removes the array, stores {@code waitlistCount}
+     * and switches the event to SUBCOLLECTION mode. Running the migration on an
+     * event that has already been migrated does nothing.
+     *
+     * @param eventID the unique identifier of the event to migrate
+     * @return a Task that completes when the event has been migrated
+     */
+    public Task<Void> migrateWaitlistToSubcollection(Long eventID) {
+        DocumentReference eventRef = eventsCollection.document(String.valueOf(eventID));
+        CollectionReference waitlistRef = eventRef.collection(WAITLIST_SUBCOLLECTION);
 
-        DocumentReference eventRef = eventsCollection.document(eventId);
+        return invalidateWhenDone(eventRef, eventRef.get().continueWithTask(mappingExecutor, task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            DocumentSnapshot snapshot = task.getResult();
+            if (snapshot == null || !snapshot.exists()) {
+                throw new RuntimeException("Event not found");
+            }
+            if (EventMapper.isWaitlistInSubcollection(snapshot)) {
+                return Tasks.<Void>forResult(null);
+            }
 
-        return eventRef.update("invitedEntrants", FieldValue.arrayRemove(entrant.getHardwareID()))
-                .continueWithTask(task -> {
-                    if (!task.isSuccessful()) {
-                        throw task.getException();
+            // Copy the current entries; set() is idempotent if this is re-run
+            ArrayList<WaitlistEntry> entries = EventMapper.parseWaitlistEntryList(snapshot.get("waitListEntrants"));
+            List<Task<Void>> commits = new ArrayList<>();
+            for (int start = 0; start < entries.size(); start += MAX_BATCH_WRITES) {
+                WriteBatch batch = db.batch();
+                for (WaitlistEntry entry : entries.subList(start,
+                        Math.min(start + MAX_BATCH_WRITES, entries.size()))) {
+                    batch.set(waitlistRef.document(entry.getEntrantHardwareID()), entry);
+                }
+                commits.add(batch.commit());
+            }
+
+            Set<String> copied = new HashSet<>();
+            for (WaitlistEntry entry : entries) {
+                copied.add(entry.getEntrantHardwareID());
+            }
+
+            return Tasks.whenAll(commits).continueWithTask(mappingExecutor, copyTask -> {
+                if (!copyTask.isSuccessful()) {
+                    throw copyTask.getException();
+                }
+
+                return db.<Void>runTransaction(transaction -> {
+                    DocumentSnapshot latest = transaction.get(eventRef);
+                    if (!latest.exists() || EventMapper.isWaitlistInSubcollection(latest)) {
+                        return null;
                     }
 
-                    // Also remove from the entrant's invited events list
-                    DocumentReference entrantRef = usersCollection.document(entrant.getHardwareID());
-                    return entrantRef.update("invitedEvents", FieldValue.arrayRemove(Long.parseLong(eventId)));
+                    // Copy entrants who joined while the batches were committing
+                    ArrayList<WaitlistEntry> latestEntries = EventMapper.parseWaitlistEntryList(latest.get("waitListEntrants"));
+                    for (WaitlistEntry entry : latestEntries) {
+                        if (!copied.contains(entry.getEntrantHardwareID())) {
+                            transaction.set(waitlistRef.document(entry.getEntrantHardwareID()), entry);
+                        }
+                    }
+
+                    Map<String, Object> updates = new HashMap<>();
+                    updates.put("waitListEntrants", FieldValue.delete());
+                    updates.put("waitlistCount", latestEntries.size());
+                    updates.put("waitlistStorageMode", Event.WaitlistStorageMode.SUBCOLLECTION.name());
+                    transaction.update(eventRef, updates);
+                    Map<String, Object> summaryUpdates = new HashMap<>();
+                    summaryUpdates.put("waitlistCount", latestEntries.size());
+                    summaryUpdates.put("waitlistStorageMode", Event.WaitlistStorageMode.SUBCOLLECTION.name());
+                    transaction.set(eventSummariesCollection.document(eventRef.getId()), summaryUpdates,
+                            SetOptions.merge());
+                    return null;
                 });
+            });
+        }));
     }
 
     /**
-     * Manually parses a list from Firestore into a proper ArrayList of
-     * WaitlistEntry.
-     * Expects each item to be a Map with:
-     * - "entrantHardwareID": String
-     * - "timeJoined": Timestamp (optional)
+     * Reads a document, joining a read of the same document that is already in
+     * flight instead of starting another.
      *
-     * @param rawList the raw value from DocumentSnapshot.get("waitListEntrants")
-     * @return the list of waitlist entries parsed into Java objects
+     * @param ref the document to read
+     * @return a Task that resolves to the document snapshot
      */
-    public ArrayList<WaitlistEntry> parseWaitlistEntryList(Object rawList) {
-        ArrayList<WaitlistEntry> entryList = new ArrayList<>();
-        if (!(rawList instanceof List<?>)) {
-            return entryList;
+    private Task<DocumentSnapshot> coalesced(DocumentReference ref) {
+        return singleFlight.run(ref, () -> read(ref));
+    }
+
+    /**
+     * Runs a query on the server, joining an identical query that is already in
+     * flight instead of starting another. Queries are identical if they are
+     * equal, i.e. they have the same collection, filters, ordering, limit and
+     * cursors. The local cache is only used when the device is offline, as a
+     * cached result may be missing documents the cache has never seen.
+     *
+     * @param query the query to run
+     * @return a Task that resolves to the query snapshot
+     */
+    private Task<QuerySnapshot> coalesced(Query query) {
+        return singleFlight.run(query, query::get);
+    }
+
+    /**
+     * Runs a lookup by ID like {@link #coalesced(Query)}, but answers it from
+     * the local cache following the current {@link ReadPolicy} when every one of
+     * the {@code expectedCount} documents is cached. Only for whereIn queries on
+     * IDs, where the number of matching documents is known up front.
+     *
+     * @param query         the lookup to run
+     * @param expectedCount the number of IDs looked up
+     * @return a Task that resolves to the query snapshot
+     */
+    private Task<QuerySnapshot> coalesced(Query query, int expectedCount) {
+        return singleFlight.run(query, () -> read(query, expectedCount));
+    }
+
+    /**
+     * Reads a document following the current {@link ReadPolicy}. A document
+     * missing from the local cache, or written in a transaction since it was
+     * last read, is read from the server.
+     *
+     * @param ref the document to read
+     * @return a Task that resolves to the document snapshot
+     */
+    private Task<DocumentSnapshot> read(DocumentReference ref) {
+        ReadPolicy policy = readPolicy;
+        if (policy == ReadPolicy.SERVER_ONLY || serverReadRequired.remove(ref.getPath())) {
+            return ref.get();
         }
 
-        List<?> rawEntryList = (List<?>) rawList;
-        for (Object item : rawEntryList) {
-            if (item instanceof Map) {
-                try {
-                    Map<String, Object> map = (Map<String, Object>) item;
+        return ref.get(Source.CACHE).continueWithTask(mappingExecutor, task -> {
+            if (!task.isSuccessful() || !task.getResult().exists()) {
+                return ref.get();
+            }
 
-                    // Read hardware ID directly from the map
-                    String hardwareID = (String) map.get("entrantHardwareID");
-                    if (hardwareID == null || hardwareID.isEmpty()) {
-                        continue; // skip malformed entry
+            cacheReads.incrementAndGet();
+            if (policy == ReadPolicy.STALE_WHILE_REVALIDATE) {
+                DocumentSnapshot cached = task.getResult();
+                ref.get(Source.SERVER).addOnSuccessListener(mappingExecutor, fresh -> {
+                    if (!fresh.exists() || !Objects.equals(fresh.getData(), cached.getData())) {
+                        dropStale(ref);
                     }
+                });
+            }
+            return task;
+        });
+    }
 
-                    // Read timestamp, if present
-                    com.google.firebase.Timestamp timestamp = (com.google.firebase.Timestamp) map.get("timeJoined");
-                    Date timeJoined = (timestamp != null) ? timestamp.toDate() : null;
-
-                    // Build WaitlistEntry with hardware ID + time
-                    WaitlistEntry entry = new WaitlistEntry(hardwareID);
-                    entry.setTimeJoined(timeJoined);
+    /**
+     * Runs a lookup by ID following the current {@link ReadPolicy}. A lookup
+     * with fewer than {@code expectedCount} documents in the local cache is run
+     * on the server.
+     *
+     * @param query         the lookup to run
+     * @param expectedCount the number of IDs looked up
+     * @return a Task that resolves to the query snapshot
+     */
+    private Task<QuerySnapshot> read(Query query, int expectedCount) {
+        ReadPolicy policy = readPolicy;
+        if (policy == ReadPolicy.SERVER_ONLY) {
+            return query.get();
+        }
 
-                    entryList.add(entry);
+        return query.get(Source.CACHE).continueWithTask(mappingExecutor, task -> {
+            if (!task.isSuccessful() || task.getResult().size() < expectedCount) {
+                return query.get();
+            }
 
-                } catch (Exception e) {
-                    Log.e("Database", "Failed to parse one waitlist entry", e);
+            cacheReads.incrementAndGet();
+            if (policy == ReadPolicy.STALE_WHILE_REVALIDATE) {
+                Map<String, DocumentSnapshot> cached = new HashMap<>();
+                for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                    cached.put(doc.getReference().getPath(), doc);
                 }
+                query.get(Source.SERVER).addOnSuccessListener(mappingExecutor, fresh -> {
+                    for (DocumentSnapshot doc : fresh.getDocuments()) {
+                        DocumentSnapshot old = cached.remove(doc.getReference().getPath());
+                        if (old != null && !Objects.equals(doc.getData(), old.getData())) {
+                            dropStale(doc.getReference());
+                        }
+                    }
+                    // Documents no longer on the server
+                    for (DocumentSnapshot old : cached.values()) {
+                        dropStale(old.getReference());
+                    }
+                });
             }
+            return task;
+        });
+    }
+
+    /**
+     * Drops a document that changed on the server from the parsed caches, so
+     * the next read of it sees the change. If it is an event, the up-to-date
+     * event is loaded and passed to the {@link OnEventRefreshListener}s.
+     *
+     * @param ref the document that changed
+     */
+    private void dropStale(DocumentReference ref) {
+        staleCacheReads.incrementAndGet();
+        eventCache.invalidate(ref);
+        userCache.invalidate(ref);
+
+        if (eventRefreshListeners.isEmpty() || ref.getParent() == null
+                || !ref.getParent().getPath().equals(eventsCollection.getPath())) {
+            return;
+        }
+        Long eventID;
+        try {
+            eventID = Long.valueOf(ref.getId());
+        } catch (NumberFormatException e) {
+            return;
         }
-        return entryList;
+
+        // The background read has refreshed the local cache, so this does not wait on the server
+        getEvent(eventID).addOnSuccessListener(event -> {
+            for (OnEventRefreshListener listener : eventRefreshListeners) {
+                listener.onEventRefreshed(eventID, event);
+            }
+        });
+    }
+
+    /**
+     * Adds a listener that is given the up-to-date version of an event that was
+     * answered from the local cache and has changed on the server since. Under
+     * {@link ReadPolicy#STALE_WHILE_REVALIDATE} this is how a screen that showed
+     * cached events learns about the change.
+     *
+     * @param owner    the lifecycle the listener belongs to, or null to keep it
+     *                 until removed
+     * @param listener the listener to add
+     * @return a handle that removes the listener
+     */
+    public ListenerRegistration addOnEventRefreshListener(LifecycleOwner owner, OnEventRefreshListener listener) {
+        eventRefreshListeners.add(listener);
+        return listenerRegistry.register(owner, () -> eventRefreshListeners.remove(listener));
+    }
+
+    /**
+     * Returns where reads are answered from.
+     *
+     * @return the current read policy
+     */
+    public ReadPolicy getReadPolicy() {
+        return readPolicy;
+    }
+
+    /**
+     * Sets where reads are answered from. Reads already in flight are not
+     * affected.
+     *
+     * @param readPolicy the new read policy
+     */
+    public void setReadPolicy(ReadPolicy readPolicy) {
+        this.readPolicy = readPolicy;
+    }
+
+    /**
+     * Returns the number of reads answered from the local cache.
+     *
+     * @return the cache read counter
+     */
+    public long getCacheReadCount() {
+        return cacheReads.get();
+    }
+
+    /**
+     * Returns the number of background server reads that found a cached
+     * document out of date.
+     *
+     * @return the stale cache read counter
+     */
+    public long getStaleCacheReadCount() {
+        return staleCacheReads.get();
+    }
+
+    /**
+     * Returns the registry that removes snapshot listeners when the screen
+     * that opened them is destroyed.
+     *
+     * @return the listener registry of this database
+     */
+    public ListenerRegistry getListenerRegistry() {
+        return listenerRegistry;
+    }
+
+    /**
+     * Returns the total time spent turning Firestore results into model
+     * objects in this class's continuations.
+     *
+     * @return the mapping time, in milliseconds
+     */
+    public long getMappingMillis() {
+        return mappingExecutor.getMappingMillis();
+    }
+
+    /**
+     * Returns the time spent turning Firestore results into model objects on
+     * the main thread. Continuations run on background threads, so this only
+     * grows when the mapping queue is full.
+     *
+     * @return the main-thread mapping time, in milliseconds
+     */
+    public long getMainThreadMappingMillis() {
+        return mappingExecutor.getMainThreadMappingMillis();
+    }
+
+    /**
+     * Returns the number of reads that joined an identical read already in
+     * flight instead of going to Firestore.
+     *
+     * @return the coalesced read counter
+     */
+    public long getCoalescedReadCount() {
+        return singleFlight.getJoinedCount();
+    }
+
+    /**
+     * Drops an event from the {@link EventCache} once a write to it has
+     * finished, whether or not it succeeded, so the next read sees the result.
+     * The cache's snapshot listener would catch the change too, but only after
+     * the write has been echoed back by the server. A read of the event still
+     * in flight is not shared with later callers, as it may predate the write,
+     * and the next read goes to the server, as transactions do not update the
+     * local cache.
+     *
+     * @param eventRef the event document being written
+     * @param write    the write in progress
+     * @param <T>      the result type of the write
+     * @return a Task with the same outcome as {@code write}
+     */
+    private <T> Task<T> invalidateWhenDone(DocumentReference eventRef, Task<T> write) {
+        return write.continueWithTask(mappingExecutor, task -> {
+            singleFlight.forget(eventRef);
+            serverReadRequired.add(eventRef.getPath());
+            eventCache.invalidate(eventRef);
+            return task;
+        });
+    }
+
+    /**
+     * Applies a change to one of the entrant counters on an event's summary
+     * document as part of a transaction. The summary is not read, so this does
+     * not add contention to the transaction.
+     *
+     * @param transaction the transaction to write in
+     * @param eventRef    the event document whose summary should change
+     * @param countField  the counter field, e.g. "waitlistCount"
+     * @param delta       the change to the counter
+     */
+    private void updateSummaryCount(Transaction transaction, DocumentReference eventRef, String countField,
+            long delta) {
+        transaction.set(eventSummariesCollection.document(eventRef.getId()),
+                Collections.singletonMap(countField, FieldValue.increment(delta)), SetOptions.merge());
+    }
+
+    /**
+     * Builds the value to write to a maintained entrant counter. Uses
+     * {@link FieldValue#increment(long)} when the counter already exists, and
+     * writes the exact new size for events written before the counters existed.
+     *
+     * @param snapshot   the event document snapshot read in the transaction
+     * @param countField the counter field, e.g. "invitedCount"
+     * @param newSize    the size of the list after the change
+     * @param delta      the change to the counter
+     * @return the value to store in the counter field
+     */
+    private static Object countUpdate(DocumentSnapshot snapshot, String countField, int newSize, long delta) {
+        return snapshot.contains(countField) ? FieldValue.increment(delta) : newSize;
+    }
+
+    public Task<Void> removeEntrantFromInvited(String eventId, Entrant entrant) {
+        if (eventId == null || entrant == null || entrant.getHardwareID() == null) {
+            return Tasks.forException(new IllegalArgumentException("Event ID and Entrant cannot be null"));
+        }
+
+        DocumentReference eventRef = eventsCollection.document(eventId);
+        String hardwareID = entrant.getHardwareID();
+
+        return invalidateWhenDone(eventRef, db.<Void>runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(eventRef);
+            if (!snapshot.exists()) {
+                throw new RuntimeException("Event not found!");
+            }
+
+            ArrayList<String> invited = EventMapper.parseHardwareIdList(snapshot.get("invitedEntrants"));
+            if (invited.contains(hardwareID)) {
+                transaction.update(eventRef, "invitedEntrants", FieldValue.arrayRemove(hardwareID),
+                        "invitedCount", countUpdate(snapshot, "invitedCount", invited.size() - 1, -1));
+                updateSummaryCount(transaction, eventRef, "invitedCount", -1);
+            }
+            return null;
+        })
+                .continueWithTask(mappingExecutor, task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+
+                    // Also remove from the entrant's invited events list
+                    DocumentReference entrantRef = usersCollection.document(entrant.getHardwareID());
+                    userCache.invalidate(entrantRef);
+                    return entrantRef.update("invitedEvents", FieldValue.arrayRemove(Long.parseLong(eventId)));
+                }));
     }
 
     /**
      * Retrieves a list of Event objects for the given list of event IDs.
-     * This method reuses {@link #getEvent(Long)} for each ID and aggregates
-     * the results into a single Task. Any events that cannot be found or
-     * parsed (getEvent returns null) are skipped in the final list.
+     * <p>
+     * The IDs are de-duplicated and split into chunks of
+     * {@link #WHERE_IN_CHUNK_SIZE}, and each chunk is fetched with a
+     * {@code whereIn} query on {@code uniqueEventID}, so a long list of IDs
+     * costs a few queries instead of one round trip per event. The returned
+     * events follow the order of the given IDs. Any events that cannot be found
+     * or parsed are skipped in the final list.
      *
      * @param eventIds a list of event IDs to look up
      * @return a Task that resolves to a List<Event> for all successfully
      *         loaded events. The list may be empty but is never null.
      */
     public Task<List<Event>> getEventsByIds(List<Long> eventIds) {
-        if (eventIds == null || eventIds.isEmpty()) {
+        List<List<Long>> chunks = chunkIds(eventIds);
+        if (chunks.isEmpty()) {
             return Tasks.forResult(new ArrayList<>());
         }
 
-        List<Task<Event>> lookupTasks = new ArrayList<>();
-        for (Long id : eventIds) {
-            if (id != null) {
-                lookupTasks.add(getEvent(id));
-            }
-        }
+        return TaskFanOut.start(chunks, MAX_CONCURRENT_QUERIES,
+                chunk -> coalesced(eventsCollection.whereIn("uniqueEventID", chunk), chunk.size()),
+                null, null, mappingExecutor)
+                .getTask()
+                .continueWith(mappingExecutor, task -> {
+                    if (!task.isSuccessful()) {
+                        Log.e("Database", "Error getting events by IDs", task.getException());
+                        throw task.getException();
+                    }
 
-        if (lookupTasks.isEmpty()) {
-            return Tasks.forResult(new ArrayList<>());
-        }
+                    Map<Long, Event> eventsById = new HashMap<>();
+                    for (QuerySnapshot snapshot : task.getResult()) {
+                        for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                            Event event = EventMapper.fromSnapshot(doc);
+                            if (event != null && event.getUniqueEventID() != null) {
+                                eventsById.put(event.getUniqueEventID(), event);
+                            }
+                        }
+                    }
 
-        return Tasks
-                .whenAllSuccess(lookupTasks)
-                .continueWith(task -> {
-                    List<?> rawResults = task.getResult();
+                    // Rebuild the caller's order from the de-duplicated chunks
                     List<Event> events = new ArrayList<>();
-
-                    if (rawResults != null) {
-                        for (Object obj : rawResults) {
-                            if (obj instanceof Event) {
-                                events.add((Event) obj);
+                    for (List<Long> chunk : chunks) {
+                        for (Long id : chunk) {
+                            Event event = eventsById.get(id);
+                            if (event != null) {
+                                events.add(event);
                             }
-                            // if null or wrong type, skip
                         }
                     }
-
                     return events;
                 });
     }
@@ -124,7 +124,7 @@ public class EntrantActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
 
         // create new instance of database
-        db = new Database();
+        db = Database.getInstance();
 
         // create fused location client
         fused = LocationServices.getFusedLocationProviderClient(this);
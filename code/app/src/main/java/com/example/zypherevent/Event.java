@@ -3,10 +3,16 @@ package com.example.zypherevent;
 import com.example.zypherevent.userTypes.Entrant;
 import com.example.zypherevent.userTypes.Organizer;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * @author Elliot Chrystal
@@ -109,6 +115,62 @@ public class Event implements Serializable {
      */
     private ArrayList<String> cancelledEntrants;
 
+    /**
+     * The number of entrants on the waitlist. Stored on the event document so
+     * capacity checks and list screens don't need the full waitlist.
+     */
+    private int waitlistCount;
+
+    /**
+     * The number of entrants with pending invitations.
+     */
+    private int invitedCount;
+
+    /**
+     * The number of entrants who have accepted their invitation.
+     */
+    private int acceptedCount;
+
+    /**
+     * The number of entrants who have declined their invitation.
+     */
+    private int declinedCount;
+
+    /**
+     * The number of entrants whose selection was cancelled.
+     */
+    private int cancelledCount;
+
+    /**
+     * Where this event's waitlist entries are stored in Firestore.
+     * Defaults to {@link WaitlistStorageMode#EMBEDDED} for existing events.
+     */
+    private WaitlistStorageMode waitlistStorageMode = WaitlistStorageMode.EMBEDDED;
+
+    /**
+     * Reads an entrant list field from the event's Firestore document. Set by
+     * {@link EventMapper}; a list is only read from the document and parsed the
+     * first time the matching getter is called, so screens that only show
+     * counts never decode the lists.
+     */
+    private transient Function<String, Object> entrantListSource;
+
+    /**
+     * The entrant list fields that have not been read from
+     * {@link #entrantListSource} yet.
+     */
+    private transient Set<String> unreadEntrantLists;
+
+    /**
+     * Where an event's waitlist entries are stored in Firestore.
+     */
+    public enum WaitlistStorageMode {
+        /** Entries are stored in the event document's waitListEntrants array. */
+        EMBEDDED,
+        /** Each entry is its own document in the event's "waitlist" subcollection. */
+        SUBCOLLECTION
+    }
+
     /**
      * The status of the join and leave waitlist operation.
      */
@@ -203,6 +265,44 @@ public class Event implements Serializable {
         this.cancelledEntrants = new ArrayList<>();
     }
 
+    /**
+     * Constructs a copy of another Event. The entrant lists are copied, so
+     * changing the lists of the copy does not affect the original.
+     *
+     * @param other the event to copy
+     */
+    public Event(Event other) {
+        this.uniqueEventID = other.uniqueEventID;
+        this.eventName = other.eventName;
+        this.eventDescription = other.eventDescription;
+        this.lotteryCriteria = other.lotteryCriteria;
+        this.startTime = other.startTime;
+        this.location = other.location;
+        this.registrationStartTime = other.registrationStartTime;
+        this.registrationEndTime = other.registrationEndTime;
+        this.posterURL = other.posterURL;
+        this.eventOrganizerHardwareID = other.eventOrganizerHardwareID;
+        this.requiresGeolocation = other.requiresGeolocation;
+        this.waitlistLimit = other.waitlistLimit;
+
+        this.waitListEntrants = other.waitListEntrants != null ? new ArrayList<>(other.waitListEntrants) : new ArrayList<>();
+        this.invitedEntrants = other.invitedEntrants != null ? new ArrayList<>(other.invitedEntrants) : new ArrayList<>();
+        this.acceptedEntrants = other.acceptedEntrants != null ? new ArrayList<>(other.acceptedEntrants) : new ArrayList<>();
+        this.declinedEntrants = other.declinedEntrants != null ? new ArrayList<>(other.declinedEntrants) : new ArrayList<>();
+        this.cancelledEntrants = other.cancelledEntrants != null ? new ArrayList<>(other.cancelledEntrants) : new ArrayList<>();
+
+        // Unread lists come from read-only snapshot data, so the copy can share the source
+        this.entrantListSource = other.entrantListSource;
+        this.unreadEntrantLists = other.unreadEntrantLists != null ? new HashSet<>(other.unreadEntrantLists) : null;
+
+        this.waitlistCount = other.waitlistCount;
+        this.invitedCount = other.invitedCount;
+        this.acceptedCount = other.acceptedCount;
+        this.declinedCount = other.declinedCount;
+        this.cancelledCount = other.cancelledCount;
+        this.waitlistStorageMode = other.waitlistStorageMode;
+    }
+
     /**
      * Returns the unique identifier for the event.
      *
@@ -396,15 +496,43 @@ public class Event implements Serializable {
      * @return the list of waitlisted entrants
      */
     public ArrayList<WaitlistEntry> getWaitListEntrants() {
+        Object raw = readEntrantList("waitListEntrants");
+        if (raw != null) {
+            waitListEntrants = EventMapper.parseWaitlistEntryList(raw);
+        }
         return waitListEntrants;
     }
 
+    /**
+     * Returns where this event's waitlist entries are stored in Firestore.
+     *
+     * @return the waitlist storage mode
+     */
+    public WaitlistStorageMode getWaitlistStorageMode() {
+        return waitlistStorageMode;
+    }
+
+    /**
+     * Sets where this event's waitlist entries are stored in Firestore.
+     * Use {@link Database#migrateWaitlistToSubcollection(Long)} to move an
+     * existing event's waitlist rather than changing this directly.
+     *
+     * @param waitlistStorageMode the waitlist storage mode, null for EMBEDDED
+     */
+    public void setWaitlistStorageMode(WaitlistStorageMode waitlistStorageMode) {
+        this.waitlistStorageMode = waitlistStorageMode != null ? waitlistStorageMode : WaitlistStorageMode.EMBEDDED;
+    }
+
     /**
      * Returns a list of entrants with pending invitations.
      *
      * @return the list of invited entrants
      */
     public ArrayList<String> getInvitedEntrants() {
+        Object raw = readEntrantList("invitedEntrants");
+        if (raw != null) {
+            invitedEntrants = EventMapper.parseHardwareIdList(raw);
+        }
         return invitedEntrants;
     }
 
@@ -414,6 +542,10 @@ public class Event implements Serializable {
      * @return the list of accepted entrants hardware IDs
      */
     public ArrayList<String> getAcceptedEntrants() {
+        Object raw = readEntrantList("acceptedEntrants");
+        if (raw != null) {
+            acceptedEntrants = EventMapper.parseHardwareIdList(raw);
+        }
         return acceptedEntrants;
     }
 
@@ -423,6 +555,10 @@ public class Event implements Serializable {
      * @return the list of declined entrants hardware IDs
      */
     public ArrayList<String> getDeclinedEntrants() {
+        Object raw = readEntrantList("declinedEntrants");
+        if (raw != null) {
+            declinedEntrants = EventMapper.parseHardwareIdList(raw);
+        }
         return declinedEntrants;
     }
 
@@ -432,9 +568,58 @@ public class Event implements Serializable {
      * @return the list of cancelled entrants hardware IDs
      */
     public ArrayList<String> getCancelledEntrants() {
+        Object raw = readEntrantList("cancelledEntrants");
+        if (raw != null) {
+            cancelledEntrants = EventMapper.parseHardwareIdList(raw);
+        }
         return cancelledEntrants;
     }
 
+    /**
+     * Returns the number of entrants on the waitlist.
+     *
+     * @return the waitlist count
+     */
+    public int getWaitlistCount() {
+        return waitlistCount;
+    }
+
+    /**
+     * Returns the number of entrants with pending invitations.
+     *
+     * @return the invited count
+     */
+    public int getInvitedCount() {
+        return invitedCount;
+    }
+
+    /**
+     * Returns the number of entrants who have accepted their invitation.
+     *
+     * @return the accepted count
+     */
+    public int getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    /**
+     * Returns the number of entrants who have declined their invitation.
+     *
+     * @return the declined count
+     */
+    public int getDeclinedCount() {
+        return declinedCount;
+    }
+
+    /**
+     * Returns the number of entrants whose selection was cancelled.
+     *
+     * @return the cancelled count
+     */
+    public int getCancelledCount() {
+        return cancelledCount;
+    }
+
     /**
      * Adds an entrant's hardware ID to the event's waitlist.
      * The entrant will only be added if they are not already in the list.
@@ -453,7 +638,7 @@ public class Event implements Serializable {
         }
 
         // Enforce waitlist limit (if set)
-        if (this.waitlistLimit != null && this.waitListEntrants.size() >= this.waitlistLimit) {
+        if (this.waitlistLimit != null && this.waitlistCount >= this.waitlistLimit) {
             throw new IllegalStateException("Waitlist is full");
         }
 
@@ -469,7 +654,7 @@ public class Event implements Serializable {
 
         // Check if entrant is already on waitlist by comparing hardware IDs
         boolean alreadyOnWaitlist = false;
-        for (WaitlistEntry existingEntry : waitListEntrants) {
+        for (WaitlistEntry existingEntry : getWaitListEntrants()) {
             if (existingEntry != null &&
                     entrantHardwareID.equals(existingEntry.getEntrantHardwareID())) {
                 alreadyOnWaitlist = true;
@@ -479,7 +664,8 @@ public class Event implements Serializable {
 
         if (!alreadyOnWaitlist) {
             WaitlistEntry entry = new WaitlistEntry(entrantHardwareID);
-            waitListEntrants.add(entry);
+            getWaitListEntrants().add(entry);
+            waitlistCount = getWaitListEntrants().size();
         }
     }
 
@@ -490,7 +676,8 @@ public class Event implements Serializable {
      * @param entry the entrant to remove from the waitlist
      */
     public void removeEntrantFromWaitList(WaitlistEntry entry) {
-        waitListEntrants.remove(entry);
+        getWaitListEntrants().remove(entry);
+        waitlistCount = getWaitListEntrants().size();
     }
 
     /**
@@ -501,8 +688,9 @@ public class Event implements Serializable {
      */
     public void removeEntrantFromWaitList(String entrantHardwareID) {
         if (waitListEntrants == null) return;
-        waitListEntrants.removeIf(entry ->
+        getWaitListEntrants().removeIf(entry ->
                 entrantHardwareID.equals(entry.getEntrantHardwareID()));
+        waitlistCount = getWaitListEntrants().size();
     }
 
     /**
@@ -512,8 +700,9 @@ public class Event implements Serializable {
      * @param entrantHardwareID the entrant to add to the invited entrants list
      */
     public void addEntrantToInvitedList(String entrantHardwareID) {
-        if (!invitedEntrants.contains(entrantHardwareID)) {
-            invitedEntrants.add(entrantHardwareID);
+        if (!getInvitedEntrants().contains(entrantHardwareID)) {
+            getInvitedEntrants().add(entrantHardwareID);
+            invitedCount = getInvitedEntrants().size();
         }
     }
 
@@ -524,7 +713,8 @@ public class Event implements Serializable {
      * @param entrantHardwareID the entrant hardware ID to remove from the invited list
      */
     public void removeEntrantFromInvitedList(String entrantHardwareID) {
-        invitedEntrants.remove(entrantHardwareID);
+        getInvitedEntrants().remove(entrantHardwareID);
+        invitedCount = getInvitedEntrants().size();
     }
 
     /**
@@ -534,8 +724,9 @@ public class Event implements Serializable {
      * @param entrantHardwareID the entrant to add to the accepted list
      */
     public void addEntrantToAcceptedList(String entrantHardwareID) {
-        if (!acceptedEntrants.contains(entrantHardwareID)) {
-            acceptedEntrants.add(entrantHardwareID);
+        if (!getAcceptedEntrants().contains(entrantHardwareID)) {
+            getAcceptedEntrants().add(entrantHardwareID);
+            acceptedCount = getAcceptedEntrants().size();
         }
     }
 
@@ -546,7 +737,8 @@ public class Event implements Serializable {
      * @param entrantHardwareID the entrant hardware ID to remove from the accepted list
      */
     public void removeEntrantFromAcceptedList(String entrantHardwareID) {
-        acceptedEntrants.remove(entrantHardwareID);
+        getAcceptedEntrants().remove(entrantHardwareID);
+        acceptedCount = getAcceptedEntrants().size();
     }
 
     /**
@@ -556,8 +748,9 @@ public class Event implements Serializable {
      * @param entrantHardwareID the entrant hardware ID to add to the declined list
      */
     public void addEntrantToDeclinedList(String entrantHardwareID) {
-        if (!declinedEntrants.contains(entrantHardwareID)) {
-            declinedEntrants.add(entrantHardwareID);
+        if (!getDeclinedEntrants().contains(entrantHardwareID)) {
+            getDeclinedEntrants().add(entrantHardwareID);
+            declinedCount = getDeclinedEntrants().size();
         }
     }
 
@@ -568,7 +761,8 @@ public class Event implements Serializable {
      * @param entrantHardwareID the entrant hardware ID to remove from the declined list
      */
     public void removeEntrantFromDeclinedList(String entrantHardwareID) {
-        declinedEntrants.remove(entrantHardwareID);
+        getDeclinedEntrants().remove(entrantHardwareID);
+        declinedCount = getDeclinedEntrants().size();
     }
 
     /**
@@ -593,18 +787,18 @@ public class Event implements Serializable {
         if (waitListEntrants == null) waitListEntrants = new ArrayList<>();
 
         // Already in one of the lists?
-        if (invitedEntrants.contains(entrantHardwareID)) {
+        if (getInvitedEntrants().contains(entrantHardwareID)) {
             return WaitlistOperationResult.ALREADY_INVITED;
         }
-        if (acceptedEntrants.contains(entrantHardwareID)) {
+        if (getAcceptedEntrants().contains(entrantHardwareID)) {
             return WaitlistOperationResult.ALREADY_ACCEPTED;
         }
-        if (declinedEntrants.contains(entrantHardwareID)) {
+        if (getDeclinedEntrants().contains(entrantHardwareID)) {
             return WaitlistOperationResult.ALREADY_DECLINED;
         }
 
         // Already on waitlist?
-        for (WaitlistEntry entry : waitListEntrants) {
+        for (WaitlistEntry entry : getWaitListEntrants()) {
             if (entry != null && entrantHardwareID.equals(entry.getEntrantHardwareID())) {
                 return WaitlistOperationResult.ALREADY_ON_WAITLIST;
             }
@@ -620,12 +814,13 @@ public class Event implements Serializable {
         }
 
         // Enforce waitlist limit (if set)
-        if (waitlistLimit != null && waitListEntrants.size() >= waitlistLimit) {
+        if (waitlistLimit != null && waitlistCount >= waitlistLimit) {
             return WaitlistOperationResult.WAITLIST_FULL;
         }
 
         // All good – add to waitlist
-        waitListEntrants.add(new WaitlistEntry(entrantHardwareID));
+        getWaitListEntrants().add(new WaitlistEntry(entrantHardwareID));
+        waitlistCount = getWaitListEntrants().size();
         return WaitlistOperationResult.SUCCESS;
     }
 
@@ -640,13 +835,14 @@ public class Event implements Serializable {
             throw new IllegalArgumentException("Entrant hardware ID cannot be null or empty");
         }
 
-        if (waitListEntrants == null || waitListEntrants.isEmpty()) {
+        if (waitListEntrants == null || getWaitListEntrants().isEmpty()) {
             return WaitlistOperationResult.NOT_ON_WAITLIST;
         }
 
-        boolean removed = waitListEntrants.removeIf(
+        boolean removed = getWaitListEntrants().removeIf(
                 entry -> entry != null && entrantHardwareID.equals(entry.getEntrantHardwareID())
         );
+        waitlistCount = getWaitListEntrants().size();
 
         return removed ? WaitlistOperationResult.SUCCESS
                 : WaitlistOperationResult.NOT_ON_WAITLIST;
@@ -664,20 +860,20 @@ public class Event implements Serializable {
             return EntrantStatus.NONE;
         }
 
-        if (acceptedEntrants != null && acceptedEntrants.contains(entrantHardwareID)) {
+        if (acceptedEntrants != null && getAcceptedEntrants().contains(entrantHardwareID)) {
             return EntrantStatus.ACCEPTED;
         }
 
-        if (invitedEntrants != null && invitedEntrants.contains(entrantHardwareID)) {
+        if (invitedEntrants != null && getInvitedEntrants().contains(entrantHardwareID)) {
             return EntrantStatus.INVITED;
         }
 
-        if (declinedEntrants != null && declinedEntrants.contains(entrantHardwareID)) {
+        if (declinedEntrants != null && getDeclinedEntrants().contains(entrantHardwareID)) {
             return EntrantStatus.DECLINED;
         }
 
         if (waitListEntrants != null) {
-            for (WaitlistEntry entry : waitListEntrants) {
+            for (WaitlistEntry entry : getWaitListEntrants()) {
                 if (entry != null &&
                         entrantHardwareID.equals(entry.getEntrantHardwareID())) {
                     return EntrantStatus.WAITLISTED;
@@ -718,6 +914,8 @@ public class Event implements Serializable {
      */
     public void setWaitListEntrants(ArrayList<WaitlistEntry> waitListEntrants) {
         this.waitListEntrants = Objects.requireNonNullElseGet(waitListEntrants, ArrayList::new);
+        markEntrantListRead("waitListEntrants");
+        this.waitlistCount = this.waitListEntrants.size();
     }
 
     /**
@@ -727,6 +925,8 @@ public class Event implements Serializable {
      */
     public void setInvitedEntrants(ArrayList<String> invitedEntrants) {
         this.invitedEntrants = Objects.requireNonNullElseGet(invitedEntrants, ArrayList::new);
+        markEntrantListRead("invitedEntrants");
+        this.invitedCount = this.invitedEntrants.size();
     }
 
     /**
@@ -736,6 +936,8 @@ public class Event implements Serializable {
      */
     public void setAcceptedEntrants(ArrayList<String> acceptedEntrants) {
         this.acceptedEntrants = Objects.requireNonNullElseGet(acceptedEntrants, ArrayList::new);
+        markEntrantListRead("acceptedEntrants");
+        this.acceptedCount = this.acceptedEntrants.size();
     }
 
     /**
@@ -745,6 +947,8 @@ public class Event implements Serializable {
      */
     public void setDeclinedEntrants(ArrayList<String> declinedEntrants) {
         this.declinedEntrants = Objects.requireNonNullElseGet(declinedEntrants, ArrayList::new);
+        markEntrantListRead("declinedEntrants");
+        this.declinedCount = this.declinedEntrants.size();
     }
 
     /**
@@ -754,6 +958,53 @@ public class Event implements Serializable {
      */
     public void setCancelledEntrants(ArrayList<String> cancelledEntrants) {
         this.cancelledEntrants = Objects.requireNonNullElseGet(cancelledEntrants, ArrayList::new);
+        markEntrantListRead("cancelledEntrants");
+        this.cancelledCount = this.cancelledEntrants.size();
+    }
+
+    /**
+     * Sets the number of entrants on the waitlist. ONLY to be used by firestore.
+     *
+     * @param waitlistCount the waitlist count stored on the event document
+     */
+    public void setWaitlistCount(int waitlistCount) {
+        this.waitlistCount = waitlistCount;
+    }
+
+    /**
+     * Sets the number of invited entrants. ONLY to be used by firestore.
+     *
+     * @param invitedCount the invited count stored on the event document
+     */
+    public void setInvitedCount(int invitedCount) {
+        this.invitedCount = invitedCount;
+    }
+
+    /**
+     * Sets the number of accepted entrants. ONLY to be used by firestore.
+     *
+     * @param acceptedCount the accepted count stored on the event document
+     */
+    public void setAcceptedCount(int acceptedCount) {
+        this.acceptedCount = acceptedCount;
+    }
+
+    /**
+     * Sets the number of declined entrants. ONLY to be used by firestore.
+     *
+     * @param declinedCount the declined count stored on the event document
+     */
+    public void setDeclinedCount(int declinedCount) {
+        this.declinedCount = declinedCount;
+    }
+
+    /**
+     * Sets the number of cancelled entrants. ONLY to be used by firestore.
+     *
+     * @param cancelledCount the cancelled count stored on the event document
+     */
+    public void setCancelledCount(int cancelledCount) {
+        this.cancelledCount = cancelledCount;
     }
 
     /**
@@ -763,8 +1014,9 @@ public class Event implements Serializable {
      * @param entrantHardwareID the entrant hardware ID to add to the cancelled list
      */
     public void addEntrantToCancelledList(String entrantHardwareID) {
-        if (!cancelledEntrants.contains(entrantHardwareID)) {
-            cancelledEntrants.add(entrantHardwareID);
+        if (!getCancelledEntrants().contains(entrantHardwareID)) {
+            getCancelledEntrants().add(entrantHardwareID);
+            cancelledCount = getCancelledEntrants().size();
         }
     }
 
@@ -776,7 +1028,8 @@ public class Event implements Serializable {
      *                          list
      */
     public void removeEntrantFromCancelledList(String entrantHardwareID) {
-        cancelledEntrants.remove(entrantHardwareID);
+        getCancelledEntrants().remove(entrantHardwareID);
+        cancelledCount = getCancelledEntrants().size();
     }
 
     /**
@@ -825,6 +1078,65 @@ public class Event implements Serializable {
         this.requiresGeolocation = requiresGeolocation;
     }
 
+    /**
+     * Sets where the entrant lists are read from. Each list is read from the
+     * source and parsed the first time its getter is called; a null value
+     * leaves the current list as is. Used by {@link EventMapper}.
+     *
+     * @param source reads a raw entrant list field, e.g. "invitedEntrants"
+     */
+    void setEntrantListSource(Function<String, Object> source) {
+        this.entrantListSource = source;
+        this.unreadEntrantLists = new HashSet<>(Arrays.asList(
+                "waitListEntrants", "invitedEntrants", "acceptedEntrants", "declinedEntrants", "cancelledEntrants"));
+    }
+
+    /**
+     * Reads an entrant list from {@link #entrantListSource} if it has not been
+     * read yet.
+     *
+     * @param field the entrant list field
+     * @return the raw Firestore value, or null if there is nothing to read
+     */
+    private Object readEntrantList(String field) {
+        if (entrantListSource == null || !unreadEntrantLists.remove(field)) {
+            return null;
+        }
+        Object raw = entrantListSource.apply(field);
+        if (unreadEntrantLists.isEmpty()) {
+            entrantListSource = null;
+        }
+        return raw;
+    }
+
+    /**
+     * Marks an entrant list as read, so a list set directly is not replaced by
+     * the document's value.
+     *
+     * @param field the entrant list field
+     */
+    private void markEntrantListRead(String field) {
+        if (unreadEntrantLists != null) {
+            unreadEntrantLists.remove(field);
+        }
+    }
+
+    /**
+     * Parses any lists that are still unread before the event is serialized,
+     * since the document they are read from is not serializable.
+     *
+     * @param out the stream the event is written to
+     * @throws IOException if writing fails
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getWaitListEntrants();
+        getInvitedEntrants();
+        getAcceptedEntrants();
+        getDeclinedEntrants();
+        getCancelledEntrants();
+        out.defaultWriteObject();
+    }
+
     /**
      * Checks if this Event is equal to another object.
      * @param o the object to compare with this Event.
@@ -0,0 +1,311 @@
+package com.example.zypherevent;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @version 1.0
+ * @see Database#getEvent(Long)
+ *
+ *      A process-wide, bounded cache of events loaded by
+ *      {@link Database#getEvent(Long)}, so that screens opening the same event
+ *      within a short time share one download.
+ *
+ *      Entries are kept in least-recently-used order and evicted when the cache
+ *      holds more than its maximum number of entries, or when an entry is older
+ *      than the maximum age. Every cached event has one snapshot listener on its
+ *      document, shared by all readers. When the document changes on the server
+ *      (or through a local write) the entry is invalidated, so the next read
+ *      downloads the new version.
+ *
+ *      A load that started before an event was invalidated may finish after
+ *      it, holding the old version. Every invalidation bumps a generation
+ *      counter, and {@link #put(DocumentReference, Event, long)} refuses an
+ *      event loaded before the last invalidation of its document.
+ *
+ *      Entries are keyed by document path, so databases using different
+ *      collections do not share entries. Cached events are copied on the way in
+ *      and out, so callers may change the returned event freely.
+ */
+public class EventCache {
+
+    /** The default maximum number of cached events. */
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    /** The default maximum age of a cached event, in milliseconds. */
+    public static final long DEFAULT_MAX_AGE_MILLIS = 10 * 60 * 1000L;
+
+    /** The number of recently invalidated documents whose generation is remembered. */
+    private static final int MAX_TRACKED_INVALIDATIONS = 256;
+
+    /** The process-wide instance. */
+    private static EventCache instance;
+
+    /** Maximum number of cached events. */
+    private final int maxEntries;
+
+    /** Maximum age of a cached event, in milliseconds. */
+    private final long maxAgeMillis;
+
+    /** Cached entries keyed by document path, in least-recently-used order. */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Bumped by every invalidation. */
+    private long generation = 0;
+
+    /** The generation of the last invalidation of each recently invalidated document, oldest first. */
+    private final LinkedHashMap<String, Long> invalidatedAt = new LinkedHashMap<>();
+
+    /**
+     * The newest generation whose document was forgotten from
+     * {@link #invalidatedAt}. Loads started before it are not cached, since
+     * their document may have been invalidated since.
+     */
+    private long forgottenGeneration = 0;
+
+    /** Number of reads served from the cache. */
+    private final AtomicLong hits = new AtomicLong();
+
+    /** Number of reads that had to go to Firestore. */
+    private final AtomicLong misses = new AtomicLong();
+
+    /** Number of entries dropped for size or age. */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /** Number of entries dropped because the event changed. */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * A cached event together with the time it was loaded and the listener
+     * watching its document.
+     */
+    private static class Entry {
+        final Event event;
+        final long loadedAt;
+        ListenerRegistration registration;
+
+        Entry(Event event, long loadedAt) {
+            this.event = event;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * Returns the process-wide event cache.
+     *
+     * @return the shared EventCache instance
+     */
+    public static synchronized EventCache getInstance() {
+        if (instance == null) {
+            instance = new EventCache(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_AGE_MILLIS);
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a new cache.
+     *
+     * @param maxEntries   the maximum number of cached events, must be at least 1
+     * @param maxAgeMillis the maximum age of a cached event, in milliseconds
+     */
+    public EventCache(int maxEntries, long maxAgeMillis) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Returns a copy of the cached event stored for a document, if present and
+     * not expired.
+     *
+     * @param eventRef the event document
+     * @return a copy of the cached event, or null on a miss
+     */
+    public synchronized Event get(DocumentReference eventRef) {
+        String key = eventRef.getPath();
+        Entry entry = entries.get(key);
+
+        if (entry != null && System.currentTimeMillis() - entry.loadedAt > maxAgeMillis) {
+            drop(key);
+            evictions.incrementAndGet();
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return new Event(entry.event);
+    }
+
+    /**
+     * Returns the current generation. Read it before starting a load, and pass
+     * it to {@link #put(DocumentReference, Event, long)} with the result.
+     *
+     * @return the number of invalidations so far
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Stores a copy of an event loaded from a document, and starts listening
+     * for changes to it. Evicts the least recently used events if the cache is
+     * full. Does nothing if the document was invalidated after the load
+     * started, since the event may predate the change.
+     *
+     * @param eventRef   the event document
+     * @param event      the event parsed from the document
+     * @param generation the value of {@link #getGeneration()} when the load started
+     * @return true if the event was cached
+     */
+    public synchronized boolean put(DocumentReference eventRef, Event event, long generation) {
+        String key = eventRef.getPath();
+        Long invalidated = invalidatedAt.get(key);
+        if (generation < forgottenGeneration || (invalidated != null && invalidated > generation)) {
+            return false;
+        }
+        drop(key);
+
+        Entry entry = new Entry(new Event(event), System.currentTimeMillis());
+        entries.put(key, entry);
+
+        // The first snapshot is the state that was just cached; any later one is a change
+        boolean[] initialSnapshot = {true};
+        entry.registration = eventRef.addSnapshotListener((snapshot, error) -> {
+            if (error == null && initialSnapshot[0]) {
+                initialSnapshot[0] = false;
+                return;
+            }
+            invalidate(eventRef, entry);
+        });
+
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            if (eldest.registration != null) {
+                eldest.registration.remove();
+            }
+            evictions.incrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Removes the cached event for a document, e.g. after it is written, and
+     * stops loads already in flight from caching it.
+     *
+     * @param eventRef the event document
+     */
+    public synchronized void invalidate(DocumentReference eventRef) {
+        String key = eventRef.getPath();
+        if (drop(key)) {
+            invalidations.incrementAndGet();
+        }
+
+        generation++;
+        invalidatedAt.remove(key);
+        invalidatedAt.put(key, generation);
+        Iterator<Map.Entry<String, Long>> it = invalidatedAt.entrySet().iterator();
+        while (invalidatedAt.size() > MAX_TRACKED_INVALIDATIONS && it.hasNext()) {
+            forgottenGeneration = it.next().getValue();
+            it.remove();
+        }
+    }
+
+    /**
+     * Removes a specific cached entry, unless it has already been replaced.
+     *
+     * @param eventRef the event document
+     * @param entry    the entry whose listener reported a change
+     */
+    private synchronized void invalidate(DocumentReference eventRef, Entry entry) {
+        if (entries.get(eventRef.getPath()) == entry) {
+            invalidate(eventRef);
+        }
+    }
+
+    /**
+     * Removes every cached event and stops all listeners.
+     */
+    public synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            if (entry.registration != null) {
+                entry.registration.remove();
+            }
+        }
+        entries.clear();
+    }
+
+    /**
+     * Removes an entry and stops its listener. Called with the lock held.
+     *
+     * @param key the document path of the entry
+     * @return true if an entry was removed
+     */
+    private boolean drop(String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.registration != null) {
+            entry.registration.remove();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of cached events.
+     *
+     * @return the cache size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of reads served from the cache.
+     *
+     * @return the hit counter
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of reads that had to go to Firestore.
+     *
+     * @return the miss counter
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of entries dropped because the cache was full or the
+     * entry was too old.
+     *
+     * @return the eviction counter
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Returns the number of entries dropped because the event changed.
+     *
+     * @return the invalidation counter
+     */
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+}
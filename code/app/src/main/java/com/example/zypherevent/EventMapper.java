@@ -0,0 +1,179 @@
+package com.example.zypherevent;
+
+import android.util.Log;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @version 1.0
+ * @see Event
+ * @see Database
+ *
+ *      Turns event documents from Firestore into {@link Event} objects. Every
+ *      read of an event in {@link Database} goes through
+ *      {@link #fromSnapshot(DocumentSnapshot)}.
+ *
+ *      The scalar fields, the entrant counters and the waitlist storage mode
+ *      are decoded straight away. The five entrant lists are left in the
+ *      snapshot, and each one is read from it and parsed the first time its
+ *      getter is called, so list screens, which only show names, dates and
+ *      counts, skip the most expensive part of decoding.
+ */
+public final class EventMapper {
+
+    private EventMapper() {
+    }
+
+    /**
+     * Decodes an event document. Entrant lists are parsed lazily by the
+     * returned event.
+     *
+     * @param doc an existing event document snapshot
+     * @return the decoded Event, or null if the document is malformed
+     */
+    public static Event fromSnapshot(DocumentSnapshot doc) {
+        try {
+            Event event = new Event(
+                    doc.getLong("uniqueEventID"),
+                    doc.getString("eventName"),
+                    doc.getString("eventDescription"),
+                    doc.getDate("startTime"),
+                    doc.getString("location"),
+                    doc.getDate("registrationStartTime"),
+                    doc.getDate("registrationEndTime"),
+                    doc.getString("eventOrganizerHardwareID"),
+                    doc.getString("posterURL"),
+                    Boolean.TRUE.equals(doc.getBoolean("requiresGeolocation")));
+
+            event.setLotteryCriteria(doc.getString("lotteryCriteria"));
+
+            Long waitlistLimit = doc.getLong("waitlistLimit");
+            if (waitlistLimit != null) {
+                event.setWaitlistLimit(waitlistLimit.intValue());
+            }
+
+            if (isWaitlistInSubcollection(doc)) {
+                event.setWaitlistStorageMode(Event.WaitlistStorageMode.SUBCOLLECTION);
+            }
+
+            // Each list is only decoded from the snapshot when its getter is first called
+            event.setEntrantListSource(doc::get);
+
+            // The maintained counters win over the list sizes when present
+            event.setWaitlistCount(readCount(doc, "waitlistCount", "waitListEntrants"));
+            event.setInvitedCount(readCount(doc, "invitedCount", "invitedEntrants"));
+            event.setAcceptedCount(readCount(doc, "acceptedCount", "acceptedEntrants"));
+            event.setDeclinedCount(readCount(doc, "declinedCount", "declinedEntrants"));
+            event.setCancelledCount(readCount(doc, "cancelledCount", "cancelledEntrants"));
+
+            return event;
+        } catch (Exception e) {
+            Log.e("Database", "Failed to parse event: " + doc.getId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Manually parses a list from Firestore into a proper ArrayList of
+     * WaitlistEntry.
+     * Expects each item to be a Map with:
+     * - "entrantHardwareID": String
+     * - "timeJoined": Timestamp (optional)
+     *
+     * @param rawList the raw value from DocumentSnapshot.get("waitListEntrants")
+     * @return the list of waitlist entries parsed into Java objects
+     */
+    @SuppressWarnings("unchecked")
+    public static ArrayList<WaitlistEntry> parseWaitlistEntryList(Object rawList) {
+        ArrayList<WaitlistEntry> entryList = new ArrayList<>();
+        if (!(rawList instanceof List<?>)) {
+            return entryList;
+        }
+
+        List<?> rawEntryList = (List<?>) rawList;
+        for (Object item : rawEntryList) {
+            if (item instanceof Map) {
+                try {
+                    Map<String, Object> map = (Map<String, Object>) item;
+
+                    // Read hardware ID directly from the map
+                    String hardwareID = (String) map.get("entrantHardwareID");
+                    if (hardwareID == null || hardwareID.isEmpty()) {
+                        continue; // skip malformed entry
+                    }
+
+                    // Read timestamp, if present
+                    Timestamp timestamp = (Timestamp) map.get("timeJoined");
+                    Date timeJoined = (timestamp != null) ? timestamp.toDate() : null;
+
+                    // Build WaitlistEntry with hardware ID + time
+                    WaitlistEntry entry = new WaitlistEntry(hardwareID);
+                    entry.setTimeJoined(timeJoined);
+
+                    entryList.add(entry);
+
+                } catch (Exception e) {
+                    Log.e("Database", "Failed to parse one waitlist entry", e);
+                }
+            }
+        }
+        return entryList;
+    }
+
+    /**
+     * Helper to parse a Firestore field into a list of hardware ID strings.
+     *
+     * @param raw the raw value from DocumentSnapshot.get(...)
+     * @return a non-null ArrayList of hardware ID strings
+     */
+    public static ArrayList<String> parseHardwareIdList(Object raw) {
+        ArrayList<String> result = new ArrayList<>();
+        if (raw instanceof List<?>) {
+            for (Object o : (List<?>) raw) {
+                if (o instanceof String) {
+                    result.add((String) o);
+                } else if (o != null) {
+                    // Fallback: store string representation if something weird is stored
+                    result.add(o.toString());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads one of the maintained entrant counters from an event document.
+     * Events written before the counters existed fall back to the size of the
+     * matching list.
+     *
+     * @param snapshot   the event document snapshot
+     * @param countField the counter field, e.g. "waitlistCount"
+     * @param listField  the list the counter tracks, e.g. "waitListEntrants"
+     * @return the number of entrants in the list
+     */
+    static int readCount(DocumentSnapshot snapshot, String countField, String listField) {
+        Long count = snapshot.getLong(countField);
+        if (count != null) {
+            return count.intValue();
+        }
+        Object rawList = snapshot.get(listField);
+        return rawList instanceof List<?> ? ((List<?>) rawList).size() : 0;
+    }
+
+    /**
+     * Checks whether an event document keeps its waitlist in the waitlist
+     * subcollection rather than in its {@code waitListEntrants} array.
+     *
+     * @param snapshot the event document snapshot
+     * @return true if the event is in SUBCOLLECTION mode
+     */
+    static boolean isWaitlistInSubcollection(DocumentSnapshot snapshot) {
+        return Event.WaitlistStorageMode.SUBCOLLECTION.name().equals(snapshot.getString("waitlistStorageMode"));
+    }
+}
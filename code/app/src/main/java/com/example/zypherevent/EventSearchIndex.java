@@ -0,0 +1,303 @@
+package com.example.zypherevent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @version 1.0
+ * @see EventSummary
+ *
+ *      An in-memory search index over event summaries, used by the entrant
+ *      event list to answer search queries without rescanning every event.
+ *
+ *      Each event's name, description and location are lowercased once when the
+ *      event is added, and every three-character window of that text (trigram)
+ *      is recorded in a posting list that maps the trigram to the events
+ *      containing it. A query of three or more characters only has to look at
+ *      the events in the intersection of its trigrams' posting lists, which are
+ *      then checked for the full substring and ranked. Shorter queries scan the
+ *      lowercased text kept by the index.
+ *
+ *      Matches in the name rank above matches in the location, which rank above
+ *      matches in the description. Exact and prefix matches rank above other
+ *      substring matches. Equal scores are ordered by start time.
+ *
+ *      This class is not thread-safe and is meant to be used from the main
+ *      thread.
+ */
+public class EventSearchIndex {
+
+    /** Length of the character windows stored in the posting lists. */
+    private static final int GRAM_LENGTH = 3;
+
+    /** The indexed events, keyed by event ID. */
+    private final Map<Long, IndexedEvent> events = new HashMap<>();
+
+    /** Posting lists mapping each trigram to the IDs of the events containing it. */
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    /**
+     * An indexed event together with its lowercased searchable text.
+     */
+    private static class IndexedEvent {
+        final EventSummary summary;
+        final String name;
+        final String description;
+        final String location;
+
+        IndexedEvent(EventSummary summary) {
+            this.summary = summary;
+            this.name = normalize(summary.getEventName());
+            this.description = normalize(summary.getEventDescription());
+            this.location = normalize(summary.getLocation());
+        }
+    }
+
+    /**
+     * Adds an event to the index, replacing the previous version of the same
+     * event if it was already indexed.
+     *
+     * @param summary the event to index
+     */
+    public void put(EventSummary summary) {
+        if (summary == null || summary.getUniqueEventID() == null) {
+            return;
+        }
+        remove(summary.getUniqueEventID());
+
+        IndexedEvent indexed = new IndexedEvent(summary);
+        events.put(summary.getUniqueEventID(), indexed);
+        for (String gram : gramsOf(indexed)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                ids = new HashSet<>();
+                postings.put(gram, ids);
+            }
+            ids.add(summary.getUniqueEventID());
+        }
+    }
+
+    /**
+     * Adds several events to the index.
+     *
+     * @param summaries the events to index
+     */
+    public void putAll(List<EventSummary> summaries) {
+        for (EventSummary summary : summaries) {
+            put(summary);
+        }
+    }
+
+    /**
+     * Removes an event from the index. Does nothing if it is not indexed.
+     *
+     * @param eventId the unique ID of the event to remove
+     */
+    public void remove(Long eventId) {
+        IndexedEvent indexed = events.remove(eventId);
+        if (indexed == null) {
+            return;
+        }
+        for (String gram : gramsOf(indexed)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(eventId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every event from the index.
+     */
+    public void clear() {
+        events.clear();
+        postings.clear();
+    }
+
+    /**
+     * Returns the number of indexed events.
+     *
+     * @return the number of indexed events
+     */
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * Finds the indexed events whose name, description or location contains
+     * the query, ignoring case.
+     *
+     * @param query the search text entered by the user
+     * @return the matching events, most relevant first. An empty or null query
+     *         matches nothing.
+     */
+    public List<EventSummary> search(String query) {
+        String needle = normalize(query).trim();
+        if (needle.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<IndexedEvent> matches = new ArrayList<>();
+        for (IndexedEvent indexed : candidatesFor(needle)) {
+            if (indexed.name.contains(needle)
+                    || indexed.location.contains(needle)
+                    || indexed.description.contains(needle)) {
+                matches.add(indexed);
+            }
+        }
+
+        Map<IndexedEvent, Integer> scores = new HashMap<>();
+        for (IndexedEvent indexed : matches) {
+            scores.put(indexed, score(indexed, needle));
+        }
+        Collections.sort(matches, Comparator
+                .comparing((IndexedEvent indexed) -> scores.get(indexed)).reversed()
+                .thenComparing(indexed -> indexed.summary.getStartTime(),
+                        Comparator.nullsLast(Comparator.<Date>naturalOrder())));
+
+        List<EventSummary> results = new ArrayList<>(matches.size());
+        for (IndexedEvent indexed : matches) {
+            results.add(indexed.summary);
+        }
+        return results;
+    }
+
+    /**
+     * Returns the events that may contain the query. For queries of at least
+     * {@link #GRAM_LENGTH} characters this is the intersection of the posting
+     * lists of the query's trigrams, starting from the shortest list; shorter
+     * queries return every event.
+     *
+     * @param needle the normalized query
+     * @return the candidate events, which still need to be checked for the
+     *         full query
+     */
+    private Iterable<IndexedEvent> candidatesFor(String needle) {
+        if (needle.length() < GRAM_LENGTH) {
+            return events.values();
+        }
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : gramsOf(needle)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return new ArrayList<>();
+            }
+            lists.add(ids);
+        }
+        Collections.sort(lists, Comparator.comparingInt(Set::size));
+
+        List<IndexedEvent> candidates = new ArrayList<>();
+        for (Long id : lists.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(id);
+            }
+            if (inAll) {
+                candidates.add(events.get(id));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Scores how relevant an event is to a query it matches.
+     *
+     * @param indexed the matching event
+     * @param needle  the normalized query
+     * @return a higher score for a more relevant event
+     */
+    private static int score(IndexedEvent indexed, String needle) {
+        int score = 0;
+        if (indexed.name.equals(needle)) {
+            score += 100;
+        } else if (indexed.name.startsWith(needle)) {
+            score += 60;
+        } else if (hasTokenWithPrefix(indexed.name, needle)) {
+            score += 40;
+        } else if (indexed.name.contains(needle)) {
+            score += 20;
+        }
+
+        if (hasTokenWithPrefix(indexed.location, needle)) {
+            score += 10;
+        } else if (indexed.location.contains(needle)) {
+            score += 5;
+        }
+
+        if (hasTokenWithPrefix(indexed.description, needle)) {
+            score += 3;
+        } else if (indexed.description.contains(needle)) {
+            score += 1;
+        }
+        return score;
+    }
+
+    /**
+     * Checks whether a word in the text starts with the query.
+     *
+     * @param text   the normalized text
+     * @param needle the normalized query
+     * @return true if the query occurs at the start of a word
+     */
+    private static boolean hasTokenWithPrefix(String text, String needle) {
+        int from = 0;
+        int index;
+        while ((index = text.indexOf(needle, from)) != -1) {
+            if (index == 0 || !Character.isLetterOrDigit(text.charAt(index - 1))) {
+                return true;
+            }
+            from = index + 1;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the trigrams of all searchable text of an event. Fields are
+     * indexed separately so no trigram spans two fields.
+     *
+     * @param indexed the event
+     * @return the distinct trigrams of the event
+     */
+    private static Set<String> gramsOf(IndexedEvent indexed) {
+        Set<String> grams = gramsOf(indexed.name);
+        grams.addAll(gramsOf(indexed.description));
+        grams.addAll(gramsOf(indexed.location));
+        return grams;
+    }
+
+    /**
+     * Returns the distinct trigrams of a piece of text.
+     *
+     * @param text the normalized text
+     * @return the distinct trigrams of the text
+     */
+    private static Set<String> gramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Lowercases text for indexing and searching.
+     *
+     * @param text the text to normalize, may be null
+     * @return the lowercased text, or an empty string for null
+     */
+    private static String normalize(String text) {
+        return text != null ? text.toLowerCase(Locale.getDefault()) : "";
+    }
+}
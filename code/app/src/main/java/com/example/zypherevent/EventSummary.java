@@ -0,0 +1,336 @@
+package com.example.zypherevent;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * @version 1.0
+ * @see Event
+ * @see Database#getEventSummaries()
+ *
+ *      A lightweight, read-only view of an {@link Event} used by list screens.
+ *      An EventSummary carries only the fields shown on an event row plus the
+ *      maintained entrant counters, and none of the entrant lists. Summaries are
+ *      stored in their own "event_summaries" collection, so a list screen can
+ *      load every event without downloading every waitlist.
+ *
+ *      To change an event, load the full {@link Event} with
+ *      {@link Database#getEvent(Long)} first.
+ */
+public class EventSummary implements Serializable {
+
+    /** The unique identifier of the summarized event. */
+    private final Long uniqueEventID;
+
+    /** The event's name. */
+    private final String eventName;
+
+    /** A brief description of the event. */
+    private final String eventDescription;
+
+    /** Event specific criteria/guidelines for the lottery. */
+    private final String lotteryCriteria;
+
+    /** The time when the event starts. */
+    private final Date startTime;
+
+    /** The location of the event. */
+    private final String location;
+
+    /** The time when registration for the event opens. */
+    private final Date registrationStartTime;
+
+    /** The time when registration for the event closes. */
+    private final Date registrationEndTime;
+
+    /** The hardware ID of the organizer responsible for the event. */
+    private final String eventOrganizerHardwareID;
+
+    /** The URL for the event's optional promotional poster. */
+    private final String posterURL;
+
+    /** True if the event is only available to Entrants with geolocation enabled. */
+    private final boolean requiresGeolocation;
+
+    /** The maximum number of entrants in the waitlist, or null for no limit. */
+    private final Integer waitlistLimit;
+
+    /** The number of entrants on the waitlist. */
+    private final int waitlistCount;
+
+    /** The number of entrants with pending invitations. */
+    private final int invitedCount;
+
+    /** The number of entrants who have accepted their invitation. */
+    private final int acceptedCount;
+
+    /** The number of entrants who have declined their invitation. */
+    private final int declinedCount;
+
+    /** The number of entrants whose selection was cancelled. */
+    private final int cancelledCount;
+
+    /**
+     * Constructs a summary of the given event.
+     *
+     * @param event the event to summarize
+     */
+    public EventSummary(Event event) {
+        this.uniqueEventID = event.getUniqueEventID();
+        this.eventName = event.getEventName();
+        this.eventDescription = event.getEventDescription();
+        this.lotteryCriteria = event.getLotteryCriteria();
+        this.startTime = event.getStartTime();
+        this.location = event.getLocation();
+        this.registrationStartTime = event.getRegistrationStartTime();
+        this.registrationEndTime = event.getRegistrationEndTime();
+        this.eventOrganizerHardwareID = event.getEventOrganizerHardwareID();
+        this.posterURL = event.getPosterURL();
+        this.requiresGeolocation = event.getRequiresGeolocation();
+        this.waitlistLimit = event.getWaitlistLimit();
+        this.waitlistCount = event.getWaitlistCount();
+        this.invitedCount = event.getInvitedCount();
+        this.acceptedCount = event.getAcceptedCount();
+        this.declinedCount = event.getDeclinedCount();
+        this.cancelledCount = event.getCancelledCount();
+    }
+
+    /**
+     * Returns the unique identifier of the summarized event.
+     *
+     * @return the event's unique identifier
+     */
+    public Long getUniqueEventID() {
+        return uniqueEventID;
+    }
+
+    /**
+     * Returns the name of the event.
+     *
+     * @return the event name
+     */
+    public String getEventName() {
+        return eventName;
+    }
+
+    /**
+     * Returns the description of the event.
+     *
+     * @return the event description
+     */
+    public String getEventDescription() {
+        return eventDescription;
+    }
+
+    /**
+     * Returns the lottery criteria of the event.
+     *
+     * @return the lottery criteria, or null if none
+     */
+    public String getLotteryCriteria() {
+        return lotteryCriteria;
+    }
+
+    /**
+     * Returns the start time of the event.
+     *
+     * @return the event's start time
+     */
+    public Date getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns the location of the event.
+     *
+     * @return the event location
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Returns the time when registration opens.
+     *
+     * @return the registration start time
+     */
+    public Date getRegistrationStartTime() {
+        return registrationStartTime;
+    }
+
+    /**
+     * Returns the time when registration closes.
+     *
+     * @return the registration end time
+     */
+    public Date getRegistrationEndTime() {
+        return registrationEndTime;
+    }
+
+    /**
+     * Returns the hardware ID of the organizer of the event.
+     *
+     * @return the organizer's hardware ID
+     */
+    public String getEventOrganizerHardwareID() {
+        return eventOrganizerHardwareID;
+    }
+
+    /**
+     * Returns the URL of the event's poster.
+     *
+     * @return the poster URL, or null if none
+     */
+    public String getPosterURL() {
+        return posterURL;
+    }
+
+    /**
+     * Returns whether the event requires geolocation.
+     *
+     * @return true if geolocation is required
+     */
+    public boolean getRequiresGeolocation() {
+        return requiresGeolocation;
+    }
+
+    /**
+     * Returns the waitlist limit of the event.
+     *
+     * @return the waitlist limit, or null for no limit
+     */
+    public Integer getWaitlistLimit() {
+        return waitlistLimit;
+    }
+
+    /**
+     * Returns the number of entrants on the waitlist.
+     *
+     * @return the waitlist count
+     */
+    public int getWaitlistCount() {
+        return waitlistCount;
+    }
+
+    /**
+     * Returns the number of entrants with pending invitations.
+     *
+     * @return the invited count
+     */
+    public int getInvitedCount() {
+        return invitedCount;
+    }
+
+    /**
+     * Returns the number of entrants who have accepted their invitation.
+     *
+     * @return the accepted count
+     */
+    public int getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    /**
+     * Returns the number of entrants who have declined their invitation.
+     *
+     * @return the declined count
+     */
+    public int getDeclinedCount() {
+        return declinedCount;
+    }
+
+    /**
+     * Returns the number of entrants whose selection was cancelled.
+     *
+     * @return the cancelled count
+     */
+    public int getCancelledCount() {
+        return cancelledCount;
+    }
+
+    /**
+     * Checks if the waitlist has reached its limit.
+     *
+     * @return true if a limit is set and the waitlist is full
+     */
+    public boolean isWaitlistFull() {
+        return waitlistLimit != null && waitlistCount >= waitlistLimit;
+    }
+
+    /**
+     * Checks if registration is currently open for this event.
+     *
+     * @return true if registration is open, false otherwise
+     */
+    public boolean isRegistrationOpen() {
+        Date now = new Date();
+        boolean afterStart = registrationStartTime == null || !now.before(registrationStartTime);
+        boolean beforeEnd = registrationEndTime == null || !now.after(registrationEndTime);
+        return afterStart && beforeEnd;
+    }
+
+    /**
+     * Runs the event-wide checks of {@link Event#joinWaitlist(String)} against
+     * this summary. Summaries carry no entrant lists, so this does not check
+     * whether an entrant is already on one of them; the database transaction
+     * in {@link Database#addEntrantToWaitlist(String, com.example.zypherevent.userTypes.Entrant)}
+     * still enforces that.
+     *
+     * @return REGISTRATION_NOT_STARTED, REGISTRATION_CLOSED, WAITLIST_FULL, or
+     *         SUCCESS if an entrant with no history at this event may join
+     */
+    public Event.WaitlistOperationResult checkJoinWaitlist() {
+        Date now = new Date();
+        if (registrationStartTime != null && now.before(registrationStartTime)) {
+            return Event.WaitlistOperationResult.REGISTRATION_NOT_STARTED;
+        }
+        if (registrationEndTime != null && now.after(registrationEndTime)) {
+            return Event.WaitlistOperationResult.REGISTRATION_CLOSED;
+        }
+        if (isWaitlistFull()) {
+            return Event.WaitlistOperationResult.WAITLIST_FULL;
+        }
+        return Event.WaitlistOperationResult.SUCCESS;
+    }
+
+    /**
+     * Returns a short description of the registration state for display.
+     *
+     * @return "Registration opens soon", "Registration closed", or an empty
+     *         string while registration is open
+     */
+    public String getRegistrationStatus() {
+        Date now = new Date();
+        if (registrationStartTime != null && now.before(registrationStartTime)) {
+            return "Registration opens soon";
+        } else if (registrationEndTime != null && now.after(registrationEndTime)) {
+            return "Registration closed";
+        }
+        return ""; // Registration is open
+    }
+
+    /**
+     * Two summaries are equal if they summarize the same event.
+     *
+     * @param o the object to compare with
+     * @return true if both summarize the same event
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EventSummary that = (EventSummary) o;
+        return Objects.equals(uniqueEventID, that.uniqueEventID);
+    }
+
+    /**
+     * Returns a hash code based on the summarized event's ID.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(uniqueEventID);
+    }
+}
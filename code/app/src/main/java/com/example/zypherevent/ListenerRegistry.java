@@ -0,0 +1,114 @@
+package com.example.zypherevent;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @version 1.0
+ * @see Database#getListenerRegistry()
+ *
+ *      Keeps track of the Firestore snapshot listeners opened by the app, so
+ *      that each one is removed when the screen that opened it goes away.
+ *
+ *      A listener registered with a {@link LifecycleOwner} (an activity, or a
+ *      fragment's view lifecycle owner) is removed automatically when that
+ *      owner is destroyed. A listener registered without an owner, such as one
+ *      held by a service, stays open until it is removed through the handle
+ *      returned by {@link #register(LifecycleOwner, ListenerRegistration)}.
+ */
+public class ListenerRegistry {
+
+    /** Listeners that are currently open. */
+    private final Set<ListenerRegistration> active = new LinkedHashSet<>();
+
+    /**
+     * A handle to a registered listener. Removing it removes the listener and
+     * forgets it in the registry.
+     */
+    private class Handle implements ListenerRegistration {
+        private final ListenerRegistration registration;
+        private DefaultLifecycleObserver observer;
+        private LifecycleOwner owner;
+
+        Handle(ListenerRegistration registration) {
+            this.registration = registration;
+        }
+
+        @Override
+        public void remove() {
+            synchronized (ListenerRegistry.this) {
+                if (!active.remove(this)) {
+                    return;
+                }
+            }
+            registration.remove();
+            if (owner != null && observer != null) {
+                owner.getLifecycle().removeObserver(observer);
+            }
+        }
+    }
+
+    /**
+     * Registers an open snapshot listener. If {@code owner} is given, the
+     * listener is removed when the owner is destroyed; if the owner has already
+     * been destroyed it is removed immediately. Must be called on the main
+     * thread when an owner is given.
+     *
+     * @param owner        the lifecycle the listener belongs to, or null to keep
+     *                     it open until removed
+     * @param registration the listener returned by {@code addSnapshotListener}
+     * @return a handle that removes the listener and unregisters it
+     */
+    public ListenerRegistration register(LifecycleOwner owner, ListenerRegistration registration) {
+        Handle handle = new Handle(registration);
+        synchronized (this) {
+            active.add(handle);
+        }
+
+        if (owner != null && owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            // A destroyed lifecycle never reports onDestroy again
+            handle.remove();
+        } else if (owner != null) {
+            handle.owner = owner;
+            handle.observer = new DefaultLifecycleObserver() {
+                @Override
+                public void onDestroy(@NonNull LifecycleOwner source) {
+                    handle.remove();
+                }
+            };
+            owner.getLifecycle().addObserver(handle.observer);
+        }
+        return handle;
+    }
+
+    /**
+     * Removes every registered listener, e.g. when the signed-in user changes.
+     */
+    public void removeAll() {
+        List<ListenerRegistration> open;
+        synchronized (this) {
+            open = new ArrayList<>(active);
+        }
+        for (ListenerRegistration handle : open) {
+            handle.remove();
+        }
+    }
+
+    /**
+     * Returns the number of listeners currently open.
+     *
+     * @return the number of registered listeners
+     */
+    public synchronized int size() {
+        return active.size();
+    }
+}
@@ -75,7 +75,7 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
 
         // Initialize database
-        db = new Database();
+        db = Database.getInstance();
 
         // Get hardware ID from user's device
         userHardwareID = Settings.Secure.getString(getContentResolver(), Settings.Secure.ANDROID_ID);
@@ -150,7 +150,7 @@ public class MainActivity extends AppCompatActivity {
      */
     private void createSampleDatabase() {
 
-        Database db = new Database();
+        Database db = Database.getInstance();
 
         // --- Organizers ---
         Organizer organizer1 = new Organizer("organizer1", "John", "Doe");
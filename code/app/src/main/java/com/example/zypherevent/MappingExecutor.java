@@ -0,0 +1,142 @@
+package com.example.zypherevent;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @version 1.0
+ * @see Database
+ *
+ *      The executor {@link Database} runs its Task continuations on, so that
+ *      turning Firestore snapshots into Events, Users and Notifications happens
+ *      off the main thread. Listeners that callers add without an executor
+ *      still run on the main thread, so results reach the UI there.
+ *
+ *      The executor has a fixed number of background threads and a bounded
+ *      queue. When the queue is full, the work runs on the thread that
+ *      submitted it instead, which slows a burst of reads down rather than
+ *      letting the queue grow without limit. The time spent mapping is
+ *      recorded, and time spent on the main thread is recorded separately so
+ *      that any mapping still blocking the UI can be seen.
+ */
+public class MappingExecutor implements Executor {
+
+    /** The default number of background mapping threads. */
+    public static final int DEFAULT_THREADS = 2;
+
+    /** The default number of continuations that may wait for a thread. */
+    public static final int DEFAULT_QUEUE_SIZE = 128;
+
+    /** How long an idle mapping thread is kept, in seconds. */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    /** The process-wide instance. */
+    private static MappingExecutor instance;
+
+    /** The bounded pool continuations run on. */
+    private final ThreadPoolExecutor pool;
+
+    /** Total time spent running continuations, in nanoseconds. */
+    private final AtomicLong mappingNanos = new AtomicLong();
+
+    /** Time spent running continuations on the main thread, in nanoseconds. */
+    private final AtomicLong mainThreadMappingNanos = new AtomicLong();
+
+    /** Number of continuations that ran on the main thread. */
+    private final AtomicLong mainThreadRuns = new AtomicLong();
+
+    /**
+     * Returns the process-wide mapping executor.
+     *
+     * @return the shared MappingExecutor instance
+     */
+    public static synchronized MappingExecutor getInstance() {
+        if (instance == null) {
+            instance = new MappingExecutor(DEFAULT_THREADS, DEFAULT_QUEUE_SIZE);
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a new executor.
+     *
+     * @param threads   the number of background threads, must be at least 1
+     * @param queueSize the number of continuations that may wait for a thread
+     */
+    public MappingExecutor(int threads, int queueSize) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1");
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "Database-mapping-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        pool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueSize), factory, new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs a continuation on a mapping thread, or on the calling thread if the
+     * queue is full, and records how long it took.
+     *
+     * @param command the continuation to run
+     */
+    @Override
+    public void execute(@NonNull Runnable command) {
+        pool.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                command.run();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                mappingNanos.addAndGet(elapsed);
+                if (Looper.myLooper() == Looper.getMainLooper()) {
+                    mainThreadMappingNanos.addAndGet(elapsed);
+                    mainThreadRuns.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the total time spent running continuations.
+     *
+     * @return the mapping time, in milliseconds
+     */
+    public long getMappingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(mappingNanos.get());
+    }
+
+    /**
+     * Returns the time spent running continuations on the main thread, which
+     * happens only when the queue was full.
+     *
+     * @return the main-thread mapping time, in milliseconds
+     */
+    public long getMainThreadMappingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(mainThreadMappingNanos.get());
+    }
+
+    /**
+     * Returns the number of continuations that ran on the main thread.
+     *
+     * @return the main-thread run counter
+     */
+    public long getMainThreadRunCount() {
+        return mainThreadRuns.get();
+    }
+}
@@ -55,6 +55,82 @@ public class Notification {
      */
     private boolean isInvitation;
 
+    /**
+     * What kind of message this notification is, which decides how it is shown
+     * on the receiving device. Null only for notifications read from documents
+     * written before categories existed.
+     */
+    private Category category;
+
+    /**
+     * The kinds of notification, chosen by the sender.
+     */
+    public enum Category {
+        /** The entrant was selected or invited to an event. */
+        INVITATION,
+        /** A change to the entrant's status, such as staying on the waitlist. */
+        UPDATE,
+        /** The entrant was not selected, or was declined or removed. */
+        REJECTION,
+        /** The entrant's invitation or the event was cancelled. */
+        CANCELLATION,
+        /** A message written by the organizer. */
+        CUSTOM;
+
+        /**
+         * Returns the category with the given name, as stored in Firestore.
+         *
+         * @param name the stored name, may be null
+         * @return the matching category, or null if there is none
+         */
+        public static Category fromName(String name) {
+            if (name == null) {
+                return null;
+            }
+            try {
+                return valueOf(name);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Guesses the category of a notification from keywords in its text. Used
+         * for notifications that were sent without a category.
+         *
+         * @param isInvitation whether the notification is an invitation
+         * @param header       the notification's title, may be null
+         * @param body         the notification's body, may be null
+         * @return the guessed category, never null
+         */
+        public static Category fromContent(boolean isInvitation, String header, String body) {
+            if (isInvitation) {
+                return INVITATION;
+            }
+            String titleLower = header == null ? "" : header.toLowerCase();
+            String bodyLower = body == null ? "" : body.toLowerCase();
+
+            if (bodyLower.contains("cancelled")) {
+                return CANCELLATION;
+            } else if (titleLower.contains("selected") ||
+                    titleLower.contains("invitation") ||
+                    titleLower.contains("invited") ||
+                    titleLower.contains("accepted") ||
+                    titleLower.contains("confirmed") ||
+                    bodyLower.contains("congratulations")) {
+                return INVITATION;
+            } else if (titleLower.contains("rejected") ||
+                    titleLower.contains("declined") ||
+                    titleLower.contains("not selected") ||
+                    titleLower.contains("removed") ||
+                    bodyLower.contains("unfortunately") ||
+                    bodyLower.contains("not accepted")) {
+                return REJECTION;
+            }
+            return UPDATE;
+        }
+    }
+
     /**
      * Constructs a new Notification instance with all attributes specified.
      * The notification is not dismissed by default.
@@ -70,9 +146,12 @@ public class Notification {
      *                                with this notification (can be null)
      * @param isInvitation            true if this notification is an event
      *                                invitation
+     * @param category                the kind of notification; if null, it is
+     *                                guessed from the header and body
      */
     public Notification(Long notificationID, String sendingUserHardwareID, String receivingUserHardwareID,
-            String notificationHeader, String notificationBody, Long eventID, boolean isInvitation) {
+            String notificationHeader, String notificationBody, Long eventID, boolean isInvitation,
+            Category category) {
         this.notificationID = notificationID;
         this.sendingUserHardwareID = sendingUserHardwareID;
         this.receivingUserHardwareID = receivingUserHardwareID;
@@ -80,9 +159,34 @@ public class Notification {
         this.notificationBody = notificationBody;
         this.eventID = eventID;
         this.isInvitation = isInvitation;
+        this.category = category != null ? category
+                : Category.fromContent(isInvitation, notificationHeader, notificationBody);
         this.dismissed = false;
     }
 
+    /**
+     * Constructs a new Notification instance with all attributes specified.
+     * The notification is not dismissed by default, and its category is guessed
+     * from the header and body.
+     *
+     * @param notificationID          the unique identifier for this notification
+     * @param sendingUserHardwareID   the hardware ID of the user sending the
+     *                                notification
+     * @param receivingUserHardwareID the hardware ID of the user receiving the
+     *                                notification
+     * @param notificationHeader      the notification's title or summary
+     * @param notificationBody        the detailed body text of the notification
+     * @param eventID                 the unique identifier of the event associated
+     *                                with this notification (can be null)
+     * @param isInvitation            true if this notification is an event
+     *                                invitation
+     */
+    public Notification(Long notificationID, String sendingUserHardwareID, String receivingUserHardwareID,
+            String notificationHeader, String notificationBody, Long eventID, boolean isInvitation) {
+        this(notificationID, sendingUserHardwareID, receivingUserHardwareID, notificationHeader, notificationBody,
+                eventID, isInvitation, null);
+    }
+
     /**
      * Constructs a new Notification instance with all attributes specified.
      * The notification is not dismissed by default.
@@ -269,6 +373,24 @@ public class Notification {
         isInvitation = invitation;
     }
 
+    /**
+     * Returns the kind of notification this is.
+     *
+     * @return the category, or null for a legacy notification without one
+     */
+    public Category getCategory() {
+        return category;
+    }
+
+    /**
+     * Updates the kind of notification this is.
+     *
+     * @param category the new category to set
+     */
+    public void setCategory(Category category) {
+        this.category = category;
+    }
+
     /**
      * Checks if this Notification is equal to another object.
      * 
@@ -289,7 +411,8 @@ public class Notification {
                 Objects.equals(notificationHeader, notification.notificationHeader) &&
                 Objects.equals(notificationBody, notification.notificationBody) &&
                 Objects.equals(eventID, notification.eventID) &&
-                isInvitation == notification.isInvitation;
+                isInvitation == notification.isInvitation &&
+                category == notification.category;
     }
 
     /**
@@ -300,7 +423,7 @@ public class Notification {
     @Override
     public int hashCode() {
         return Objects.hash(notificationID, sendingUserHardwareID, receivingUserHardwareID,
-                dismissed, notificationHeader, notificationBody, eventID, isInvitation);
+                dismissed, notificationHeader, notificationBody, eventID, isInvitation, category);
     }
 
     // ONWARDS: SHOULD ONLY BE USED BY FIRESTORE!!!!!!
@@ -38,7 +38,7 @@ public class OrganizerActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
 
         // create new instance of database
-        db = new Database();
+        db = Database.getInstance();
 
         // Get the organizer user object that was passed along from MainActivity
         organizerUser = (Organizer) getIntent().getSerializableExtra("organizerUser");
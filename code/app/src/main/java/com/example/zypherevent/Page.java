@@ -0,0 +1,69 @@
+package com.example.zypherevent;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @version 1.0
+ * @see Database
+ *
+ *      Represents one page of results from a cursor-paged Firestore query.
+ *      A Page holds the parsed items together with the last document snapshot
+ *      that was read, which is passed back into the next query as the
+ *      {@code startAfter} cursor.
+ *
+ * @param <T> the type of the parsed items on this page
+ */
+public class Page<T> {
+
+    /** The parsed items on this page, in query order. */
+    private final List<T> items;
+
+    /** The last document read for this page, or null if the page is empty. */
+    private final DocumentSnapshot cursor;
+
+    /** Whether the query may have more results after this page. */
+    private final boolean hasMore;
+
+    /**
+     * Constructs a new Page.
+     *
+     * @param items   the parsed items on this page
+     * @param cursor  the last document snapshot read for this page (can be null)
+     * @param hasMore true if another page may be available after this one
+     */
+    public Page(List<T> items, DocumentSnapshot cursor, boolean hasMore) {
+        this.items = items != null ? items : new ArrayList<>();
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Returns the parsed items on this page.
+     *
+     * @return a non-null list of items
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the cursor to pass into the next page request.
+     *
+     * @return the last document snapshot of this page, or null if empty
+     */
+    public DocumentSnapshot getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Returns whether another page may be available after this one.
+     *
+     * @return true if the caller should request another page
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
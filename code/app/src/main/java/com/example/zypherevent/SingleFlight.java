@@ -0,0 +1,120 @@
+package com.example.zypherevent;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * @version 1.0
+ * @see Database
+ *
+ *      Joins concurrent requests for the same key onto one in-flight Task.
+ *      The first request for a key starts the work; every request for the same
+ *      key made before that work completes gets the same Task instead of
+ *      starting its own. Once the Task completes the key is released, so the
+ *      next request starts fresh work.
+ *
+ *      Keys are compared with {@code equals}, so a Firestore
+ *      {@code DocumentReference} or {@code Query} can be used as the key for a
+ *      read of that document or query. Joined callers share the result object,
+ *      so results should be immutable (such as Firestore snapshots) or copied
+ *      per caller.
+ */
+public class SingleFlight {
+
+    /** The process-wide instance. */
+    private static SingleFlight instance;
+
+    /** Tasks currently in flight, by key. */
+    private final Map<Object, Task<?>> inFlight = new HashMap<>();
+
+    /** Number of requests that started new work. */
+    private final AtomicLong started = new AtomicLong();
+
+    /** Number of requests that joined work already in flight. */
+    private final AtomicLong joined = new AtomicLong();
+
+    /**
+     * Returns the process-wide single-flight group.
+     *
+     * @return the shared SingleFlight instance
+     */
+    public static synchronized SingleFlight getInstance() {
+        if (instance == null) {
+            instance = new SingleFlight();
+        }
+        return instance;
+    }
+
+    /**
+     * Runs {@code call} for {@code key}, unless a Task for the same key is
+     * already in flight, in which case that Task is returned instead.
+     *
+     * @param key  the key identifying the request
+     * @param call starts the work when no request for the key is in flight
+     * @param <T>  the result type of the Task
+     * @return the in-flight Task for the key
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Task<T> run(Object key, Supplier<Task<T>> call) {
+        Task<T> existing = (Task<T>) inFlight.get(key);
+        if (existing != null) {
+            joined.incrementAndGet();
+            return existing;
+        }
+
+        started.incrementAndGet();
+        Task<T> task = call.get();
+        if (!task.isComplete()) {
+            inFlight.put(key, task);
+            task.addOnCompleteListener(done -> release(key, task));
+        }
+        return task;
+    }
+
+    /**
+     * Releases a key once its Task has completed, unless newer work has
+     * already replaced it.
+     *
+     * @param key  the key of the completed Task
+     * @param task the completed Task
+     */
+    private synchronized void release(Object key, Task<?> task) {
+        if (inFlight.get(key) == task) {
+            inFlight.remove(key);
+        }
+    }
+
+    /**
+     * Stops sharing the in-flight Task for a key, so the next request starts
+     * fresh work. Used when the data behind the key has just been written and
+     * a read started earlier may return the old state.
+     *
+     * @param key the key to release
+     */
+    public synchronized void forget(Object key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * Returns the number of requests that started new work.
+     *
+     * @return the started request counter
+     */
+    public long getStartedCount() {
+        return started.get();
+    }
+
+    /**
+     * Returns the number of duplicate requests that joined work already in
+     * flight instead of starting their own.
+     *
+     * @return the joined request counter
+     */
+    public long getJoinedCount() {
+        return joined.get();
+    }
+}
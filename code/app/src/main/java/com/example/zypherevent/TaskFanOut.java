@@ -0,0 +1,212 @@
+package com.example.zypherevent;
+
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.TaskExecutors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * @version 1.0
+ * @see Database#getUsersByIds(java.util.Collection)
+ *
+ *      Loads a list of keys with at most a fixed number of loads in flight at
+ *      once. A new load starts as soon as a previous one finishes, so a long
+ *      list of keys (for example thousands of entrants split into query chunks)
+ *      never floods the Firestore client with simultaneous requests.
+ *
+ *      Each result can be passed to a listener as soon as it arrives, so a
+ *      screen can show partial results while the rest are still loading. A
+ *      fan-out can be cancelled, directly or through a {@link CancellationToken};
+ *      no new loads are started after that and the overall Task fails with a
+ *      {@link CancellationException}. Loads already in flight are left to
+ *      finish, but their results are dropped.
+ *
+ * @param <K> the key type
+ * @param <R> the result type of one load
+ */
+public class TaskFanOut<K, R> {
+
+    /**
+     * Receives each result as soon as its load finishes. Called on the main
+     * thread, or the executor the fan-out was started with, in completion order
+     * rather than key order.
+     *
+     * @param <K> the key type
+     * @param <R> the result type of one load
+     */
+    public interface OnResultListener<K, R> {
+        /**
+         * Called when the load for one key has finished.
+         *
+         * @param key    the key that was loaded
+         * @param result the result of its load
+         */
+        void onResult(K key, R result);
+    }
+
+    private final List<K> keys;
+    private final Function<K, Task<R>> loader;
+    private final OnResultListener<K, R> listener;
+    private final Executor executor;
+
+    private final TaskCompletionSource<List<R>> source = new TaskCompletionSource<>();
+    private final List<R> results;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final AtomicInteger remaining;
+
+    private volatile boolean cancelled = false;
+
+    private TaskFanOut(List<K> keys, int maxInFlight, Function<K, Task<R>> loader,
+            OnResultListener<K, R> listener, Executor executor) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in flight must be at least 1");
+        }
+        this.keys = new ArrayList<>(keys);
+        this.loader = loader;
+        this.listener = listener;
+        this.executor = executor;
+        this.results = new ArrayList<>(Collections.<R>nCopies(this.keys.size(), null));
+        this.remaining = new AtomicInteger(this.keys.size());
+    }
+
+    /**
+     * Starts loading every key, keeping at most {@code maxInFlight} loads
+     * running at a time.
+     *
+     * @param keys        the keys to load
+     * @param maxInFlight the maximum number of loads running at once
+     * @param loader      starts the load for one key
+     * @param <K>         the key type
+     * @param <R>         the result type of one load
+     * @return the running fan-out
+     */
+    public static <K, R> TaskFanOut<K, R> start(List<K> keys, int maxInFlight, Function<K, Task<R>> loader) {
+        return start(keys, maxInFlight, loader, null, null);
+    }
+
+    /**
+     * Starts loading every key, keeping at most {@code maxInFlight} loads
+     * running at a time, and reports each result as it arrives.
+     *
+     * @param keys              the keys to load
+     * @param maxInFlight       the maximum number of loads running at once
+     * @param loader            starts the load for one key
+     * @param listener          receives each result as it arrives, or null
+     * @param cancellationToken cancels the fan-out when cancellation is
+     *                          requested, or null
+     * @param <K>               the key type
+     * @param <R>               the result type of one load
+     * @return the running fan-out
+     */
+    public static <K, R> TaskFanOut<K, R> start(List<K> keys, int maxInFlight, Function<K, Task<R>> loader,
+            OnResultListener<K, R> listener, CancellationToken cancellationToken) {
+        return start(keys, maxInFlight, loader, listener, cancellationToken, TaskExecutors.MAIN_THREAD);
+    }
+
+    /**
+     * Starts loading every key like
+     * {@link #start(List, int, Function, OnResultListener, CancellationToken)},
+     * but handles finished loads, and calls the listener, on the given executor
+     * instead of the main thread.
+     *
+     * @param keys              the keys to load
+     * @param maxInFlight       the maximum number of loads running at once
+     * @param loader            starts the load for one key
+     * @param listener          receives each result as it arrives, or null
+     * @param cancellationToken cancels the fan-out when cancellation is
+     *                          requested, or null
+     * @param executor          runs the completion of each load
+     * @param <K>               the key type
+     * @param <R>               the result type of one load
+     * @return the running fan-out
+     */
+    public static <K, R> TaskFanOut<K, R> start(List<K> keys, int maxInFlight, Function<K, Task<R>> loader,
+            OnResultListener<K, R> listener, CancellationToken cancellationToken, Executor executor) {
+        TaskFanOut<K, R> fanOut = new TaskFanOut<>(keys, maxInFlight, loader, listener, executor);
+        if (cancellationToken != null) {
+            cancellationToken.onCanceledRequested(fanOut::cancel);
+        }
+
+        if (fanOut.keys.isEmpty()) {
+            fanOut.source.trySetResult(fanOut.results);
+        }
+        for (int i = 0; i < Math.min(maxInFlight, fanOut.keys.size()); i++) {
+            fanOut.launchNext();
+        }
+        return fanOut;
+    }
+
+    /**
+     * Returns the Task for the whole fan-out.
+     *
+     * @return a Task that resolves to the results in key order, or fails with
+     *         the first load failure or a {@link CancellationException}
+     */
+    public Task<List<R>> getTask() {
+        return source.getTask();
+    }
+
+    /**
+     * Stops starting new loads and fails the fan-out with a
+     * {@link CancellationException}. Does nothing if it has already finished.
+     */
+    public void cancel() {
+        cancelled = true;
+        source.trySetException(new CancellationException("Fan-out cancelled"));
+    }
+
+    /**
+     * Returns whether the fan-out has been cancelled.
+     *
+     * @return true if {@link #cancel()} was called
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Starts the next pending load and chains the one after it on completion.
+     */
+    private void launchNext() {
+        if (cancelled || source.getTask().isComplete()) {
+            return;
+        }
+        int index = nextIndex.getAndIncrement();
+        if (index >= keys.size()) {
+            return;
+        }
+
+        K key = keys.get(index);
+        loader.apply(key).addOnCompleteListener(executor, task -> {
+            if (cancelled || source.getTask().isComplete()) {
+                return;
+            }
+            if (!task.isSuccessful()) {
+                Exception e = task.getException();
+                source.trySetException(e != null ? e : new CancellationException("Load cancelled"));
+                return;
+            }
+
+            synchronized (results) {
+                results.set(index, task.getResult());
+            }
+            if (listener != null) {
+                listener.onResult(key, task.getResult());
+            }
+
+            if (remaining.decrementAndGet() == 0) {
+                source.trySetResult(results);
+            } else {
+                launchNext();
+            }
+        });
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.zypherevent;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @version 1.0
+ * @see Database
+ *
+ *      Hands out unique, increasing IDs backed by a counter field in Firestore
+ *      using a hi/lo scheme.
+ *      Instead of running one transaction on the counter document for every
+ *      new ID, the allocator reserves a whole block of IDs in a single
+ *      transaction and then hands them out locally until the block is used up.
+ *      This keeps concurrent ID requests (such as a burst of notifications
+ *      after a lottery) from all contending on the same document.
+ *
+ *      IDs that are reserved but never handed out (for example when the app
+ *      is closed) are simply skipped, so IDs are unique but may have gaps.
+ */
+public class UniqueIdAllocator {
+
+    /** The default number of IDs reserved per transaction. */
+    public static final int DEFAULT_BLOCK_SIZE = 20;
+
+    /** Reference to the Firebase Firestore instance. */
+    private final FirebaseFirestore db;
+
+    /** Reference to the document holding the counter. */
+    private final DocumentReference counterRef;
+
+    /** Name of the counter field, e.g. "curEvent" or "curNotification". */
+    private final String counterField;
+
+    /** Number of IDs reserved per transaction. */
+    private volatile int blockSize;
+
+    /** The next ID to hand out from the current block. */
+    private long nextId = 0;
+
+    /** The last ID (inclusive) of the current block. */
+    private long blockEnd = -1;
+
+    /** The block reservation currently in flight, or null if none. */
+    private Task<Long> pendingBlock;
+
+    /** Number of blocks successfully reserved from Firestore. */
+    private final AtomicLong blocksFetched = new AtomicLong();
+
+    /** Number of times a reservation transaction was retried due to contention. */
+    private final AtomicLong contentionRetries = new AtomicLong();
+
+    /**
+     * Constructs a new allocator for a counter field.
+     *
+     * @param db           the Firestore instance used to run transactions
+     * @param counterRef   the document holding the counter field
+     * @param counterField the name of the counter field (holds the last used ID)
+     * @param blockSize    the number of IDs to reserve per transaction
+     */
+    public UniqueIdAllocator(FirebaseFirestore db, DocumentReference counterRef, String counterField, int blockSize) {
+        this.db = db;
+        this.counterRef = counterRef;
+        this.counterField = counterField;
+        setBlockSize(blockSize);
+    }
+
+    /**
+     * Returns the next unique ID. If IDs are left in the current block the
+     * result is available immediately, otherwise a new block is reserved.
+     * Concurrent callers share a single block reservation.
+     *
+     * @return a Task that resolves to a new unique ID
+     */
+    public synchronized Task<Long> nextId() {
+        if (nextId <= blockEnd) {
+            return Tasks.forResult(nextId++);
+        }
+
+        // Wait for the block already being fetched, then try again
+        if (pendingBlock == null) {
+            int size = blockSize;
+            pendingBlock = reserve(size).continueWith(task -> {
+                synchronized (UniqueIdAllocator.this) {
+                    pendingBlock = null;
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    adoptBlock(task.getResult(), size);
+                    return task.getResult();
+                }
+            });
+        }
+        return pendingBlock.continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return nextId();
+        });
+    }
+
+    /**
+     * Returns {@code count} unique IDs. IDs left in the current block are used
+     * first, and the rest are reserved in one transaction. Any IDs reserved
+     * beyond {@code count} (to round up to a full block) are kept for later
+     * calls.
+     *
+     * @param count the number of IDs needed
+     * @return a Task that resolves to a list of {@code count} unique IDs
+     */
+    public synchronized Task<List<Long>> nextIds(int count) {
+        List<Long> ids = new ArrayList<>(Math.max(count, 0));
+        while (ids.size() < count && nextId <= blockEnd) {
+            ids.add(nextId++);
+        }
+
+        int remaining = count - ids.size();
+        if (remaining <= 0) {
+            return Tasks.forResult(ids);
+        }
+
+        // Round up to a whole number of blocks so the leftover can be reused
+        int size = blockSize;
+        int reserveCount = ((remaining + size - 1) / size) * size;
+
+        return reserve(reserveCount).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            long first = task.getResult();
+            for (int i = 0; i < remaining; i++) {
+                ids.add(first + i);
+            }
+
+            synchronized (UniqueIdAllocator.this) {
+                if (nextId > blockEnd && reserveCount > remaining) {
+                    nextId = first + remaining;
+                    blockEnd = first + reserveCount - 1;
+                }
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Reserves {@code count} IDs by advancing the counter in one transaction.
+     *
+     * @param count the number of IDs to reserve
+     * @return a Task that resolves to the first ID in the reserved range
+     */
+    private Task<Long> reserve(int count) {
+        AtomicInteger attempts = new AtomicInteger();
+
+        return db.runTransaction(transaction -> {
+            // Firestore re-runs the transaction function when the document changed
+            if (attempts.incrementAndGet() > 1) {
+                contentionRetries.incrementAndGet();
+            }
+
+            DocumentSnapshot snapshot = transaction.get(counterRef);
+
+            Long current = snapshot.getLong(counterField);
+            if (current == null) {
+                throw new RuntimeException("Error reserving unique IDs: Current " + counterField + " is null");
+            }
+
+            transaction.update(counterRef, counterField, current + count);
+
+            return current + 1;
+        }).addOnSuccessListener(first -> blocksFetched.incrementAndGet());
+    }
+
+    /**
+     * Makes a freshly reserved block the current block. Called with the lock
+     * held.
+     *
+     * @param first the first ID of the reserved block
+     * @param size  the number of IDs in the block
+     */
+    private void adoptBlock(long first, int size) {
+        if (nextId > blockEnd) {
+            nextId = first;
+            blockEnd = first + size - 1;
+        }
+    }
+
+    /**
+     * Returns the number of IDs reserved per transaction.
+     *
+     * @return the block size
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Updates the number of IDs reserved per transaction. Takes effect on the
+     * next reservation.
+     *
+     * @param blockSize the new block size, must be at least 1
+     */
+    public void setBlockSize(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be at least 1");
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Returns the number of blocks successfully reserved from Firestore.
+     *
+     * @return the blocks fetched counter
+     */
+    public long getBlocksFetched() {
+        return blocksFetched.get();
+    }
+
+    /**
+     * Returns the number of times a reservation transaction was retried
+     * because another client changed the counter at the same time.
+     *
+     * @return the contention retry counter
+     */
+    public long getContentionRetries() {
+        return contentionRetries.get();
+    }
+}
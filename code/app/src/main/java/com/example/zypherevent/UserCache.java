@@ -0,0 +1,226 @@
+package com.example.zypherevent;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @version 1.0
+ * @see Database#getUser(String)
+ * @see Database#getUsersByIds(java.util.Collection)
+ *
+ *      A process-wide, bounded cache of user documents read by
+ *      {@link Database#getUser(String)} and
+ *      {@link Database#getUsersByIds(java.util.Collection)}, so that screens
+ *      showing the same profiles (waitlist rows, maps, exports) share one read
+ *      per user.
+ *
+ *      Entries are kept in least-recently-used order and each one expires after
+ *      a time-to-live. Users that do not exist are cached too, with a shorter
+ *      time-to-live, so that a row for a deleted user does not trigger a read
+ *      every time it is bound. {@link Database#setUserData(String, com.example.zypherevent.userTypes.User)}
+ *      and {@link Database#removeUserData(String)} drop the entry they write.
+ *
+ *      The cache stores document snapshots rather than parsed users, so every
+ *      caller gets its own User object and may change it freely. Entries are
+ *      keyed by document path, so databases using different collections do not
+ *      share entries.
+ */
+public class UserCache {
+
+    /** The default maximum number of cached users. */
+    public static final int DEFAULT_MAX_ENTRIES = 2048;
+
+    /** The default time-to-live of a cached user, in milliseconds. */
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000L;
+
+    /** The default time-to-live of a cached missing user, in milliseconds. */
+    public static final long DEFAULT_MISSING_TTL_MILLIS = 60 * 1000L;
+
+    /** The process-wide instance. */
+    private static UserCache instance;
+
+    /** Maximum number of cached users. */
+    private final int maxEntries;
+
+    /** Time-to-live of a cached user, in milliseconds. */
+    private final long ttlMillis;
+
+    /** Time-to-live of a cached missing user, in milliseconds. */
+    private final long missingTtlMillis;
+
+    /** Cached entries keyed by document path, in least-recently-used order. */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Number of lookups served from the cache. */
+    private final AtomicLong hits = new AtomicLong();
+
+    /** Number of lookups that had to go to Firestore. */
+    private final AtomicLong misses = new AtomicLong();
+
+    /** Number of entries dropped because the cache was full or they expired. */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * A cached user document, or the fact that it does not exist.
+     */
+    public static class Entry {
+        private final DocumentSnapshot snapshot;
+        private final long expiresAt;
+
+        private Entry(DocumentSnapshot snapshot, long expiresAt) {
+            this.snapshot = snapshot;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Returns whether the user document exists.
+         *
+         * @return true if the document exists, false if it is known to be missing
+         */
+        public boolean exists() {
+            return snapshot != null;
+        }
+
+        /**
+         * Returns the cached user document.
+         *
+         * @return the document snapshot, or null if the document is missing
+         */
+        public DocumentSnapshot getSnapshot() {
+            return snapshot;
+        }
+    }
+
+    /**
+     * Returns the process-wide user cache.
+     *
+     * @return the shared UserCache instance
+     */
+    public static synchronized UserCache getInstance() {
+        if (instance == null) {
+            instance = new UserCache(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS, DEFAULT_MISSING_TTL_MILLIS);
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a new cache.
+     *
+     * @param maxEntries       the maximum number of cached users, must be at least 1
+     * @param ttlMillis        the time-to-live of a cached user, in milliseconds
+     * @param missingTtlMillis the time-to-live of a cached missing user, in
+     *                         milliseconds
+     */
+    public UserCache(int maxEntries, long ttlMillis, long missingTtlMillis) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.missingTtlMillis = missingTtlMillis;
+    }
+
+    /**
+     * Looks up the cached entry for a user document.
+     *
+     * @param userRef the user document
+     * @return the cached entry, or null if the user is not cached or has
+     *         expired
+     */
+    public synchronized Entry get(DocumentReference userRef) {
+        String key = userRef.getPath();
+        Entry entry = entries.get(key);
+
+        if (entry != null && System.currentTimeMillis() > entry.expiresAt) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return entry;
+    }
+
+    /**
+     * Stores a user document read from Firestore. Evicts the least recently
+     * used users if the cache is full.
+     *
+     * @param userRef  the user document
+     * @param snapshot the document read, or null if it does not exist
+     */
+    public synchronized void put(DocumentReference userRef, DocumentSnapshot snapshot) {
+        boolean exists = snapshot != null && snapshot.exists();
+        long ttl = exists ? ttlMillis : missingTtlMillis;
+        entries.put(userRef.getPath(), new Entry(exists ? snapshot : null, System.currentTimeMillis() + ttl));
+
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes the cached entry for a user document, e.g. when it is written.
+     *
+     * @param userRef the user document
+     */
+    public synchronized void invalidate(DocumentReference userRef) {
+        entries.remove(userRef.getPath());
+    }
+
+    /**
+     * Removes every cached user.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of cached users, including expired ones not yet
+     * removed.
+     *
+     * @return the cache size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of lookups served from the cache.
+     *
+     * @return the hit counter
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of lookups that had to go to Firestore.
+     *
+     * @return the miss counter
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of entries dropped because the cache was full or they
+     * expired.
+     *
+     * @return the eviction counter
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.zypherevent;
+
+import android.util.Log;
+
+import com.example.zypherevent.userTypes.Administrator;
+import com.example.zypherevent.userTypes.Entrant;
+import com.example.zypherevent.userTypes.Organizer;
+import com.example.zypherevent.userTypes.User;
+import com.example.zypherevent.userTypes.UserType;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.GeoPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @version 1.0
+ * @see User
+ * @see Database
+ *
+ *      Turns user documents from Firestore into {@link Entrant},
+ *      {@link Organizer} or {@link Administrator} objects. Every read of a user
+ *      in {@link Database} goes through {@link #fromSnapshot(DocumentSnapshot)}.
+ *
+ *      The document's field map is read once and the subtype named by its
+ *      {@code userType} field is built from it by hand, instead of mapping the
+ *      document through reflection with {@code toObject}. Profile reads are the
+ *      most frequent read in the app, so this keeps them cheap.
+ */
+public final class UserMapper {
+
+    private UserMapper() {
+    }
+
+    /**
+     * Decodes a user document into the subtype matching its {@code userType}
+     * (Entrant, Organizer, Administrator).
+     *
+     * @param doc an existing user document snapshot
+     * @return the decoded User, or null if it cannot be decoded
+     */
+    public static User fromSnapshot(DocumentSnapshot doc) {
+        try {
+            Map<String, Object> data = doc.getData();
+            if (data == null) {
+                return null;
+            }
+
+            User user;
+            Object userType = data.get("userType");
+            if (UserType.ENTRANT.name().equals(userType)) {
+                user = toEntrant(data);
+
+            } else if (UserType.ORGANIZER.name().equals(userType)) {
+                Organizer organizer = new Organizer();
+                organizer.setCreatedEvents(toLongList(data.get("createdEvents")));
+                user = organizer;
+
+            } else if (UserType.ADMINISTRATOR.name().equals(userType)) {
+                user = new Administrator();
+
+            } else {
+                // If all fails, unknown type
+                Log.e("Database", "Unknown user type. Not one of Entrant, Organizer, or Administrator");
+                user = new User();
+            }
+
+            user.setHardwareID(asString(data.get("hardwareID")));
+            user.setFirstName(asString(data.get("firstName")));
+            user.setLastName(asString(data.get("lastName")));
+            return user;
+        } catch (Exception e) {
+            Log.e("Database", "Failed to parse user: " + doc.getId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Builds the Entrant-specific part of a user from its field map.
+     *
+     * @param data the user document's fields
+     * @return the Entrant, without the fields shared by every User
+     */
+    private static Entrant toEntrant(Map<String, Object> data) {
+        Entrant entrant = new Entrant();
+        entrant.setEmail(asString(data.get("email")));
+        entrant.setPhoneNumber(asString(data.get("phoneNumber")));
+        entrant.setUseGeolocation(Boolean.TRUE.equals(data.get("useGeolocation")));
+        // Entrants saved before the setting existed keep the default of receiving notifications
+        entrant.setWantsNotifications(!Boolean.FALSE.equals(data.get("wantsNotifications")));
+        Object location = data.get("location");
+        if (location instanceof GeoPoint) {
+            entrant.setLocation((GeoPoint) location);
+        }
+        entrant.setRegisteredEventHistory(toLongList(data.get("registeredEventHistory")));
+        return entrant;
+    }
+
+    /**
+     * Converts a Firestore array of numbers into a list of event IDs. Items that
+     * are not numbers are skipped.
+     *
+     * @param raw the raw field value
+     * @return a non-null list of IDs
+     */
+    private static ArrayList<Long> toLongList(Object raw) {
+        ArrayList<Long> result = new ArrayList<>();
+        if (raw instanceof List<?>) {
+            for (Object o : (List<?>) raw) {
+                if (o instanceof Number) {
+                    result.add(((Number) o).longValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a field value as a String, or null if it is not one.
+     *
+     * @param raw the raw field value
+     * @return the String value, or null
+     */
+    private static String asString(Object raw) {
+        return raw instanceof String ? (String) raw : null;
+    }
+}
@@ -0,0 +1,426 @@
+package com.example.zypherevent.notifications;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.zypherevent.Notification;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Sits between {@link NotificationService}'s snapshot listener and
+ * {@link NotificationHelper}, so that a large backlog arriving at once, for
+ * example after reconnecting, is shown at a steady rate instead of all in one
+ * main-thread callback.
+ * <p>
+ * Waiting notifications are ordered by category, invitations first, and by
+ * arrival within a category. The queue is bounded. When it is full, a new
+ * update or custom message replaces a waiting one about the same event, and
+ * otherwise the lowest-priority notification is dropped. Queue depth, drops
+ * and coalesced notifications are counted, and a {@link Listener} can be told
+ * which notifications were replaced or dropped and when the queue runs empty.
+ *
+ * @author Tom Yang
+ * @version 1.0
+ * @see NotificationService
+ * @see NotificationHelper
+ */
+public class NotificationDisplayQueue {
+
+    /**
+     * A notification waiting to be shown.
+     */
+    public static class Entry {
+        private final int notificationId;
+        private final Notification.Category category;
+        private final String title;
+        private final String body;
+        private final Long eventId;
+        private final long sequence;
+
+        private Entry(int notificationId, Notification.Category category, String title, String body, Long eventId,
+                long sequence) {
+            this.notificationId = notificationId;
+            this.category = category;
+            this.title = title;
+            this.body = body;
+            this.eventId = eventId;
+            this.sequence = sequence;
+        }
+
+        /**
+         * @return The notification's ID
+         */
+        public int getNotificationId() {
+            return notificationId;
+        }
+
+        /**
+         * @return The notification's category
+         */
+        public Notification.Category getCategory() {
+            return category;
+        }
+
+        /**
+         * @return The notification title
+         */
+        public String getTitle() {
+            return title;
+        }
+
+        /**
+         * @return The notification message
+         */
+        public String getBody() {
+            return body;
+        }
+
+        /**
+         * @return The event the notification is about, or null
+         */
+        public Long getEventId() {
+            return eventId;
+        }
+    }
+
+    /**
+     * Told what happens to queued notifications other than being shown. Called
+     * on the thread that offered the notification, or the main thread.
+     */
+    public interface Listener {
+        /**
+         * Called when a waiting notification is replaced by a newer one about the
+         * same event, and so will not be shown.
+         *
+         * @param replaced the notification that will not be shown
+         */
+        void onSuperseded(Entry replaced);
+
+        /**
+         * Called when a notification is dropped because the queue is full.
+         *
+         * @param dropped the notification that will not be shown
+         */
+        void onDropped(Entry dropped);
+
+        /**
+         * Called when the last waiting notification has been shown.
+         */
+        void onIdle();
+    }
+
+    /**
+     * Runs the queue's drain steps. The default runs them on the main thread;
+     * tests can run them by hand.
+     */
+    public interface Scheduler {
+        /**
+         * Runs a task after a delay.
+         *
+         * @param task        The task to run
+         * @param delayMillis The delay in milliseconds
+         */
+        void schedule(Runnable task, long delayMillis);
+    }
+
+    /**
+     * Runs the drain steps on the main thread.
+     */
+    private static class MainThreadScheduler implements Scheduler {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void schedule(Runnable task, long delayMillis) {
+            handler.postDelayed(task, delayMillis);
+        }
+    }
+
+    /** Higher priority first, then first come first served. */
+    private static final Comparator<Entry> ORDER = Comparator.<Entry>comparingInt(entry -> rank(entry.category))
+            .thenComparingLong(entry -> entry.sequence);
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(ORDER);
+    private final int capacity;
+    private final Consumer<Entry> display;
+    private volatile Listener listener;
+    private final Scheduler scheduler;
+
+    private volatile long drainIntervalMillis;
+    private long nextSequence = 0;
+    private boolean draining = false;
+
+    // Bumped by clear(), so drain steps scheduled before it do nothing
+    private long drainGeneration = 0;
+
+    // Metrics
+    private final AtomicLong shown = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private volatile int maxDepth = 0;
+
+    /**
+     * Shows the next waiting notification and schedules the step after it, or
+     * stops draining once the queue is empty.
+     *
+     * @param generation The drain generation the step was scheduled in
+     */
+    private void drain(long generation) {
+        Entry next;
+        synchronized (this) {
+            if (generation != drainGeneration) {
+                return;
+            }
+            next = queue.poll();
+            if (next == null) {
+                draining = false;
+            }
+        }
+        if (next == null) {
+            Listener current = listener;
+            if (current != null) {
+                current.onIdle();
+            }
+            return;
+        }
+        display.accept(next);
+        shown.incrementAndGet();
+        scheduler.schedule(() -> drain(generation), drainIntervalMillis);
+    }
+
+    /**
+     * Constructor for the display queue
+     *
+     * @param capacity            The most notifications that may wait at once
+     * @param drainIntervalMillis The time between two notifications being shown
+     * @param display             Shows one notification, called on the main thread
+     */
+    public NotificationDisplayQueue(int capacity, long drainIntervalMillis, Consumer<Entry> display) {
+        this(capacity, drainIntervalMillis, display, new MainThreadScheduler());
+    }
+
+    /**
+     * Constructor for a display queue whose drain steps are run by the given
+     * scheduler
+     *
+     * @param capacity            The most notifications that may wait at once
+     * @param drainIntervalMillis The time between two notifications being shown
+     * @param display             Shows one notification, called by the scheduler
+     * @param scheduler           Runs the drain steps
+     */
+    public NotificationDisplayQueue(int capacity, long drainIntervalMillis, Consumer<Entry> display,
+            Scheduler scheduler) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.drainIntervalMillis = drainIntervalMillis;
+        this.display = display;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Queues a notification to be shown. The first one after a quiet period is
+     * shown straight away.
+     *
+     * @param notificationId The notification's ID
+     * @param category       The notification's category
+     * @param title          The notification title
+     * @param body           The notification message
+     * @param eventId        The event the notification is about, or null
+     */
+    public void offer(int notificationId, Notification.Category category, String title, String body,
+            Long eventId) {
+        Entry replaced = null;
+        Entry worst = null;
+
+        synchronized (this) {
+            Entry entry = new Entry(notificationId, category, title, body, eventId, nextSequence++);
+
+            if (queue.size() >= capacity && isLowPriority(category)) {
+                replaced = coalesce(entry);
+            }
+            if (replaced != null) {
+                coalesced.incrementAndGet();
+            } else {
+                if (queue.size() >= capacity) {
+                    // The new entry has the latest sequence, so it is the worst unless something ranks lower
+                    worst = entry;
+                    for (Entry waiting : queue) {
+                        if (ORDER.compare(waiting, worst) > 0) {
+                            worst = waiting;
+                        }
+                    }
+                    dropped.incrementAndGet();
+                    if (worst != entry) {
+                        queue.remove(worst);
+                    }
+                }
+
+                if (worst != entry) {
+                    queue.add(entry);
+                    maxDepth = Math.max(maxDepth, queue.size());
+
+                    if (!draining) {
+                        draining = true;
+                        long generation = drainGeneration;
+                        scheduler.schedule(() -> drain(generation), 0);
+                    }
+                }
+            }
+        }
+
+        Listener current = listener;
+        if (current != null && replaced != null) {
+            current.onSuperseded(replaced);
+        }
+        if (current != null && worst != null) {
+            current.onDropped(worst);
+        }
+    }
+
+    /**
+     * Replaces a waiting notification of the same category about the same event
+     * with a newer one, keeping its place in the queue.
+     *
+     * @param entry The newer notification
+     * @return the waiting notification that was replaced, or null if there was
+     *         none
+     */
+    private Entry coalesce(Entry entry) {
+        if (entry.eventId == null) {
+            return null;
+        }
+        Iterator<Entry> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Entry waiting = iterator.next();
+            if (waiting.category == entry.category && Objects.equals(waiting.eventId, entry.eventId)) {
+                iterator.remove();
+                queue.add(new Entry(entry.notificationId, entry.category, entry.title, entry.body, entry.eventId,
+                        waiting.sequence));
+                return waiting;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets the listener told about replaced and dropped notifications and about
+     * the queue running empty.
+     *
+     * @param listener The listener, or null for none
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Drops every waiting notification, e.g. when the service stops listening.
+     */
+    public synchronized void clear() {
+        queue.clear();
+        drainGeneration++;
+        draining = false;
+    }
+
+    /**
+     * Sets the time between two notifications being shown. Takes effect from
+     * the next notification.
+     *
+     * @param drainIntervalMillis The new interval in milliseconds
+     */
+    public void setDrainIntervalMillis(long drainIntervalMillis) {
+        this.drainIntervalMillis = drainIntervalMillis;
+    }
+
+    /**
+     * Returns the time between two notifications being shown.
+     *
+     * @return The interval in milliseconds
+     */
+    public long getDrainIntervalMillis() {
+        return drainIntervalMillis;
+    }
+
+    /**
+     * Returns the number of notifications waiting to be shown.
+     *
+     * @return The current queue depth
+     */
+    public synchronized int getDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the largest number of notifications that have waited at once.
+     *
+     * @return The maximum queue depth
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the number of notifications shown.
+     *
+     * @return The shown counter
+     */
+    public long getShownCount() {
+        return shown.get();
+    }
+
+    /**
+     * Returns the number of notifications dropped because the queue was full.
+     *
+     * @return The dropped counter
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of notifications that replaced an older waiting one
+     * about the same event because the queue was full.
+     *
+     * @return The coalesced counter
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Returns the display rank of a category; lower is shown first.
+     *
+     * @param category The notification category
+     * @return The rank of the category
+     */
+    private static int rank(Notification.Category category) {
+        switch (category) {
+            case INVITATION:
+                return 0;
+            case CANCELLATION:
+                return 1;
+            case REJECTION:
+                return 2;
+            case CUSTOM:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    /**
+     * Checks whether a category may be coalesced when the queue is full.
+     *
+     * @param category The notification category
+     * @return true for updates and custom messages
+     */
+    private static boolean isLowPriority(Notification.Category category) {
+        return category == Notification.Category.UPDATE || category == Notification.Category.CUSTOM;
+    }
+}
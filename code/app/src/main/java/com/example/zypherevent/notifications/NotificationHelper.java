@@ -6,6 +6,9 @@ import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.service.notification.StatusBarNotification;
 import android.util.Log;
 
 import androidx.core.app.NotificationCompat;
@@ -14,6 +17,14 @@ import androidx.core.app.NotificationManagerCompat;
 import com.example.zypherevent.EntrantActivity;
 import com.example.zypherevent.R;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Helper class for creating and displaying Android level notifications.
  * Manages notification channels and provides methods to show notifications.
@@ -22,6 +33,11 @@ import com.example.zypherevent.R;
  * - Event Update (default): waitlist status, general updates
  * - Event Rejections (default): declined/rejected notifications
  * - Service (low): foreground service notification
+ * Notifications about the same event are grouped under a summary, and bursts
+ * of notifications collapse into those summaries. A summary is posted as soon
+ * as its group needs one, and later changes to it at most once a second.
+ * Groups and bursts are forgotten once their burst window has passed, or
+ * once the group's summary has been dismissed.
  *
  * @author Tom Yang
  * @version 1.0
@@ -35,9 +51,78 @@ public class NotificationHelper {
     private static final String CHANNEL_ID_REJECTIONS = "event_rejections";
     private static final String FOREGROUND_CHANNEL_ID = "notification_service_channel";
 
+    // Grouping of notifications per event and channel
+    private static final String GROUP_KEY_PREFIX = "com.example.zypherevent.notifications.";
+    private static final String SUMMARY_TAG = "group_summary";
+    private static final int INBOX_LINES = 5;
+
+    // Notifications shown individually per channel in one burst before collapsing
+    private static final int INVITATION_COLLAPSE_THRESHOLD = 8;
+    private static final int COLLAPSE_THRESHOLD = 4;
+
+    // Quiet time after which a burst, and a group's summary, start over
+    private static final long BURST_WINDOW_MS = 10 * 60 * 1000;
+
+    // Least time between two updates of a group's summary once it is showing
+    private static final long SUMMARY_UPDATE_INTERVAL_MS = 1000;
+
+    // Request code of the shared content intent, distinct from the foreground one
+    private static final int CONTENT_REQUEST_CODE = 1;
+
     private final Context context;
     private final NotificationManagerCompat notificationManager;
 
+    // Reused across notifications to avoid rebuilding them on every post
+    private final Map<String, NotificationCompat.Builder> builders = new HashMap<>();
+    private final Map<String, NotificationCompat.Builder> summaryBuilders = new HashMap<>();
+    private PendingIntent contentIntent;
+
+    private final Map<String, Group> groups = new HashMap<>();
+    private final Map<String, Burst> bursts = new HashMap<>();
+
+    // Summaries whose groups changed since they were last posted
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushSummaries = this::flushSummaries;
+    private boolean flushScheduled = false;
+
+    // Forgets groups and bursts that are over, while any are tracked
+    private final Runnable pruneGroups = this::pruneGroups;
+    private boolean pruneScheduled = false;
+
+    /**
+     * The recent notifications of one event on one channel, listed in its
+     * summary.
+     */
+    private static class Group {
+        final String channelId;
+        final Deque<String> lines = new ArrayDeque<>();
+        int count;
+        long lastShown;
+        boolean summaryPosted;
+        boolean summaryStale;
+
+        Group(String channelId) {
+            this.channelId = channelId;
+        }
+
+        void add(String line, long now) {
+            lines.addLast(line);
+            if (lines.size() > INBOX_LINES) {
+                lines.removeFirst();
+            }
+            count++;
+            lastShown = now;
+        }
+    }
+
+    /**
+     * How many notifications a channel has shown in the current burst.
+     */
+    private static class Burst {
+        int count;
+        long lastShown;
+    }
+
     /**
      * Constructor that initializes the notification helper and creates notification channels
      *
@@ -113,7 +198,20 @@ public class NotificationHelper {
      * @param message Notification message
      */
     public void showInvitationNotification(int notificationId, String title, String message) {
-        showNotification(notificationId, title, message, CHANNEL_ID_INVITATIONS, true);
+        showInvitationNotification(notificationId, title, message, null);
+    }
+
+    /**
+     * Displays a HIGH priority notification for event invitations, grouped with
+     * the other notifications about the same event.
+     *
+     * @param notificationId Unique ID for this notification
+     * @param title Notification title
+     * @param message Notification message
+     * @param eventId The event the notification is about, or null
+     */
+    public void showInvitationNotification(int notificationId, String title, String message, Long eventId) {
+        showNotification(notificationId, title, message, CHANNEL_ID_INVITATIONS, true, eventId);
     }
 
     /**
@@ -125,7 +223,20 @@ public class NotificationHelper {
      * @param message Notification message
      */
     public void showUpdateNotification(int notificationId, String title, String message) {
-        showNotification(notificationId, title, message, CHANNEL_ID_UPDATES, false);
+        showUpdateNotification(notificationId, title, message, null);
+    }
+
+    /**
+     * Displays a DEFAULT priority notification for event updates, grouped with
+     * the other notifications about the same event.
+     *
+     * @param notificationId Unique ID for this notification
+     * @param title Notification title
+     * @param message Notification message
+     * @param eventId The event the notification is about, or null
+     */
+    public void showUpdateNotification(int notificationId, String title, String message, Long eventId) {
+        showNotification(notificationId, title, message, CHANNEL_ID_UPDATES, false, eventId);
     }
 
     /**
@@ -137,43 +248,90 @@ public class NotificationHelper {
      * @param message Notification message
      */
     public void showRejectionNotification(int notificationId, String title, String message) {
-        showNotification(notificationId, title, message, CHANNEL_ID_REJECTIONS, false);
+        showRejectionNotification(notificationId, title, message, null);
+    }
+
+    /**
+     * Displays a DEFAULT priority notification for event rejections, grouped
+     * with the other notifications about the same event.
+     *
+     * @param notificationId Unique ID for this notification
+     * @param title Notification title
+     * @param message Notification message
+     * @param eventId The event the notification is about, or null
+     */
+    public void showRejectionNotification(int notificationId, String title, String message, Long eventId) {
+        showNotification(notificationId, title, message, CHANNEL_ID_REJECTIONS, false, eventId);
     }
 
     /**
      * Core method for displaying a system level notification.
      * Creates a notification with the specified parameters and displays it.
+     * <p>
+     * Notifications are grouped per event and channel under an InboxStyle
+     * summary. Once a channel has shown more than its threshold of notifications
+     * in one burst, later ones are only added to their group's summary, so a
+     * lottery run or status blast updates one tray entry instead of posting
+     * dozens. A burst ends after {@link #BURST_WINDOW_MS} without notifications
+     * on the channel.
      *
      * @param notificationId Unique ID for this notification
      * @param title Notification title
      * @param message Notification message
      * @param channelId The channel ID to use
      * @param highPriority Whether or not this notification is high priority
+     * @param eventId The event the notification is about, or null
      */
-    private void showNotification(int notificationId, String title, String message, String channelId, boolean highPriority) {
+    private synchronized void showNotification(int notificationId, String title, String message, String channelId,
+            boolean highPriority, Long eventId) {
         try {
-            Intent intent = new Intent(context, EntrantActivity.class);
-            intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_SINGLE_TOP);
-            intent.putExtra("navigate_to", "notifications"); // Navigates to notifications page
+            long now = System.currentTimeMillis();
+            String groupKey = GROUP_KEY_PREFIX + channelId + "." + (eventId != null ? eventId : "general");
 
-            PendingIntent pendingIntent = PendingIntent.getActivity(
-                    context,
-                    notificationId,
-                    intent,
-                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-            );
+            Group group = groups.get(groupKey);
+            if (group == null || now - group.lastShown > BURST_WINDOW_MS) {
+                group = new Group(channelId);
+                groups.put(groupKey, group);
+            }
+            group.add(title, now);
 
-            // Build the notification
-            NotificationCompat.Builder builder = new NotificationCompat.Builder(context, channelId)
-                    .setSmallIcon(R.drawable.ic_notificationlog)
-                    .setContentTitle(title)
-                    .setContentText(message)
-                    .setStyle(new NotificationCompat.BigTextStyle().bigText(message))
-                    .setContentIntent(pendingIntent)
-                    .setAutoCancel(true); // This removes the notification when tapped on
+            Burst burst = bursts.get(channelId);
+            if (burst == null || now - burst.lastShown > BURST_WINDOW_MS) {
+                burst = new Burst();
+                bursts.put(channelId, burst);
+            }
+            burst.count++;
+            burst.lastShown = now;
+
+            if (!pruneScheduled) {
+                pruneScheduled = true;
+                handler.postDelayed(pruneGroups, BURST_WINDOW_MS);
+            }
+
+            // Past the threshold, the notification only shows up in its group's summary
+            if (burst.count <= collapseThreshold(channelId)) {
+                NotificationCompat.Builder builder = builderFor(channelId, highPriority)
+                        .setContentTitle(title)
+                        .setContentText(message)
+                        .setStyle(new NotificationCompat.BigTextStyle().bigText(message))
+                        .setGroup(groupKey);
+                notificationManager.notify(notificationId, builder.build());
+            }
 
-            // Show the notification
-            notificationManager.notify(notificationId, builder.build());
+            if (group.count > 1 || burst.count > collapseThreshold(channelId)) {
+                if (!group.summaryPosted) {
+                    // The group needs its summary now, to hold its children or a collapsed notification
+                    group.summaryPosted = true;
+                    notificationManager.notify(SUMMARY_TAG, groupKey.hashCode(), buildSummary(channelId, groupKey, group));
+                } else {
+                    // Later changes are folded into one update per interval
+                    group.summaryStale = true;
+                    if (!flushScheduled) {
+                        flushScheduled = true;
+                        handler.postDelayed(flushSummaries, SUMMARY_UPDATE_INTERVAL_MS);
+                    }
+                }
+            }
 
         } catch (SecurityException e) {
             Log.e(TAG, "Permission denied to show notification", e);
@@ -182,6 +340,179 @@ public class NotificationHelper {
         }
     }
 
+    /**
+     * Posts the summaries of the groups that changed since their summary was
+     * last posted.
+     */
+    private synchronized void flushSummaries() {
+        flushScheduled = false;
+        for (Map.Entry<String, Group> entry : groups.entrySet()) {
+            Group group = entry.getValue();
+            if (!group.summaryStale) {
+                continue;
+            }
+            group.summaryStale = false;
+            try {
+                notificationManager.notify(SUMMARY_TAG, entry.getKey().hashCode(),
+                        buildSummary(group.channelId, entry.getKey(), group));
+            } catch (SecurityException e) {
+                Log.e(TAG, "Permission denied to show notification", e);
+            }
+        }
+    }
+
+    /**
+     * Forgets the bursts and groups whose window has passed, and the groups
+     * whose summary is no longer showing, e.g. because it was tapped or
+     * dismissed. A later notification for them starts a new burst or group.
+     * Runs again while anything is still tracked.
+     */
+    private synchronized void pruneGroups() {
+        pruneScheduled = false;
+        long now = System.currentTimeMillis();
+
+        Iterator<Burst> burstIt = bursts.values().iterator();
+        while (burstIt.hasNext()) {
+            if (now - burstIt.next().lastShown > BURST_WINDOW_MS) {
+                burstIt.remove();
+            }
+        }
+
+        Set<Integer> shownSummaries = shownSummaryIds();
+        Iterator<Map.Entry<String, Group>> groupIt = groups.entrySet().iterator();
+        while (groupIt.hasNext()) {
+            Map.Entry<String, Group> entry = groupIt.next();
+            Group group = entry.getValue();
+            boolean expired = now - group.lastShown > BURST_WINDOW_MS;
+            boolean dismissed = group.summaryPosted && !group.summaryStale && shownSummaries != null
+                    && !shownSummaries.contains(entry.getKey().hashCode());
+            if (expired || dismissed) {
+                groupIt.remove();
+            }
+        }
+
+        if (!groups.isEmpty() || !bursts.isEmpty()) {
+            pruneScheduled = true;
+            handler.postDelayed(pruneGroups, BURST_WINDOW_MS);
+        }
+    }
+
+    /**
+     * Returns the IDs of the group summaries currently in the notification
+     * tray.
+     *
+     * @return the IDs of the shown summaries, or null if they cannot be read
+     */
+    private Set<Integer> shownSummaryIds() {
+        NotificationManager manager = context.getSystemService(NotificationManager.class);
+        if (manager == null) {
+            return null;
+        }
+        Set<Integer> ids = new HashSet<>();
+        try {
+            for (StatusBarNotification shown : manager.getActiveNotifications()) {
+                if (SUMMARY_TAG.equals(shown.getTag())) {
+                    ids.add(shown.getId());
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error reading shown notifications", e);
+            return null;
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the number of notifications a channel shows individually in one
+     * burst before collapsing into group summaries.
+     *
+     * @param channelId The channel ID
+     * @return the collapse threshold of the channel
+     */
+    private int collapseThreshold(String channelId) {
+        return CHANNEL_ID_INVITATIONS.equals(channelId) ? INVITATION_COLLAPSE_THRESHOLD : COLLAPSE_THRESHOLD;
+    }
+
+    /**
+     * Builds the InboxStyle summary of a group, listing its most recent titles.
+     *
+     * @param channelId The channel ID of the group
+     * @param groupKey The group key
+     * @param group The group's recent notifications
+     * @return the summary notification
+     */
+    private android.app.Notification buildSummary(String channelId, String groupKey, Group group) {
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle();
+        for (String line : group.lines) {
+            style.addLine(line);
+        }
+        if (group.count > group.lines.size()) {
+            style.setSummaryText("+" + (group.count - group.lines.size()) + " more");
+        }
+
+        NotificationCompat.Builder summary = summaryBuilders.get(channelId);
+        if (summary == null) {
+            summary = new NotificationCompat.Builder(context, channelId)
+                    .setSmallIcon(R.drawable.ic_notificationlog)
+                    .setContentIntent(contentIntent())
+                    .setGroupSummary(true)
+                    .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_CHILDREN)
+                    .setOnlyAlertOnce(true)
+                    .setAutoCancel(true);
+            summaryBuilders.put(channelId, summary);
+        }
+        return summary
+                .setContentTitle(group.count + " new notifications")
+                .setContentText(group.lines.peekLast())
+                .setStyle(style)
+                .setGroup(groupKey)
+                .setNumber(group.count)
+                .build();
+    }
+
+    /**
+     * Returns the reusable builder for a channel's individual notifications,
+     * creating it the first time.
+     *
+     * @param channelId The channel ID
+     * @param highPriority Whether the channel is high priority
+     * @return the channel's builder
+     */
+    private NotificationCompat.Builder builderFor(String channelId, boolean highPriority) {
+        NotificationCompat.Builder builder = builders.get(channelId);
+        if (builder == null) {
+            builder = new NotificationCompat.Builder(context, channelId)
+                    .setSmallIcon(R.drawable.ic_notificationlog)
+                    .setContentIntent(contentIntent())
+                    .setPriority(highPriority ? NotificationCompat.PRIORITY_HIGH : NotificationCompat.PRIORITY_DEFAULT)
+                    .setAutoCancel(true); // This removes the notification when tapped on
+            builders.put(channelId, builder);
+        }
+        return builder;
+    }
+
+    /**
+     * Returns the intent that opens the notifications page, creating it the
+     * first time. Every notification opens the same page, so one is shared.
+     *
+     * @return the shared content intent
+     */
+    private PendingIntent contentIntent() {
+        if (contentIntent == null) {
+            Intent intent = new Intent(context, EntrantActivity.class);
+            intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_SINGLE_TOP);
+            intent.putExtra("navigate_to", "notifications"); // Navigates to notifications page
+
+            contentIntent = PendingIntent.getActivity(
+                    context,
+                    CONTENT_REQUEST_CODE,
+                    intent,
+                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+            );
+        }
+        return contentIntent;
+    }
+
     /**
      * Creates a notification for the foreground service
      * This is the persistent notification shown when app is running to listen for real time notifications
@@ -5,25 +5,37 @@ import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.app.Service;
+import android.content.Context;
 import android.content.Intent;
+import android.content.SharedPreferences;
 import android.os.Binder;
 import android.os.Build;
+import android.os.Handler;
 import android.os.IBinder;
+import android.os.Looper;
 import android.util.Log;
 
 import androidx.annotation.Nullable;
 import androidx.core.app.NotificationCompat;
 
+import com.example.zypherevent.BatchWriteResult;
 import com.example.zypherevent.Database;
 import com.example.zypherevent.EntrantActivity;
 import com.example.zypherevent.R;
 import com.google.android.gms.tasks.Task;
-import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * This service has two main functions:
@@ -33,8 +45,8 @@ import java.util.Set;
  * <p>
  * The service runs in the foreground (persistent) to maintain the listener even
  * when the app is running in the background. Notifications are categorized
- * based on their context taken
- * from the notification title or body.
+ * by the category set when they are sent, or for older notifications by
+ * keywords in the notification title or body.
  *
  * @author Tom Yang
  * @version 1.0
@@ -48,13 +60,68 @@ public class NotificationService extends Service {
     private static final int FOREGROUND_NOTIFICATION_ID = 1;
     private static final String FOREGROUND_CHANNEL_ID = "notification_service_channel";
 
+    // Notifications read per page when catching up on the backlog after the mark
+    private static final int CATCH_UP_PAGE_SIZE = 25;
+    private static final long CATCH_UP_RETRY_MS = 30_000;
+
+    // The real-time listener is moved forward once it holds this many notifications
+    private static final int LISTENER_RECENT_LIMIT = 50;
+
+    // Size and drain rate of the queue between the listener and the helper
+    private static final int DISPLAY_QUEUE_CAPACITY = 50;
+    private static final long DISPLAY_INTERVAL_MS = 250;
+
+    // Where each user's high-water mark (the last notification handled) is kept
+    private static final String PREFS_NAME = "notification_service";
+    private static final String PREF_LAST_SEEN_PREFIX = "lastSeenSentTime_";
+    private static final String PREF_LAST_SEEN_ID_PREFIX = "lastSeenNotificationID_";
+
+    /**
+     * A notification's place in the order notifications were sent: by send
+     * time, then by notification ID.
+     */
+    private static final class SentKey implements Comparable<SentKey> {
+        private final Timestamp sentTime;
+        private final long notificationId;
+
+        SentKey(Timestamp sentTime, long notificationId) {
+            this.sentTime = sentTime;
+            this.notificationId = notificationId;
+        }
+
+        @Override
+        public int compareTo(SentKey other) {
+            int byTime = sentTime.compareTo(other.sentTime);
+            return byTime != 0 ? byTime : Long.compare(notificationId, other.notificationId);
+        }
+    }
+
     private final IBinder binder = new LocalBinder();
     private Database db;
     private NotificationHelper notificationHelper;
+    private NotificationDisplayQueue displayQueue;
     private ListenerRegistration notificationListener;
+    private SharedPreferences preferences;
+
+    // Every notification up to and including the mark has been shown or replaced
+    private SentKey lastSeen;
+
+    // The newest notification read so far; the backlog and the listener continue after it
+    private SentKey newestRead;
+
+    // Notifications after the mark that have been read, and whether each has been handled
+    private final TreeMap<SentKey, Boolean> outstanding = new TreeMap<>();
+    private final Map<Integer, SentKey> outstandingById = new HashMap<>();
+
+    // Notifications the display queue dropped, offered again once it is empty
+    private final Map<Integer, NotificationDisplayQueue.Entry> droppedEntries = new LinkedHashMap<>();
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private boolean catchingUp = false;
+    private boolean pageLoading = false;
 
-    // Track notifications to avoid duplicates
-    private final Set<Long> shownNotificationIds = new HashSet<>();
+    // Bumped on every start and stop, so a stale mark lookup does not attach a listener
+    private int listenGeneration = 0;
 
     private String currentUserHardwareId;
     private boolean isListening = false;
@@ -71,8 +138,33 @@ public class NotificationService extends Service {
     @Override
     public void onCreate() {
         super.onCreate();
-        db = new Database();
+        db = Database.getInstance();
         notificationHelper = new NotificationHelper(this);
+        displayQueue = new NotificationDisplayQueue(DISPLAY_QUEUE_CAPACITY, DISPLAY_INTERVAL_MS, entry -> {
+            showNotification(entry.getNotificationId(), entry.getCategory(), entry.getTitle(), entry.getBody(),
+                    entry.getEventId());
+            markHandled(entry.getNotificationId());
+            continueCatchUp();
+        });
+        displayQueue.setListener(new NotificationDisplayQueue.Listener() {
+            @Override
+            public void onSuperseded(NotificationDisplayQueue.Entry replaced) {
+                // A newer notification about the same event is shown instead
+                markHandled(replaced.getNotificationId());
+            }
+
+            @Override
+            public void onDropped(NotificationDisplayQueue.Entry dropped) {
+                droppedEntries.put(dropped.getNotificationId(), dropped);
+            }
+
+            @Override
+            public void onIdle() {
+                offerDroppedEntries();
+                continueCatchUp();
+            }
+        });
+        preferences = getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
 
         // Create the foreground notification channel
         createForegroundNotificationChannel();
@@ -166,6 +258,28 @@ public class NotificationService extends Service {
      */
     public Task<Void> sendNotification(String senderHardwareId, String receiverHardwareId, String title, String message,
             Long eventID, boolean isInvitation) {
+        return sendNotification(senderHardwareId, receiverHardwareId, title, message, eventID, isInvitation, null);
+    }
+
+    /**
+     * Sends notification of a given category to a specific user.
+     * Creates the notification in Firestore
+     *
+     * @param senderHardwareId   The hardware ID of the user sending the
+     *                           notification
+     * @param receiverHardwareId The hardware ID of the user receiving the
+     *                           notification
+     * @param title              The notification title
+     * @param message            The notification message
+     * @param eventID            The ID of the event associated with the
+     *                           notification (can be null)
+     * @param isInvitation       true if this is an event invitation
+     * @param category           The kind of notification, or null to guess it
+     *                           from the title and message
+     * @return Task that completes when teh notification is saved
+     */
+    public Task<Void> sendNotification(String senderHardwareId, String receiverHardwareId, String title, String message,
+            Long eventID, boolean isInvitation, com.example.zypherevent.Notification.Category category) {
         return db.getUniqueNotificationID().continueWithTask(task -> {
             if (!task.isSuccessful()) {
                 throw task.getException();
@@ -179,7 +293,8 @@ public class NotificationService extends Service {
                     title,
                     message,
                     eventID,
-                    isInvitation);
+                    isInvitation,
+                    category);
 
             return db.setNotificationData(notificationId, notification)
                     .addOnSuccessListener(v -> Log.d(TAG, "Notification sent to: " + receiverHardwareId))
@@ -189,7 +304,11 @@ public class NotificationService extends Service {
 
     /**
      * Sends notifications to multiple users
-     * Used for bulk notifications like lottery results
+     * Used for bulk notifications like lottery results.
+     * <p>
+     * Notification IDs for all receivers are reserved in bulk and the
+     * notifications are written with chunked batch commits, so the cost is a
+     * handful of round trips rather than two per receiver.
      *
      * @param senderHardwareId The hardware ID of the user sending the notification
      * @param receiverIds      The hardware ID of the user receiving the
@@ -199,20 +318,80 @@ public class NotificationService extends Service {
      * @param eventID          The ID of the event associated with the notification
      *                         (can be null)
      * @param isInvitation     true if this is an event invitation
+     * @return Task that completes when every chunk has been committed or has
+     *         failed, reporting the per-chunk outcome
      */
-    public void sendBulkNotifications(String senderHardwareId, List<String> receiverIds, String title, String message,
-            Long eventID, boolean isInvitation) {
-        for (String receiverId : receiverIds) {
-            sendNotification(senderHardwareId, receiverId, title, message, eventID, isInvitation)
-                    .addOnFailureListener(e -> Log.e(TAG, "Failed to send notification to: " + receiverId, e));
+    public Task<BatchWriteResult> sendBulkNotifications(String senderHardwareId, List<String> receiverIds,
+            String title, String message, Long eventID, boolean isInvitation) {
+        return sendBulkNotifications(senderHardwareId, receiverIds, title, message, eventID, isInvitation, null);
+    }
+
+    /**
+     * Sends notifications of a given category to multiple users, in the same
+     * way as {@link #sendBulkNotifications(String, List, String, String, Long, boolean)}.
+     *
+     * @param senderHardwareId The hardware ID of the user sending the notification
+     * @param receiverIds      The hardware ID of the user receiving the
+     *                         notification
+     * @param title            The notification title
+     * @param message          The notification message
+     * @param eventID          The ID of the event associated with the notification
+     *                         (can be null)
+     * @param isInvitation     true if this is an event invitation
+     * @param category         The kind of notification, or null to guess it from
+     *                         the title and message
+     * @return Task that completes when every chunk has been committed or has
+     *         failed, reporting the per-chunk outcome
+     */
+    public Task<BatchWriteResult> sendBulkNotifications(String senderHardwareId, List<String> receiverIds,
+            String title, String message, Long eventID, boolean isInvitation,
+            com.example.zypherevent.Notification.Category category) {
+        if (receiverIds == null || receiverIds.isEmpty()) {
+            return Tasks.forResult(new BatchWriteResult());
         }
+
+        return db.getUniqueNotificationIDs(receiverIds.size()).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            List<Long> notificationIds = task.getResult();
+            List<com.example.zypherevent.Notification> notifications = new ArrayList<>();
+            for (int i = 0; i < receiverIds.size(); i++) {
+                notifications.add(new com.example.zypherevent.Notification(
+                        notificationIds.get(i),
+                        senderHardwareId,
+                        receiverIds.get(i),
+                        title,
+                        message,
+                        eventID,
+                        isInvitation,
+                        category));
+            }
+
+            return db.setNotificationDataBatch(notifications);
+        }).addOnSuccessListener(result -> Log.d(TAG, "Bulk notification sent: " + result.getSucceededWrites()
+                + " delivered, " + result.getFailedWrites() + " failed"))
+                .addOnFailureListener(e -> Log.e(TAG, "Failed to send bulk notifications", e));
     }
 
     /**
      * Starts listening for new notifications for a specific user.
      * When new notifications arrive, displays those as android system
      * notifications.
-     * Uses keywords from the notification itself to sort the notification priority
+     * Uses the category the sender set on the notification to sort the notification priority
+     * <p>
+     * Only notifications sent after the user's high-water mark, the last
+     * notification handled on this device, are shown. The backlog after the mark
+     * is read oldest first, one page at a time as the display queue makes room,
+     * and then a real-time listener picks up new notifications. The mark only
+     * moves past a notification once it, and every notification before it, has
+     * been shown or replaced by a newer one, so notifications dropped by the
+     * queue or still waiting when the process dies are shown on the next start.
+     * <p>
+     * The mark is kept in the device's shared preferences, so a restart costs no
+     * reads; the first start for a user reads the send time of their newest
+     * notification once, so their history is not shown again.
      *
      * @param userHardwareId The hardware ID of the user to listen for
      */
@@ -222,17 +401,132 @@ public class NotificationService extends Service {
 
         this.currentUserHardwareId = userHardwareId;
         this.isListening = true;
+        int generation = listenGeneration;
 
         updateForegroundNotification("Connected - Listening for notifications");
 
-        // Load existing notifications Ids to avoid showing old notifications
-        loadExistingNotificationIds(userHardwareId);
+        SentKey mark = loadLastSeen(userHardwareId);
+        if (mark != null) {
+            catchUpAfter(userHardwareId, mark, generation);
+            return;
+        }
+
+        db.getLatestNotificationSentTime(userHardwareId).addOnCompleteListener(task -> {
+            // Listening was stopped or restarted while the mark was loading
+            if (generation != listenGeneration) {
+                return;
+            }
 
-        // Set up the real-time listener for new notifications
-        notificationListener = FirebaseFirestore.getInstance()
-                .collection("notifications")
-                .whereEqualTo("receivingUserHardwareID", userHardwareId)
+            Timestamp latest = Timestamp.now();
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Failed to load latest notification time", task.getException());
+            } else if (task.getResult() != null) {
+                latest = task.getResult();
+            }
+            // Everything sent up to now counts as seen
+            SentKey start = new SentKey(latest, Long.MAX_VALUE);
+            if (task.isSuccessful()) {
+                saveLastSeen(userHardwareId, start);
+            }
+            catchUpAfter(userHardwareId, start, generation);
+        });
+    }
+
+    /**
+     * Starts reading the backlog of notifications sent to a user after a
+     * high-water mark.
+     *
+     * @param userHardwareId The hardware ID of the user to listen for
+     * @param mark           The last notification already handled
+     * @param generation     The listen generation this belongs to
+     */
+    private void catchUpAfter(String userHardwareId, SentKey mark, int generation) {
+        lastSeen = mark;
+        newestRead = mark;
+        catchingUp = true;
+        loadCatchUpPage(userHardwareId, generation);
+    }
+
+    /**
+     * Reads the next page of the backlog, oldest first, and queues it for
+     * display. When a short page shows the backlog has been read, the
+     * real-time listener is attached after it.
+     *
+     * @param userHardwareId The hardware ID of the user to listen for
+     * @param generation     The listen generation this belongs to
+     */
+    private void loadCatchUpPage(String userHardwareId, int generation) {
+        pageLoading = true;
+        notificationsAfter(userHardwareId, newestRead)
+                .limit(CATCH_UP_PAGE_SIZE)
+                .get()
+                .addOnCompleteListener(task -> {
+                    if (generation != listenGeneration) {
+                        return;
+                    }
+                    pageLoading = false;
+
+                    if (!task.isSuccessful()) {
+                        Log.e(TAG, "Failed to read notification backlog", task.getException());
+                        updateForegroundNotification("Connection error - Retrying");
+                        mainHandler.postDelayed(() -> {
+                            if (generation == listenGeneration && catchingUp && !pageLoading) {
+                                loadCatchUpPage(userHardwareId, generation);
+                            }
+                        }, CATCH_UP_RETRY_MS);
+                        return;
+                    }
+
+                    List<DocumentSnapshot> docs = task.getResult().getDocuments();
+                    int queued = 0;
+                    for (DocumentSnapshot doc : docs) {
+                        if (enqueue(doc)) {
+                            queued++;
+                        }
+                    }
+                    if (queued > 0) {
+                        updateForegroundNotification("Active - " + queued + " new notifications(s)");
+                    }
+
+                    if (docs.size() < CATCH_UP_PAGE_SIZE) {
+                        catchingUp = false;
+                        listenForNotificationsAfter(userHardwareId, generation);
+                    } else {
+                        continueCatchUp();
+                    }
+                });
+    }
+
+    /**
+     * Reads the next page of the backlog if one is due and the display queue
+     * has room for it.
+     */
+    private void continueCatchUp() {
+        if (catchingUp && !pageLoading && currentUserHardwareId != null
+                && displayQueue.getDepth() + CATCH_UP_PAGE_SIZE <= DISPLAY_QUEUE_CAPACITY) {
+            loadCatchUpPage(currentUserHardwareId, listenGeneration);
+        }
+    }
+
+    /**
+     * Sets up the real-time listener for notifications sent to a user after the
+     * newest one read so far.
+     * <p>
+     * The listener only looks at the documents added since its last callback.
+     * Once it holds {@link #LISTENER_RECENT_LIMIT} notifications it is replaced
+     * by one starting after the newest of them, so each new notification costs
+     * the same however long the session is.
+     *
+     * @param userHardwareId The hardware ID of the user to listen for
+     * @param generation     The listen generation this belongs to
+     */
+    private void listenForNotificationsAfter(String userHardwareId, int generation) {
+        // Tracked by the shared database until it is stopped
+        notificationListener = db.getListenerRegistry().register(null, notificationsAfter(userHardwareId, newestRead)
                 .addSnapshotListener((querySnapshot, error) -> {
+                    if (generation != listenGeneration) {
+                        return;
+                    }
                     if (error != null) {
                         Log.e(TAG, "Listener failed", error);
                         updateForegroundNotification("Connection error - Retrying");
@@ -242,103 +536,238 @@ public class NotificationService extends Service {
                     if (querySnapshot != null) {
                         int newNotification = 0;
 
-                        for (com.google.firebase.firestore.DocumentSnapshot doc : querySnapshot.getDocuments()) {
-                            try {
-                                Long notificationId = doc.getLong("notificationID");
-
-                                if (notificationId != null && !shownNotificationIds.contains(notificationId)) {
-                                    String title = doc.getString("notificationHeader");
-                                    String body = doc.getString("notificationBody");
-
-                                    // Determine notification type based on content
-                                    if (title != null && body != null) {
-                                        String titleLower = title.toLowerCase();
-                                        String bodyLower = body.toLowerCase();
-
-                                        // Sort notification type based on keywords to set priority
-                                        if (titleLower.contains("selected") ||
-                                                titleLower.contains("invitation") ||
-                                                titleLower.contains("invited") ||
-                                                titleLower.contains("accepted") ||
-                                                titleLower.contains("confirmed") ||
-                                                bodyLower.contains("congratulations")) {
-                                            // Set to HIGH priority
-                                            notificationHelper.showInvitationNotification(notificationId.intValue(),
-                                                    title, body);
-
-                                        } else if (titleLower.contains("rejected") ||
-                                                titleLower.contains("declined") ||
-                                                titleLower.contains("not selected") ||
-                                                titleLower.contains("removed") ||
-                                                bodyLower.contains("unfortunately") ||
-                                                bodyLower.contains("not accepted")) {
-                                            // Set to DEFAULT priority
-                                            notificationHelper.showRejectionNotification(notificationId.intValue(),
-                                                    title, body);
-
-                                        } else {
-                                            // Set everything else to DEFAULT priority: general updates or waitlist
-                                            // status
-                                            notificationHelper.showUpdateNotification(notificationId.intValue(), title,
-                                                    body);
-                                        }
-
-                                        shownNotificationIds.add(notificationId);
-                                        newNotification++;
-                                        Log.d(TAG, "Displayed new notification: " + title);
-                                    }
-                                }
-                            } catch (Exception e) {
-                                Log.e(TAG, "Error processing notification", e);
+                        for (DocumentChange change : querySnapshot.getDocumentChanges()) {
+                            // Edits are modifications, and deletions are removals
+                            if (change.getType() == DocumentChange.Type.ADDED && enqueue(change.getDocument())) {
+                                newNotification++;
                             }
                         }
 
                         if (newNotification > 0) {
                             updateForegroundNotification("Active - " + newNotification + " new notifications(s)");
                         }
+
+                        if (querySnapshot.size() >= LISTENER_RECENT_LIMIT && notificationListener != null) {
+                            notificationListener.remove();
+                            listenForNotificationsAfter(userHardwareId, generation);
+                        }
                     }
-                });
+                }));
         Log.d(TAG, "Started listening for notifications for user: " + userHardwareId);
     }
 
     /**
-     * Loads existing notification Ids to prevent showing olf notifications as new
+     * Builds the query for the notifications sent to a user after a given one,
+     * oldest first.
+     *
+     * @param userHardwareId The hardware ID of the receiving user
+     * @param after          The notification to start after
+     * @return the query
+     * @see Database#getNotificationsAfterQuery(String, Timestamp, long)
+     */
+    private Query notificationsAfter(String userHardwareId, SentKey after) {
+        return db.getNotificationsAfterQuery(userHardwareId, after.sentTime, after.notificationId);
+    }
+
+    /**
+     * Queues a notification document for display, unless it has already been
+     * handled or queued.
+     *
+     * @param doc The notification document
+     * @return true if the notification was queued
+     */
+    private boolean enqueue(DocumentSnapshot doc) {
+        Timestamp sentTime = doc.getTimestamp("sentTime", DocumentSnapshot.ServerTimestampBehavior.ESTIMATE);
+        Long notificationId = doc.getLong("notificationID");
+        if (sentTime == null || notificationId == null) {
+            return false;
+        }
+
+        SentKey key = new SentKey(sentTime, notificationId);
+        if (key.compareTo(newestRead) > 0) {
+            newestRead = key;
+        }
+        if (key.compareTo(lastSeen) <= 0 || outstanding.containsKey(key)) {
+            return false;
+        }
+
+        String title = doc.getString("notificationHeader");
+        String body = doc.getString("notificationBody");
+        if (title == null || body == null) {
+            // Nothing to show, but the mark may move past it
+            outstanding.put(key, true);
+            advanceLastSeen();
+            return false;
+        }
+
+        try {
+            // The sender sets the category; legacy documents fall back to keywords
+            com.example.zypherevent.Notification.Category category =
+                    com.example.zypherevent.Notification.Category.fromName(doc.getString("category"));
+            if (category == null) {
+                category = com.example.zypherevent.Notification.Category.fromContent(
+                        Boolean.TRUE.equals(doc.getBoolean("isInvitation")), title, body);
+            }
+
+            outstanding.put(key, false);
+            outstandingById.put(notificationId.intValue(), key);
+            // Shown at a steady rate, invitations first
+            displayQueue.offer(notificationId.intValue(), category, title, body, doc.getLong("eventID"));
+            Log.d(TAG, "Queued new notification: " + title);
+            return true;
+        } catch (Exception e) {
+            Log.e(TAG, "Error processing notification", e);
+            return false;
+        }
+    }
+
+    /**
+     * Records that a queued notification has been shown or replaced, and moves
+     * the high-water mark forward if it can.
+     *
+     * @param notificationId The notification's ID
+     */
+    private void markHandled(int notificationId) {
+        droppedEntries.remove(notificationId);
+        SentKey key = outstandingById.remove(notificationId);
+        if (key != null && outstanding.containsKey(key)) {
+            outstanding.put(key, true);
+            advanceLastSeen();
+        }
+    }
+
+    /**
+     * Moves the high-water mark past every handled notification at the start of
+     * the outstanding ones, and stores it.
+     */
+    private void advanceLastSeen() {
+        SentKey advanced = null;
+        while (!outstanding.isEmpty() && outstanding.firstEntry().getValue()) {
+            advanced = outstanding.pollFirstEntry().getKey();
+        }
+        if (advanced != null && currentUserHardwareId != null) {
+            lastSeen = advanced;
+            saveLastSeen(currentUserHardwareId, advanced);
+        }
+    }
+
+    /**
+     * Offers the notifications the display queue dropped again, now that it has
+     * room.
+     */
+    private void offerDroppedEntries() {
+        List<NotificationDisplayQueue.Entry> retry = new ArrayList<>(droppedEntries.values());
+        droppedEntries.clear();
+        for (NotificationDisplayQueue.Entry entry : retry) {
+            displayQueue.offer(entry.getNotificationId(), entry.getCategory(), entry.getTitle(), entry.getBody(),
+                    entry.getEventId());
+        }
+    }
+
+    /**
+     * Shows a notification on the channel matching its category.
+     *
+     * @param notificationId The notification's ID
+     * @param category       The notification's category
+     * @param title          The notification title
+     * @param body           The notification message
+     * @param eventId        The event the notification is about, or null
+     */
+    private void showNotification(int notificationId, com.example.zypherevent.Notification.Category category,
+            String title, String body, Long eventId) {
+        switch (category) {
+            case INVITATION:
+                // Set to HIGH priority
+                notificationHelper.showInvitationNotification(notificationId, title, body, eventId);
+                break;
+            case REJECTION:
+            case CANCELLATION:
+                // Set to DEFAULT priority
+                notificationHelper.showRejectionNotification(notificationId, title, body, eventId);
+                break;
+            default:
+                // Set everything else to DEFAULT priority: general updates, waitlist status and custom messages
+                notificationHelper.showUpdateNotification(notificationId, title, body, eventId);
+                break;
+        }
+    }
+
+    /**
+     * Reads a user's high-water mark from the device.
      *
      * @param userHardwareId The user's hardware ID
+     * @return the last notification handled for the user, or null if none has
+     *         been recorded on this device
      */
-    private void loadExistingNotificationIds(String userHardwareId) {
-        db.getAllNotifications()
-                .addOnSuccessListener(notifications -> {
-                    for (com.example.zypherevent.Notification notification : notifications) {
-                        if (userHardwareId.equals(notification.getReceivingUserHardwareID())) {
-                            shownNotificationIds.add(notification.getUniqueNotificationID());
-                        }
-                    }
-                    Log.d(TAG, "Loaded " + shownNotificationIds.size() + " existing notification IDs");
-                })
-                .addOnFailureListener(e -> Log.e(TAG, "Failed to load existing notifications", e));
+    private SentKey loadLastSeen(String userHardwareId) {
+        String key = PREF_LAST_SEEN_PREFIX + userHardwareId;
+        if (!preferences.contains(key)) {
+            return null;
+        }
+        long micros = preferences.getLong(key, 0);
+        // Marks stored before IDs were recorded cover every notification sent at that time
+        long notificationId = preferences.getLong(PREF_LAST_SEEN_ID_PREFIX + userHardwareId, Long.MAX_VALUE);
+        return new SentKey(new Timestamp(micros / 1_000_000, (int) (micros % 1_000_000) * 1000), notificationId);
+    }
+
+    /**
+     * Stores a user's high-water mark on the device, to microsecond precision
+     * like Firestore timestamps.
+     *
+     * @param userHardwareId The user's hardware ID
+     * @param mark           The last notification handled
+     */
+    private void saveLastSeen(String userHardwareId, SentKey mark) {
+        long micros = mark.sentTime.getSeconds() * 1_000_000 + mark.sentTime.getNanoseconds() / 1000;
+        preferences.edit()
+                .putLong(PREF_LAST_SEEN_PREFIX + userHardwareId, micros)
+                .putLong(PREF_LAST_SEEN_ID_PREFIX + userHardwareId, mark.notificationId)
+                .apply();
     }
 
     /**
      * Stops listening for new notifications
-     * Used for when the user does not want to receive notification
+     * Used for when the user does not want to receive notification.
+     * Notifications still waiting to be shown are not counted as seen.
      */
     public void stopListeningForNotifications() {
+        listenGeneration++;
+        isListening = false;
+        catchingUp = false;
+        pageLoading = false;
+        displayQueue.clear();
+        outstanding.clear();
+        outstandingById.clear();
+        droppedEntries.clear();
         if (notificationListener != null) {
             notificationListener.remove();
             notificationListener = null;
-            isListening = false;
             updateForegroundNotification("Disconnected");
             Log.d(TAG, "Stopped listening for notifications");
         }
     }
 
     /**
-     * Clears cache of shown notification IDs
+     * Forgets the current user's high-water mark on this device
      * Used for when user delete account
      */
     public void clearNotificationCache() {
-        shownNotificationIds.clear();
+        if (currentUserHardwareId != null) {
+            preferences.edit()
+                    .remove(PREF_LAST_SEEN_PREFIX + currentUserHardwareId)
+                    .remove(PREF_LAST_SEEN_ID_PREFIX + currentUserHardwareId)
+                    .apply();
+        }
+    }
+
+    /**
+     * Returns the queue new notifications wait in before being shown, e.g. to
+     * read its depth and drop counts or change its drain rate
+     *
+     * @return The display queue
+     */
+    public NotificationDisplayQueue getDisplayQueue() {
+        return displayQueue;
     }
 
     /**
@@ -12,7 +12,7 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
-import com.example.zypherevent.Event;
+import com.example.zypherevent.EventSummary;
 import com.example.zypherevent.R;
 
 import java.text.SimpleDateFormat;
@@ -21,7 +21,7 @@ import java.util.Locale;
 
 
 /**
- * Adapter for populating a {@link RecyclerView} with a list of {@link Event} objects
+ * Adapter for populating a {@link RecyclerView} with a list of {@link EventSummary} objects
  * for the admin interface. This adapter is responsible for creating views for each event,
  * binding event data to those views, and handling interactions such as event deletion.
  * <p>
@@ -33,29 +33,29 @@ import java.util.Locale;
  * @author Arunavo Dutta
  * @version 2.2
  * @see RecyclerView.Adapter
- * @see Event
+ * @see EventSummary
  * @see AdminEventsAdapter.EventViewHolder
  * @see OnDeleteListener
  */
 public class AdminEventsAdapter extends RecyclerView.Adapter<AdminEventsAdapter.EventViewHolder> {
 
-    private List<Event> eventList;
+    private List<EventSummary> eventList;
     private OnDeleteListener deleteListener;
 
     /**
      * Interface for a callback to be invoked when an event's delete button is clicked.
      */
     public interface OnDeleteListener {
-        void onDelete(Event event);
+        void onDelete(EventSummary event);
     }
 
     /**
      * Constructs a new AdminEventsAdapter.
      *
-     * @param eventList      A list of {@link Event} objects to be displayed.
+     * @param eventList      A list of {@link EventSummary} objects to be displayed.
      * @param deleteListener A listener to handle delete button clicks for each event.
      */
-    public AdminEventsAdapter(List<Event> eventList, OnDeleteListener deleteListener) {
+    public AdminEventsAdapter(List<EventSummary> eventList, OnDeleteListener deleteListener) {
         this.eventList = eventList;
         this.deleteListener = deleteListener;
     }
@@ -87,12 +87,12 @@ public class AdminEventsAdapter extends RecyclerView.Adapter<AdminEventsAdapter.
      * <p>
      * This method performs the following actions:
      * <ol>
-     *     <li>Retrieves the {@link Event} object for the current position.</li>
+     *     <li>Retrieves the {@link EventSummary} object for the current position.</li>
      *     <li>Sets the event name.</li>
      *     <li>Formats and displays the event start date and registration window dates. If dates are null, "TBD" or "N/A" is shown.</li>
      *     <li>Concatenates and displays detailed event information, including description, location, and organizer ID.</li>
      *     <li>Loads the event poster image using Glide. If the URL is empty or invalid, a placeholder drawable is displayed.</li>
-     *     <li>Sets an OnClickListener on the delete button to trigger the {@link OnDeleteListener#onDelete(Event)} callback when clicked.</li>
+     *     <li>Sets an OnClickListener on the delete button to trigger the {@link OnDeleteListener#onDelete(EventSummary)} callback when clicked.</li>
      * </ol>
      *
      * @param holder   The {@link EventViewHolder} which should be updated to represent the
@@ -101,7 +101,7 @@ public class AdminEventsAdapter extends RecyclerView.Adapter<AdminEventsAdapter.
      */
     @Override
     public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
-        Event event = eventList.get(position);
+        EventSummary event = eventList.get(position);
         SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
 
         // 1. Basic Info
@@ -13,7 +13,7 @@ import com.example.zypherevent.Database;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QuerySnapshot;
-import com.example.zypherevent.Event;
+import com.example.zypherevent.EventSummary;
 import com.example.zypherevent.R;
 import java.util.ArrayList;
 import java.util.List;
@@ -50,7 +50,7 @@ import java.util.Map;
  *
  * @see AdminBaseListFragment
  * @see AdminEventsAdapter
- * @see Event
+ * @see EventSummary
  * @see FirebaseFirestore
  * @see res/layout/fragment_admin_events.xml
  * @author Arunavo Dutta
@@ -59,18 +59,16 @@ import java.util.Map;
 public class AdminEventsFragment extends AdminBaseListFragment {
 
     private static final String TAG = "AdminEventsFragment";
-    private FirebaseFirestore firestoreDb;
     private Database db;
     private AdminEventsAdapter adapter;
-    private List<Event> eventList = new ArrayList<>();
+    private List<EventSummary> eventList = new ArrayList<>();
     private Button refreshButton;
 
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        firestoreDb = FirebaseFirestore.getInstance();
-        db = new Database();
+        db = Database.getInstance();
 
         adapter = new AdminEventsAdapter(eventList, event -> {
             handleDeleteEvent(event);
@@ -92,11 +90,11 @@ public class AdminEventsFragment extends AdminBaseListFragment {
 
 
     private void loadEvents() {
-        Log.d(TAG, "Attempting to query 'events' collection using db.getAllEventsList()...");
+        Log.d(TAG, "Attempting to query event summaries using db.getEventSummaries()...");
 
-        db.getAllEventsList().addOnCompleteListener(task -> {
+        db.getEventSummaries().addOnCompleteListener(task -> {
             if (task.isSuccessful()) {
-                List<Event> fetchedEvents = task.getResult();
+                List<EventSummary> fetchedEvents = task.getResult();
                 if (fetchedEvents == null) {
                     Log.e(TAG, "Query successful but fetchedEvents is null!");
                     return;
@@ -119,8 +117,9 @@ public class AdminEventsFragment extends AdminBaseListFragment {
      * Handles the deletion of a specific event after user confirmation.
      * <p>
      * This method first presents an {@link AlertDialog} to the user to confirm the deletion.
-     * If the user confirms, it proceeds to find and delete the event from the Firestore "events"
-     * collection. The search is based on the {@code uniqueEventID} of the provided {@link Event} object.
+     * If the user confirms, it deletes the event, its summary and its waitlist entries using
+     * {@link Database#removeEventData(Long)}, based on the {@code uniqueEventID} of the provided
+     * {@link EventSummary}.
      * <p>
      * Upon successful deletion from Firestore, the event is also removed from the local
      * {@code eventList}, and the adapter is notified to refresh the RecyclerView. A success
@@ -128,10 +127,10 @@ public class AdminEventsFragment extends AdminBaseListFragment {
      * found, an error message is logged and displayed via a {@link Toast}. If the user
      * cancels the dialog, no action is taken.
      *
-     * @param event The {@link Event} object to be deleted. It must not be null and should
+     * @param event The {@link EventSummary} of the event to be deleted. It must not be null and should
      * contain a valid {@code uniqueEventID}.
      */
-    private void handleDeleteEvent(Event event) {
+    private void handleDeleteEvent(EventSummary event) {
         if (event == null || event.getUniqueEventID() == null) {
             Toast.makeText(getContext(), "Error: Event has no ID", Toast.LENGTH_SHORT).show();
             return;
@@ -146,30 +145,17 @@ public class AdminEventsFragment extends AdminBaseListFragment {
 
                     Toast.makeText(getContext(), "Deleting " + event.getEventName(), Toast.LENGTH_SHORT).show();
 
-                    firestoreDb.collection("events")
-                            .whereEqualTo("uniqueEventID", event.getUniqueEventID())
-                            .get()
-                            .addOnCompleteListener(task -> {
-                                if (task.isSuccessful() && !task.getResult().isEmpty()) {
-                                    String documentId = task.getResult().getDocuments().get(0).getId();
-
-                                    firestoreDb.collection("events").document(documentId).delete()
-                                            .addOnSuccessListener(aVoid -> {
-                                                Log.d(TAG, "Successfully deleted event: " + event.getEventName());
-                                                eventList.remove(event);
-                                                adapter.notifyDataSetChanged();
-
-                                                Toast.makeText(getContext(), "Event deleted successfully", Toast.LENGTH_SHORT).show();
-
-
-                                            })
-                                            .addOnFailureListener(e -> {
-                                                Log.e(TAG, "Failed to delete event", e);
-                                                Toast.makeText(getContext(), "Failed to delete event", Toast.LENGTH_SHORT).show();
-                                            });
-                                } else {
-                                    Log.e(TAG, "Could not find document to delete with uniqueEventID: " + event.getUniqueEventID());
-                                }
+                    db.removeEventData(event.getUniqueEventID())
+                            .addOnSuccessListener(aVoid -> {
+                                Log.d(TAG, "Successfully deleted event: " + event.getEventName());
+                                eventList.remove(event);
+                                adapter.notifyDataSetChanged();
+
+                                Toast.makeText(getContext(), "Event deleted successfully", Toast.LENGTH_SHORT).show();
+                            })
+                            .addOnFailureListener(e -> {
+                                Log.e(TAG, "Failed to delete event", e);
+                                Toast.makeText(getContext(), "Failed to delete event", Toast.LENGTH_SHORT).show();
                             });
                 })
                 .setNegativeButton("Cancel", (dialog, which) -> {
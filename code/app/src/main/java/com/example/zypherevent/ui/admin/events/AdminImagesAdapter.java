@@ -9,13 +9,13 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
-import com.example.zypherevent.Event;
+import com.example.zypherevent.EventSummary;
 import com.example.zypherevent.R;
 
 import java.util.List;
 
 /**
- * An adapter for displaying a list of {@link Event} objects that have images
+ * An adapter for displaying a list of {@link EventSummary} objects that have images
  * for the admin interface.
  * <p>
  * This adapter is responsible for creating and binding views for each event's poster,
@@ -30,31 +30,31 @@ import java.util.List;
  *
  * @author Arunavo Dutta
  * @version 2.0
- * @see Event
+ * @see EventSummary
  * @see AdminImagesFragment
  * @see res/layout/fragment_admin_item_image_card.xml
  */
 public class AdminImagesAdapter extends RecyclerView.Adapter<AdminImagesAdapter.ImageViewHolder> {
 
-    private List<Event> eventList;
+    private List<EventSummary> eventList;
     private OnDeleteListener deleteListener;
 
     /**
      * Interface definition for a callback to be invoked when an image's delete button is clicked.
-     * The listener provides the specific {@link Event} object and its position in the adapter,
+     * The listener provides the specific {@link EventSummary} object and its position in the adapter,
      * allowing the calling fragment to handle the deletion logic.
      */
     public interface OnDeleteListener {
-        void onDelete(Event event, int position);
+        void onDelete(EventSummary event, int position);
     }
 
     /**
      * Constructs a new {@code AdminImagesAdapter}.
      *
-     * @param eventList      The initial list of {@link Event} objects that have posters to display.
+     * @param eventList      The initial list of {@link EventSummary} objects that have posters to display.
      * @param deleteListener The listener to be invoked when an image's delete button is clicked.
      */
-    public AdminImagesAdapter(List<Event> eventList, OnDeleteListener deleteListener) {
+    public AdminImagesAdapter(List<EventSummary> eventList, OnDeleteListener deleteListener) {
         this.eventList = eventList;
         this.deleteListener = deleteListener;
     }
@@ -80,7 +80,7 @@ public class AdminImagesAdapter extends RecyclerView.Adapter<AdminImagesAdapter.
     }
 
     /**
-     * Binds the data from an {@link Event} object to the views within an {@link ImageViewHolder}.
+     * Binds the data from an {@link EventSummary} object to the views within an {@link ImageViewHolder}.
      * <p>
      * This method is called by the RecyclerView to display the data at a specified position.
      * It sets the event's name and description. It uses the {@link Glide} library to load the
@@ -89,7 +89,7 @@ public class AdminImagesAdapter extends RecyclerView.Adapter<AdminImagesAdapter.
      * fails to load.
      * <p>
      * It also attaches a click listener to the delete button. When clicked, this listener
-     * invokes the {@link OnDeleteListener#onDelete(Event, int)} callback, passing the specific
+     * invokes the {@link OnDeleteListener#onDelete(EventSummary, int)} callback, passing the specific
      * event and its adapter position, allowing the hosting fragment to handle the deletion logic.
      *
      * @param holder   The {@link ImageViewHolder} which should be updated to represent the contents
@@ -98,7 +98,7 @@ public class AdminImagesAdapter extends RecyclerView.Adapter<AdminImagesAdapter.
      */
     @Override
     public void onBindViewHolder(@NonNull ImageViewHolder holder, int position) {
-        Event event = eventList.get(position);
+        EventSummary event = eventList.get(position);
 
         holder.eventName.setText(event.getEventName());
         holder.eventDescription.setText(event.getEventDescription());
@@ -139,9 +139,9 @@ public class AdminImagesAdapter extends RecyclerView.Adapter<AdminImagesAdapter.
      * then notifies the adapter that the entire data set has changed. This is
      * typically used when the underlying data source is completely refreshed.
      *
-     * @param newEventList The new list of {@link Event} objects to display.
+     * @param newEventList The new list of {@link EventSummary} objects to display.
      */
-    public void updateData(List<Event> newEventList) {
+    public void updateData(List<EventSummary> newEventList) {
         this.eventList.clear();
         this.eventList.addAll(newEventList);
         notifyDataSetChanged();
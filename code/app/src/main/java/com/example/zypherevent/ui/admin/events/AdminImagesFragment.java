@@ -9,7 +9,7 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.example.zypherevent.Database;
-import com.example.zypherevent.Event;
+import com.example.zypherevent.EventSummary;
 import com.example.zypherevent.R;
 import java.util.ArrayList;
 import java.util.List;
@@ -46,7 +46,7 @@ public class AdminImagesFragment extends AdminBaseListFragment implements AdminI
     private static final String TAG = "AdminImagesFragment";
     private AdminImagesAdapter adapter;
     private Database database;
-    private List<Event> eventListWithPosters = new ArrayList<>();
+    private List<EventSummary> eventListWithPosters = new ArrayList<>();
     private Button refreshButton;
 
     /**
@@ -64,7 +64,7 @@ public class AdminImagesFragment extends AdminBaseListFragment implements AdminI
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        database = new Database();
+        database = Database.getInstance();
 
         adapter = new AdminImagesAdapter(eventListWithPosters, this);
         recyclerView.setAdapter(adapter);
@@ -84,7 +84,7 @@ public class AdminImagesFragment extends AdminBaseListFragment implements AdminI
     /**
      * Fetches all events from the database and filters them to show only those with posters.
      * <p>
-     * This method retrieves the complete list of events from Firestore using {@link Database#getAllEventsList()}.
+     * This method retrieves the summaries of all events from Firestore using {@link Database#getEventSummaries()}.
      * It then filters this list to include only events that have a non-null and non-empty poster URL.
      * The resulting list is passed to the {@link AdminImagesAdapter} to update the UI. This fulfills
      * the requirement for <b>US 03.06.01 (Browse images)</b>.
@@ -98,7 +98,7 @@ public class AdminImagesFragment extends AdminBaseListFragment implements AdminI
     private void loadImages() {
         Log.d(TAG, "Attempting to query 'events' collection to find posters...");
 
-        database.getAllEventsList().addOnCompleteListener(task -> {
+        database.getEventSummaries().addOnCompleteListener(task -> {
             // Check if the Fragment is still added to its Activity.
             if (!isAdded() || getContext() == null) {
                 Log.w(TAG, "loadImages callback received, but fragment is detached. Aborting UI update.");
@@ -106,10 +106,10 @@ public class AdminImagesFragment extends AdminBaseListFragment implements AdminI
             }
 
             if (task.isSuccessful()) {
-                List<Event> allEvents = task.getResult();
+                List<EventSummary> allEvents = task.getResult();
                 if (allEvents != null) {
                     // Filter the list to include only events that have a posterURL
-                    List<Event> filteredList = allEvents.stream()
+                    List<EventSummary> filteredList = allEvents.stream()
                             .filter(event -> event.getPosterURL() != null && !event.getPosterURL().isEmpty())
                             .collect(Collectors.toList());
 
@@ -134,12 +134,12 @@ public class AdminImagesFragment extends AdminBaseListFragment implements AdminI
      * from being shown if the fragment's context is no longer valid.
      * </p>
      *
-     * @param event The {@link Event} object associated with the image to be removed.
+     * @param event The {@link EventSummary} associated with the image to be removed.
      * @param position The adapter position of the item. This is used for efficient UI
      *                 updates upon successful removal.
      */
     @Override
-    public void onDelete(Event event, int position) {
+    public void onDelete(EventSummary event, int position) {
         // Check context before showing a dialog.
         if (getContext() == null) {
             Log.e(TAG, "Cannot show delete dialog, context is null.");
@@ -166,7 +166,7 @@ public class AdminImagesFragment extends AdminBaseListFragment implements AdminI
      * Removes the poster image associated with a specific event.
      * <p>
      * This method effectively "deletes" the image by setting the {@code posterURL} field of the
-     * specified {@link Event} object to {@code null} and then updating the event document in Firestore.
+     * event and its summary to {@code null} in Firestore using {@link Database#removeEventPoster(Long)}.
      * Upon successful update in the database, the item is removed from the local RecyclerView adapter
      * to reflect the change immediately in the UI.
      * </p>
@@ -175,22 +175,19 @@ public class AdminImagesFragment extends AdminBaseListFragment implements AdminI
      * during the asynchronous database operation.
      * </p>
      *
-     * @param event The {@link Event} object from which to remove the poster URL. Must not be null
+     * @param event The {@link EventSummary} of the event to remove the poster from. Must not be null
      *              and must have a valid unique ID.
      * @param position The adapter position of the item being removed. This is used to efficiently
      *                 notify the adapter to remove the item from the view.
      */
-    private void removeImageFromEvent(Event event, int position) {
+    private void removeImageFromEvent(EventSummary event, int position) {
         if (event == null || event.getUniqueEventID() == null) {
             Toast.makeText(getContext(), "Error: Invalid event.", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        // Set the poster URL to null
-        event.setPosterURL(null);
-
-        // 2. Update the Event in Firestore
-        database.setEventData(event.getUniqueEventID(), event)
+        // Clear the poster URL on the event and its summary in Firestore
+        database.removeEventPoster(event.getUniqueEventID())
                 .addOnSuccessListener(aVoid -> {
                     // Check if fragment is still attached
                     if (!isAdded() || getContext() == null) {
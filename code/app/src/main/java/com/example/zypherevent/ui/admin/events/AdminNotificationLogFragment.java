@@ -47,7 +47,7 @@ public class AdminNotificationLogFragment extends AdminBaseListFragment {
         super.onViewCreated(view, savedInstanceState); // Sets up recyclerView
 
         // Initialize Database
-        db = new Database();
+        db = Database.getInstance();
 
         // Initialize Adapter with the empty list
         adapter = new AdminNotificationLogAdapter(notificationList);
@@ -106,10 +106,27 @@ public class AdminNotificationLogFragment extends AdminBaseListFragment {
                 // Tell the adapter to update the UI
                 adapter.notifyDataSetChanged();
 
+                backfillSentTimes();
+
             } else {
                 Log.e(TAG, "Error running query: ", task.getException());
                 Toast.makeText(getContext(), "Error fetching logs", Toast.LENGTH_SHORT).show();
             }
         });
     }
+
+    /**
+     * Runs the one-off migration that gives old notifications a send time, so
+     * that users' inboxes can be ordered by it. Returns straight away once the
+     * migration has finished, and a failed run is retried on the next load.
+     */
+    private void backfillSentTimes() {
+        db.backfillNotificationSentTimes()
+                .addOnSuccessListener(updated -> {
+                    if (updated > 0) {
+                        Log.d(TAG, "Gave " + updated + " notifications a send time.");
+                    }
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Error backfilling notification send times", e));
+    }
 }
\ No newline at end of file
@@ -71,7 +71,7 @@ public class AdminOrganizerProfileFragment extends AdminBaseListFragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        db = new Database();
+        db = Database.getInstance();
         firestoreDb = FirebaseFirestore.getInstance();
 
         adapter = new AdminOrganizerProfileAdapter(organizerList, profile -> {
@@ -200,6 +200,8 @@ public class AdminOrganizerProfileFragment extends AdminBaseListFragment {
                         WriteBatch batch = firestoreDb.batch();
                         for (DocumentSnapshot document : documents) {
                             batch.delete(document.getReference());
+                            batch.delete(firestoreDb.collection(Database.EVENT_SUMMARIES_COLLECTION)
+                                    .document(document.getId()));
                         }
 
                         // Commit the batch
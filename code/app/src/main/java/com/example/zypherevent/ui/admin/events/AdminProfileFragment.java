@@ -78,7 +78,7 @@ public class AdminProfileFragment extends AdminBaseListFragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        db = new Database();
+        db = Database.getInstance();
         firestoreDb = FirebaseFirestore.getInstance(); // <-- ADDED
 
         // Set up the adapter with an empty list
@@ -213,6 +213,8 @@ public class AdminProfileFragment extends AdminBaseListFragment {
                         WriteBatch batch = firestoreDb.batch();
                         for (DocumentSnapshot document : documents) {
                             batch.delete(document.getReference());
+                            batch.delete(firestoreDb.collection(Database.EVENT_SUMMARIES_COLLECTION)
+                                    .document(document.getId()));
                         }
 
                         // Commit the batch
@@ -24,11 +24,18 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.zypherevent.Database;
 import com.example.zypherevent.EntrantActivity;
 import com.example.zypherevent.Event;
+import com.example.zypherevent.EventSearchIndex;
+import com.example.zypherevent.EventSummary;
+import com.example.zypherevent.Page;
 import com.example.zypherevent.R;
 import com.example.zypherevent.userTypes.Entrant;
+import com.google.firebase.firestore.DocumentSnapshot;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import android.app.AlertDialog;
 import java.text.SimpleDateFormat;
@@ -59,11 +66,42 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
     private RecyclerView recyclerView;
     private EntrantEventAdapter adapter;
 
+    /** Number of event summaries fetched per page. */
+    static final int PAGE_SIZE = 20;
+
+    /** Most pages fetched in a row, without the user scrolling, to fill a short filtered list. */
+    static final int MAX_AUTO_PAGES = 3;
+
     /** what is shown on the all events list after filters applied */
-    private List<Event> eventList = new ArrayList<>();
+    private List<EventSummary> eventList = new ArrayList<>();
+
+    /** the event summaries loaded so far, unfiltered */
+    private List<EventSummary> allEvents = new ArrayList<>();
+
+    /** search index over the loaded event summaries; every page is loaded while searching */
+    private final EventSearchIndex searchIndex = new EventSearchIndex();
+
+    /** full events from the user's registered history, keyed by event ID */
+    private Map<Long, Event> registeredEvents = new HashMap<>();
 
-    /** all the events, unfiltered */
-    private List<Event> allEvents = new ArrayList<>();   // full dataset
+    /** Cursor for the next page of events, or null to start from the earliest. */
+    private DocumentSnapshot nextPageCursor;
+    private boolean hasMorePages = true;
+    private boolean isLoadingPage = false;
+
+    /** True if the list should be reloaded once the page in flight has loaded. */
+    private boolean reloadPending = false;
+
+    /** Pages fetched by {@link #loadMoreIfShort()} since the user last asked for events. */
+    private int autoPagesLoaded = 0;
+
+    /**
+     * The start time range the loaded pages were queried with, or null when unbounded.
+     * These only differ from the filter dates while a ranged reload is in flight, or
+     * after a ranged query failed and the loaded events are filtered in memory instead.
+     */
+    private Date queryStartDate = null;
+    private Date queryEndDate = null;
     private String filterQuery = "";
     private Date filterStartDate = null;
     private Date filterEndDate = null;
@@ -127,7 +165,7 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
-        db = new Database();
+        db = Database.getInstance();
         if (getActivity() instanceof EntrantActivity) {
             currentUser = ((EntrantActivity) getActivity()).getEntrantUser();
         }
@@ -148,10 +186,25 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
         refreshButton = view.findViewById(R.id.refresh_button);
         filterButton = view.findViewById(R.id.filter_button);
 
-        adapter = new EntrantEventAdapter(eventList, currentUser, this);
+        adapter = new EntrantEventAdapter(eventList, registeredEvents, currentUser, this);
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
         recyclerView.setAdapter(adapter);
 
+        // Fetch the next page as the user nears the end of the list
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                if (dy <= 0) {
+                    return;
+                }
+                LinearLayoutManager lm = (LinearLayoutManager) rv.getLayoutManager();
+                if (lm != null && lm.findLastVisibleItemPosition() >= eventList.size() - 5) {
+                    autoPagesLoaded = 0;
+                    loadNextPage(false);
+                }
+            }
+        });
+
         // refresh button listener
         refreshButton.setOnClickListener(v -> {
             Toast.makeText(getContext(), "Refreshing list...", Toast.LENGTH_SHORT).show();
@@ -161,46 +214,200 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
         // filter button listener
         filterButton.setOnClickListener(v -> showFilterDialog());
 
+        // Registered events may be shown from the local cache; update their rows
+        // when the server turns out to have a newer version
+        db.addOnEventRefreshListener(getViewLifecycleOwner(), (eventId, event) -> {
+            if (event != null && registeredEvents.containsKey(eventId)) {
+                showReloadedEvent(eventId, event);
+            }
+        });
+
         loadEvents();
     }
 
     /**
      * Added by Arunavo Dutta
-     * Asynchronously loads all events from the Firestore database.
+     * Reloads the event list from the first page.
      * <p>
-     * This method fetches the complete list of available events from the database.
-     * It first clears the local allEvents list, then populates it with the newly fetched data
-     * with the applied filters. Finally, it notifies the {@link EntrantEventAdapter} that the data
-     * set has changed, prompting the {@link RecyclerView} to refresh and display the updated list
-     * of events. If the database query fails, an error is logged.
+     * This method resets paging and fetches the first page of event summaries, ordered by
+     * start time. Further pages are fetched by {@link #loadNextPage(boolean)} as the user
+     * scrolls, so only the events on screen are held in memory. The full events from the
+     * user's registered history, which are needed to show the user's status, are reloaded
+     * alongside. If a database query fails, an error is logged.
      */
     private void loadEvents() {
-        Log.d(TAG, "Attempting to query 'events' collection...");
-        db.getAllEventsList().addOnCompleteListener(task -> {
+        if (isLoadingPage) {
+            reloadPending = true;
+            return;
+        }
+
+        nextPageCursor = null;
+        hasMorePages = true;
+        autoPagesLoaded = 0;
+        loadNextPage(true);
+
+        db.getEventsByIds(currentUser.getRegisteredEventHistory()).addOnCompleteListener(task -> {
             if (!isAdded() || getContext() == null) {
-                Log.w(TAG, "loadEvents callback received, but fragment is detached.");
                 return;
             }
-            if (task.isSuccessful()) {
-                List<Event> fetchedEvents = task.getResult();
-                if (fetchedEvents == null) { return; }
-                Log.d(TAG, "Firebase query successful. Found " + fetchedEvents.size() + " events.");
+            registeredEvents.clear();
+            if (task.isSuccessful() && task.getResult() != null) {
+                for (Event event : task.getResult()) {
+                    registeredEvents.put(event.getUniqueEventID(), event);
+                }
+            } else {
+                Log.e(TAG, "Error loading registered events: ", task.getException());
+            }
+            adapter.notifyDataSetChanged();
+        });
+    }
 
+    /**
+     * Fetches the next page of event summaries and appends the ones matching the active
+     * filters to the list. Does nothing if a page is already loading or the last page has
+     * been reached.
+     * <p>
+     * The From/To dates of the filter are sent to Firestore as a range on the start time,
+     * so only matching events are downloaded. A refresh queries the current filter dates;
+     * later pages continue the range of the first page. If a ranged refresh fails, the
+     * events that are already loaded are filtered by date in memory instead.
+     *
+     * @param reset true to clear the existing list before appending (refresh)
+     */
+    private void loadNextPage(boolean reset) {
+        if (isLoadingPage || (!reset && !hasMorePages)) {
+            return;
+        }
+        isLoadingPage = true;
+
+        Date rangeStart = reset ? filterStartDate : queryStartDate;
+        Date rangeEnd = reset ? filterEndDate : queryEndDate;
+
+        Log.d(TAG, "Attempting to query 'event_summaries' collection...");
+        db.getEventSummariesPage(rangeStart, rangeEnd, PAGE_SIZE, nextPageCursor).addOnCompleteListener(task -> {
+            isLoadingPage = false;
+            if (!isAdded() || getContext() == null) {
+                Log.w(TAG, "loadNextPage callback received, but fragment is detached.");
+                return;
+            }
+            if (reloadPending) {
+                reloadPending = false;
+                loadEvents();
+                return;
+            }
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Error running query: ", task.getException());
+                if (reset && !isDateRangeQueried()) {
+                    // Keep the pages that are loaded and filter them by date locally
+                    Log.w(TAG, "Falling back to filtering loaded events by date in memory.");
+                    applyFilters();
+                }
+                return;
+            }
+
+            Page<EventSummary> page = task.getResult();
+            Log.d(TAG, "Firebase query successful. Loaded " + page.getItems().size() + " events.");
+
+            if (reset) {
                 allEvents.clear();
-                allEvents.addAll(fetchedEvents);
+                eventList.clear();
+                searchIndex.clear();
+                queryStartDate = rangeStart;
+                queryEndDate = rangeEnd;
+            }
+            nextPageCursor = page.getCursor();
+            hasMorePages = page.hasMore();
 
+            allEvents.addAll(page.getItems());
+            searchIndex.putAll(page.getItems());
+
+            if (hasSearchQuery()) {
+                // Search results are ranked, so new matches may belong anywhere in the list
                 applyFilters();
+            } else {
+                int insertStart = eventList.size();
+                for (EventSummary event : page.getItems()) {
+                    if (matchesDateRange(event, filterStartDate, filterEndDate)) {
+                        eventList.add(event);
+                    }
+                }
 
-                if (highlightEventId != null) {
-                    scrollToEvent(highlightEventId);
-                    highlightEventId = null;
+                if (reset) {
+                    adapter.notifyDataSetChanged();
+                } else {
+                    adapter.notifyItemRangeInserted(insertStart, eventList.size() - insertStart);
                 }
-            } else {
-                Log.e(TAG, "Error running query: ", task.getException());
             }
+
+            onPageLoaded();
         });
     }
 
+    /**
+     * Called after a page has been appended. Keeps loading pages while an event scanned
+     * from a QR code has not been found yet, or while the active filters leave too few
+     * events on screen for the user to scroll.
+     */
+    private void onPageLoaded() {
+        if (highlightEventId != null) {
+            if (indexOfEvent(highlightEventId) == -1 && hasMorePages) {
+                loadNextPage(false);
+                return;
+            }
+            scrollToEvent(highlightEventId);
+            highlightEventId = null;
+        }
+
+        loadMoreIfShort();
+    }
+
+    /**
+     * Fetches another page when {@link #shouldLoadAnotherPage} says the list needs one.
+     */
+    private void loadMoreIfShort() {
+        if (shouldLoadAnotherPage(hasMorePages, hasSearchQuery(), eventList.size(), autoPagesLoaded)) {
+            autoPagesLoaded++;
+            loadNextPage(false);
+        }
+    }
+
+    /**
+     * Decides whether to fetch another page without the user scrolling.
+     * <p>
+     * While a search query is active every page is fetched, because the search index only
+     * covers loaded events and a better match may be on any later page. Otherwise another
+     * page is fetched only if the filtered list does not fill a page, since the scroll
+     * listener cannot trigger a load on a list that does not scroll, and at most
+     * {@link #MAX_AUTO_PAGES} pages are fetched this way for each refresh, filter change or
+     * scroll, so a date filter matching few events does not download the whole collection.
+     *
+     * @param hasMorePages    whether the query has pages left
+     * @param searching       whether a search query is active
+     * @param shownCount      the number of events on screen
+     * @param autoPagesLoaded the pages already fetched this way since the user last asked
+     * @return true to fetch the next page
+     */
+    static boolean shouldLoadAnotherPage(boolean hasMorePages, boolean searching, int shownCount,
+                                         int autoPagesLoaded) {
+        if (!hasMorePages) {
+            return false;
+        }
+        if (searching) {
+            return true;
+        }
+        return shownCount < PAGE_SIZE && autoPagesLoaded < MAX_AUTO_PAGES;
+    }
+
+    /**
+     * Returns whether the loaded pages were queried with the current filter dates.
+     *
+     * @return true if Firestore already applied the current date range
+     */
+    private boolean isDateRangeQueried() {
+        return Objects.equals(filterStartDate, queryStartDate)
+                && Objects.equals(filterEndDate, queryEndDate);
+    }
+
     /**
      * Temporary holder for filter values while the filter dialog is open.
      * This class stores the in-progress query text and optional start and end dates so that the
@@ -300,7 +507,7 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
             filterStartDate = temp.startDate;
             filterEndDate = temp.endDate;
 
-            applyFilters();
+            onFiltersChanged();
             dialog.dismiss();
         });
 
@@ -400,59 +607,61 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
         dialog.show();
     }
 
+    /**
+     * Called when the user applies new filter settings. A changed date range is sent to
+     * Firestore by reloading the list from the first page; a changed search query is
+     * applied to the loaded events, and the remaining pages are fetched so that every
+     * event is searched.
+     */
+    private void onFiltersChanged() {
+        autoPagesLoaded = 0;
+        if (isDateRangeQueried()) {
+            applyFilters();
+        } else {
+            updateFilterButtonState();
+            loadEvents();
+        }
+    }
+
     /**
      * Applies the current filter settings to the event list.
-     * This method clears the displayed event list, re-evaluates all events against the active
-     * query and date range using matchesQuery(Event, String) and matchesDateRange(Event, Date, Date)},
+     * This method clears the displayed event list, looks up the active query in the
+     * {@link EventSearchIndex} (most relevant first) or takes all loaded events if there is no
+     * query, checks them against the date range using matchesDateRange(EventSummary, Date, Date),
      * and repopulates the list with matching events. The adapter is then notified of the changes,
      * and the filter button state is updated to reflect whether any filters are active.
      */
     private void applyFilters() {
         eventList.clear();
 
-        for (Event event : allEvents) {
-            if (!matchesQuery(event, filterQuery)) continue;
-            if (!matchesDateRange(event, filterStartDate, filterEndDate)) continue;
-            eventList.add(event);
+        List<EventSummary> candidates = hasSearchQuery() ? searchIndex.search(filterQuery) : allEvents;
+        for (EventSummary event : candidates) {
+            if (matchesDateRange(event, filterStartDate, filterEndDate)) {
+                eventList.add(event);
+            }
         }
 
         adapter.notifyDataSetChanged();
 
         // update the filter button
         updateFilterButtonState();
+
+        loadMoreIfShort();
     }
 
     /**
-     * Determines whether an event matches the given text query.
-     * The query is compared against the event's name, description, and location using
-     * case-insensitive substring matching. If the query is null or empty, the event is treated as
-     * a match.
+     * Returns whether the user has entered a search query.
      *
-     * @param event the event to evaluate against the query
-     * @param query the search text entered by the user, or null if none
-     * @return true if the event matches the query, false otherwise
+     * @return true if a non-empty search query is set
      */
-    private boolean matchesQuery(Event event, String query) {
-        if (query == null || query.isEmpty()) {
-            return true;
-        }
-        String lowerQuery = query.toLowerCase(Locale.getDefault());
-
-        String name = event.getEventName() != null
-                ? event.getEventName().toLowerCase(Locale.getDefault())
-                : "";
-        String desc = event.getEventDescription() != null
-                ? event.getEventDescription().toLowerCase(Locale.getDefault())
-                : "";
-        String location = event.getLocation() != null
-                ? event.getLocation().toLowerCase(Locale.getDefault())
-                : "";
-
-        return name.contains(lowerQuery) || desc.contains(lowerQuery) || location.contains(lowerQuery);
+    private boolean hasSearchQuery() {
+        return filterQuery != null && !filterQuery.isEmpty();
     }
 
     /**
      * Determines whether an event falls within the specified date range.
+     * Firestore normally applies the range already; this check is kept for pages loaded
+     * before a ranged query and for when a ranged query fails offline.
      * The event's start time is compared against optional start and end boundaries. If the event
      * date is null, it is treated as a match. If a start date is provided, events before
      * that date are excluded. If an end date is provided, events after that date are excluded.
@@ -462,7 +671,7 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
      * @param end   the inclusive end date of the filter range, or null if unbounded
      * @return true if the event matches the date range, false otherwise
      */
-    private boolean matchesDateRange(Event event, @Nullable Date start, @Nullable Date end) {
+    private boolean matchesDateRange(EventSummary event, @Nullable Date start, @Nullable Date end) {
         // Choose which date you want to filter on; here I use event start time.
         Date eventDate = event.getStartTime();
         if (eventDate == null) {
@@ -480,19 +689,29 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
 
     /**
      * Starts the EntrantEventDetailsFragment when an event is clicked.
+     * The list only holds summaries, so the full event is loaded first.
      *
      * @param event the event the entrant has clicked
      */
     @Override
-    public void onItemClick(Event event) {
+    public void onItemClick(EventSummary event) {
         if (event == null) return;
 
-        Bundle args = new Bundle();
-        args.putSerializable(EntrantEventDetailsFragment.ARG_EVENT, event);
-        args.putString(EntrantEventDetailsFragment.ARG_ENTRANT_HARDWARE_ID, currentUser.getHardwareID());
+        db.getEvent(event.getUniqueEventID()).addOnCompleteListener(task -> {
+            if (!isAdded() || getContext() == null) return;
+            if (!task.isSuccessful() || task.getResult() == null) {
+                Log.e(TAG, "Error loading event details", task.getException());
+                Toast.makeText(getContext(), "Failed to load event.", Toast.LENGTH_SHORT).show();
+                return;
+            }
+
+            Bundle args = new Bundle();
+            args.putSerializable(EntrantEventDetailsFragment.ARG_EVENT, task.getResult());
+            args.putString(EntrantEventDetailsFragment.ARG_ENTRANT_HARDWARE_ID, currentUser.getHardwareID());
 
-        NavController navController = NavHostFragment.findNavController(this);
-        navController.navigate(R.id.nav_entrant_event_details, args);
+            NavController navController = NavHostFragment.findNavController(this);
+            navController.navigate(R.id.nav_entrant_event_details, args);
+        });
     }
 
     /**
@@ -508,13 +727,7 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
         }
 
         // Find the event position
-        int position = -1;
-        for (int i = 0; i < eventList.size(); i++) {
-            if (eventList.get(i).getUniqueEventID().equals(eventId)) {
-                position = i;
-                break;
-            }
-        }
+        int position = indexOfEvent(eventId);
 
         // Scroll to it or show not found message
         if (position != -1) {
@@ -531,6 +744,62 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
         }
     }
 
+    /**
+     * Returns the position of an event in the displayed list.
+     *
+     * @param eventId the unique ID of the event
+     * @return the event's position, or -1 if it is not displayed
+     */
+    private int indexOfEvent(Long eventId) {
+        for (int i = 0; i < eventList.size(); i++) {
+            if (eventList.get(i).getUniqueEventID().equals(eventId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reloads a single event after the user joined or left its waitlist, and updates its
+     * row in place so that the user keeps their scroll position.
+     *
+     * @param eventId the unique ID of the event to reload
+     */
+    private void refreshEvent(Long eventId) {
+        db.getEvent(eventId).addOnCompleteListener(task -> {
+            if (!isAdded() || getContext() == null) return;
+            if (!task.isSuccessful() || task.getResult() == null) {
+                Log.e(TAG, "Error reloading event " + eventId, task.getException());
+                return;
+            }
+
+            showReloadedEvent(eventId, task.getResult());
+        });
+    }
+
+    /**
+     * Stores a reloaded event and updates its row in place.
+     *
+     * @param eventId the unique ID of the event
+     * @param event   the reloaded event
+     */
+    private void showReloadedEvent(Long eventId, Event event) {
+        if (!isAdded() || adapter == null) return;
+        registeredEvents.put(eventId, event);
+
+        EventSummary summary = new EventSummary(event);
+        int loadedIndex = allEvents.indexOf(summary);
+        if (loadedIndex != -1) {
+            allEvents.set(loadedIndex, summary);
+            searchIndex.put(summary);
+        }
+        int position = indexOfEvent(eventId);
+        if (position != -1) {
+            eventList.set(position, summary);
+            adapter.notifyItemChanged(position);
+        }
+    }
+
 
     /**
      * Initially Added by Arunavo Dutta, Modified by Elliot
@@ -538,15 +807,16 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
      *
      * If the event requires geolocation and the current user does not have geolocation enabled,
      * a message is shown and no changes are made. Otherwise, this method delegates to
-     * {@link Event#joinWaitlist(String)} and displays feedback based on the returned
-     * {@link Event.WaitlistOperationResult}. On success, the user is added to the event's
-     * waitlist in the database, their registered event history is updated, and the event list
+     * {@link Event#joinWaitlist(String)} for events in the user's history, or to
+     * {@link EventSummary#checkJoinWaitlist()} for other events, and displays feedback based
+     * on the returned {@link Event.WaitlistOperationResult}. On success, the user is added to the event's
+     * waitlist in the database, their registered event history is updated, and the event's row
      * is reloaded to reflect the change.
      *
      * @param event the event for which the user is attempting to join the waitlist
      */
     @Override
-    public void onJoinClick(Event event) {
+    public void onJoinClick(EventSummary event) {
         Log.d(TAG, "Joining waitlist for: " + event.getEventName());
 
         if (event.getRequiresGeolocation() && !currentUser.getUseGeolocation()) {
@@ -556,8 +826,10 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
             return;
         }
 
-        Event.WaitlistOperationResult result =
-                event.joinWaitlist(currentUser.getHardwareID());
+        Event registered = registeredEvents.get(event.getUniqueEventID());
+        Event.WaitlistOperationResult result = registered != null
+                ? registered.joinWaitlist(currentUser.getHardwareID())
+                : event.checkJoinWaitlist();
 
         switch (result) {
             case ALREADY_INVITED:
@@ -600,7 +872,7 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
                             .addOnSuccessListener(aVoid1 -> {
                                 Toast.makeText(getContext(),
                                         "Joined waitlist!", Toast.LENGTH_SHORT).show();
-                                loadEvents();
+                                refreshEvent(event.getUniqueEventID());
                             })
                             .addOnFailureListener(e -> {
                                 Log.e(TAG, "Error saving user data after joining: ", e);
@@ -620,20 +892,23 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
     /**
      * Initially added by Arunavo Dutta, modified by Elliot
      * Handles the "Leave Waitlist" action for the given event.
-     * This method first attempts to remove the current user from the event's waitlist via
-     * {@link Event#leaveWaitlist(String)}. If the user is not on the waitlist, a message is
+     * This method first attempts to remove the current user from the full event's waitlist via
+     * {@link Event#leaveWaitlist(String)}; events outside the user's history are treated as
+     * not joined. If the user is not on the waitlist, a message is
      * shown and no further changes are made. On success, the user's registered event history
-     * is updated locally, the change is persisted to the database, and the event list is
+     * is updated locally, the change is persisted to the database, and the event's row is
      * reloaded. Any errors during persistence are logged and surfaced to the user.
      *
      * @param event the event for which the user is leaving the waitlist
      */
     @Override
-    public void onLeaveClick(Event event) {
+    public void onLeaveClick(EventSummary event) {
         Log.d(TAG, "Leaving waitlist for: " + event.getEventName());
 
-        Event.WaitlistOperationResult result =
-                event.leaveWaitlist(currentUser.getHardwareID());
+        Event registered = registeredEvents.get(event.getUniqueEventID());
+        Event.WaitlistOperationResult result = registered != null
+                ? registered.leaveWaitlist(currentUser.getHardwareID())
+                : Event.WaitlistOperationResult.NOT_ON_WAITLIST;
 
         if (result == Event.WaitlistOperationResult.NOT_ON_WAITLIST) {
             Toast.makeText(getContext(),
@@ -651,7 +926,7 @@ public class EntrantAllEventsFragment extends Fragment implements EntrantEventAd
                             .addOnSuccessListener(aVoid1 -> {
                                 Toast.makeText(getContext(),
                                         "Left waitlist.", Toast.LENGTH_SHORT).show();
-                                loadEvents();
+                                refreshEvent(event.getUniqueEventID());
                             })
                             .addOnFailureListener(e -> {
                                 Log.e(TAG, "Error saving user data after leaving: ", e);
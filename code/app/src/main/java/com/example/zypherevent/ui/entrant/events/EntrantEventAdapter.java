@@ -16,15 +16,22 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.zypherevent.Event;
+import com.example.zypherevent.EventSummary;
 import com.example.zypherevent.R;
 import com.example.zypherevent.WaitlistEntry;
 import com.example.zypherevent.userTypes.Entrant;
 
 import java.util.List;
+import java.util.Map;
 
 /**
- * An adapter to display a list of {@link Event} objects for an {@link Entrant}
- * in a {@link RecyclerView}.
+ * An adapter to display a list of {@link EventSummary} objects for an
+ * {@link Entrant} in a {@link RecyclerView}.
+ * <p>
+ * Rows are built from summaries, so the entrant lists of every event are not
+ * downloaded. The entrant's own status is taken from the full {@link Event}
+ * objects of the events in their registered history, supplied by the hosting
+ * fragment.
  * <p>
  * This adapter is responsible for creating views for each event, binding event
  * data to those views,
@@ -44,12 +51,14 @@ import java.util.List;
  * @author Arunavo Dutta
  * @version 3.0
  * @see Event
+ * @see EventSummary
  * @see Entrant
  * @see EntrantEventAdapter.EventViewHolder
  */
 public class EntrantEventAdapter extends RecyclerView.Adapter<EntrantEventAdapter.EventViewHolder> {
 
-    private List<Event> eventList;
+    private List<EventSummary> eventList;
+    private Map<Long, Event> registeredEvents;
     private Entrant currentUser;
     private OnItemClickListener listener;
 
@@ -62,24 +71,29 @@ public class EntrantEventAdapter extends RecyclerView.Adapter<EntrantEventAdapte
      * leaving an event's waitlist.
      */
     public interface OnItemClickListener {
-        void onItemClick(Event event); // For clicking the card
+        void onItemClick(EventSummary event); // For clicking the card
 
-        void onJoinClick(Event event); // For clicking "Join"
+        void onJoinClick(EventSummary event); // For clicking "Join"
 
-        void onLeaveClick(Event event); // For clicking "Leave"
+        void onLeaveClick(EventSummary event); // For clicking "Leave"
     }
 
     /**
      * Constructs an EntrantEventAdapter.
      *
-     * @param eventList   The list of events to be displayed.
-     * @param currentUser The current entrant, used to determine their status (e.g.,
-     *                    on a waitlist) for each event.
-     * @param listener    A listener for handling clicks on events and associated
-     *                    actions like joining or leaving a waitlist.
+     * @param eventList        The list of event summaries to be displayed.
+     * @param registeredEvents The full events in the entrant's registered history,
+     *                         keyed by event ID. Events missing from this map are
+     *                         shown with no entrant status.
+     * @param currentUser      The current entrant, used to determine their status (e.g.,
+     *                         on a waitlist) for each event.
+     * @param listener         A listener for handling clicks on events and associated
+     *                         actions like joining or leaving a waitlist.
      */
-    public EntrantEventAdapter(List<Event> eventList, Entrant currentUser, OnItemClickListener listener) {
+    public EntrantEventAdapter(List<EventSummary> eventList, Map<Long, Event> registeredEvents,
+                               Entrant currentUser, OnItemClickListener listener) {
         this.eventList = eventList;
+        this.registeredEvents = registeredEvents;
         this.currentUser = currentUser;
         this.listener = listener;
     }
@@ -118,9 +132,9 @@ public class EntrantEventAdapter extends RecyclerView.Adapter<EntrantEventAdapte
      * This method updates the contents of the {@link EventViewHolder#itemView} to
      * reflect the
      * event at the given position in the list. It retrieves the specific
-     * {@link Event} object
+     * {@link EventSummary} object and the entrant's status
      * for the given position and calls the
-     * {@link EventViewHolder#bind(Event, Entrant, OnItemClickListener)}
+     * {@link EventViewHolder#bind(EventSummary, Event.EntrantStatus, OnItemClickListener)}
      * method to populate the views with the event's data.
      *
      * @param holder   The ViewHolder which should be updated to represent the
@@ -131,9 +145,22 @@ public class EntrantEventAdapter extends RecyclerView.Adapter<EntrantEventAdapte
     @Override
     public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
         // Get the specific event for this row
-        Event event = eventList.get(position);
+        EventSummary event = eventList.get(position);
+
+        // Only events in the entrant's history can have a status
+        Event registered = registeredEvents.get(event.getUniqueEventID());
+        Event.EntrantStatus entrantStatus = registered != null
+                ? registered.getEntrantStatus(currentUser.getHardwareID())
+                : Event.EntrantStatus.NONE;
+        // A waitlist kept in the subcollection is not loaded with the event, so an
+        // event in the history holding the entrant in no other list means waitlisted
+        if (entrantStatus == Event.EntrantStatus.NONE && registered != null
+                && registered.getWaitlistStorageMode() == Event.WaitlistStorageMode.SUBCOLLECTION) {
+            entrantStatus = Event.EntrantStatus.WAITLISTED;
+        }
+
         // Bind the event data to the views in that row
-        holder.bind(event, currentUser, listener);
+        holder.bind(event, entrantStatus, listener);
     }
 
     /**
@@ -189,27 +216,26 @@ public class EntrantEventAdapter extends RecyclerView.Adapter<EntrantEventAdapte
         }
 
         /**
-         * Binds data from an {@link Event} object to the views in the ViewHolder.
+         * Binds data from an {@link EventSummary} object to the views in the ViewHolder.
          * <p>
          * This method populates the event's title, location, and waitlist count. It
          * dynamically
          * controls the visibility of the "Join Waitlist" and "Leave Waitlist" buttons
          * based on
-         * whether the {@code currentUser} is already on the event's waitlist. It also
+         * the current entrant's status for the event. It also
          * sets up
          * click listeners for the entire item view and the action buttons, delegating
          * the
          * handling of these events to the provided {@link OnItemClickListener}.
          *
-         * @param event       The {@link Event} object containing the data to be
-         *                    displayed.
-         * @param currentUser The current {@link Entrant} user, used to determine their
-         *                    waitlist status.
-         * @param listener    The {@link OnItemClickListener} that will handle clicks on
-         *                    the item view,
-         *                    join button, and leave button.
+         * @param event         The {@link EventSummary} object containing the data to be
+         *                      displayed.
+         * @param entrantStatus The current entrant's status for this event.
+         * @param listener      The {@link OnItemClickListener} that will handle clicks on
+         *                      the item view,
+         *                      join button, and leave button.
          */
-        public void bind(final Event event, Entrant currentUser, final OnItemClickListener listener) {
+        public void bind(final EventSummary event, Event.EntrantStatus entrantStatus, final OnItemClickListener listener) {
             tvTitle.setText(event.getEventName());
             tvMeta.setText(event.getLocation());
 
@@ -220,7 +246,7 @@ public class EntrantEventAdapter extends RecyclerView.Adapter<EntrantEventAdapte
                 imgPoster.setImageResource(R.drawable.ic_launcher_foreground);
             }
 
-            int waitlistSize = event.getWaitListEntrants().size();
+            int waitlistSize = event.getWaitlistCount();
             tvWaitlistCount.setText("On Waiting List: " + waitlistSize);
 
             // per-event lottery criteria
@@ -239,9 +265,6 @@ public class EntrantEventAdapter extends RecyclerView.Adapter<EntrantEventAdapte
             boolean registrationOpen = event.isRegistrationOpen();
             String registrationStatus = event.getRegistrationStatus();
 
-            String myId = currentUser.getHardwareID();
-            Event.EntrantStatus entrantStatus = event.getEntrantStatus(myId);
-
             // ----- show entrant status label -----
             switch (entrantStatus) {
                 case ACCEPTED:
@@ -126,7 +126,7 @@ public class EntrantEventDetailsFragment extends Fragment {
         TextView textEntrantStatus = view.findViewById(R.id.text_entrant_status);
         Button btnJoinWaitlist = view.findViewById(R.id.btn_join_waitlist);
 
-        db = new Database();
+        db = Database.getInstance();
         if (getActivity() instanceof EntrantActivity) {
             currentUser = ((EntrantActivity) getActivity()).getEntrantUser();
         }
@@ -199,7 +199,7 @@ public class EntrantEventDetailsFragment extends Fragment {
         textOrganizerId.setText("Organizer ID: " + event.getEventOrganizerHardwareID());
 
         // Waitlist info (count only, no details)
-        int waitlistSize = event.getWaitListEntrants() != null ? event.getWaitListEntrants().size() : 0;
+        int waitlistSize = event.getWaitlistCount();
         Integer waitlistLimit = event.getWaitlistLimit();
 
         String waitlistText;
@@ -213,6 +213,12 @@ public class EntrantEventDetailsFragment extends Fragment {
         // entrant's status
         if (!TextUtils.isEmpty(entrantHardwareId)) {
             Event.EntrantStatus entrantStatus = event.getEntrantStatus(entrantHardwareId);
+            // A waitlist kept in the subcollection is not loaded with the event
+            if (entrantStatus == Event.EntrantStatus.NONE
+                    && event.getWaitlistStorageMode() == Event.WaitlistStorageMode.SUBCOLLECTION
+                    && isUserOnWaitlist()) {
+                entrantStatus = Event.EntrantStatus.WAITLISTED;
+            }
 
             switch (entrantStatus) {
                 case ACCEPTED:
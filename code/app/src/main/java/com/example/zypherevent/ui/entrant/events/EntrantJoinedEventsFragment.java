@@ -18,11 +18,14 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.zypherevent.Database;
 import com.example.zypherevent.EntrantActivity;
 import com.example.zypherevent.Event;
+import com.example.zypherevent.EventSummary;
 import com.example.zypherevent.R;
 import com.example.zypherevent.userTypes.Entrant;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Elliot Chrystal
@@ -38,7 +41,10 @@ public class EntrantJoinedEventsFragment extends Fragment implements EntrantEven
     private RecyclerView recyclerView;
     private EntrantEventAdapter adapter;
     private Entrant currentUser;
-    private List<Event> eventList = new ArrayList<>();
+    private List<EventSummary> eventList = new ArrayList<>();
+
+    /** full joined events, keyed by event ID */
+    private Map<Long, Event> registeredEvents = new HashMap<>();
 
     public EntrantJoinedEventsFragment() {
         // public no-arg constructor required
@@ -76,7 +82,7 @@ public class EntrantJoinedEventsFragment extends Fragment implements EntrantEven
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
 
         // Create adapter
-        adapter = new EntrantEventAdapter(eventList, currentUser, this);
+        adapter = new EntrantEventAdapter(eventList, registeredEvents, currentUser, this);
         recyclerView.setAdapter(adapter);
 
         // Load initial data
@@ -97,7 +103,7 @@ public class EntrantJoinedEventsFragment extends Fragment implements EntrantEven
 
         Log.d(TAG, "Registered event IDs: " + registeredEventIDs);
 
-        Database db = new Database();
+        Database db = Database.getInstance();
 
         db.getEventsByIds(registeredEventIDs).addOnCompleteListener(t -> {
             if (t.isSuccessful()) {
@@ -105,9 +111,13 @@ public class EntrantJoinedEventsFragment extends Fragment implements EntrantEven
 
                 // Clear and update the event list
                 eventList.clear();
+                this.registeredEvents.clear();
 
                 if (registeredEvents != null && !registeredEvents.isEmpty()) {
-                    eventList.addAll(registeredEvents);
+                    for (Event event : registeredEvents) {
+                        eventList.add(new EventSummary(event));
+                        this.registeredEvents.put(event.getUniqueEventID(), event);
+                    }
                     Log.d(TAG, "Successfully loaded " + eventList.size() + " joined events.");
                 } else {
                     Log.d(TAG, "No joined events found.");
@@ -122,10 +132,13 @@ public class EntrantJoinedEventsFragment extends Fragment implements EntrantEven
     /**
      * Handles the "Join Waitlist" action for the given event.
      *
-     * @param event the event for which the user is attempting to join the waitlist
+     * @param summary the event for which the user is attempting to join the waitlist
      */
     @Override
-    public void onJoinClick(Event event) {
+    public void onJoinClick(EventSummary summary) {
+        Event event = registeredEvents.get(summary.getUniqueEventID());
+        if (event == null) return;
+
         Log.d(TAG, "Joining waitlist for: " + event.getEventName());
 
         if (event.getRequiresGeolocation() && !currentUser.getUseGeolocation()) {
@@ -171,7 +184,7 @@ public class EntrantJoinedEventsFragment extends Fragment implements EntrantEven
                 break;
         }
 
-        Database db = new Database();
+        Database db = Database.getInstance();
         db.addEntrantToWaitlist(String.valueOf(event.getUniqueEventID()), currentUser)
                 .addOnSuccessListener(aVoid -> {
                     currentUser.addEventToRegisteredEventHistory(event.getUniqueEventID());
@@ -200,10 +213,13 @@ public class EntrantJoinedEventsFragment extends Fragment implements EntrantEven
     /**
      * Handles the "Leave Waitlist" action for the given event.
      *
-     * @param event the event for which the user is attempting to leave the waitlist
+     * @param summary the event for which the user is attempting to leave the waitlist
      */
     @Override
-    public void onLeaveClick(Event event) {
+    public void onLeaveClick(EventSummary summary) {
+        Event event = registeredEvents.get(summary.getUniqueEventID());
+        if (event == null) return;
+
         Log.d(TAG, "Leaving waitlist for: " + event.getEventName());
 
         Event.WaitlistOperationResult result =
@@ -219,7 +235,7 @@ public class EntrantJoinedEventsFragment extends Fragment implements EntrantEven
         currentUser.removeEventFromRegisteredEventHistory(event.getUniqueEventID());
         adapter.notifyDataSetChanged();
 
-        Database db = new Database();
+        Database db = Database.getInstance();
         db.removeEntrantFromWaitlist(String.valueOf(event.getUniqueEventID()), currentUser)
                 .addOnSuccessListener(aVoid -> {
                     db.setUserData(currentUser.getHardwareID(), currentUser)
@@ -247,7 +263,9 @@ public class EntrantJoinedEventsFragment extends Fragment implements EntrantEven
      * Starts the EntrantEventDetailsFragment when an event is clicked.
      */
     @Override
-    public void onItemClick(Event event) {
+    public void onItemClick(EventSummary summary) {
+        if (summary == null) return;
+        Event event = registeredEvents.get(summary.getUniqueEventID());
         if (event == null) return;
 
         Bundle args = new Bundle();
@@ -16,12 +16,16 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.zypherevent.Database;
 import com.example.zypherevent.EntrantActivity;
+import com.example.zypherevent.Event;
 import com.example.zypherevent.Notification;
 import com.example.zypherevent.R;
 import com.example.zypherevent.userTypes.Entrant;
+import com.google.firebase.firestore.DocumentSnapshot;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Elliot Chrystal
@@ -38,6 +42,17 @@ public class EntrantNotificationsFragment extends Fragment {
     private Database db;
     private String currentUserHardwareID;
 
+    /** Number of notifications fetched per page. */
+    private static final int PAGE_SIZE = 25;
+
+    /** Events referenced by the loaded notifications, keyed by event ID. */
+    private final Map<Long, Event> eventMap = new HashMap<>();
+
+    /** Cursor for the next page of notifications, or null to start from the newest. */
+    private DocumentSnapshot nextPageCursor;
+    private boolean hasMorePages = true;
+    private boolean isLoadingPage = false;
+
     public EntrantNotificationsFragment() {
         // public no-arg constructor required
     }
@@ -50,7 +65,7 @@ public class EntrantNotificationsFragment extends Fragment {
         View view = inflater.inflate(R.layout.fragment_entrant_notifications, container, false);
 
         // Initialize Database
-        db = new Database();
+        db = Database.getInstance();
 
         // Get current user's hardware ID from arguments
         Entrant currentUser = ((EntrantActivity) getActivity()).getEntrantUser();
@@ -70,6 +85,20 @@ public class EntrantNotificationsFragment extends Fragment {
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
         recyclerView.setAdapter(adapter);
 
+        // Fetch the next page as the user nears the end of the list
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                if (dy <= 0) {
+                    return;
+                }
+                LinearLayoutManager lm = (LinearLayoutManager) rv.getLayoutManager();
+                if (lm != null && lm.findLastVisibleItemPosition() >= notifications.size() - 5) {
+                    loadNextPage(false);
+                }
+            }
+        });
+
         // Load notifications
         loadNotifications();
 
@@ -80,10 +109,9 @@ public class EntrantNotificationsFragment extends Fragment {
     }
 
     /**
-     * Fetches all notifications from the database and filters them for the current
-     * user.
-     * Only shows notifications where receivingUserHardwareID matches the current
-     * user.
+     * Reloads the current user's notifications from the first (newest) page.
+     * Only notifications where receivingUserHardwareID matches the current user
+     * are read from the database.
      */
     private void loadNotifications() {
         if (currentUserHardwareID == null) {
@@ -91,34 +119,57 @@ public class EntrantNotificationsFragment extends Fragment {
             return;
         }
 
+        if (isLoadingPage) {
+            return;
+        }
+
+        // Start over from the newest notification with fresh event data
+        eventMap.clear();
+        nextPageCursor = null;
+        hasMorePages = true;
+        loadNextPage(true);
+    }
+
+    /**
+     * Fetches the next page of the current user's notifications, newest sent first,
+     * and appends it to the list. Does nothing if a page is already loading or
+     * the last page has been reached.
+     *
+     * @param reset true to clear the existing list before appending (refresh)
+     */
+    private void loadNextPage(boolean reset) {
+        if (isLoadingPage || (!reset && !hasMorePages)) {
+            return;
+        }
+        isLoadingPage = true;
+
         // Disable refresh button while loading
         refreshButton.setEnabled(false);
 
-        db.getAllNotifications()
-                .addOnSuccessListener(allNotifications -> {
-                    notifications.clear();
+        db.getNotificationsForUser(currentUserHardwareID, PAGE_SIZE, nextPageCursor)
+                .addOnSuccessListener(page -> {
+                    if (reset) {
+                        notifications.clear();
+                    }
                     List<Long> eventIDs = new ArrayList<>();
 
-                    // Filter notifications for current user
-                    for (Notification notification : allNotifications) {
-                        if (notification.getReceivingUserHardwareID() != null &&
-                                notification.getReceivingUserHardwareID().equals(currentUserHardwareID)) {
-                            notifications.add(notification);
-                            if (notification.getEventID() != null) {
-                                eventIDs.add(notification.getEventID());
-                            }
+                    for (Notification notification : page.getItems()) {
+                        notifications.add(notification);
+                        if (notification.getEventID() != null) {
+                            eventIDs.add(notification.getEventID());
                         }
                     }
 
-                    // Sort by notification ID (most recent first, assuming higher ID = newer)
-                    notifications
-                            .sort((n1, n2) -> Long.compare(n2.getUniqueNotificationID(), n1.getUniqueNotificationID()));
+                    nextPageCursor = page.getCursor();
+                    hasMorePages = page.hasMore();
 
                     // Fetch events for the notifications
                     fetchEventsForNotifications(eventIDs);
 
                 })
                 .addOnFailureListener(e -> {
+                    isLoadingPage = false;
+
                     // Re-enable refresh button
                     refreshButton.setEnabled(true);
                     refreshButton.setText("Refresh");
@@ -133,43 +184,46 @@ public class EntrantNotificationsFragment extends Fragment {
      * Retrieves Event objects for a list of event IDs to display details in
      * notifications.
      * Used to determine if a notification is an invitation that needs
-     * Accept/Decline buttons.
+     * Accept/Decline buttons. Events already loaded for earlier pages are reused.
      *
      * @param eventIDs List of event IDs to fetch
      */
     private void fetchEventsForNotifications(List<Long> eventIDs) {
-        if (eventIDs.isEmpty()) {
-            adapter.updateData(notifications, new java.util.HashMap<>(), currentUserHardwareID);
-            refreshButton.setEnabled(true);
-            refreshButton.setText("Refresh");
-            if (notifications.isEmpty()) {
-                Toast.makeText(getContext(), "No notifications", Toast.LENGTH_SHORT).show();
+        List<Long> missingIDs = new ArrayList<>();
+        for (Long eventID : eventIDs) {
+            if (!eventMap.containsKey(eventID)) {
+                missingIDs.add(eventID);
             }
+        }
+
+        if (missingIDs.isEmpty()) {
+            onPageLoaded();
             return;
         }
 
-        java.util.Map<Long, com.example.zypherevent.Event> eventMap = new java.util.HashMap<>();
-        java.util.concurrent.atomic.AtomicInteger pendingRequests = new java.util.concurrent.atomic.AtomicInteger(
-                eventIDs.size());
+        // Load all missing events in a few batched queries
+        db.getEventsByIds(missingIDs).addOnSuccessListener(events -> {
+            for (Event event : events) {
+                eventMap.put(event.getUniqueEventID(), event);
+            }
+            onPageLoaded();
+        }).addOnFailureListener(e -> {
+            Log.e("EntrantNotifications", "Failed to load events: " + missingIDs, e);
+            onPageLoaded();
+        });
+    }
 
-        for (Long eventID : eventIDs) {
-            db.getEvent(eventID).addOnSuccessListener(event -> {
-                if (event != null) {
-                    eventMap.put(eventID, event);
-                }
-                if (pendingRequests.decrementAndGet() == 0) {
-                    adapter.updateData(notifications, eventMap, currentUserHardwareID);
-                    refreshButton.setEnabled(true);
-                    refreshButton.setText("Refresh");
-                }
-            }).addOnFailureListener(e -> {
-                Log.e("EntrantNotifications", "Failed to load event: " + eventID, e);
-                if (pendingRequests.decrementAndGet() == 0) {
-                    adapter.updateData(notifications, eventMap, currentUserHardwareID);
-                    refreshButton.setEnabled(true);
-                    refreshButton.setText("Refresh");
-                }
-            });
+    /**
+     * Pushes the loaded notifications into the adapter and re-enables the
+     * refresh button once a page (and its events) has finished loading.
+     */
+    private void onPageLoaded() {
+        isLoadingPage = false;
+        adapter.updateData(notifications, eventMap, currentUserHardwareID);
+        refreshButton.setEnabled(true);
+        refreshButton.setText("Refresh");
+        if (notifications.isEmpty()) {
+            Toast.makeText(getContext(), "No notifications", Toast.LENGTH_SHORT).show();
         }
     }
 
@@ -52,7 +52,7 @@ public class EntrantQRScannerFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        db = new Database();
+        db = Database.getInstance();
         barcodeView = view.findViewById(R.id.barcode_scanner);
 
         // Check camera permission
@@ -27,6 +27,7 @@ import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -83,7 +84,7 @@ public class EntrantSettingsFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
 
         // Initialize database
-        db = new Database();
+        db = Database.getInstance();
 
         // Get the entrant user from the activity
         EntrantActivity activity = (EntrantActivity) requireActivity();
@@ -383,8 +384,15 @@ public class EntrantSettingsFragment extends Fragment {
                                     eventFromDB.removeEntrantFromAcceptedList(hardwareID);
                                     eventFromDB.removeEntrantFromDeclinedList(hardwareID);
 
-                                    // Save updated event back to database
+                                    // Save updated event back to database. A waitlist kept
+                                    // in the subcollection is not written by setEventData.
+                                    boolean inSubcollection = eventFromDB.getWaitlistStorageMode()
+                                            == Event.WaitlistStorageMode.SUBCOLLECTION;
                                     db.setEventData(eventID, eventFromDB)
+                                            .continueWithTask(saved -> inSubcollection
+                                                    ? db.removeEntrantsFromWaitlist(eventID,
+                                                            Collections.singletonList(hardwareID))
+                                                    : saved)
                                             .addOnCompleteListener(task -> {
                                                 completedEvents[0]++;
                                                 // Check if all events have been processed
@@ -23,9 +23,12 @@ import com.example.zypherevent.WaitlistEntry;
 import com.example.zypherevent.model.LabelInfoWindow;
 import com.example.zypherevent.model.MapPoint;
 import com.example.zypherevent.Event;
+import com.example.zypherevent.EventSummary;
 import com.example.zypherevent.userTypes.Entrant;
 import com.example.zypherevent.userTypes.Organizer;
 import com.example.zypherevent.userTypes.User;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.CancellationTokenSource;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 
@@ -40,6 +43,8 @@ import org.osmdroid.views.overlay.infowindow.InfoWindow;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Displays an interactive map view of all entrant locations for events created by an organizer
@@ -65,9 +70,15 @@ public class OrganizerEventsMapFragment extends Fragment {
     private Organizer currentOrganizer;
 
     /**
-     * The list of events created by the current organizer, used to populate the spinner.
+     * The summaries of the events created by the current organizer, used to populate the spinner.
      */
-    private List<Event> organizerEvents;
+    private List<EventSummary> organizerEvents;
+
+    /**
+     * Cancels the entrant lookup for the selected event when another event is
+     * selected or the view is destroyed.
+     */
+    private CancellationTokenSource mapPointsLoad;
 
     /**
      * Public no-argument constructor required for fragment instantiation.
@@ -79,9 +90,9 @@ public class OrganizerEventsMapFragment extends Fragment {
     /**
      * Inflates the organizer events map layout and configures the map and event filter spinner.
      * This method initializes the osmdroid MapView, loads the current organizer
-     * from the hosting OrganizerActivity, fetches all events, filters them to those
-     * owned by the organizer, and populates the spinner with event names. When an event is
-     * selected, the map is updated with mappoints representing entrants for that event.
+     * from the hosting OrganizerActivity, fetches the summaries of the organizer's events,
+     * and populates the spinner with event names. When an event is selected, the full event
+     * is loaded and the map is updated with mappoints representing entrants for that event.
      *
      * @param inflater           the layout inflater used to inflate the fragment view
      * @param container          the parent view that the fragment's UI should be attached to, or null
@@ -125,14 +136,7 @@ public class OrganizerEventsMapFragment extends Fragment {
         // get the events from the Organizer and display them in the spinner
         getEvents().addOnCompleteListener(task -> {
             if (task.isSuccessful()) {
-                List<Event> fetchedEvents = task.getResult();
-                List<Event> myEvents = new ArrayList<>();
-
-                for (Event event : fetchedEvents) {
-                    if (event.getEventOrganizerHardwareID().equals(currentOrganizer.getHardwareID())) {
-                        myEvents.add(event);
-                    }
-                }
+                List<EventSummary> myEvents = task.getResult();
 
                 // Convert to list of event names for the spinner
                 List<String> eventNames = new ArrayList<>();
@@ -140,7 +144,7 @@ public class OrganizerEventsMapFragment extends Fragment {
                 // Placeholder entry for "no event selected" state
                 eventNames.add("Select an event");
 
-                for (Event e : myEvents) {
+                for (EventSummary e : myEvents) {
                     eventNames.add(e.getEventName());
                 }
 
@@ -169,6 +173,9 @@ public class OrganizerEventsMapFragment extends Fragment {
         eventsFilterSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                // A new selection replaces the lookup for the previous one
+                cancelMapPointsLoad();
+
                 // position 0 = "Select an event", clear map and do nothing
                 if (position == 0) {
                     if (mapView != null) {
@@ -181,9 +188,9 @@ public class OrganizerEventsMapFragment extends Fragment {
 
                 String selectedName = parent.getItemAtPosition(position).toString();
 
-                Event selectedEvent = null;
+                EventSummary selectedEvent = null;
                 if (organizerEvents != null) {
-                    for (Event e : organizerEvents) {
+                    for (EventSummary e : organizerEvents) {
                         if (e.getEventName().equals(selectedName)) {
                             selectedEvent = e;
                             break;
@@ -192,20 +199,43 @@ public class OrganizerEventsMapFragment extends Fragment {
                 }
 
                 if (selectedEvent != null) {
-                    // use the Task-based getMapPoints
-                    getMapPoints(selectedEvent).addOnCompleteListener(task -> {
-                        if (task.isSuccessful()) {
-                            List<MapPoint> pointsForThisEvent = task.getResult();
-                            showMapPoints(pointsForThisEvent);
-                        } else {
-                            Log.w("OrganizerEventsMapFrag",
-                                    "Failed to get MapPoints for event", task.getException());
-                            // clear map on error:
-                            InfoWindow.closeAllInfoWindowsOn(mapView);
-                            mapView.getOverlays().clear();
-                            mapView.invalidate();
-                        }
-                    });
+                    mapPointsLoad = new CancellationTokenSource();
+                    CancellationToken token = mapPointsLoad.getToken();
+
+                    // Clear the previous event's markers, then add new ones as they load
+                    InfoWindow.closeAllInfoWindowsOn(mapView);
+                    mapView.getOverlays().clear();
+                    mapView.invalidate();
+
+                    // the summary has no entrant lists, so load the full event first
+                    Database.getInstance().getEvent(selectedEvent.getUniqueEventID())
+                            .continueWithTask(eventTask -> {
+                                if (!eventTask.isSuccessful()) {
+                                    throw eventTask.getException();
+                                }
+                                return getMapPoints(eventTask.getResult(), token, loadedPoints -> {
+                                    for (MapPoint mapPoint : loadedPoints) {
+                                        addMapPoint(mapPoint);
+                                    }
+                                });
+                            })
+                            .addOnCompleteListener(task -> {
+                                if (token.isCancellationRequested()) {
+                                    // a newer selection or the destroyed view owns the map now
+                                    return;
+                                }
+                                if (task.isSuccessful()) {
+                                    List<MapPoint> pointsForThisEvent = task.getResult();
+                                    showMapPoints(pointsForThisEvent);
+                                } else {
+                                    Log.w("OrganizerEventsMapFrag",
+                                            "Failed to get MapPoints for event", task.getException());
+                                    // clear map on error:
+                                    InfoWindow.closeAllInfoWindowsOn(mapView);
+                                    mapView.getOverlays().clear();
+                                    mapView.invalidate();
+                                }
+                            });
                 }
             }
 
@@ -217,16 +247,15 @@ public class OrganizerEventsMapFragment extends Fragment {
     }
 
     /**
-     * Retrieves all events from the database.
-     * This method delegates to {@link Database#getAllEventsList()} and returns the
-     * resulting task. The full event list is later filtered to those owned by the
-     * current organizer before being used to populate the spinner.
+     * Retrieves the summaries of the current organizer's events from the database.
+     * This method delegates to {@link Database#getEventSummariesByOrganizer(String)} and
+     * returns the resulting task, which is used to populate the spinner.
      *
-     * @return a task that resolves to a list of all Event objects
+     * @return a task that resolves to a list of the organizer's event summaries
      */
-    public Task<List<Event>> getEvents() {
-        Database db = new Database();
-        return db.getAllEventsList();
+    public Task<List<EventSummary>> getEvents() {
+        Database db = Database.getInstance();
+        return db.getEventSummariesByOrganizer(currentOrganizer.getHardwareID());
     }
 
     /**
@@ -241,16 +270,54 @@ public class OrganizerEventsMapFragment extends Fragment {
      * @return a task that resolves to a list of MapPoints for the event
      */
     public Task<List<MapPoint>> getMapPoints(Event event) {
+        return getMapPoints(event, null, null);
+    }
+
+    /**
+     * Builds the map points for an event like {@link #getMapPoints(Event)}, passing
+     * the points for each batch of entrants to {@code onPointsLoaded} as soon as
+     * that batch has loaded. Entrants already cached are only in the final list.
+     *
+     * @param event             the event whose participant locations should be resolved
+     * @param cancellationToken stops the entrant lookup when cancellation is requested,
+     *                          or null
+     * @param onPointsLoaded    receives the points of each loaded batch, or null
+     * @return a task that resolves to a list of all MapPoints for the event
+     */
+    public Task<List<MapPoint>> getMapPoints(Event event, CancellationToken cancellationToken,
+                                             Consumer<List<MapPoint>> onPointsLoaded) {
         if (event == null) {
             return Tasks.forResult(new ArrayList<>());
         }
 
-        Database db = new Database();
-        List<Task<User>> lookupTasks = new ArrayList<>();
+        // The waitlist may not be loaded with the event, so read it first
+        Database db = Database.getInstance();
+        return db.getWaitlistEntries(event).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return getMapPoints(event, task.getResult(), cancellationToken, onPointsLoaded);
+        });
+    }
+
+    /**
+     * Builds the map points for an event whose waitlist has been loaded.
+     *
+     * @param event             the event whose participant locations should be resolved
+     * @param waitlistEntrants  the event's waitlist entries
+     * @param cancellationToken stops the entrant lookup when cancellation is requested,
+     *                          or null
+     * @param onPointsLoaded    receives the points of each loaded batch, or null
+     * @return a task that resolves to a list of all MapPoints for the event
+     */
+    private Task<List<MapPoint>> getMapPoints(Event event, List<WaitlistEntry> waitlistEntrants,
+                                              CancellationToken cancellationToken,
+                                              Consumer<List<MapPoint>> onPointsLoaded) {
+        Database db = Database.getInstance();
+        List<String> hardwareIDs = new ArrayList<>();
         List<MapPoint.Status> statuses = new ArrayList<>();
 
         // --- WAITLISTED (WaitlistEntry -> hardware ID) ---
-        ArrayList<WaitlistEntry> waitlistEntrants = event.getWaitListEntrants();
         Log.d("OrganizerEventsMapFrag", "Waitlist Entrys: " + waitlistEntrants);
         if (waitlistEntrants != null) {
             for (WaitlistEntry entry : waitlistEntrants) {
@@ -258,7 +325,7 @@ public class OrganizerEventsMapFragment extends Fragment {
                 String hardwareID = entry.getEntrantHardwareID();
                 if (hardwareID == null || hardwareID.isEmpty()) continue;
 
-                lookupTasks.add(db.getUser(hardwareID));
+                hardwareIDs.add(hardwareID);
                 statuses.add(MapPoint.Status.WAITLISTED);
             }
         }
@@ -270,7 +337,7 @@ public class OrganizerEventsMapFragment extends Fragment {
             for (String hardwareID : invitedIds) {
                 if (hardwareID == null || hardwareID.isEmpty()) continue;
 
-                lookupTasks.add(db.getUser(hardwareID));
+                hardwareIDs.add(hardwareID);
                 statuses.add(MapPoint.Status.INVITED);
             }
         }
@@ -282,7 +349,7 @@ public class OrganizerEventsMapFragment extends Fragment {
             for (String hardwareID : acceptedIds) {
                 if (hardwareID == null || hardwareID.isEmpty()) continue;
 
-                lookupTasks.add(db.getUser(hardwareID));
+                hardwareIDs.add(hardwareID);
                 statuses.add(MapPoint.Status.ACCEPTED);
             }
         }
@@ -294,61 +361,90 @@ public class OrganizerEventsMapFragment extends Fragment {
             for (String hardwareID : declinedIds) {
                 if (hardwareID == null || hardwareID.isEmpty()) continue;
 
-                lookupTasks.add(db.getUser(hardwareID));
+                hardwareIDs.add(hardwareID);
                 statuses.add(MapPoint.Status.DENIED);
             }
         }
 
         // No entrants at all
-        if (lookupTasks.isEmpty()) {
+        if (hardwareIDs.isEmpty()) {
             return Tasks.forResult(new ArrayList<>());
         }
 
-        // Wait until all lookups complete, then walk lookupTasks in order
-        return Tasks.whenAllComplete(lookupTasks)
+        // Look up all users in a few batched queries, then walk hardwareIDs in order
+        return db.getUsersByIds(hardwareIDs, cancellationToken, (chunkIds, chunkUsers) -> {
+                    if (onPointsLoaded != null) {
+                        onPointsLoaded.accept(toMapPoints(hardwareIDs, statuses, chunkUsers, false));
+                    }
+                })
                 .continueWith(task -> {
-                    List<MapPoint> mapPoints = new ArrayList<>();
-
-                    for (int i = 0; i < lookupTasks.size(); i++) {
-                        Task<User> userTask = lookupTasks.get(i);
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    return toMapPoints(hardwareIDs, statuses, task.getResult(), true);
+                });
+    }
 
-                        if (!userTask.isSuccessful()) {
-                            Log.w("OrganizerEventsMapFrag",
-                                    "Failed to fetch user for map point", userTask.getException());
-                            continue;
-                        }
+    /**
+     * Converts the looked-up users into map points, keeping only Entrants who have
+     * geolocation enabled and a stored location.
+     *
+     * @param hardwareIDs the participant hardware IDs, in display order
+     * @param statuses    the status of each participant, same index as hardwareIDs
+     * @param usersById   the users that have been looked up, by hardware ID
+     * @param complete    whether usersById holds every user, so that skipped
+     *                    participants are worth a warning rather than belonging to
+     *                    another batch
+     * @return the map points for the participants found in usersById
+     */
+    private List<MapPoint> toMapPoints(List<String> hardwareIDs, List<MapPoint.Status> statuses,
+                                       Map<String, User> usersById, boolean complete) {
+        List<MapPoint> mapPoints = new ArrayList<>();
+
+        for (int i = 0; i < hardwareIDs.size(); i++) {
+            User user = usersById.get(hardwareIDs.get(i));
+            if (!(user instanceof Entrant)) {
+                // This shouldn't happen for event participants, but be safe
+                if (complete) {
+                    Log.w("OrganizerEventsMapFrag",
+                            "User is not an Entrant, skipping: " + hardwareIDs.get(i));
+                }
+                continue;
+            }
 
-                        User user = userTask.getResult();
-                        if (!(user instanceof Entrant)) {
-                            // This shouldn't happen for event participants, but be safe
-                            Log.w("OrganizerEventsMapFrag",
-                                    "User is not an Entrant, skipping: " + (user != null ? user.getHardwareID() : "null"));
-                            continue;
-                        }
+            Entrant entrant = (Entrant) user;
 
-                        Entrant entrant = (Entrant) user;
-                        if (entrant == null) continue;
+            // Only use geo-location for those who have it enabled
+            if (entrant.getUseGeolocation()) {
 
-                        // Only use geo-location for those who have it enabled
-                        if (entrant.getUseGeolocation() == true) {
+                com.google.firebase.firestore.GeoPoint location = entrant.getLocation();
+                if (location == null) {
+                    if (complete) {
+                        Log.w("OrganizerEventsMapFrag",
+                                "Entrant has null location: "
+                                        + entrant.getFirstName() + " " + entrant.getLastName());
+                    }
+                    continue;
+                }
 
-                            com.google.firebase.firestore.GeoPoint location = entrant.getLocation();
-                            if (location == null) {
-                                Log.w("OrganizerEventsMapFrag",
-                                        "Entrant has null location: "
-                                                + entrant.getFirstName() + " " + entrant.getLastName());
-                                continue;
-                            }
+                String label = entrant.getFirstName() + " " + entrant.getLastName();
+                MapPoint.Status status = statuses.get(i); // same index as hardwareIDs
 
-                            String label = entrant.getFirstName() + " " + entrant.getLastName();
-                            MapPoint.Status status = statuses.get(i); // same index as lookupTasks
+                mapPoints.add(new MapPoint(location, label, status));
+            }
+        }
 
-                            mapPoints.add(new MapPoint(location, label, status));
-                        }
-                    }
+        return mapPoints;
+    }
 
-                    return mapPoints;
-                });
+    /**
+     * Cancels the entrant lookup for the selected event, if one is running.
+     */
+    private void cancelMapPointsLoad() {
+        if (mapPointsLoad != null) {
+            mapPointsLoad.cancel();
+            mapPointsLoad = null;
+        }
     }
 
     /**
@@ -483,4 +579,13 @@ public class OrganizerEventsMapFragment extends Fragment {
         super.onPause();
         if (mapView != null) mapView.onPause(); // needed for osmdroid
     }
+
+    /**
+     * Stops looking up entrants for the selected event once the map is gone.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        cancelMapPointsLoad();
+    }
 }
\ No newline at end of file
@@ -22,9 +22,11 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.zypherevent.Database;
 import com.example.zypherevent.Event;
+import com.example.zypherevent.Notification;
 import com.example.zypherevent.R;
 import com.example.zypherevent.WaitlistEntry;
 import com.example.zypherevent.notifications.NotificationService;
+import com.google.android.gms.tasks.Tasks;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -106,7 +108,7 @@ public class OrganizerLotteryFragment extends Fragment {
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        db = new Database();
+        db = Database.getInstance();
 
         // Bind to NotificationService
         Intent intent = new Intent(getContext(), NotificationService.class);
@@ -154,12 +156,18 @@ public class OrganizerLotteryFragment extends Fragment {
         db.getEvent(eventId)
                 .addOnSuccessListener(event -> {
                     currentEvent = event;
-                    if (currentEvent != null && currentEvent.getWaitListEntrants() != null) {
-                        waitlistEntries.clear();
-                        waitlistEntries.addAll(currentEvent.getWaitListEntrants());
-                        waitlistAdapter.notifyDataSetChanged();
-                        Log.d(TAG, "Loaded " + waitlistEntries.size() + " entrants from waitlist");
+                    if (currentEvent == null) {
+                        return;
                     }
+                    // The lottery draws from every entrant, so load the whole waitlist
+                    db.getWaitlistEntries(currentEvent)
+                            .addOnSuccessListener(entries -> {
+                                waitlistEntries.clear();
+                                waitlistEntries.addAll(entries);
+                                waitlistAdapter.notifyDataSetChanged();
+                                Log.d(TAG, "Loaded " + waitlistEntries.size() + " entrants from waitlist");
+                            })
+                            .addOnFailureListener(e -> Log.e(TAG, "Error loading waitlist", e));
                 })
                 .addOnFailureListener(e -> Log.e(TAG, "Error loading event", e));
     }
@@ -245,8 +253,18 @@ public class OrganizerLotteryFragment extends Fragment {
         // They stay for future lottery runs.
         Log.d(TAG, entrantsWithoutInvite.size() + " entrants remain on waitlist for future lottery");
 
-        // Persist updated event
+        // Persist updated event. A waitlist kept in the subcollection is not
+        // written by setEventData, so the selected entries are removed from it.
+        List<String> invitedIDs = new ArrayList<>();
+        for (WaitlistEntry entry : entrantsToInvite) {
+            invitedIDs.add(entry.getEntrantHardwareID());
+        }
+        boolean inSubcollection = currentEvent.getWaitlistStorageMode() == Event.WaitlistStorageMode.SUBCOLLECTION;
+
         db.setEventData(eventId, currentEvent)
+                .onSuccessTask(v -> inSubcollection
+                        ? db.removeEntrantsFromWaitlist(eventId, invitedIDs)
+                        : Tasks.<Void>forResult(null))
                 .addOnSuccessListener(v -> {
                     Log.d(TAG, "Successfully updated event with lottery results");
 
@@ -287,7 +305,7 @@ public class OrganizerLotteryFragment extends Fragment {
         }
 
         notificationService.sendBulkNotifications(organizerID, entrantIDs, title, message,
-                currentEvent.getUniqueEventID(), true);
+                currentEvent.getUniqueEventID(), true, Notification.Category.INVITATION);
         Log.d(TAG, "Invitation notification sent to: " + entrantIDs.size() + " entrants");
     }
 
@@ -313,7 +331,7 @@ public class OrganizerLotteryFragment extends Fragment {
         }
 
         notificationService.sendBulkNotifications(organizerID, entrantIDs, title, message,
-                currentEvent.getUniqueEventID(), false);
+                currentEvent.getUniqueEventID(), false, Notification.Category.UPDATE);
         Log.d(TAG, "Waitlist notifications sent to " + entrantIDs.size() + " entrants");
     }
 
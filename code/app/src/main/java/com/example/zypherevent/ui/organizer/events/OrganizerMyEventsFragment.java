@@ -40,6 +40,8 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.example.zypherevent.Database;
 import com.example.zypherevent.Event;
+import com.example.zypherevent.EventMapper;
+import com.example.zypherevent.Notification;
 import com.example.zypherevent.OrganizerActivity;
 import com.example.zypherevent.R;
 import com.example.zypherevent.Utils;
@@ -47,6 +49,7 @@ import com.example.zypherevent.WaitlistEntry;
 import com.example.zypherevent.notifications.NotificationService;
 import com.example.zypherevent.userTypes.Entrant;
 import com.example.zypherevent.userTypes.Organizer;
+import com.example.zypherevent.userTypes.User;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
@@ -59,6 +62,7 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Fragment that displays and manages events created by the current Organizer.
@@ -155,7 +159,7 @@ public class OrganizerMyEventsFragment extends Fragment implements OrganizerEven
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        db = new Database();
+        db = Database.getInstance();
 
         if (getActivity() instanceof OrganizerActivity) {
             organizerUser = ((OrganizerActivity) getActivity()).getOrganizerUser();
@@ -471,14 +475,24 @@ public class OrganizerMyEventsFragment extends Fragment implements OrganizerEven
 
         switch (selectedStatus) {
             case "Waitlisted":
-                if (event.getWaitListEntrants() != null) {
-                    for (WaitlistEntry entry : event.getWaitListEntrants()) {
-                        if (entry != null && entry.getEntrantHardwareID() != null) {
-                            entrantIds.add(entry.getEntrantHardwareID());
-                        }
-                    }
-                }
-                break;
+                // The waitlist may not be loaded with the event, so read it first
+                db.getWaitlistEntries(event)
+                        .addOnSuccessListener(waitlist -> {
+                            List<String> waitlistIds = new ArrayList<>();
+                            for (WaitlistEntry entry : waitlist) {
+                                if (entry != null && entry.getEntrantHardwareID() != null) {
+                                    waitlistIds.add(entry.getEntrantHardwareID());
+                                }
+                            }
+                            confirmAndSendNotifications(event, selectedStatus, waitlistIds, customHeader,
+                                    customBody, sendButton, dialog);
+                        })
+                        .addOnFailureListener(e -> {
+                            Log.e(TAG, "Failed to load waitlist", e);
+                            Toast.makeText(getContext(), "Failed to load the waitlist.", Toast.LENGTH_SHORT).show();
+                            sendButton.setEnabled(true);
+                        });
+                return;
 
             case "Accepted":
                 if (event.getInvitedEntrants() != null) {
@@ -496,6 +510,23 @@ public class OrganizerMyEventsFragment extends Fragment implements OrganizerEven
                 break;
         }
 
+        confirmAndSendNotifications(event, selectedStatus, entrantIds, customHeader, customBody, sendButton, dialog);
+    }
+
+    /**
+     * Asks the organizer to confirm, then sends the custom notification to the
+     * given entrants.
+     *
+     * @param event          The event to send notifications for
+     * @param selectedStatus The status group being notified
+     * @param entrantIds     The hardware IDs of the entrants in that group
+     * @param customHeader   The custom notification title
+     * @param customBody     The custom notification message
+     * @param sendButton     The send button to re-enable after completion
+     * @param dialog         The dialog to dismiss after sending
+     */
+    private void confirmAndSendNotifications(Event event, String selectedStatus, List<String> entrantIds,
+            String customHeader, String customBody, Button sendButton, AlertDialog dialog) {
         if (entrantIds.isEmpty()) {
             new AlertDialog.Builder(getContext())
                     .setTitle("No Entrant Found")
@@ -535,7 +566,8 @@ public class OrganizerMyEventsFragment extends Fragment implements OrganizerEven
     }
 
     /**
-     * Sends bulk notifications using Database directly.
+     * Sends bulk notifications through the NotificationService and reports
+     * completion once every batch has been committed.
      */
     private void sendBulkNotificationsViaService(List<String> entrantIds, String header, String body, Long eventId,
             boolean isInvitation,
@@ -549,9 +581,20 @@ public class OrganizerMyEventsFragment extends Fragment implements OrganizerEven
         }
 
         notificationService.sendBulkNotifications(organizerUser.getHardwareID(), entrantIds, header, body, eventId,
-                isInvitation);
-        Log.d(TAG, "Sent " + entrantIds.size() + " notifications via NotificationService");
-        onSuccess.run();
+                isInvitation, isInvitation ? Notification.Category.INVITATION : Notification.Category.CUSTOM)
+                .addOnSuccessListener(result -> {
+                    Log.d(TAG, "Sent " + result.getSucceededWrites() + " of " + entrantIds.size()
+                            + " notifications via NotificationService");
+                    if (result.isFullySuccessful()) {
+                        onSuccess.run();
+                    } else {
+                        onFailure.run();
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to send bulk notifications", e);
+                    onFailure.run();
+                });
     }
 
     /**
@@ -652,25 +695,19 @@ public class OrganizerMyEventsFragment extends Fragment implements OrganizerEven
             return Tasks.forResult("");
         }
 
-        List<Task<Entrant>> userTasks = new ArrayList<>();
-
-        for (String entrantId : acceptedList) {
-            Task<Entrant> t = db.getUser(entrantId).continueWith(task -> {
-                if (!task.isSuccessful()) {
-                    throw task.getException();
-                }
-                return (Entrant) task.getResult();
-            });
-            userTasks.add(t);
-        }
-
-        return Tasks.whenAllSuccess(userTasks).continueWith(task -> {
-            @SuppressWarnings("unchecked")
-            List<Entrant> entrants = (List<Entrant>) (List<?>) task.getResult();
+        return db.getUsersByIds(acceptedList).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            Map<String, User> usersById = task.getResult();
 
+            // Keep the accepted list's order, skipping users that no longer exist
             List<String> names = new ArrayList<>();
-            for (Entrant e : entrants) {
-                names.add(e.getFirstName() + " " + e.getLastName());
+            for (String entrantId : acceptedList) {
+                User user = usersById.get(entrantId);
+                if (user != null) {
+                    names.add(user.getFirstName() + " " + user.getLastName());
+                }
             }
             return String.join(", ", names);
         });
@@ -736,19 +773,40 @@ public class OrganizerMyEventsFragment extends Fragment implements OrganizerEven
 
         List<WaitlistEntry> finalWaitlistEntrants = waitlistEntrants;
 
-        waitlistListener = eventRef.addSnapshotListener((snapshot, e) -> {
-            if (e != null) {
-                Log.w(TAG, "Waitlist listen failed", e);
-                return;
-            }
+        // Listeners are also removed if the view goes away while the dialog is open
+        if (event.getWaitlistStorageMode() == Event.WaitlistStorageMode.SUBCOLLECTION) {
+            // Each entrant is its own document, so listen to the subcollection
+            waitlistListener = db.getListenerRegistry().register(getViewLifecycleOwner(),
+                    eventRef.collection(Database.WAITLIST_SUBCOLLECTION)
+                            .orderBy("timeJoined")
+                            .addSnapshotListener((snapshot, e) -> {
+                                if (e != null) {
+                                    Log.w(TAG, "Waitlist listen failed", e);
+                                    return;
+                                }
+
+                                if (snapshot != null) {
+                                    finalWaitlistEntrants.clear();
+                                    finalWaitlistEntrants.addAll(snapshot.toObjects(WaitlistEntry.class));
+                                    waitlistAdapter.notifyDataSetChanged();
+                                }
+                            }));
+        } else {
+            waitlistListener = db.getListenerRegistry().register(getViewLifecycleOwner(),
+                    eventRef.addSnapshotListener((snapshot, e) -> {
+                        if (e != null) {
+                            Log.w(TAG, "Waitlist listen failed", e);
+                            return;
+                        }
 
-            if (snapshot != null && snapshot.exists()) {
-                ArrayList<WaitlistEntry> updated = db.parseWaitlistEntryList(snapshot.get("waitListEntrants"));
-                finalWaitlistEntrants.clear();
-                finalWaitlistEntrants.addAll(updated);
-                waitlistAdapter.notifyDataSetChanged();
-            }
-        });
+                        if (snapshot != null && snapshot.exists()) {
+                            ArrayList<WaitlistEntry> updated = EventMapper.parseWaitlistEntryList(snapshot.get("waitListEntrants"));
+                            finalWaitlistEntrants.clear();
+                            finalWaitlistEntrants.addAll(updated);
+                            waitlistAdapter.notifyDataSetChanged();
+                        }
+                    }));
+        }
 
         Button runLotteryButton = dialogView.findViewById(R.id.run_lottery);
         EditText etSampleSize = dialogView.findViewById(R.id.etSampleSize);
@@ -854,7 +912,7 @@ public class OrganizerMyEventsFragment extends Fragment implements OrganizerEven
                 + ". Please accept to claim your spot before the deadline.";
 
         notificationService.sendBulkNotifications(organizerUser.getHardwareID(), invitedIds, title, message,
-                event.getUniqueEventID(), true);
+                event.getUniqueEventID(), true, Notification.Category.INVITATION);
         Log.d(TAG, "Invitation notification sent to: " + invitedIds.size() + " entrants");
     }
 
@@ -884,7 +942,7 @@ public class OrganizerMyEventsFragment extends Fragment implements OrganizerEven
 
         if (!notSelectedIds.isEmpty()) {
             notificationService.sendBulkNotifications(organizerUser.getHardwareID(), notSelectedIds, title, message,
-                    event.getUniqueEventID(), false);
+                    event.getUniqueEventID(), false, Notification.Category.UPDATE);
         }
         Log.d(TAG, "Waitlist notifications sent to " + notSelectedIds.size() + " entrants");
     }
@@ -965,7 +1023,23 @@ public class OrganizerMyEventsFragment extends Fragment implements OrganizerEven
             return;
         }
 
-        ArrayList<WaitlistEntry> waitlist = event.getWaitListEntrants();
+        // The waitlist may not be loaded with the event, so read it first
+        db.getWaitlistEntries(event)
+                .addOnSuccessListener(waitlist -> drawReplacementFrom(event, waitlist))
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to load waitlist: " + e.getMessage(), e);
+                    Toast.makeText(getContext(), "Error loading the waitlist pool.", Toast.LENGTH_SHORT).show();
+                });
+    }
+
+    /**
+     * Draws one replacement applicant from an event's loaded waitlist and moves
+     * them into the invited list.
+     *
+     * @param event    the event to draw a replacement entrant for
+     * @param waitlist the event's waitlist entries
+     */
+    private void drawReplacementFrom(Event event, List<WaitlistEntry> waitlist) {
         if (waitlist == null || waitlist.isEmpty()) {
             Toast.makeText(getContext(), "No entrants left in the waitlist pool.", Toast.LENGTH_SHORT).show();
             return;
@@ -1424,9 +1498,7 @@ public class OrganizerMyEventsFragment extends Fragment implements OrganizerEven
                                 .show();
                         return;
                     }
-                    int currentWaitlistSize = event.getWaitListEntrants() != null
-                            ? event.getWaitListEntrants().size()
-                            : 0;
+                    int currentWaitlistSize = event.getWaitlistCount();
                     if (limit < currentWaitlistSize) {
                         Toast.makeText(getContext(),
                                 "Waitlist limit cannot be less than current waitlist size (" + currentWaitlistSize
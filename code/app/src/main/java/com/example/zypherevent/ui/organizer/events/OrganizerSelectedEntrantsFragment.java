@@ -27,16 +27,18 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.zypherevent.Database;
 import com.example.zypherevent.Event;
+import com.example.zypherevent.Notification;
 import com.example.zypherevent.R;
 import com.example.zypherevent.notifications.NotificationService;
 import com.example.zypherevent.userTypes.Entrant;
 import com.example.zypherevent.userTypes.User;
-import com.google.android.gms.tasks.Task;
-import com.google.android.gms.tasks.Tasks;
+import com.google.android.gms.tasks.CancellationTokenSource;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 /**
  * A fragment that displays lists of entrants for a specific event, categorized
@@ -73,6 +75,8 @@ public class OrganizerSelectedEntrantsFragment extends Fragment {
     private EntrantInfoAdapter adapter;
     private TextView groupLabel;
     private String currentSelectedGroup;
+    // Cancels the lookup for the previous group when another group is selected
+    private CancellationTokenSource entrantsLoad;
 
     private NotificationService notificationService;
     private boolean serviceBound = false;
@@ -130,7 +134,7 @@ public class OrganizerSelectedEntrantsFragment extends Fragment {
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        db = new Database();
+        db = Database.getInstance();
 
         Intent intent = new Intent(getContext(), NotificationService.class);
         getContext().bindService(intent, serviceConnection, Context.BIND_AUTO_CREATE);
@@ -316,14 +320,10 @@ public class OrganizerSelectedEntrantsFragment extends Fragment {
      * selected group
      * (e.g., "Accepted Entrants"). If the list is empty, it clears the adapter.
      * Otherwise,
-     * it creates a list of asynchronous tasks to fetch {@link User} data for each
-     * hardware ID.
-     * <p>
-     * Using {@link Tasks#whenAllComplete(java.util.Collection)}, it waits for all
-     * database lookups
-     * to finish. It then processes the results, filters for successful lookups that
-     * return an
-     * {@link Entrant}, and compiles a list of these entrants. Finally, it updates
+     * it fetches the {@link User} data for all hardware IDs with
+     * {@link Database#getUsersByIds(java.util.Collection)}, which batches the
+     * lookups into a few queries. It then filters for users that are an
+     * {@link Entrant}, and compiles a list of these entrants in group order. Finally, it updates
      * the
      * {@link EntrantInfoAdapter} with the new list of entrants on the main thread,
      * or displays
@@ -337,32 +337,30 @@ public class OrganizerSelectedEntrantsFragment extends Fragment {
     private void loadEntrantsForSelectedGroup(String selectedGroup) {
         List<String> hardwareIds = getHardwareIdsForGroup(selectedGroup);
 
-        if (hardwareIds == null || hardwareIds.isEmpty()) {
-            adapter.updateData(new ArrayList<>(), selectedGroup.equals("Invited Entrants"));
-            return;
-        }
-
-        List<Task<User>> lookupTasks = new ArrayList<>();
-        for (String id : hardwareIds) {
-            if (id != null && !id.isEmpty()) {
-                lookupTasks.add(db.getUser(id));
-            }
+        // Results for a previously selected group must not replace this one
+        if (entrantsLoad != null) {
+            entrantsLoad.cancel();
         }
+        entrantsLoad = new CancellationTokenSource();
 
-        if (lookupTasks.isEmpty()) {
+        if (hardwareIds == null || hardwareIds.isEmpty()) {
             adapter.updateData(new ArrayList<>(), selectedGroup.equals("Invited Entrants"));
             return;
         }
 
-        Tasks.whenAllComplete(lookupTasks)
+        db.getUsersByIds(hardwareIds, entrantsLoad.getToken(), null)
                 .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    Map<String, User> usersById = task.getResult();
+
+                    // Keep the group's order, skipping users that are missing or not entrants
                     List<Entrant> resultEntrants = new ArrayList<>();
-                    for (Task<User> userTask : lookupTasks) {
-                        if (userTask.isSuccessful()) {
-                            User user = userTask.getResult();
-                            if (user instanceof Entrant) {
-                                resultEntrants.add((Entrant) user);
-                            }
+                    for (String id : hardwareIds) {
+                        User user = usersById.get(id);
+                        if (user instanceof Entrant) {
+                            resultEntrants.add((Entrant) user);
                         }
                     }
                     return resultEntrants;
@@ -371,6 +369,9 @@ public class OrganizerSelectedEntrantsFragment extends Fragment {
                     adapter.updateData(resultEntrants, selectedGroup.equals("Invited Entrants"));
                 })
                 .addOnFailureListener(e -> {
+                    if (e instanceof CancellationException) {
+                        return;
+                    }
                     Log.e(TAG, "Failed to load entrants", e);
                     Toast.makeText(getContext(), "Failed to load details.", Toast.LENGTH_SHORT).show();
                 });
@@ -441,7 +442,8 @@ public class OrganizerSelectedEntrantsFragment extends Fragment {
                     header,
                     body,
                     currentEvent.getUniqueEventID(),
-                    false)
+                    false,
+                    Notification.Category.CANCELLATION)
                     .addOnSuccessListener(
                             v -> Log.d(TAG, "Cancellation notification sent to: " + entrant.getHardwareID()))
                     .addOnFailureListener(e -> Log.e(TAG, "Failed to send cancellation notification", e));
@@ -453,6 +455,9 @@ public class OrganizerSelectedEntrantsFragment extends Fragment {
     @Override
     public void onDestroy() {
         super.onDestroy();
+        if (entrantsLoad != null) {
+            entrantsLoad.cancel();
+        }
         if (serviceBound) {
             getContext().unbindService(serviceConnection);
             serviceBound = false;
@@ -14,8 +14,6 @@ import com.example.zypherevent.R;
 import com.example.zypherevent.WaitlistEntry;
 import com.example.zypherevent.userTypes.Entrant;
 import com.example.zypherevent.userTypes.User;
-import com.google.android.gms.tasks.Task;
-import com.google.android.gms.tasks.Tasks;
 
 import java.util.Collections;
 import java.util.Comparator;
@@ -35,7 +33,7 @@ public class WaitlistEntrantAdapter extends RecyclerView.Adapter<WaitlistEntrant
     private List<WaitlistEntry> entrantList;
     private OnAcceptClickListener acceptListener;
     private java.util.Map<String, Entrant> entrantCache = new java.util.HashMap<>();
-    private Database db = new Database();
+    private Database db = Database.getInstance();
 
     /**
      * Interface for handling accept button clicks
@@ -122,26 +120,17 @@ public class WaitlistEntrantAdapter extends RecyclerView.Adapter<WaitlistEntrant
             return;
         }
 
-        // Build lookup tasks for each unique hardware ID
-        java.util.List<Task<User>> lookupTasks = new java.util.ArrayList<>();
-        for (String id : idList) {
-            lookupTasks.add(db.getUser(id));
-        }
-
-        // When all user lookups succeed, build a map and sort
-        Tasks.whenAllSuccess(lookupTasks)
+        // Look up all entrants in a few batched queries, then build a map and sort
+        db.getUsersByIds(idList)
                 .addOnCompleteListener(task -> {
                     Map<String, Entrant> entrantsById = new HashMap<>();
 
                     if (task.isSuccessful()) {
-                        java.util.List<?> results = task.getResult();
-                        if (results != null) {
-                            // results are in the same order as lookupTasks / idList
-                            for (int i = 0; i < results.size() && i < idList.size(); i++) {
-                                Object obj = results.get(i);
-                                if (obj instanceof Entrant) {
-                                    entrantsById.put(idList.get(i), (Entrant) obj);
-                                }
+                        for (Map.Entry<String, User> result : task.getResult().entrySet()) {
+                            if (result.getValue() instanceof Entrant) {
+                                Entrant entrant = (Entrant) result.getValue();
+                                entrantsById.put(result.getKey(), entrant);
+                                entrantCache.put(result.getKey(), entrant);
                             }
                         }
                     } else {
@@ -0,0 +1,140 @@
+package com.example.zypherevent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Unit tests for the ranking and bookkeeping of {@link EventSearchIndex}.
+ */
+public class EventSearchIndexTest {
+
+    private EventSearchIndex index;
+
+    /**
+     * Runs before each @Test method.
+     */
+    @Before
+    public void setUp() {
+        index = new EventSearchIndex();
+    }
+
+    /**
+     * Builds the summary of an event with the given searchable fields.
+     */
+    private static EventSummary summary(long id, String name, String description, String location, Date startTime) {
+        Event event = new Event(id, name, description, startTime, location, null, null, "organizer", false);
+        return new EventSummary(event);
+    }
+
+    /**
+     * Returns the IDs of the events found for a query, in ranked order.
+     */
+    private List<Long> searchIds(String query) {
+        List<Long> ids = new ArrayList<>();
+        for (EventSummary result : index.search(query)) {
+            ids.add(result.getUniqueEventID());
+        }
+        return ids;
+    }
+
+    /**
+     * Tests that a match in the name ranks above a match in the location, which
+     * ranks above a match in the description.
+     */
+    @Test
+    public void testNameRanksAboveLocationAndDescription() {
+        index.put(summary(1L, "Evening", "Live jazz music", "Town Square", null));
+        index.put(summary(2L, "Concert", "Strings and brass", "Jazz Hall", null));
+        index.put(summary(3L, "Jazz Night", "An evening out", "Town Square", null));
+
+        assertEquals(Arrays.asList(3L, 2L, 1L), searchIds("jazz"));
+    }
+
+    /**
+     * Tests that exact names rank above name prefixes, which rank above words
+     * starting with the query, which rank above other substrings.
+     */
+    @Test
+    public void testExactAndPrefixMatchesRankFirst() {
+        index.put(summary(1L, "Bikrayoga", null, null, null));
+        index.put(summary(2L, "Morning Yoga", null, null, null));
+        index.put(summary(3L, "Yoga Class", null, null, null));
+        index.put(summary(4L, "Yoga", null, null, null));
+
+        assertEquals(Arrays.asList(4L, 3L, 2L, 1L), searchIds("YOGA"));
+    }
+
+    /**
+     * Tests that equally relevant events are ordered by start time, with events
+     * without a start time last.
+     */
+    @Test
+    public void testEqualScoresOrderedByStartTime() {
+        index.put(summary(1L, "Run Team", null, null, null));
+        index.put(summary(2L, "Run Club", null, null, new Date(2_000_000L)));
+        index.put(summary(3L, "Run Crew", null, null, new Date(1_000_000L)));
+
+        assertEquals(Arrays.asList(3L, 2L, 1L), searchIds("run"));
+    }
+
+    /**
+     * Tests that queries shorter than a trigram are still matched.
+     */
+    @Test
+    public void testShortQuery() {
+        index.put(summary(1L, "Fun 5K Run", null, null, null));
+        index.put(summary(2L, "Book Club", null, null, null));
+
+        assertEquals(Arrays.asList(1L), searchIds("5k"));
+    }
+
+    /**
+     * Tests that putting an event again replaces its indexed text.
+     */
+    @Test
+    public void testPutReplacesEvent() {
+        index.put(summary(1L, "Chess Meetup", null, null, null));
+        index.put(summary(1L, "Checkers Meetup", null, null, null));
+
+        assertEquals(1, index.size());
+        assertTrue("Old name should no longer match", searchIds("chess").isEmpty());
+        assertEquals(Arrays.asList(1L), searchIds("checkers"));
+    }
+
+    /**
+     * Tests that removed and cleared events are no longer found.
+     */
+    @Test
+    public void testRemoveAndClear() {
+        index.putAll(Arrays.asList(
+                summary(1L, "Pottery Workshop", null, null, null),
+                summary(2L, "Pottery Sale", null, null, null)));
+
+        index.remove(1L);
+        assertEquals(Arrays.asList(2L), searchIds("pottery"));
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(searchIds("pottery").isEmpty());
+    }
+
+    /**
+     * Tests that an empty or missing query matches nothing.
+     */
+    @Test
+    public void testEmptyQueryMatchesNothing() {
+        index.put(summary(1L, "Open Mic", null, null, null));
+
+        assertTrue(searchIds("").isEmpty());
+        assertTrue(searchIds("   ").isEmpty());
+        assertTrue(searchIds(null).isEmpty());
+    }
+}
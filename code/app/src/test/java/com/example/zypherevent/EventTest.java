@@ -0,0 +1,102 @@
+package com.example.zypherevent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the lazily read entrant lists of {@link Event}.
+ */
+public class EventTest {
+
+    private Event event;
+
+    /** The entrant list fields read from the document, in order */
+    private List<String> reads;
+
+    /**
+     * Runs before each @Test method. Gives the event a document whose lists
+     * each hold one entrant and records every field read from it.
+     */
+    @Before
+    public void setUp() {
+        event = new Event(1L, "Event", null, null, null, null, null, "organizer", false);
+        reads = new ArrayList<>();
+
+        Map<String, Object> waitlistEntry = new HashMap<>();
+        waitlistEntry.put("entrantHardwareID", "waiting");
+        Map<String, Object> document = new HashMap<>();
+        document.put("waitListEntrants", Collections.singletonList(waitlistEntry));
+        document.put("invitedEntrants", Collections.singletonList("invited"));
+        document.put("acceptedEntrants", Collections.singletonList("accepted"));
+        document.put("declinedEntrants", Collections.singletonList("declined"));
+        document.put("cancelledEntrants", Collections.singletonList("cancelled"));
+
+        event.setEntrantListSource(field -> {
+            reads.add(field);
+            return document.get(field);
+        });
+    }
+
+    /**
+     * Tests that nothing is read from the document until a list is asked for.
+     */
+    @Test
+    public void testNoListReadUntilRequested() {
+        event.getWaitlistCount();
+        event.getEventName();
+        assertTrue(reads.isEmpty());
+    }
+
+    /**
+     * Tests that reading one list leaves the others untouched, and that a list
+     * is read from the document only once.
+     */
+    @Test
+    public void testOnlyRequestedListIsRead() {
+        assertEquals(Collections.singletonList("invited"), event.getInvitedEntrants());
+        assertEquals(Collections.singletonList("invited"), event.getInvitedEntrants());
+        assertEquals(Collections.singletonList("invitedEntrants"), reads);
+
+        assertEquals("waiting", event.getWaitListEntrants().get(0).getEntrantHardwareID());
+        assertEquals(Arrays.asList("invitedEntrants", "waitListEntrants"), reads);
+    }
+
+    /**
+     * Tests that a list set directly is not replaced by the document's value.
+     */
+    @Test
+    public void testSetListIsNotReadFromDocument() {
+        event.setAcceptedEntrants(new ArrayList<>(Arrays.asList("a", "b")));
+
+        assertEquals(Arrays.asList("a", "b"), event.getAcceptedEntrants());
+        assertTrue(reads.isEmpty());
+    }
+
+    /**
+     * Tests that a copy reads its unread lists from the same document without
+     * reading them for the original.
+     */
+    @Test
+    public void testCopyKeepsListsUnread() {
+        event.getDeclinedEntrants();
+        Event copy = new Event(event);
+
+        assertEquals(Collections.singletonList("cancelled"), copy.getCancelledEntrants());
+        assertEquals(Arrays.asList("declinedEntrants", "cancelledEntrants"), reads);
+        assertEquals(Collections.singletonList("declined"), copy.getDeclinedEntrants());
+        assertEquals(Arrays.asList("declinedEntrants", "cancelledEntrants"), reads);
+
+        event.getCancelledEntrants();
+        assertEquals(Arrays.asList("declinedEntrants", "cancelledEntrants", "cancelledEntrants"), reads);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.zypherevent;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+
+/**
+ * Unit tests for {@link TaskFanOut}. Loads are completed by hand and finished
+ * loads are handled on the calling thread.
+ */
+public class TaskFanOutTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    /**
+     * Starts a load per key that only finishes when the test completes it, and
+     * tracks how many are running at once.
+     */
+    private static class ManualLoader {
+        private final Map<String, TaskCompletionSource<String>> sources = new LinkedHashMap<>();
+        private int inFlight = 0;
+        private int maxInFlight = 0;
+
+        Task<String> load(String key) {
+            TaskCompletionSource<String> source = new TaskCompletionSource<>();
+            sources.put(key, source);
+            inFlight++;
+            maxInFlight = Math.max(maxInFlight, inFlight);
+            return source.getTask();
+        }
+
+        void complete(String key) {
+            inFlight--;
+            sources.get(key).setResult(key.toUpperCase());
+        }
+
+        void fail(String key, Exception e) {
+            inFlight--;
+            sources.get(key).setException(e);
+        }
+
+        List<String> started() {
+            return new ArrayList<>(sources.keySet());
+        }
+    }
+
+    /**
+     * Tests that no more than the given number of loads run at once, and that
+     * a new load starts as soon as one finishes.
+     */
+    @Test
+    public void testConcurrencyLimit() {
+        ManualLoader loader = new ManualLoader();
+        List<String> keys = Arrays.asList("a", "b", "c", "d", "e");
+        TaskFanOut<String, String> fanOut = TaskFanOut.start(keys, 2, loader::load, null, null, DIRECT);
+
+        assertEquals(Arrays.asList("a", "b"), loader.started());
+
+        loader.complete("a");
+        assertEquals(Arrays.asList("a", "b", "c"), loader.started());
+
+        loader.complete("c");
+        loader.complete("b");
+        loader.complete("d");
+        loader.complete("e");
+
+        assertEquals(2, loader.maxInFlight);
+        assertTrue(fanOut.getTask().isSuccessful());
+    }
+
+    /**
+     * Tests that results are in key order and reported to the listener in
+     * completion order.
+     */
+    @Test
+    public void testResultsInKeyOrder() {
+        ManualLoader loader = new ManualLoader();
+        List<String> reported = new ArrayList<>();
+        TaskFanOut<String, String> fanOut = TaskFanOut.start(Arrays.asList("a", "b", "c"), 3, loader::load,
+                (key, result) -> reported.add(key), null, DIRECT);
+
+        loader.complete("c");
+        loader.complete("b");
+        assertFalse(fanOut.getTask().isComplete());
+        loader.complete("a");
+
+        assertEquals(Arrays.asList("c", "b", "a"), reported);
+        assertEquals(Arrays.asList("A", "B", "C"), fanOut.getTask().getResult());
+    }
+
+    /**
+     * Tests that the first failed load fails the fan-out and stops new loads.
+     */
+    @Test
+    public void testFailureFailsFanOut() {
+        ManualLoader loader = new ManualLoader();
+        TaskFanOut<String, String> fanOut = TaskFanOut.start(Arrays.asList("a", "b", "c"), 1, loader::load,
+                null, null, DIRECT);
+
+        IllegalStateException failure = new IllegalStateException("Load failed");
+        loader.fail("a", failure);
+
+        assertSame(failure, fanOut.getTask().getException());
+        assertEquals(Arrays.asList("a"), loader.started());
+    }
+
+    /**
+     * Tests that cancelling stops new loads, drops the results of loads in
+     * flight and fails the fan-out with a CancellationException.
+     */
+    @Test
+    public void testCancelStopsNewLoads() {
+        ManualLoader loader = new ManualLoader();
+        List<String> reported = new ArrayList<>();
+        TaskFanOut<String, String> fanOut = TaskFanOut.start(Arrays.asList("a", "b", "c", "d"), 2, loader::load,
+                (key, result) -> reported.add(key), null, DIRECT);
+
+        fanOut.cancel();
+        loader.complete("a");
+        loader.complete("b");
+
+        assertTrue(fanOut.isCancelled());
+        assertEquals(Arrays.asList("a", "b"), loader.started());
+        assertTrue(reported.isEmpty());
+        assertTrue(fanOut.getTask().getException() instanceof CancellationException);
+    }
+
+    /**
+     * Tests that a fan-out over no keys finishes straight away.
+     */
+    @Test
+    public void testNoKeys() {
+        ManualLoader loader = new ManualLoader();
+        TaskFanOut<String, String> fanOut = TaskFanOut.start(Collections.<String>emptyList(), 2, loader::load,
+                null, null, DIRECT);
+
+        assertTrue(fanOut.getTask().isSuccessful());
+        assertTrue(fanOut.getTask().getResult().isEmpty());
+        assertTrue(loader.started().isEmpty());
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.zypherevent.notifications;
+
+import com.example.zypherevent.Notification;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Unit tests for the ordering, dropping and coalescing of
+ * {@link NotificationDisplayQueue}. Drain steps are run by hand instead of on
+ * the main thread.
+ */
+public class NotificationDisplayQueueTest {
+
+    /**
+     * Collects scheduled drain steps so a test can run them one at a time.
+     */
+    private static class ManualScheduler implements NotificationDisplayQueue.Scheduler {
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void schedule(Runnable task, long delayMillis) {
+            tasks.add(task);
+        }
+
+        /**
+         * Runs scheduled steps, including the ones they schedule, until none are
+         * left.
+         */
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.poll().run();
+            }
+        }
+    }
+
+    /**
+     * Records what the queue tells its listener.
+     */
+    private static class RecordingListener implements NotificationDisplayQueue.Listener {
+        private final List<Integer> superseded = new ArrayList<>();
+        private final List<Integer> dropped = new ArrayList<>();
+        private int idleCount = 0;
+
+        @Override
+        public void onSuperseded(NotificationDisplayQueue.Entry replaced) {
+            superseded.add(replaced.getNotificationId());
+        }
+
+        @Override
+        public void onDropped(NotificationDisplayQueue.Entry dropped) {
+            this.dropped.add(dropped.getNotificationId());
+        }
+
+        @Override
+        public void onIdle() {
+            idleCount++;
+        }
+    }
+
+    private ManualScheduler scheduler;
+    private RecordingListener listener;
+    private List<NotificationDisplayQueue.Entry> displayed;
+
+    /**
+     * Runs before each @Test method.
+     */
+    @Before
+    public void setUp() {
+        scheduler = new ManualScheduler();
+        listener = new RecordingListener();
+        displayed = new ArrayList<>();
+    }
+
+    /**
+     * Creates a queue that records what it shows.
+     */
+    private NotificationDisplayQueue newQueue(int capacity) {
+        NotificationDisplayQueue queue = new NotificationDisplayQueue(capacity, 100, displayed::add, scheduler);
+        queue.setListener(listener);
+        return queue;
+    }
+
+    /**
+     * Returns the IDs of the shown notifications, in display order.
+     */
+    private List<Integer> displayedIds() {
+        List<Integer> ids = new ArrayList<>();
+        for (NotificationDisplayQueue.Entry entry : displayed) {
+            ids.add(entry.getNotificationId());
+        }
+        return ids;
+    }
+
+    /**
+     * Tests that waiting notifications are shown by category, invitations first,
+     * and by arrival within a category.
+     */
+    @Test
+    public void testShowsByPriorityThenArrival() {
+        NotificationDisplayQueue queue = newQueue(10);
+        queue.offer(1, Notification.Category.UPDATE, "Update", "", 1L);
+        queue.offer(2, Notification.Category.CUSTOM, "Custom", "", 1L);
+        queue.offer(3, Notification.Category.INVITATION, "Invitation", "", 1L);
+        queue.offer(4, Notification.Category.UPDATE, "Update", "", 2L);
+        queue.offer(5, Notification.Category.CANCELLATION, "Cancellation", "", 1L);
+
+        assertEquals(5, queue.getDepth());
+        scheduler.runAll();
+
+        assertEquals(Arrays.asList(3, 5, 2, 1, 4), displayedIds());
+        assertEquals(5, queue.getShownCount());
+        assertEquals(5, queue.getMaxDepth());
+        assertEquals(0, queue.getDepth());
+        assertEquals(1, listener.idleCount);
+    }
+
+    /**
+     * Tests that a full queue drops its lowest-priority notification to make
+     * room for a more important one.
+     */
+    @Test
+    public void testDropsLowestPriorityWhenFull() {
+        NotificationDisplayQueue queue = newQueue(2);
+        queue.offer(1, Notification.Category.INVITATION, "Invitation", "", 1L);
+        queue.offer(2, Notification.Category.UPDATE, "Update", "", null);
+        queue.offer(3, Notification.Category.INVITATION, "Invitation", "", 2L);
+
+        assertEquals(Arrays.asList(2), listener.dropped);
+        assertEquals(1, queue.getDroppedCount());
+
+        scheduler.runAll();
+        assertEquals(Arrays.asList(1, 3), displayedIds());
+    }
+
+    /**
+     * Tests that a full queue drops a new notification that ranks below
+     * everything waiting.
+     */
+    @Test
+    public void testDropsNewNotificationWhenItRanksLowest() {
+        NotificationDisplayQueue queue = newQueue(1);
+        queue.offer(1, Notification.Category.INVITATION, "Invitation", "", 1L);
+        queue.offer(2, Notification.Category.UPDATE, "Update", "", null);
+
+        assertEquals(Arrays.asList(2), listener.dropped);
+        assertEquals(1, queue.getDepth());
+
+        scheduler.runAll();
+        assertEquals(Arrays.asList(1), displayedIds());
+    }
+
+    /**
+     * Tests that, when full, a new update replaces a waiting update about the
+     * same event and keeps its place.
+     */
+    @Test
+    public void testCoalescesUpdatesAboutSameEvent() {
+        NotificationDisplayQueue queue = newQueue(2);
+        queue.offer(1, Notification.Category.UPDATE, "Old update", "", 7L);
+        queue.offer(2, Notification.Category.UPDATE, "Other event", "", 8L);
+        queue.offer(3, Notification.Category.UPDATE, "New update", "", 7L);
+
+        assertEquals(Arrays.asList(1), listener.superseded);
+        assertTrue(listener.dropped.isEmpty());
+        assertEquals(1, queue.getCoalescedCount());
+        assertEquals(0, queue.getDroppedCount());
+
+        scheduler.runAll();
+        assertEquals(Arrays.asList(3, 2), displayedIds());
+        assertEquals("New update", displayed.get(0).getTitle());
+    }
+
+    /**
+     * Tests that clearing the queue stops drain steps scheduled before it, and
+     * that later notifications are still shown.
+     */
+    @Test
+    public void testClearStopsDraining() {
+        NotificationDisplayQueue queue = newQueue(10);
+        queue.offer(1, Notification.Category.INVITATION, "Invitation", "", 1L);
+        queue.clear();
+        scheduler.runAll();
+
+        assertTrue(displayed.isEmpty());
+        assertEquals(0, queue.getDepth());
+
+        queue.offer(2, Notification.Category.INVITATION, "Invitation", "", 2L);
+        scheduler.runAll();
+        assertEquals(Arrays.asList(2), displayedIds());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.zypherevent.ui.entrant.events;
+
+import com.example.zypherevent.Event;
+import com.example.zypherevent.EventSearchIndex;
+import com.example.zypherevent.EventSummary;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for when {@link EntrantAllEventsFragment} fetches pages of events
+ * without the user scrolling.
+ */
+public class EntrantAllEventsFragmentTest {
+
+    private static final int PAGE_COUNT = 5;
+
+    /**
+     * Builds the pages of a feed where only the last page holds an event named
+     * "Lantern Festival".
+     */
+    private static List<List<EventSummary>> feedWithMatchOnLastPage() {
+        List<List<EventSummary>> pages = new ArrayList<>();
+        long id = 1;
+        for (int p = 0; p < PAGE_COUNT; p++) {
+            List<EventSummary> page = new ArrayList<>();
+            for (int i = 0; i < EntrantAllEventsFragment.PAGE_SIZE; i++, id++) {
+                String name = p == PAGE_COUNT - 1 && i == 0 ? "Lantern Festival" : "Event " + id;
+                page.add(new EventSummary(new Event(id, name, null, null, null, null, null, "organizer", false)));
+            }
+            pages.add(page);
+        }
+        return pages;
+    }
+
+    /**
+     * Loads pages into an index the way the fragment does after a refresh,
+     * fetching further pages while {@link EntrantAllEventsFragment#shouldLoadAnotherPage}
+     * allows it.
+     *
+     * @return the number of pages loaded
+     */
+    private static int loadFeed(List<List<EventSummary>> pages, EventSearchIndex index, String query) {
+        int loaded = 0;
+        int autoPagesLoaded = 0;
+        boolean searching = query != null && !query.isEmpty();
+        do {
+            index.putAll(pages.get(loaded));
+            loaded++;
+            int shown = searching ? index.search(query).size() : index.size();
+            if (!EntrantAllEventsFragment.shouldLoadAnotherPage(loaded < pages.size(), searching, shown,
+                    autoPagesLoaded)) {
+                break;
+            }
+            autoPagesLoaded++;
+        } while (true);
+        return loaded;
+    }
+
+    /**
+     * Tests that a search finds an event on a page past the automatic page
+     * limit.
+     */
+    @Test
+    public void testSearchFindsMatchBeyondThirdPage() {
+        EventSearchIndex index = new EventSearchIndex();
+        int loaded = loadFeed(feedWithMatchOnLastPage(), index, "lantern");
+
+        assertEquals("Every page should be loaded while searching", PAGE_COUNT, loaded);
+        List<EventSummary> results = index.search("lantern");
+        assertEquals(1, results.size());
+        assertEquals("Lantern Festival", results.get(0).getEventName());
+    }
+
+    /**
+     * Tests that without a search, a short filtered list stops fetching after
+     * the automatic page limit.
+     */
+    @Test
+    public void testShortListStopsAtAutoPageLimit() {
+        assertTrue(EntrantAllEventsFragment.shouldLoadAnotherPage(true, false, 0, 0));
+        assertFalse("The limit should stop automatic fetches",
+                EntrantAllEventsFragment.shouldLoadAnotherPage(true, false, 0,
+                        EntrantAllEventsFragment.MAX_AUTO_PAGES));
+        assertFalse("A full list should not fetch by itself",
+                EntrantAllEventsFragment.shouldLoadAnotherPage(true, false, EntrantAllEventsFragment.PAGE_SIZE, 0));
+        assertFalse("Nothing is fetched after the last page",
+                EntrantAllEventsFragment.shouldLoadAnotherPage(false, true, 0, 0));
+    }
+}